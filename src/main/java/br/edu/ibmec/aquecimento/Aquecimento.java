@@ -0,0 +1,249 @@
+package br.edu.ibmec.aquecimento;
+
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
+import br.edu.ibmec.service.AlunoRepositoryService;
+import br.edu.ibmec.service.ArquivamentoInscricoesService;
+import br.edu.ibmec.service.CursoRepositoryService;
+import br.edu.ibmec.service.DisciplinaRepositoryService;
+import br.edu.ibmec.service.IndiceInscricoesService;
+import br.edu.ibmec.service.ProfessorRepositoryService;
+import br.edu.ibmec.service.TurmaRepositoryService;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Aquece a instância antes de ela receber tráfego: enche o pool de conexões até o máximo,
+ * espera o índice de inscrições, passa pelos serviços de referência (cursos, disciplinas,
+ * professores e turmas do período corrente), carrega no cache os alunos do período e
+ * faz {@code requisicoes} GETs sintéticos pela porta local, para que controllers, filtros,
+ * Jackson e os planos de consulta do Hibernate já estejam compilados.
+ *
+ * <p>Roda numa thread própria depois do {@code ApplicationReadyEvent}; até terminar, o
+ * {@link AquecimentoHealthIndicator} deixa {@code /actuator/health/readiness} fora de serviço.
+ * Falhas não impedem a instância de ficar pronta: o aquecimento é só uma otimização.</p>
+ */
+@Component
+@EnableConfigurationProperties(AquecimentoProperties.class)
+public class Aquecimento {
+
+    private static final Logger log = LoggerFactory.getLogger(Aquecimento.class);
+
+    /** Estado consultado pelo health indicator. */
+    public enum Estado { PENDENTE, EM_ANDAMENTO, CONCLUIDO }
+
+    @Autowired
+    private AquecimentoProperties properties;
+
+    @Autowired
+    private ObjectProvider<HikariDataSource> pools;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
+    @Autowired
+    private CursoRepositoryService cursoService;
+
+    @Autowired
+    private DisciplinaRepositoryService disciplinaService;
+
+    @Autowired
+    private ProfessorRepositoryService professorService;
+
+    @Autowired
+    private TurmaRepositoryService turmaService;
+
+    @Autowired
+    private AlunoRepositoryService alunoService;
+
+    @Autowired
+    private ArquivamentoInscricoesService arquivamento;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile Estado estado = Estado.PENDENTE;
+    private volatile long duracaoMs;
+    private volatile int requisicoesFeitas;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar(ApplicationReadyEvent evento) {
+        if (!properties.isHabilitado()) {
+            estado = Estado.CONCLUIDO;
+            return;
+        }
+        estado = Estado.EM_ANDAMENTO;
+        Integer porta = evento.getApplicationContext() instanceof WebServerApplicationContext web
+                ? web.getWebServer().getPort() : null;
+        Thread thread = new Thread(() -> aquecer(porta), "aquecimento");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public int getRequisicoesFeitas() {
+        return requisicoesFeitas;
+    }
+
+    private void aquecer(Integer porta) {
+        long inicio = System.nanoTime();
+        long limite = inicio + properties.getDuracaoMaxima().toNanos();
+        try {
+            encherPools();
+            aguardarIndice(limite);
+            List<String> caminhos = percorrerReferencias();
+            carregarAlunos(caminhos, limite);
+            if (porta != null && porta > 0) {
+                requisitar(porta, caminhos, limite);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Aquecimento interrompido; a instância fica pronta assim mesmo", e);
+        } finally {
+            duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            estado = Estado.CONCLUIDO;
+            log.info("Aquecimento concluído em {} ms ({} requisições sintéticas)", duracaoMs, requisicoesFeitas);
+        }
+    }
+
+    /** Abre de uma vez todas as conexões que o pool aceita, em vez de só o {@code minimum-idle}. */
+    private void encherPools() {
+        pools.orderedStream().forEach(pool -> {
+            List<Connection> abertas = new ArrayList<>();
+            try {
+                for (int i = 0; i < pool.getMaximumPoolSize(); i++) {
+                    abertas.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                log.warn("Pool {} aquecido só até {} conexões: {}", pool.getPoolName(), abertas.size(), e.getMessage());
+            } finally {
+                for (Connection conexao : abertas) {
+                    try {
+                        conexao.close();
+                    } catch (SQLException e) {
+                        log.debug("Falha ao devolver conexão ao pool", e);
+                    }
+                }
+            }
+        });
+    }
+
+    private void aguardarIndice(long limite) {
+        while (!indiceInscricoes.disponivel() && System.nanoTime() < limite) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Busca cada curso, disciplina, professor e turma do período pelos serviços e devolve os
+     * caminhos GET correspondentes, usados depois nas requisições sintéticas.
+     */
+    private List<String> percorrerReferencias() {
+        List<String> caminhos = new ArrayList<>(List.of("/api/curso", "/api/disciplina", "/api/professor"));
+        try {
+            for (CursoDTO curso : cursoService.listarCursos()) {
+                cursoService.buscarCurso(curso.getCodigo());
+                caminhos.add("/api/curso/" + curso.getCodigo());
+            }
+            for (DisciplinaDTO disciplina : disciplinaService.listarDisciplinas()) {
+                disciplinaService.buscarDisciplina(disciplina.getCodigo());
+                caminhos.add("/api/disciplina/" + disciplina.getCodigo());
+            }
+            for (ProfessorDTO professor : professorService.listarProfessores()) {
+                professorService.buscarProfessor(professor.getId());
+                caminhos.add("/api/professor/" + professor.getId());
+            }
+            int[] periodo = arquivamento.periodoAtual();
+            for (Object[] turma : leitura().execute(status -> turmaRepository.listarResumoDoPeriodo(periodo[0], periodo[1]))) {
+                String chave = turma[0] + "/" + periodo[0] + "/" + periodo[1];
+                turmaService.buscarTurma((Integer) turma[0], periodo[0], periodo[1]);
+                caminhos.add("/api/turma/" + chave);
+                caminhos.add("/api/turma/" + chave + "/matriculas");
+                caminhos.add("/api/inscricao/turma/" + chave);
+            }
+        } catch (DaoException e) {
+            // Removido entre a listagem e a busca; segue com o que já foi percorrido.
+            log.debug("Referência sumiu durante o aquecimento: {}", e.getMessage());
+        }
+        return caminhos;
+    }
+
+    /** Alunos inscritos no período corrente são os mais buscados; entram no cache antes do tráfego. */
+    private void carregarAlunos(List<String> caminhos, long limite) {
+        if (properties.getAlunos() <= 0) {
+            return;
+        }
+        int[] periodo = arquivamento.periodoAtual();
+        List<Integer> matriculas = leitura().execute(status ->
+                inscricaoRepository.listarMatriculasDoPeriodo(periodo[0], periodo[1], Limit.of(properties.getAlunos())));
+        for (int i = 0; i < matriculas.size() && System.nanoTime() < limite; i++) {
+            int matricula = matriculas.get(i);
+            try {
+                alunoService.buscarAluno(matricula);
+            } catch (DaoException e) {
+                continue;
+            }
+            if (i < 100) {
+                caminhos.add("/api/aluno/" + matricula);
+                caminhos.add("/api/inscricao/aluno/" + matricula);
+            }
+        }
+    }
+
+    private void requisitar(int porta, List<String> caminhos, long limite) {
+        RestClient cliente = RestClient.create("http://localhost:" + porta);
+        for (int i = 0; i < properties.getRequisicoes() && System.nanoTime() < limite; i++) {
+            String caminho = caminhos.get(i % caminhos.size());
+            try {
+                cliente.get().uri(caminho).retrieve().toBodilessEntity();
+            } catch (RestClientException e) {
+                // 404 e afins também exercitam o caminho; só importa ter passado por ele.
+            }
+            requisicoesFeitas = i + 1;
+        }
+    }
+
+    private TransactionTemplate leitura() {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        return leitura;
+    }
+}
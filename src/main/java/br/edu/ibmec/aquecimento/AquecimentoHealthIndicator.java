@@ -0,0 +1,29 @@
+package br.edu.ibmec.aquecimento;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Componente {@code aquecimento} do health: {@code OUT_OF_SERVICE} enquanto o {@link Aquecimento}
+ * não termina. Faz parte do grupo {@code readiness} ({@code /actuator/health/readiness}), que é o
+ * que o balanceador consulta; o {@code liveness} não depende dele.
+ */
+@Component
+public class AquecimentoHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private Aquecimento aquecimento;
+
+    @Override
+    public Health health() {
+        if (aquecimento.getEstado() != Aquecimento.Estado.CONCLUIDO) {
+            return Health.outOfService().withDetail("estado", aquecimento.getEstado()).build();
+        }
+        return Health.up()
+                .withDetail("duracaoMs", aquecimento.getDuracaoMs())
+                .withDetail("requisicoes", aquecimento.getRequisicoesFeitas())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package br.edu.ibmec.aquecimento;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Parâmetros do {@link Aquecimento} ({@code universidade.aquecimento.*}). */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "universidade.aquecimento")
+public class AquecimentoProperties {
+
+    /** Desligado, a instância fica pronta assim que sobe, como antes. */
+    private boolean habilitado = true;
+
+    /** Requisições GET sintéticas feitas pela porta local para compilar o caminho HTTP inteiro. */
+    private int requisicoes = 3_000;
+
+    /** Alunos do período corrente carregados no cache de alunos antes de ficar pronto. */
+    private int alunos = 10_000;
+
+    /** Teto do aquecimento; ao estourar, a instância fica pronta com o que já foi feito. */
+    private Duration duracaoMaxima = Duration.ofMinutes(2);
+}
@@ -0,0 +1,102 @@
+package br.edu.ibmec.concorrencia;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de concorrência AIMD guiado pela latência observada. A latência mínima
+ * recente serve de base e uma média móvel curta representa a latência atual:
+ * enquanto a média fica abaixo de {@code tolerancia × base} e o limite está sendo
+ * usado, ele cresce em torno de 1 por janela; quando passa, ele é multiplicado por
+ * {@code fatorReducao}, no máximo uma vez por janela.
+ *
+ * <p>Admissão e liberação não bloqueiam: o ajuste roda sob {@code tryLock} e, se outra
+ * thread já está ajustando, a amostra é descartada. O ajuste é estatístico e perder
+ * algumas amostras sob disputa só o deixa um pouco mais lento.</p>
+ */
+public class LimiteAdaptativo {
+
+    /** Peso com que a base acompanha latências acima dela, para reavaliar depois de mudanças de carga. */
+    private static final double DERIVA_BASE = 0.001;
+    private static final double PESO_MEDIA_CURTA = 0.1;
+
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+    private final double fatorReducao;
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final ReentrantLock ajuste = new ReentrantLock();
+
+    private double limite;
+    private double rttBaseNanos;
+    private double rttCurtoNanos;
+    private long ultimaReducaoNanos;
+    private volatile int limiteAtual;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, double tolerancia, double fatorReducao) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.fatorReducao = fatorReducao;
+        this.limite = inicial;
+        this.limiteAtual = inicial;
+    }
+
+    public boolean tentarAdquirir() {
+        while (true) {
+            int atual = emAndamento.get();
+            if (atual >= limiteAtual) {
+                return false;
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void liberar(long rttNanos) {
+        liberar(rttNanos, System.nanoTime());
+    }
+
+    /** Devolve a vaga sem usar a latência, que não reflete fila (respostas assíncronas, SSE). */
+    public void liberarSemAmostra() {
+        emAndamento.decrementAndGet();
+    }
+
+    void liberar(long rttNanos, long agora) {
+        int emUso = emAndamento.getAndDecrement();
+        if (ajuste.tryLock()) {
+            try {
+                ajustar(rttNanos, emUso, agora);
+            } finally {
+                ajuste.unlock();
+            }
+        }
+    }
+
+    public int getLimite() {
+        return limiteAtual;
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.get();
+    }
+
+    private void ajustar(long rttNanos, int emUso, long agora) {
+        if (rttBaseNanos == 0 || rttNanos < rttBaseNanos) {
+            rttBaseNanos = rttNanos;
+        } else {
+            rttBaseNanos += (rttNanos - rttBaseNanos) * DERIVA_BASE;
+        }
+        rttCurtoNanos = rttCurtoNanos == 0 ? rttNanos : rttCurtoNanos + (rttNanos - rttCurtoNanos) * PESO_MEDIA_CURTA;
+        if (rttCurtoNanos > rttBaseNanos * tolerancia) {
+            if (agora - ultimaReducaoNanos > rttCurtoNanos) {
+                limite = Math.max(minimo, limite * fatorReducao);
+                ultimaReducaoNanos = agora;
+            }
+        } else if (emUso * 2 >= limite) {
+            limite = Math.min(maximo, limite + 1.0 / limite);
+        }
+        limiteAtual = (int) limite;
+    }
+}
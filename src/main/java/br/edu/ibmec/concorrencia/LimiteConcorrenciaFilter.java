@@ -0,0 +1,103 @@
+package br.edu.ibmec.concorrencia;
+
+import br.edu.ibmec.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Controle de admissão na frente dos controllers de {@code /api}. Leituras (GET/HEAD)
+ * e escritas têm limites adaptativos separados; quem excede recebe 503 na hora, com
+ * {@code Retry-After}, em vez de esperar minutos por uma conexão do pool. Requisições
+ * que passam a assíncronas (SSE) devolvem a vaga ao fim do primeiro despacho, sem entrar
+ * na latência que guia o limite.
+ */
+@Component
+@ConditionalOnProperty(name = "universidade.concorrencia.habilitado", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(LimiteConcorrenciaProperties.class)
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    private final LimiteAdaptativo leituras;
+    private final LimiteAdaptativo escritas;
+    private final Counter rejeicoesLeitura;
+    private final Counter rejeicoesEscrita;
+    private final String retryAfter;
+    private final ObjectMapper objectMapper;
+
+    public LimiteConcorrenciaFilter(LimiteConcorrenciaProperties properties, MeterRegistry registry,
+                                    ObjectMapper objectMapper) {
+        this.leituras = criar(properties.getLeitura(), properties);
+        this.escritas = criar(properties.getEscrita(), properties);
+        this.rejeicoesLeitura = registrar("leitura", leituras, registry);
+        this.rejeicoesEscrita = registrar("escrita", escritas, registry);
+        this.retryAfter = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean leitura = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        LimiteAdaptativo limite = leitura ? leituras : escritas;
+        if (!limite.tentarAdquirir()) {
+            (leitura ? rejeicoesLeitura : rejeicoesEscrita).increment();
+            rejeitar(request, response);
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                limite.liberarSemAmostra();
+            } else {
+                limite.liberar(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    private void rejeitar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ApiError apiError = new ApiError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servidor sobrecarregado. Tente novamente em instantes.",
+                request.getRequestURI(),
+                "CONCORRENCIA_EXCEDIDA",
+                Map.of());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), apiError);
+    }
+
+    private static LimiteAdaptativo criar(LimiteConcorrenciaProperties.Limite limite, LimiteConcorrenciaProperties properties) {
+        return new LimiteAdaptativo(limite.getInicial(), limite.getMinimo(), limite.getMaximo(),
+                properties.getTolerancia(), properties.getFatorReducao());
+    }
+
+    private static Counter registrar(String tipo, LimiteAdaptativo limite, MeterRegistry registry) {
+        Gauge.builder("universidade.concorrencia.limite", limite, LimiteAdaptativo::getLimite)
+                .tag("tipo", tipo).register(registry);
+        Gauge.builder("universidade.concorrencia.em_andamento", limite, LimiteAdaptativo::getEmAndamento)
+                .tag("tipo", tipo).register(registry);
+        return Counter.builder("universidade.concorrencia.rejeicoes").tag("tipo", tipo).register(registry);
+    }
+}
@@ -0,0 +1,44 @@
+package br.edu.ibmec.concorrencia;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Parâmetros do {@link LimiteConcorrenciaFilter} ({@code universidade.concorrencia.*}). */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "universidade.concorrencia")
+public class LimiteConcorrenciaProperties {
+
+    private boolean habilitado = true;
+
+    private Limite leitura = new Limite(40, 4, 400);
+
+    /** Escritas seguram conexão por mais tempo; começam perto do tamanho do pool. */
+    private Limite escrita = new Limite(16, 2, 100);
+
+    /** Latência acima de {@code tolerancia × latência base} conta como sinal de fila. */
+    private double tolerancia = 2.0;
+
+    private double fatorReducao = 0.9;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    @Getter
+    @Setter
+    public static class Limite {
+        private int inicial;
+        private int minimo;
+        private int maximo;
+
+        public Limite() {
+        }
+
+        public Limite(int inicial, int minimo, int maximo) {
+            this.inicial = inicial;
+            this.minimo = minimo;
+            this.maximo = maximo;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package br.edu.ibmec.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Habilita tarefas {@code @Scheduled} (ex.: arquivamento de inscrições). */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
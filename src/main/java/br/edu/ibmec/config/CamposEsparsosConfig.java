@@ -0,0 +1,43 @@
+package br.edu.ibmec.config;
+
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.AlunoNaTurmaDTO;
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.dto.TurmaDTO;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Liga o filtro {@value #FILTRO} aos DTOs da API por mix-in, sem anotar os DTOs. O filtro
+ * padrão serializa tudo; só as respostas de endpoints com {@code ?fields=} trocam o filtro
+ * (ver {@code CamposEsparsosAdvice}).
+ */
+@Configuration
+public class CamposEsparsosConfig {
+
+    public static final String FILTRO = "campos";
+
+    @JsonFilter(FILTRO)
+    interface FiltroCampos {
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer camposEsparsos() {
+        return builder -> builder
+                .mixIn(AlunoDTO.class, FiltroCampos.class)
+                .mixIn(InscricaoDTO.class, FiltroCampos.class)
+                .mixIn(TurmaDTO.class, FiltroCampos.class)
+                .mixIn(CursoDTO.class, FiltroCampos.class)
+                .mixIn(DisciplinaDTO.class, FiltroCampos.class)
+                .mixIn(ProfessorDTO.class, FiltroCampos.class)
+                .mixIn(AlunoNaTurmaDTO.class, FiltroCampos.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
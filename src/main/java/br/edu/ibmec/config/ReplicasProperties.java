@@ -0,0 +1,33 @@
+package br.edu.ibmec.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Réplicas de leitura usadas pelo {@link RoteadorDataSource} ({@code universidade.datasource.*}). */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "universidade.datasource")
+public class ReplicasProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** Tempo que uma réplica que falhou fica fora da rotação antes de nova tentativa. */
+    private Duration quarentena = Duration.ofSeconds(10);
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+        /** Curto de propósito: réplica fora do ar deve cair rápido para o primário. */
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+}
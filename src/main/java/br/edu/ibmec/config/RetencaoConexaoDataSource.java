@@ -0,0 +1,120 @@
+package br.edu.ibmec.config;
+
+import br.edu.ibmec.rastreamento.Camada;
+import br.edu.ibmec.rastreamento.Rastreamento;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Mede quanto tempo cada conexão física fica fora do pool, do {@code getConnection} ao
+ * {@code close}, em {@code universidade.conexao.retencao{endpoint}}. O endpoint é o método
+ * HTTP mais o padrão do mapeamento ({@code POST /api/inscricao}); trabalho fora de
+ * requisição (agendamentos, aquecimento, grupo de commit) sai como {@value #FORA_DE_REQUISICAO}.
+ *
+ * <p>Fica entre o {@code LazyConnectionDataSourceProxy} e o {@link RoteadorDataSource}, então
+ * só conta conexões que chegaram a executar SQL. A espera pelo pool vira um trecho
+ * {@code CONEXAO} no rastro da requisição.</p>
+ *
+ * <p>O proxy JDK custa cerca de 0,1 µs por empréstimo numa leitura por chave, e o
+ * {@code LazyConnectionDataSourceProxy} cerca de 1 µs ({@code RetencaoConexaoBenchmark}).</p>
+ */
+public class RetencaoConexaoDataSource extends DelegatingDataSource {
+
+    static final String METRICA = "universidade.conexao.retencao";
+    static final String FORA_DE_REQUISICAO = "nenhum";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public RetencaoConexaoDataSource(DataSource alvo, MeterRegistry registry) {
+        super(alvo);
+        this.registry = registry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        return medir(obtainTargetDataSource().getConnection(), inicio);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long inicio = System.nanoTime();
+        return medir(obtainTargetDataSource().getConnection(username, password), inicio);
+    }
+
+    private Connection medir(Connection conexao, long inicio) {
+        Rastreamento.registrar(Camada.CONEXAO, "getConnection", inicio);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                new Retencao(conexao, System.nanoTime()));
+    }
+
+    private void registrar(long nanos) {
+        String endpoint = endpoint();
+        timers.computeIfAbsent(endpoint, chave -> Timer.builder(METRICA)
+                        .description("Tempo entre obter e devolver uma conexão ao pool")
+                        .tag("endpoint", chave)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String endpoint() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos)) {
+            return FORA_DE_REQUISICAO;
+        }
+        HttpServletRequest request = atributos.getRequest();
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Sem padrão (ex.: filtros antes do DispatcherServlet) o caminho bruto explodiria a cardinalidade.
+        return request.getMethod() + " " + (padrao != null ? padrao : "sem-mapeamento");
+    }
+
+    private final class Retencao implements InvocationHandler {
+
+        private final Connection alvo;
+        private final long inicio;
+        private boolean fechada;
+
+        private Retencao(Connection alvo, long inicio) {
+            this.alvo = alvo;
+            this.inicio = inicio;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    if (!fechada) {
+                        fechada = true;
+                        registrar(System.nanoTime() - inicio);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.edu.ibmec.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia transações {@code readOnly} para as réplicas (round-robin) e todo o resto para
+ * o primário. Uma réplica que falha ao entregar conexão fica em quarentena e a leitura
+ * segue no primário. Precisa estar atrás de um {@code LazyConnectionDataSourceProxy}
+ * para que a conexão só seja obtida depois que a transação marcou o readOnly.
+ *
+ * <p>Quem decide é a transação mais externa: um método {@code readOnly} chamado dentro de
+ * uma transação de escrita participa dela, herda o readOnly falso e usa a mesma conexão do
+ * primário, então a transação sempre lê o que escreveu. Leituras servidas de memória
+ * (caches, coalescência) são desviadas nesse caso pelos próprios serviços.</p>
+ */
+public class RoteadorDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RoteadorDataSource.class);
+
+    private final Alvo primario;
+    private final List<Alvo> replicas = new ArrayList<>();
+    private final long quarentenaNanos;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public RoteadorDataSource(DataSource primario, List<DataSource> replicas, long quarentenaNanos, MeterRegistry registry) {
+        this.primario = new Alvo("primario", primario, registry);
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Alvo("replica-" + i, replicas.get(i), registry));
+        }
+        this.quarentenaNanos = quarentenaNanos;
+        this.fallbacks = Counter.builder("universidade.datasource.fallback")
+                .description("Leituras enviadas ao primário por falta de réplica disponível")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primario.conectar();
+        }
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Alvo replica = replicas.get((inicio + i) % replicas.size());
+            long agora = System.nanoTime();
+            if (!replica.disponivel(agora)) {
+                continue;
+            }
+            try {
+                return replica.conectar();
+            } catch (SQLException e) {
+                replica.quarentenaAte = agora + quarentenaNanos;
+                log.warn("Réplica {} indisponível, usando primário: {}", replica.nome, e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return primario.conectar();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primario.dataSource.getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Alvo replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    private static final class Alvo {
+        private final String nome;
+        private final DataSource dataSource;
+        private final Counter sucessos;
+        private final Counter falhas;
+        private volatile long quarentenaAte;
+
+        private Alvo(String nome, DataSource dataSource, MeterRegistry registry) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+            this.sucessos = Counter.builder("universidade.datasource.conexoes")
+                    .tag("alvo", nome).tag("resultado", "sucesso").register(registry);
+            this.falhas = Counter.builder("universidade.datasource.conexoes")
+                    .tag("alvo", nome).tag("resultado", "falha").register(registry);
+            Gauge.builder("universidade.datasource.disponivel", this, alvo -> alvo.disponivel(System.nanoTime()) ? 1 : 0)
+                    .tag("alvo", nome).register(registry);
+        }
+
+        private boolean disponivel(long agora) {
+            return quarentenaAte == 0 || agora - quarentenaAte >= 0;
+        }
+
+        private Connection conectar() throws SQLException {
+            try {
+                Connection conexao = dataSource.getConnection();
+                sucessos.increment();
+                return conexao;
+            } catch (SQLException e) {
+                falhas.increment();
+                throw e;
+            }
+        }
+    }
+}
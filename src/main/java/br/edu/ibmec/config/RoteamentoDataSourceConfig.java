@@ -0,0 +1,70 @@
+package br.edu.ibmec.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Monta o datasource da aplicação: pool primário, roteamento leitura/escrita para as réplicas
+ * de {@code universidade.datasource.replicas} (sem réplicas, tudo vai ao primário), medição
+ * de retenção ({@link RetencaoConexaoDataSource}) e, por fora, um
+ * {@link LazyConnectionDataSourceProxy}.
+ *
+ * <p>O proxy preguiçoso é o que encurta a retenção: abrir a transação (autocommit, readOnly,
+ * isolamento) não tira conexão do pool; ela só é obtida no primeiro SQL. Validações de
+ * entrada e o que roda antes da primeira consulta não ocupam conexão, e uma requisição que
+ * falha nelas nem chega ao pool.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicasProperties.class)
+public class RoteamentoDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RoteadorDataSource roteadorDataSource(HikariDataSource dataSourcePrimario, ReplicasProperties properties,
+                                                 MeterRegistry registry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            replicas.add(criarPool(properties.getReplicas().get(i), "replica-" + i));
+        }
+        return new RoteadorDataSource(dataSourcePrimario, replicas, properties.getQuarentena().toNanos(), registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteadorDataSource roteadorDataSource, MeterRegistry registry) {
+        return new LazyConnectionDataSourceProxy(new RetencaoConexaoDataSource(roteadorDataSource, registry));
+    }
+
+    private static HikariDataSource criarPool(ReplicasProperties.Replica replica, String nome) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(replica.getUrl());
+        pool.setUsername(replica.getUsername());
+        pool.setPassword(replica.getPassword());
+        if (replica.getDriverClassName() != null) {
+            pool.setDriverClassName(replica.getDriverClassName());
+        }
+        pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+        pool.setMinimumIdle(replica.getMinimumIdle());
+        pool.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        pool.setReadOnly(true);
+        // a aplicação sobe mesmo com a réplica fora do ar; o roteador cai para o primário
+        pool.setInitializationFailTimeout(-1);
+        pool.setPoolName(nome);
+        return pool;
+    }
+}
@@ -0,0 +1,19 @@
+package br.edu.ibmec.config;
+
+import br.edu.ibmec.json.LinhasJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra o conversor das listagens em linhas; o Spring Boot põe conversores declarados
+ * como bean antes dos padrões, então ele atende {@code LinhasJson} antes do Jackson.
+ */
+@Configuration
+public class SerializacaoConfig {
+
+    @Bean
+    public LinhasJsonHttpMessageConverter linhasJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new LinhasJsonHttpMessageConverter(objectMapper.getFactory());
+    }
+}
@@ -1,9 +1,16 @@
 package br.edu.ibmec.controller;
 
 import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.ItemLoteDTO;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.json.LinhasJson;
 import br.edu.ibmec.service.AlunoRepositoryService;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
@@ -17,6 +24,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -28,13 +36,24 @@ public class AlunoController {
     private AlunoRepositoryService alunoService;
 
     @GetMapping
-    public ResponseEntity<List<AlunoDTO>> listarAlunos() {
-        return ResponseEntity.ok(alunoService.listarAlunos());
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = AlunoDTO.class))))
+    public ResponseEntity<LinhasJson> listarAlunos(@RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(alunoService.listarAlunos(Campos.de(fields, AlunoDTO.class)));
     }
 
+    /** Vários alunos numa chamada, ex.: {@code ?matriculas=2024001,2024002}, na ordem pedida. */
+    @CamposEsparsos
+    @GetMapping(params = "matriculas")
+    public ResponseEntity<List<ItemLoteDTO<AlunoDTO>>> buscarAlunos(@RequestParam List<Integer> matriculas,
+                                                                    @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(alunoService.buscarAlunos(matriculas));
+    }
+
+    @CamposEsparsos
     @GetMapping("/{matricula}")
-    public ResponseEntity<AlunoDTO> buscarAluno(@PathVariable int matricula) throws DaoException {
-        return ResponseEntity.ok(alunoService.buscarAluno(matricula));
+    public ResponseEntity<AlunoDTO> buscarAluno(@PathVariable int matricula,
+                                                @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException, DaoException {
+        return ResponseEntity.ok(alunoService.buscarAluno(matricula, Campos.de(fields, AlunoDTO.class)));
     }
 
     @PostMapping
@@ -0,0 +1,34 @@
+package br.edu.ibmec.controller;
+
+import br.edu.ibmec.dto.EstatisticasBuscaDTO;
+import br.edu.ibmec.dto.ResultadoBuscaDTO;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.service.BuscaService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/busca")
+@Tag(name = "Busca")
+public class BuscaController {
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @GetMapping
+    public ResponseEntity<List<ResultadoBuscaDTO>> buscar(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "10") int limite) throws ServiceException {
+        return ResponseEntity.ok(buscaService.buscar(q, limite));
+    }
+
+    @GetMapping("/estatisticas")
+    public ResponseEntity<EstatisticasBuscaDTO> estatisticas() {
+        return ResponseEntity.ok(buscaService.estatisticas());
+    }
+}
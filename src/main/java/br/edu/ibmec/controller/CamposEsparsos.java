@@ -0,0 +1,18 @@
+package br.edu.ibmec.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca os endpoints cuja resposta o {@link CamposEsparsosAdvice} filtra por {@code ?fields=}.
+ * O parâmetro {@code fields} desses métodos existe para o binding e para a documentação
+ * OpenAPI; a validação e o filtro ficam no advice, então o método pode não usá-lo.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CamposEsparsos {
+}
@@ -0,0 +1,103 @@
+package br.edu.ibmec.controller;
+
+import br.edu.ibmec.config.CamposEsparsosConfig;
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.ItemLoteDTO;
+import br.edu.ibmec.json.LinhasJson;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Serializa só os campos de {@code ?fields=} nos endpoints marcados com
+ * {@link CamposEsparsos}. Os nomes são conferidos com {@link Campos#de} contra o DTO do tipo
+ * de retorno no {@code preHandle}, antes do controller (nome desconhecido dá 400 sem
+ * consultar nada), e o resultado fica na requisição para a serialização. Os demais endpoints
+ * e as respostas de erro não passam por aqui, nem as listagens em {@code LinhasJson}, cujos
+ * controllers validam e entregam os campos ao serviço, que os aplica ao escrever as linhas.
+ */
+@RestControllerAdvice
+public class CamposEsparsosAdvice extends AbstractMappingJacksonResponseBodyAdvice
+        implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final String ATRIBUTO = CamposEsparsosAdvice.class.getName() + ".campos";
+
+    /** DTO filtrado por método; vazio se o método não tem {@link CamposEsparsos} ou responde {@code LinhasJson}. */
+    private final Map<Method, Optional<Class<?>>> dtoPorMetodo = new ConcurrentHashMap<>();
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (handler instanceof HandlerMethod metodo) {
+            Optional<Class<?>> dto = dto(metodo.getMethod());
+            if (dto.isPresent()) {
+                request.setAttribute(ATRIBUTO, Campos.de(request.getParameter(Campos.PARAMETRO), dto.get()));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Method metodo = returnType.getMethod();
+        return super.supports(returnType, converterType) && metodo != null && dto(metodo).isPresent();
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servlet)
+                || !(servlet.getServletRequest().getAttribute(ATRIBUTO) instanceof Campos campos)
+                || campos.nomes() == null) {
+            return;
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(CamposEsparsosConfig.FILTRO, SimpleBeanPropertyFilter.filterOutAllExcept(campos.nomes())));
+    }
+
+    private Optional<Class<?>> dto(Method metodo) {
+        return dtoPorMetodo.computeIfAbsent(metodo, CamposEsparsosAdvice::resolverDto);
+    }
+
+    /** {@code ResponseEntity<X>}, {@code List<X>} e {@code ItemLoteDTO<X>} são desembrulhados até o DTO. */
+    private static Optional<Class<?>> resolverDto(Method metodo) {
+        if (!metodo.isAnnotationPresent(CamposEsparsos.class)) {
+            return Optional.empty();
+        }
+        ResolvableType tipo = ResolvableType.forMethodReturnType(metodo);
+        while (HttpEntity.class.isAssignableFrom(tipo.toClass()) || Collection.class.isAssignableFrom(tipo.toClass())
+                || ItemLoteDTO.class.equals(tipo.toClass())) {
+            tipo = HttpEntity.class.isAssignableFrom(tipo.toClass()) ? tipo.as(HttpEntity.class).getGeneric(0)
+                    : Collection.class.isAssignableFrom(tipo.toClass()) ? tipo.asCollection().getGeneric(0)
+                    : tipo.getGeneric(0);
+        }
+        Class<?> dto = tipo.resolve();
+        return dto == null || LinhasJson.class.equals(dto) ? Optional.empty() : Optional.of(dto);
+    }
+}
@@ -0,0 +1,33 @@
+package br.edu.ibmec.controller;
+
+import br.edu.ibmec.dto.RequisicaoLentaDTO;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.rastreamento.AnelRastros;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/debug")
+@Tag(name = "Depuração")
+@ConditionalOnProperty(name = "universidade.rastreamento.habilitado", havingValue = "true")
+public class DepuracaoController {
+
+    @Autowired
+    private AnelRastros anelRastros;
+
+    /** As {@code n} requisições rastreadas mais lentas entre as últimas guardadas, com trechos e SQL. */
+    @GetMapping("/lentos")
+    public ResponseEntity<List<RequisicaoLentaDTO>> lentos(@RequestParam(defaultValue = "20") int n) throws ServiceException {
+        if (n < 1 || n > anelRastros.capacidade()) {
+            throw new ServiceException("n deve estar entre 1 e " + anelRastros.capacidade());
+        }
+        return ResponseEntity.ok(anelRastros.maisLentas(n));
+    }
+}
@@ -1,12 +1,17 @@
 package br.edu.ibmec.controller;
 
+import br.edu.ibmec.dto.Campos;
 import br.edu.ibmec.dto.DisciplinaDTO;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.json.LinhasJson;
 import br.edu.ibmec.service.DisciplinaRepositoryService;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -28,12 +34,15 @@ public class DisciplinaController {
     private DisciplinaRepositoryService disciplinaService;
 
     @GetMapping
-    public ResponseEntity<List<DisciplinaDTO>> listarDisciplinas() {
-        return ResponseEntity.ok(disciplinaService.listarDisciplinas());
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = DisciplinaDTO.class))))
+    public ResponseEntity<LinhasJson> listarDisciplinas(@RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(disciplinaService.listarDisciplinas(Campos.de(fields, DisciplinaDTO.class)));
     }
 
+    @CamposEsparsos
     @GetMapping("/{codigo}")
-    public ResponseEntity<DisciplinaDTO> buscarDisciplina(@PathVariable int codigo) throws DaoException {
+    public ResponseEntity<DisciplinaDTO> buscarDisciplina(@PathVariable int codigo,
+                                                          @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException, DaoException {
         return ResponseEntity.ok(disciplinaService.buscarDisciplina(codigo));
     }
 
@@ -0,0 +1,105 @@
+package br.edu.ibmec.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Envia um arquivo imutável com ETag forte, {@code If-None-Match} (304) e um único intervalo
+ * de {@code Range} (206), para retomar downloads interrompidos.
+ *
+ * <p>Com o conector NIO do Tomcat o corpo vai por sendfile: o Tomcat faz
+ * {@code FileChannel.transferTo} do arquivo para o socket depois que o servlet retorna, sem
+ * passar os bytes pela JVM e sem prender a thread de requisição. Onde não há sendfile
+ * (HTTP/2, TLS sem suporte, testes) o próprio {@code transferTo} copia para a saída da
+ * resposta. O arquivo precisa continuar existindo com o mesmo conteúdo até o fim do envio.</p>
+ */
+final class EnvioArquivo {
+
+    static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    private EnvioArquivo() {
+    }
+
+    static void enviar(Path arquivo, String etag, String tipo, String nomeDownload,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            long inicio = 0;
+            long fim = tamanho - 1;
+            HttpRange intervalo = intervalo(request, etag);
+            if (intervalo != null) {
+                inicio = intervalo.getRangeStart(tamanho);
+                fim = intervalo.getRangeEnd(tamanho);
+                if (inicio >= tamanho || inicio > fim) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+            }
+            long bytes = fim - inicio + 1;
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            // Pode guardar, mas revalida: com o ETag a revalidação é um 304 sem corpo.
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(nomeDownload).build().toString());
+            response.setContentType(tipo);
+            response.setContentLengthLong(bytes);
+            if ("HEAD".equals(request.getMethod()) || bytes == 0) {
+                return;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))) {
+                request.setAttribute(SENDFILE_ARQUIVO, arquivo.toRealPath().toString());
+                request.setAttribute(SENDFILE_INICIO, inicio);
+                request.setAttribute(SENDFILE_FIM, fim + 1);
+                return;
+            }
+            WritableByteChannel saida = Channels.newChannel(response.getOutputStream());
+            while (bytes > 0) {
+                long enviados = canal.transferTo(inicio, bytes, saida);
+                if (enviados <= 0) {
+                    throw new EOFException("Arquivo menor que o esperado: " + arquivo);
+                }
+                inicio += enviados;
+                bytes -= enviados;
+            }
+        }
+    }
+
+    /** O intervalo pedido, ou nulo para o arquivo inteiro (sem Range, vários intervalos, Range inválido ou If-Range velho). */
+    private static HttpRange intervalo(HttpServletRequest request, String etag) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> intervalos = HttpRange.parseRanges(range);
+            return intervalos.size() == 1 ? intervalos.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.edu.ibmec.controller;
+
+import br.edu.ibmec.dto.ArquivoColunarDTO;
+import br.edu.ibmec.dto.InscricaoHistoricaDTO;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.service.HistoricoColunarService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/historico")
+@Tag(name = "Histórico")
+public class HistoricoController {
+
+    @Autowired
+    private HistoricoColunarService historicoService;
+
+    @PostMapping("/{ano}/{semestre}")
+    public ResponseEntity<ArquivoColunarDTO> exportar(@PathVariable int ano,
+                                                      @PathVariable int semestre) throws ServiceException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(historicoService.exportar(ano, semestre));
+    }
+
+    @GetMapping("/{ano}/{semestre}/turma/{codigo}")
+    public ResponseEntity<List<InscricaoHistoricaDTO>> inscritosNaTurma(@PathVariable int ano,
+                                                                        @PathVariable int semestre,
+                                                                        @PathVariable int codigo) throws DaoException {
+        return ResponseEntity.ok(historicoService.inscritosNaTurma(ano, semestre, codigo));
+    }
+
+    @GetMapping("/{ano}/{semestre}/aluno/{matricula}")
+    public ResponseEntity<List<InscricaoHistoricaDTO>> turmasDoAluno(@PathVariable int ano,
+                                                                     @PathVariable int semestre,
+                                                                     @PathVariable int matricula) throws DaoException {
+        return ResponseEntity.ok(historicoService.turmasDoAluno(ano, semestre, matricula));
+    }
+}
@@ -1,12 +1,20 @@
 package br.edu.ibmec.controller;
 
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.EstatisticasIndiceInscricoesDTO;
 import br.edu.ibmec.dto.InscricaoDTO;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.json.LinhasJson;
+import br.edu.ibmec.service.GrupoCommitInscricoes;
+import br.edu.ibmec.service.IndiceInscricoesService;
 import br.edu.ibmec.service.InscricaoRepositoryService;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +24,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -26,34 +35,57 @@ public class InscricaoController {
     @Autowired
     private InscricaoRepositoryService inscricaoService;
 
+    @Autowired(required = false)
+    private GrupoCommitInscricoes grupoCommit;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
     @GetMapping
-    public ResponseEntity<List<InscricaoDTO>> listarInscricoes() {
-        return ResponseEntity.ok(inscricaoService.listarInscricoes());
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = InscricaoDTO.class))))
+    public ResponseEntity<LinhasJson> listarInscricoes(@RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(inscricaoService.listarInscricoes(Campos.de(fields, InscricaoDTO.class)));
     }
 
+    @CamposEsparsos
     @GetMapping("/{matricula}/{codigo}/{ano}/{semestre}")
     public ResponseEntity<InscricaoDTO> buscarInscricao(@PathVariable int matricula,
                                                         @PathVariable int codigo,
                                                         @PathVariable int ano,
-                                                        @PathVariable int semestre) throws DaoException {
+                                                        @PathVariable int semestre,
+                                                        @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException, DaoException {
         return ResponseEntity.ok(inscricaoService.buscarInscricao(matricula, codigo, ano, semestre));
     }
 
+    /** Tamanho e uso de memória do índice de inscrições em memória. */
+    @GetMapping("/indice")
+    public ResponseEntity<EstatisticasIndiceInscricoesDTO> estatisticasIndice() {
+        return ResponseEntity.ok(indiceInscricoes.estatisticas());
+    }
+
     @GetMapping("/aluno/{matricula}")
-    public ResponseEntity<List<InscricaoDTO>> listarPorAluno(@PathVariable int matricula) {
-        return ResponseEntity.ok(inscricaoService.listarInscricoesPorAluno(matricula));
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = InscricaoDTO.class))))
+    public ResponseEntity<LinhasJson> listarPorAluno(@PathVariable int matricula,
+                                                             @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(inscricaoService.listarInscricoesPorAluno(matricula, Campos.de(fields, InscricaoDTO.class)));
     }
 
     @GetMapping("/turma/{codigo}/{ano}/{semestre}")
-    public ResponseEntity<List<InscricaoDTO>> listarPorTurma(@PathVariable int codigo,
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = InscricaoDTO.class))))
+    public ResponseEntity<LinhasJson> listarPorTurma(@PathVariable int codigo,
                                                              @PathVariable int ano,
-                                                             @PathVariable int semestre) {
-        return ResponseEntity.ok(inscricaoService.listarInscricoesPorTurma(codigo, ano, semestre));
+                                                             @PathVariable int semestre,
+                                                             @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(inscricaoService.listarInscricoesPorTurma(codigo, ano, semestre, Campos.de(fields, InscricaoDTO.class)));
     }
 
     @PostMapping
     public ResponseEntity<String> cadastrarInscricao(@Valid @RequestBody InscricaoDTO inscricaoDTO) throws ServiceException, DaoException {
-        inscricaoService.cadastrarInscricao(inscricaoDTO);
+        if (grupoCommit != null) {
+            grupoCommit.cadastrar(inscricaoDTO);
+        } else {
+            inscricaoService.cadastrarInscricao(inscricaoDTO);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body("Inscrição cadastrada com sucesso");
     }
 
@@ -0,0 +1,27 @@
+package br.edu.ibmec.controller;
+
+import br.edu.ibmec.dto.PaginaMudancasDTO;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.service.MudancaService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/mudancas")
+@Tag(name = "Mudanças")
+public class MudancaController {
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @GetMapping
+    public ResponseEntity<PaginaMudancasDTO> listarMudancas(@RequestParam(defaultValue = "0") long desde,
+                                                            @RequestParam(defaultValue = "100") int limite) throws ServiceException {
+        return ResponseEntity.ok(mudancaService.listarDesde(desde, limite));
+    }
+}
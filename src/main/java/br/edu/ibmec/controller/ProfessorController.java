@@ -1,9 +1,16 @@
 package br.edu.ibmec.controller;
 
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.ItemLoteDTO;
 import br.edu.ibmec.dto.ProfessorDTO;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.json.LinhasJson;
 import br.edu.ibmec.service.ProfessorRepositoryService;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
@@ -17,6 +24,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -28,12 +36,23 @@ public class ProfessorController {
     private ProfessorRepositoryService professorService;
 
     @GetMapping
-    public ResponseEntity<List<ProfessorDTO>> listarProfessores() {
-        return ResponseEntity.ok(professorService.listarProfessores());
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProfessorDTO.class))))
+    public ResponseEntity<LinhasJson> listarProfessores(@RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(professorService.listarProfessores(Campos.de(fields, ProfessorDTO.class)));
     }
 
+    /** Vários professores numa chamada, ex.: {@code ?ids=1,2,3}, na ordem pedida. */
+    @CamposEsparsos
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ItemLoteDTO<ProfessorDTO>>> buscarProfessores(@RequestParam List<Long> ids,
+                                                                             @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(professorService.buscarProfessores(ids));
+    }
+
+    @CamposEsparsos
     @GetMapping("/{id}")
-    public ResponseEntity<ProfessorDTO> buscarProfessor(@PathVariable Long id) throws DaoException {
+    public ResponseEntity<ProfessorDTO> buscarProfessor(@PathVariable Long id,
+                                                        @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException, DaoException {
         return ResponseEntity.ok(professorService.buscarProfessor(id));
     }
 
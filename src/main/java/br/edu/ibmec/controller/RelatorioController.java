@@ -0,0 +1,52 @@
+package br.edu.ibmec.controller;
+
+import br.edu.ibmec.dto.GeracaoRelatoriosDTO;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.service.RelatoriosService;
+import br.edu.ibmec.service.relatorio.ArquivoRelatorio;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/relatorios")
+@Tag(name = "Relatórios")
+public class RelatorioController {
+
+    private static final String GZIP = "application/gzip";
+
+    @Autowired
+    private RelatoriosService relatoriosService;
+
+    @PostMapping("/{ano}/{semestre}")
+    public ResponseEntity<GeracaoRelatoriosDTO> gerar(@PathVariable int ano,
+                                                      @PathVariable int semestre) throws ServiceException {
+        return ResponseEntity.ok(relatoriosService.gerar(ano, semestre));
+    }
+
+    @GetMapping("/{ano}/{semestre}/turma/{codigo}")
+    public void turma(@PathVariable int ano, @PathVariable int semestre, @PathVariable int codigo,
+                      HttpServletRequest request, HttpServletResponse response) throws DaoException, IOException {
+        Path arquivo = relatoriosService.relatorioDaTurma(ano, semestre, codigo);
+        EnvioArquivo.enviar(arquivo, ArquivoRelatorio.etag(arquivo), GZIP,
+                "turma-" + codigo + "-" + ano + "-" + semestre + ".csv.gz", request, response);
+    }
+
+    @GetMapping("/{ano}/{semestre}/curso/{codigo}")
+    public void curso(@PathVariable int ano, @PathVariable int semestre, @PathVariable int codigo,
+                      HttpServletRequest request, HttpServletResponse response) throws DaoException, IOException {
+        Path arquivo = relatoriosService.relatorioDoCurso(ano, semestre, codigo);
+        EnvioArquivo.enviar(arquivo, ArquivoRelatorio.etag(arquivo), GZIP,
+                "curso-" + codigo + "-" + ano + "-" + semestre + ".csv.gz", request, response);
+    }
+}
@@ -1,14 +1,27 @@
 package br.edu.ibmec.controller;
 
+import br.edu.ibmec.dto.AlunoNaTurmaDTO;
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.ItemLoteDTO;
 import br.edu.ibmec.dto.TurmaDTO;
+import br.edu.ibmec.entity.TurmaId;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.json.LinhasJson;
+import br.edu.ibmec.service.IndiceInscricoesService;
+import br.edu.ibmec.service.InscricoesAoVivoService;
 import br.edu.ibmec.service.TurmaRepositoryService;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.ArrayList;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,7 +30,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/turma")
@@ -27,18 +42,66 @@ public class TurmaController {
     @Autowired
     private TurmaRepositoryService turmaService;
 
+    @Autowired
+    private InscricoesAoVivoService inscricoesAoVivo;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
     @GetMapping
-    public ResponseEntity<List<TurmaDTO>> listarTurmas() {
-        return ResponseEntity.ok(turmaService.listarTurmas());
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = TurmaDTO.class))))
+    public ResponseEntity<LinhasJson> listarTurmas(@RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(turmaService.listarTurmas(Campos.de(fields, TurmaDTO.class)));
     }
 
+    /** Várias turmas numa chamada, ex.: {@code ?turmas=101/2025/1,102/2025/1}, na ordem pedida. */
+    @CamposEsparsos
+    @GetMapping(params = "turmas")
+    public ResponseEntity<List<ItemLoteDTO<TurmaDTO>>> buscarTurmas(@RequestParam String turmas,
+                                                                    @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException {
+        return ResponseEntity.ok(turmaService.buscarTurmas(lerTurmas(turmas)));
+    }
+
+    @CamposEsparsos
     @GetMapping("/{codigo}/{ano}/{semestre}")
     public ResponseEntity<TurmaDTO> buscarTurma(@PathVariable int codigo,
                                                 @PathVariable int ano,
-                                                @PathVariable int semestre) throws DaoException {
+                                                @PathVariable int semestre,
+                                                @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException, DaoException {
         return ResponseEntity.ok(turmaService.buscarTurma(codigo, ano, semestre));
     }
 
+    /** Matrículas inscritas, em ordem crescente, lidas do índice de inscrições em memória. */
+    @GetMapping("/{codigo}/{ano}/{semestre}/matriculas")
+    public ResponseEntity<int[]> listarMatriculas(@PathVariable int codigo,
+                                                  @PathVariable int ano,
+                                                  @PathVariable int semestre) throws DaoException {
+        return ResponseEntity.ok(indiceInscricoes.matriculasDaTurma(codigo, ano, semestre));
+    }
+
+    /** Lista de alunos da turma com nome e curso, por matrícula, de uma tabela mantida a cada escrita. */
+    @GetMapping("/{codigo}/{ano}/{semestre}/alunos")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = AlunoNaTurmaDTO.class))))
+    public ResponseEntity<LinhasJson> listarAlunos(@PathVariable int codigo,
+                                                   @PathVariable int ano,
+                                                   @PathVariable int semestre,
+                                                   @RequestParam(name = Campos.PARAMETRO, required = false) String fields) throws ServiceException, DaoException {
+        return ResponseEntity.ok(turmaService.listarAlunos(codigo, ano, semestre, Campos.de(fields, AlunoNaTurmaDTO.class)));
+    }
+
+    /** Alunos inscritos em todas as turmas, ex.: {@code ?turmas=101/2025/1,102/2025/1}. */
+    @GetMapping("/intersecao")
+    public ResponseEntity<int[]> intersecao(@RequestParam String turmas) throws ServiceException, DaoException {
+        return ResponseEntity.ok(indiceInscricoes.intersecao(lerTurmas(turmas)));
+    }
+
+    @GetMapping(value = "/{codigo}/{ano}/{semestre}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharInscricoes(@PathVariable int codigo,
+                                           @PathVariable int ano,
+                                           @PathVariable int semestre) throws DaoException {
+        return inscricoesAoVivo.assinar(codigo, ano, semestre);
+    }
+
     @PostMapping
     public ResponseEntity<String> cadastrarTurma(@Valid @RequestBody TurmaDTO turmaDTO) throws ServiceException, DaoException {
         turmaService.cadastrarTurma(turmaDTO);
@@ -58,4 +121,20 @@ public class TurmaController {
         turmaService.removerTurma(codigo, ano, semestre);
         return ResponseEntity.ok("Turma removida com sucesso");
     }
+
+    private static List<TurmaId> lerTurmas(String turmas) throws ServiceException {
+        List<TurmaId> chaves = new ArrayList<>();
+        for (String turma : turmas.split(",")) {
+            String[] partes = turma.trim().split("/");
+            if (partes.length != 3) {
+                throw new ServiceException("Turma deve ser informada como codigo/ano/semestre: " + turma);
+            }
+            try {
+                chaves.add(new TurmaId(Integer.parseInt(partes[0]), Integer.parseInt(partes[1]), Integer.parseInt(partes[2])));
+            } catch (NumberFormatException e) {
+                throw new ServiceException("Turma deve ser informada como codigo/ano/semestre: " + turma);
+            }
+        }
+        return chaves;
+    }
 }
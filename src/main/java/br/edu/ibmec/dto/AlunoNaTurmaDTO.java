@@ -0,0 +1,20 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Aluno na lista de uma turma ({@code GET /api/turma/{codigo}/{ano}/{semestre}/alunos}). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlunoNaTurmaDTO {
+
+    private int matricula;
+
+    private String nome;
+
+    private String cursoNome;
+}
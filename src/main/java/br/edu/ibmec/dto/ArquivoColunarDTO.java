@@ -0,0 +1,23 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArquivoColunarDTO {
+
+    private int ano;
+
+    private int semestre;
+
+    private int inscricoes;
+
+    private long bytes;
+
+    private String arquivo;
+}
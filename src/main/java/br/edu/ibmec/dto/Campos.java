@@ -0,0 +1,69 @@
+package br.edu.ibmec.dto;
+
+import br.edu.ibmec.exception.ServiceException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Campos pedidos em {@code ?fields=a,b,c}. Os serviços consultam {@link #inclui(String)}
+ * para não carregar associações que não vão aparecer na resposta; a serialização só
+ * escreve esses campos (ver {@code CamposEsparsosAdvice}). Sem o parâmetro, todos.
+ */
+public final class Campos {
+
+    public static final String PARAMETRO = "fields";
+    public static final Campos TODOS = new Campos(null);
+
+    private static final ClassValue<Set<String>> NOMES_POR_DTO = new ClassValue<>() {
+        @Override
+        protected Set<String> computeValue(Class<?> dto) {
+            return Arrays.stream(dto.getDeclaredFields())
+                    .filter(campo -> !Modifier.isStatic(campo.getModifiers()))
+                    .map(Field::getName)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    };
+
+    private final Set<String> nomes;
+
+    private Campos(Set<String> nomes) {
+        this.nomes = nomes;
+    }
+
+    /** Lê o parâmetro e confere os nomes contra os atributos do DTO da resposta. */
+    public static Campos de(String fields, Class<?> dto) throws ServiceException {
+        if (fields == null || fields.isBlank()) {
+            return TODOS;
+        }
+        Set<String> validos = NOMES_POR_DTO.get(dto);
+        Set<String> nomes = new LinkedHashSet<>();
+        for (String nome : fields.split(",")) {
+            String campo = nome.trim();
+            if (campo.isEmpty()) {
+                continue;
+            }
+            if (!validos.contains(campo)) {
+                throw new ServiceException("Campo desconhecido em fields: " + campo);
+            }
+            nomes.add(campo);
+        }
+        return nomes.isEmpty() ? TODOS : new Campos(Set.copyOf(nomes));
+    }
+
+    public boolean inclui(String campo) {
+        return nomes == null || nomes.contains(campo);
+    }
+
+    public boolean incluiAlgum(String... campos) {
+        return nomes == null || Arrays.stream(campos).anyMatch(nomes::contains);
+    }
+
+    /** Nomes pedidos, ou {@code null} se são todos. */
+    public Set<String> nomes() {
+        return nomes;
+    }
+}
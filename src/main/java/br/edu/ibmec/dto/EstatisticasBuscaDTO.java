@@ -0,0 +1,23 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstatisticasBuscaDTO {
+
+    private int documentos;
+
+    private int removidos;
+
+    private int trigramas;
+
+    private long postings;
+
+    private long bytesEstimados;
+}
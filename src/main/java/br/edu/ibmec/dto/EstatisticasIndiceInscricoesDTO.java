@@ -0,0 +1,23 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstatisticasIndiceInscricoesDTO {
+
+    private boolean disponivel;
+
+    private int turmas;
+
+    private int alunos;
+
+    private long inscricoes;
+
+    private long bytesEstimados;
+}
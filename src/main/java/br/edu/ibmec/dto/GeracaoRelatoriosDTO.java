@@ -0,0 +1,25 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GeracaoRelatoriosDTO {
+
+    private int ano;
+
+    private int semestre;
+
+    private int gravados;
+
+    private int removidos;
+
+    private int inalterados;
+
+    private long milissegundos;
+}
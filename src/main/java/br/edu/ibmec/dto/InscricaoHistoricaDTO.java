@@ -0,0 +1,29 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InscricaoHistoricaDTO {
+
+    private long id;
+
+    private int alunoMatricula;
+
+    private String alunoNome;
+
+    private int turmaCodigo;
+
+    private String disciplinaNome;
+
+    private String professorNome;
+
+    private int ano;
+
+    private int semestre;
+}
@@ -0,0 +1,20 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Um item da resposta de uma busca em lote, na posição em que a chave foi pedida. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemLoteDTO<T> {
+
+    private String chave;
+
+    private boolean encontrado;
+
+    private T valor;
+}
@@ -0,0 +1,28 @@
+package br.edu.ibmec.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MudancaDTO {
+
+    private long seq;
+
+    private String entidade;
+
+    private String chave;
+
+    private String operacao;
+
+    private Instant registradaEm;
+
+    @JsonRawValue
+    private String dados;
+}
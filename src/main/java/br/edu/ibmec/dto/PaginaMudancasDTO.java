@@ -0,0 +1,22 @@
+package br.edu.ibmec.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaMudancasDTO {
+
+    private List<MudancaDTO> mudancas;
+
+    /** Valor a enviar em {@code desde} na próxima chamada. */
+    private long proximoCursor;
+
+    /** Indica que a página veio cheia e provavelmente há mais mudanças. */
+    private boolean temMais;
+}
@@ -0,0 +1,40 @@
+package br.edu.ibmec.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequisicaoLentaDTO {
+
+    private String metodo;
+
+    private String caminho;
+
+    /** Padrão do mapeamento ({@code /api/aluno/{matricula}}); nulo se nenhum controller atendeu. */
+    private String endpoint;
+
+    private int status;
+
+    private Instant inicio;
+
+    private double duracaoMs;
+
+    /** Tempo exclusivo por camada (sem os trechos internos); OUTROS é o que ficou fora de qualquer trecho. */
+    private Map<String, Double> tempoPorCamadaMs;
+
+    private List<TrechoDTO> trechos;
+
+    private int trechosDescartados;
+
+    private int sqlTotal;
+
+    private List<String> sql;
+}
@@ -0,0 +1,21 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoBuscaDTO {
+
+    private String tipo;
+
+    private long id;
+
+    private String nome;
+
+    private int pontuacao;
+}
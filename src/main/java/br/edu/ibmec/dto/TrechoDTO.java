@@ -0,0 +1,25 @@
+package br.edu.ibmec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrechoDTO {
+
+    private String camada;
+
+    private String nome;
+
+    /** 0 para trechos de primeiro nível; filhos somam 1 ao do trecho que os contém. */
+    private int profundidade;
+
+    /** Em relação ao início da requisição. */
+    private double inicioMs;
+
+    private double duracaoMs;
+}
@@ -0,0 +1,77 @@
+package br.edu.ibmec.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Linha da lista de alunos de uma turma, desnormalizada para leitura: nome do aluno e do
+ * curso ficam copiados aqui e são mantidos na mesma transação das escritas que os mudam.
+ * Vale para inscrições ativas e arquivadas.
+ *
+ * <p>Nenhum acesso depende da ordem das colunas da chave primária, que o Hibernate escolhe
+ * pelo nome do atributo. A leitura por turma usa {@code idx_turma_alunos_turma}, que cobre
+ * todas as colunas: a lista sai de uma única varredura de intervalo no índice, já ordenada
+ * por matrícula, sem ir à tabela. As escritas por aluno usam {@code idx_turma_alunos_aluno}.</p>
+ */
+@Entity
+@Table(name = "turma_alunos", indexes = {
+        @Index(name = "idx_turma_alunos_turma",
+                columnList = "turma_codigo, turma_ano, turma_semestre, aluno_matricula, aluno_nome, curso_nome"),
+        @Index(name = "idx_turma_alunos_aluno", columnList = "aluno_matricula")
+})
+@IdClass(AlunoNaTurma.Chave.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class AlunoNaTurma {
+
+    @Id
+    @Column(name = "turma_codigo")
+    @EqualsAndHashCode.Include
+    private int turmaCodigo;
+
+    @Id
+    @Column(name = "turma_ano")
+    @EqualsAndHashCode.Include
+    private int turmaAno;
+
+    @Id
+    @Column(name = "turma_semestre")
+    @EqualsAndHashCode.Include
+    private int turmaSemestre;
+
+    @Id
+    @Column(name = "aluno_matricula")
+    @EqualsAndHashCode.Include
+    private int alunoMatricula;
+
+    @Column(name = "aluno_nome", nullable = false, length = 80)
+    private String alunoNome;
+
+    @Column(name = "curso_nome", nullable = false, length = 80)
+    private String cursoNome;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private int turmaCodigo;
+        private int turmaAno;
+        private int turmaSemestre;
+        private int alunoMatricula;
+    }
+}
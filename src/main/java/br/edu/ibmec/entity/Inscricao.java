@@ -4,27 +4,37 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinColumns;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
+/**
+ * O id vem do cliente, então o Spring Data não sabe se a inscrição é nova; sem
+ * {@link Persistable}, {@code save} faria {@code merge} e um SELECT por inscrição antes do insert.
+ */
 @Entity
 @Table(name = "inscricoes",
         uniqueConstraints = @UniqueConstraint(name = "uk_inscricao_aluno_turma",
-                columnNames = {"aluno_matricula", "turma_codigo", "turma_ano", "turma_semestre"}))
+                columnNames = {"aluno_matricula", "turma_id"}),
+        indexes = @Index(name = "idx_inscricao_turma", columnList = "turma_id"))
 @Getter
 @Setter
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString(exclude = {"aluno", "turma"})
-public class Inscricao {
+public class Inscricao implements Persistable<Long> {
 
     @Id
     @Column(name = "id")
@@ -36,13 +46,25 @@ public class Inscricao {
     private Aluno aluno;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumns({
-        @JoinColumn(name = "turma_codigo", referencedColumnName = "codigo", nullable = false),
-        @JoinColumn(name = "turma_ano", referencedColumnName = "ano", nullable = false),
-        @JoinColumn(name = "turma_semestre", referencedColumnName = "semestre", nullable = false)
-    })
+    @JoinColumn(name = "turma_id", nullable = false)
     private Turma turma;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean nova = true;
+
+    @Override
+    public boolean isNew() {
+        return nova;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        nova = false;
+    }
+
     public void setId(Long id) {
         if (id == null || id < 1) {
             throw new IllegalArgumentException("Id da inscrição deve ser positivo");
@@ -0,0 +1,53 @@
+package br.edu.ibmec.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Inscrição de um período já encerrado, movida de {@code inscricoes} pelo arquivamento.
+ * As colunas são planas (sem chave estrangeira) porque o registro é histórico e não muda.
+ * Como em {@code inscricoes}, um aluno aparece no máximo uma vez por turma; a chave única
+ * começa pela matrícula e atende também às consultas por aluno.
+ */
+@Entity
+@Table(name = "inscricoes_arquivo",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inscricao_arquivo_aluno_turma",
+                columnNames = {"aluno_matricula", "turma_codigo", "turma_ano", "turma_semestre"}),
+        indexes = @Index(name = "idx_inscricao_arquivo_turma", columnList = "turma_codigo, turma_ano, turma_semestre"))
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class InscricaoArquivada {
+
+    @Id
+    @Column(name = "id")
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "aluno_matricula", nullable = false)
+    private int alunoMatricula;
+
+    @Column(name = "turma_codigo", nullable = false)
+    private int turmaCodigo;
+
+    @Column(name = "turma_ano", nullable = false)
+    private int turmaAno;
+
+    @Column(name = "turma_semestre", nullable = false)
+    private int turmaSemestre;
+
+    @Column(name = "arquivada_em", nullable = false)
+    private Instant arquivadaEm;
+}
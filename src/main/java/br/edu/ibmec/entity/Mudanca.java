@@ -0,0 +1,67 @@
+package br.edu.ibmec.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Registro append-only de alterações feitas pelos serviços (outbox transacional).
+ * É gravado na mesma transação da alteração, ainda sem {@code seq}; a posição no log é
+ * atribuída depois do commit, por {@code MudancaService.publicar()}, na ordem em que os
+ * registros ficaram visíveis.
+ */
+@Entity
+@Table(name = "mudancas", uniqueConstraints = @UniqueConstraint(name = "uk_mudanca_seq", columnNames = "seq"))
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = "dados")
+public class Mudanca {
+
+    public enum Operacao {
+        CRIACAO, ALTERACAO, REMOCAO
+    }
+
+    /** Ordem de inserção; transações concorrentes confirmam fora dessa ordem, então não é cursor. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    /** Posição no log publicado; nula até a publicação. */
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "entidade", nullable = false, length = 20)
+    private String entidade;
+
+    @Column(name = "chave", nullable = false, length = 60)
+    private String chave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operacao", nullable = false, length = 10)
+    private Operacao operacao;
+
+    @Column(name = "registrada_em", nullable = false)
+    private Instant registradaEm;
+
+    /** Estado após a alteração, em JSON; nulo nas remoções. */
+    @Lob
+    @Column(name = "dados")
+    private String dados;
+}
@@ -0,0 +1,35 @@
+package br.edu.ibmec.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Linha única que serializa a publicação do log de mudanças entre instâncias: quem publica
+ * trava esta linha e só solta no commit, junto com as posições que atribuiu.
+ */
+@Entity
+@Table(name = "mudancas_publicacao")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class PublicacaoMudancas {
+
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private int id;
+
+    /** Maior {@code seq} já publicado. */
+    @Column(name = "ultima_seq", nullable = false)
+    private long ultimaSeq;
+}
@@ -4,12 +4,15 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.EqualsAndHashCode;
@@ -18,9 +21,15 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+/**
+ * Turma de uma disciplina num período. A chave primária é um id substituto de 64 bits,
+ * referenciado por {@code inscricoes.turma_id}; (codigo, ano, semestre) continua único e
+ * é a chave usada pela API e pela igualdade da entidade.
+ */
 @Entity
-@Table(name = "turmas")
-@IdClass(TurmaId.class)
+@Table(name = "turmas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_turma_codigo_periodo", columnNames = {"codigo", "ano", "semestre"}),
+        indexes = @Index(name = "idx_turma_periodo", columnList = "ano, semestre"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,17 +44,19 @@ public class Turma {
     private static final int SEMESTRE_MAXIMO = 2;
 
     @Id
-    @Column(name = "codigo")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "codigo", nullable = false)
     @EqualsAndHashCode.Include
     private int codigo;
 
-    @Id
-    @Column(name = "ano")
+    @Column(name = "ano", nullable = false)
     @EqualsAndHashCode.Include
     private int ano;
 
-    @Id
-    @Column(name = "semestre")
+    @Column(name = "semestre", nullable = false)
     @EqualsAndHashCode.Include
     private int semestre;
 
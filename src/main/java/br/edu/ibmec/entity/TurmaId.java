@@ -6,7 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-/** Classe de identificação composta para a entidade Turma. */
+/** Chave natural (codigo, ano, semestre) de uma Turma, usada como chave de mapas e caches. */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +47,11 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), "RESOURCE_NOT_FOUND", request, Collections.emptyMap());
     }
 
+    @ExceptionHandler(TempoEsgotadoException.class)
+    public ResponseEntity<ApiError> handleTempoEsgotado(TempoEsgotadoException ex, HttpServletRequest request) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), "TEMPO_ESGOTADO", request, Collections.emptyMap());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleUnexpected(Exception ex, HttpServletRequest request) {
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR,
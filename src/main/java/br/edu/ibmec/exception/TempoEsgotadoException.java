@@ -0,0 +1,13 @@
+package br.edu.ibmec.exception;
+
+/**
+ * A operação pode ainda concluir depois da resposta; quem recebe deve consultar o estado
+ * antes de repetir. Respondida com 503.
+ */
+@SuppressWarnings("serial")
+public class TempoEsgotadoException extends RuntimeException {
+
+    public TempoEsgotadoException(String msg) {
+        super(msg);
+    }
+}
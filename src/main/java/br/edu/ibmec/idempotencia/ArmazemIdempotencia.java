@@ -0,0 +1,135 @@
+package br.edu.ibmec.idempotencia;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Chaves de idempotência recentes e a resposta guardada de cada uma.
+ *
+ * <p>Toda entrada vive o mesmo {@code ttl}, então a ordem de inserção é também a ordem de
+ * expiração: uma única fila FIFO serve tanto para descartar as vencidas quanto para manter
+ * o armazém em no máximo {@code capacidade} entradas (a mais antiga sai primeiro). A
+ * limpeza acontece de forma incremental a cada nova chave, sem thread de fundo.</p>
+ *
+ * <p>Enquanto a primeira execução de uma chave não termina, a entrada guarda só o
+ * {@link CompletableFuture} que as requisições repetidas aguardam. Essa entrada nunca sai,
+ * nem por capacidade nem por TTL: se saísse, uma repetição executaria de novo em paralelo.
+ * Na frente da fila ela volta para o fim, e o armazém pode passar da capacidade pelo número
+ * de execuções em andamento.</p>
+ */
+public class ArmazemIdempotencia {
+
+    /** Resposta gravada para reenviar nas repetições. */
+    public record Resposta(int status, String contentType, byte[] corpo) {
+    }
+
+    /** Entrada de uma chave: impressão digital do corpo e o resultado (pendente ou pronto). */
+    public static final class Entrada {
+        private final byte[] impressao;
+        private final long expiraEm;
+        private final CompletableFuture<Resposta> resposta = new CompletableFuture<>();
+
+        private Entrada(byte[] impressao, long expiraEm) {
+            this.impressao = impressao;
+            this.expiraEm = expiraEm;
+        }
+
+        public boolean mesmaRequisicao(byte[] outra) {
+            return Arrays.equals(impressao, outra);
+        }
+
+        public CompletableFuture<Resposta> resposta() {
+            return resposta;
+        }
+
+        private boolean emAndamento() {
+            return !resposta.isDone();
+        }
+    }
+
+    /** Resultado de {@link #reservar}: se {@code nova}, quem chamou é o dono da execução. */
+    public record Reserva(Entrada entrada, boolean nova) {
+    }
+
+    private record Ordem(String chave, Entrada entrada) {
+    }
+
+    private final int capacidade;
+    private final long ttlNanos;
+    private final LongSupplier relogio;
+    private final ConcurrentMap<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Queue<Ordem> ordem = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamanho = new AtomicInteger();
+
+    public ArmazemIdempotencia(int capacidade, long ttlNanos, LongSupplier relogio) {
+        this.capacidade = capacidade;
+        this.ttlNanos = ttlNanos;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Reserva a chave para quem chama. Se a reserva for nova, quem chama executa a
+     * requisição e depois chama {@link #concluir} ou {@link #descartar}; senão recebe a
+     * entrada já existente, pendente ou concluída.
+     */
+    public Reserva reservar(String chave, byte[] impressao) {
+        long agora = relogio.getAsLong();
+        Entrada nova = new Entrada(impressao, agora + ttlNanos);
+        while (true) {
+            Entrada existente = entradas.putIfAbsent(chave, nova);
+            if (existente == null) {
+                ordem.add(new Ordem(chave, nova));
+                tamanho.incrementAndGet();
+                limpar(agora);
+                return new Reserva(nova, true);
+            }
+            if (existente.emAndamento() || existente.expiraEm - agora > 0) {
+                return new Reserva(existente, false);
+            }
+            remover(chave, existente);
+        }
+    }
+
+    public void concluir(Entrada entrada, Resposta resposta) {
+        entrada.resposta.complete(resposta);
+    }
+
+    /** Libera a chave sem guardar nada: quem estava esperando tenta de novo. */
+    public void descartar(String chave, Entrada entrada) {
+        remover(chave, entrada);
+        entrada.resposta.complete(null);
+    }
+
+    public int tamanho() {
+        return tamanho.get();
+    }
+
+    private void limpar(long agora) {
+        int adiadas = 0;
+        Ordem antiga;
+        while ((antiga = ordem.peek()) != null && adiadas < tamanho.get()
+                && (tamanho.get() > capacidade || antiga.entrada().expiraEm - agora <= 0)) {
+            if (!ordem.remove(antiga)) {
+                continue;
+            }
+            if (antiga.entrada().emAndamento() && entradas.get(antiga.chave()) == antiga.entrada()) {
+                ordem.add(antiga);
+                adiadas++;
+            } else {
+                remover(antiga.chave(), antiga.entrada());
+            }
+        }
+    }
+
+    private void remover(String chave, Entrada entrada) {
+        if (entradas.remove(chave, entrada)) {
+            tamanho.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package br.edu.ibmec.idempotencia;
+
+import br.edu.ibmec.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Suporte ao cabeçalho {@code Idempotency-Key} nos POSTs de cadastro. A primeira
+ * requisição com uma chave executa normalmente e sua resposta fica guardada por
+ * {@code ttl}; repetições com a mesma chave e o mesmo corpo recebem essa resposta
+ * (com {@code Idempotent-Replayed: true}) sem chegar ao controller nem ao banco.
+ * Repetições que chegam enquanto a primeira ainda executa esperam por ela.
+ *
+ * <p>Respostas 5xx e 429 não são guardadas: a chave é liberada e a próxima tentativa
+ * executa de novo. A mesma chave com outro corpo recebe 422.</p>
+ *
+ * <p>Roda antes do {@code LimiteConcorrenciaFilter}, então repetições não ocupam vaga
+ * de escrita.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 50)
+@ConditionalOnProperty(name = "universidade.idempotencia.habilitado", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(IdempotenciaProperties.class)
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    static final String CABECALHO = "Idempotency-Key";
+    static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+    private final ArmazemIdempotencia armazem;
+    private final Set<String> caminhos;
+    private final long esperaNanos;
+    private final int tamanhoMaximoChave;
+    private final ObjectMapper objectMapper;
+    private final Counter executadas;
+    private final Counter repetidas;
+    private final Counter naoGuardadas;
+    private final Counter conflitos;
+    private final Counter emAndamento;
+
+    public IdempotenciaFilter(IdempotenciaProperties properties, MeterRegistry registry, ObjectMapper objectMapper) {
+        this.armazem = new ArmazemIdempotencia(properties.getCapacidade(), properties.getTtl().toNanos(), System::nanoTime);
+        this.caminhos = new HashSet<>(properties.getCaminhos());
+        this.esperaNanos = properties.getEspera().toNanos();
+        this.tamanhoMaximoChave = properties.getTamanhoMaximoChave();
+        this.objectMapper = objectMapper;
+        Gauge.builder("universidade.idempotencia.chaves", armazem, ArmazemIdempotencia::tamanho).register(registry);
+        this.executadas = contador(registry, "executada");
+        this.repetidas = contador(registry, "repetida");
+        this.naoGuardadas = contador(registry, "nao_guardada");
+        this.conflitos = contador(registry, "conflito");
+        this.emAndamento = contador(registry, "em_andamento");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(CABECALHO) == null
+                || !caminhos.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String chave = request.getHeader(CABECALHO);
+        if (chave.isBlank() || chave.length() > tamanhoMaximoChave) {
+            erro(request, response, HttpStatus.BAD_REQUEST,
+                    CABECALHO + " deve ter entre 1 e " + tamanhoMaximoChave + " caracteres", "IDEMPOTENCIA_CHAVE_INVALIDA");
+            return;
+        }
+        CorpoEmMemoria requisicao = new CorpoEmMemoria(request, StreamUtils.copyToByteArray(request.getInputStream()));
+        String escopo = request.getRequestURI() + ' ' + chave;
+        byte[] impressao = impressao(requisicao.corpo);
+        long prazo = System.nanoTime() + esperaNanos;
+
+        while (true) {
+            ArmazemIdempotencia.Reserva reserva = armazem.reservar(escopo, impressao);
+            ArmazemIdempotencia.Entrada entrada = reserva.entrada();
+            if (reserva.nova()) {
+                executar(requisicao, response, chain, escopo, entrada);
+                return;
+            }
+            if (!entrada.mesmaRequisicao(impressao)) {
+                conflitos.increment();
+                erro(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        CABECALHO + " já foi usada com outra requisição", "IDEMPOTENCIA_CONFLITO");
+                return;
+            }
+            ArmazemIdempotencia.Resposta guardada;
+            try {
+                guardada = entrada.resposta().get(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                emAndamento.increment();
+                erro(request, response, HttpStatus.CONFLICT,
+                        "Requisição com esta " + CABECALHO + " ainda em andamento", "IDEMPOTENCIA_EM_ANDAMENTO");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrompido aguardando a requisição original", e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (guardada != null) {
+                repetidas.increment();
+                repetir(guardada, response);
+                return;
+            }
+            // A original não deixou resposta guardada (5xx, 429 ou exceção): tenta de novo.
+        }
+    }
+
+    private void executar(CorpoEmMemoria requisicao, HttpServletResponse response, FilterChain chain,
+                          String escopo, ArmazemIdempotencia.Entrada entrada) throws ServletException, IOException {
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        boolean guardou = false;
+        try {
+            chain.doFilter(requisicao, resposta);
+            int status = resposta.getStatus();
+            if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                armazem.concluir(entrada, new ArmazemIdempotencia.Resposta(status, resposta.getContentType(),
+                        resposta.getContentAsByteArray()));
+                guardou = true;
+                executadas.increment();
+            }
+        } finally {
+            if (!guardou) {
+                naoGuardadas.increment();
+                armazem.descartar(escopo, entrada);
+            }
+            resposta.copyBodyToResponse();
+        }
+    }
+
+    private static void repetir(ArmazemIdempotencia.Resposta guardada, HttpServletResponse response) throws IOException {
+        response.setStatus(guardada.status());
+        if (guardada.contentType() != null) {
+            response.setContentType(guardada.contentType());
+        }
+        response.setHeader(CABECALHO_REPETIDA, "true");
+        response.setContentLength(guardada.corpo().length);
+        response.getOutputStream().write(guardada.corpo());
+    }
+
+    private void erro(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                      String mensagem, String codigo) throws IOException {
+        ApiError apiError = new ApiError(status.value(), mensagem, request.getRequestURI(), codigo, Map.of());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), apiError);
+    }
+
+    private static byte[] impressao(byte[] corpo) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(corpo);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter contador(MeterRegistry registry, String resultado) {
+        return Counter.builder("universidade.idempotencia.requisicoes").tag("resultado", resultado).register(registry);
+    }
+
+    /** Corpo já lido para calcular a impressão digital, servido de novo ao controller. */
+    private static final class CorpoEmMemoria extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        CorpoEmMemoria(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /** O corpo já está todo em memória: o listener é avisado na hora, na thread de quem registra. */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package br.edu.ibmec.idempotencia;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Parâmetros do {@link IdempotenciaFilter} ({@code universidade.idempotencia.*}). */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "universidade.idempotencia")
+public class IdempotenciaProperties {
+
+    private boolean habilitado = true;
+
+    /** POSTs nestes caminhos (exatos) aceitam o cabeçalho {@code Idempotency-Key}. */
+    private List<String> caminhos = List.of("/api/inscricao", "/api/aluno", "/api/turma");
+
+    /** Quanto tempo uma resposta fica disponível para repetições. */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /** Máximo de chaves guardadas; acima disso as mais antigas já concluídas saem antes do TTL. */
+    private int capacidade = 100_000;
+
+    /** Quanto uma repetição espera pela execução original antes de receber 409. */
+    private Duration espera = Duration.ofSeconds(30);
+
+    private int tamanhoMaximoChave = 255;
+}
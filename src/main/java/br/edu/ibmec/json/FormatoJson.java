@@ -0,0 +1,74 @@
+package br.edu.ibmec.json;
+
+import br.edu.ibmec.dto.Campos;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Como escrever uma linha de projeção ({@code Object[]}) como o objeto JSON do DTO
+ * correspondente, sem passar pelo DTO: a coluna {@code i} vira o atributo {@code nomes[i]}.
+ * Os nomes seguem a ordem de declaração do DTO (a mesma que o Jackson usa) e são
+ * codificados uma vez só; o {@code FormatoJsonTest} confere a saída contra o Jackson.
+ *
+ * <p>Linhas mais curtas que o formato (consultas que não trouxeram a associação) escrevem
+ * só as colunas que têm; isso só acontece quando os {@link Campos} pedidos não incluem as
+ * que faltam.</p>
+ */
+public final class FormatoJson {
+
+    public static final FormatoJson ALUNO = new FormatoJson("matricula", "nome", "cursoCodigo", "cursoNome");
+    public static final FormatoJson INSCRICAO = new FormatoJson("id", "alunoMatricula", "turmaCodigo", "ano", "semestre");
+    public static final FormatoJson TURMA = new FormatoJson("codigo", "ano", "semestre", "disciplina", "professorId");
+    public static final FormatoJson CURSO = new FormatoJson("codigo", "nome");
+    public static final FormatoJson DISCIPLINA = new FormatoJson("codigo", "nome", "curso");
+    public static final FormatoJson PROFESSOR = new FormatoJson("id", "nome");
+    public static final FormatoJson ALUNO_NA_TURMA = new FormatoJson("matricula", "nome", "cursoNome");
+
+    private final String[] nomes;
+    private final SerializableString[] nomesCodificados;
+
+    private FormatoJson(String... nomes) {
+        this.nomes = nomes;
+        this.nomesCodificados = new SerializableString[nomes.length];
+        for (int i = 0; i < nomes.length; i++) {
+            nomesCodificados[i] = new SerializedString(nomes[i]);
+        }
+    }
+
+    public void escrever(JsonGenerator gerador, List<Object[]> linhas, Campos campos) throws IOException {
+        boolean[] incluidas = new boolean[nomes.length];
+        for (int i = 0; i < nomes.length; i++) {
+            incluidas[i] = campos.inclui(nomes[i]);
+        }
+        gerador.writeStartArray();
+        for (Object[] linha : linhas) {
+            gerador.writeStartObject();
+            int colunas = Math.min(linha.length, nomes.length);
+            for (int i = 0; i < colunas; i++) {
+                if (incluidas[i]) {
+                    gerador.writeFieldName(nomesCodificados[i]);
+                    escreverValor(gerador, linha[i]);
+                }
+            }
+            gerador.writeEndObject();
+        }
+        gerador.writeEndArray();
+    }
+
+    private static void escreverValor(JsonGenerator gerador, Object valor) throws IOException {
+        if (valor instanceof Integer inteiro) {
+            gerador.writeNumber(inteiro.intValue());
+        } else if (valor instanceof Long longo) {
+            gerador.writeNumber(longo.longValue());
+        } else if (valor instanceof String texto) {
+            gerador.writeString(texto);
+        } else if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeString(valor.toString());
+        }
+    }
+}
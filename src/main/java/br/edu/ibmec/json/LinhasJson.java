@@ -0,0 +1,12 @@
+package br.edu.ibmec.json;
+
+import br.edu.ibmec.dto.Campos;
+import java.util.List;
+
+/**
+ * Resposta de listagem ainda em linhas de projeção: o {@link LinhasJsonHttpMessageConverter}
+ * escreve cada linha direto no corpo da resposta no {@link FormatoJson} dado, sem criar um
+ * DTO por linha. Os {@link Campos} fazem aqui o papel do filtro de {@code ?fields=}.
+ */
+public record LinhasJson(FormatoJson formato, List<Object[]> linhas, Campos campos) {
+}
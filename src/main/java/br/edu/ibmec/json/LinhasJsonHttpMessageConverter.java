@@ -0,0 +1,48 @@
+package br.edu.ibmec.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Escreve {@link LinhasJson} com o {@link JsonFactory} do {@code ObjectMapper} da aplicação
+ * (mesmas configurações de saída), mas sem serializadores por reflexão. Só escrita.
+ */
+public class LinhasJsonHttpMessageConverter extends AbstractHttpMessageConverter<LinhasJson> {
+
+    private final JsonFactory fabrica;
+
+    public LinhasJsonHttpMessageConverter(JsonFactory fabrica) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.fabrica = fabrica;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return LinhasJson.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected LinhasJson readInternal(Class<? extends LinhasJson> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("LinhasJson é só de saída", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(LinhasJson corpo, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator gerador = fabrica.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            corpo.formato().escrever(gerador, corpo.linhas(), corpo.campos());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package br.edu.ibmec.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Escreve uma linha JSON por requisição no logger {@value #LOGGER}. O SQL executado
+ * é anexado para uma amostra das requisições e sempre que a requisição passa do
+ * limite de lentidão, substituindo o {@code show-sql} síncrono em produção. As demais
+ * trazem só a contagem; os comandos que o {@link SqlPorRequisicao} guardou são descartados.
+ */
+@Component
+@ConditionalOnProperty(name = "universidade.log.requisicoes.habilitado", havingValue = "true")
+public class LogRequisicaoFilter extends OncePerRequestFilter {
+
+    static final String LOGGER = "br.edu.ibmec.requisicao";
+
+    private static final Logger log = LoggerFactory.getLogger(LOGGER);
+
+    @Value("${universidade.log.sql.amostragem:0.01}")
+    private double taxaAmostragemSql;
+
+    @Value("${universidade.log.sql.lento-ms:500}")
+    private long limiteLentoMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean amostrada = ThreadLocalRandom.current().nextDouble() < taxaAmostragemSql;
+        long inicio = System.nanoTime();
+        SqlPorRequisicao.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlPorRequisicao.Captura captura = SqlPorRequisicao.encerrar();
+            long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            if (log.isInfoEnabled()) {
+                boolean lenta = duracaoMs >= limiteLentoMs;
+                log.info(json(request, response.getStatus(), duracaoMs, lenta, captura, amostrada || lenta));
+            }
+        }
+    }
+
+    private static String json(HttpServletRequest request, int status, long duracaoMs, boolean lenta,
+                               SqlPorRequisicao.Captura captura, boolean incluirSql) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"ts\":\"").append(Instant.now()).append('"');
+        json.append(",\"metodo\":\"").append(request.getMethod()).append('"');
+        json.append(",\"caminho\":");
+        escrever(json, request.getRequestURI());
+        json.append(",\"status\":").append(status);
+        json.append(",\"duracaoMs\":").append(duracaoMs);
+        json.append(",\"lenta\":").append(lenta);
+        json.append(",\"sqlTotal\":").append(captura.getTotal());
+        if (incluirSql) {
+            json.append(",\"sql\":[");
+            for (int i = 0; i < captura.getComandos().size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                escrever(json, captura.getComandos().get(i));
+            }
+            json.append(']');
+        }
+        return json.append('}').toString();
+    }
+
+    private static void escrever(StringBuilder json, String valor) {
+        if (valor == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n', '\r', '\t' -> json.append(' ');
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,63 @@
+package br.edu.ibmec.logging;
+
+import br.edu.ibmec.rastreamento.Rastreamento;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * {@link StatementInspector} do Hibernate que conta os comandos SQL da requisição corrente e
+ * guarda a referência dos primeiros {@value #MAXIMO_POR_REQUISICAO}, para qualquer
+ * requisição: só no fim o {@link LogRequisicaoFilter} sabe se ela foi lenta. Se a linha sai
+ * sem SQL, a lista é descartada com a captura. Também repassa os comandos ao rastro da
+ * requisição, se houver. Fora de uma requisição monitorada o inspector não faz nada.
+ */
+public class SqlPorRequisicao implements StatementInspector {
+
+    private static final int MAXIMO_POR_REQUISICAO = 50;
+    private static final ThreadLocal<Captura> ATUAL = new ThreadLocal<>();
+
+    static void iniciar() {
+        ATUAL.set(new Captura());
+    }
+
+    static Captura encerrar() {
+        Captura captura = ATUAL.get();
+        ATUAL.remove();
+        return captura != null ? captura : new Captura();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Captura captura = ATUAL.get();
+        if (captura != null) {
+            captura.registrar(sql);
+        }
+        Rastreamento.sql(sql);
+        return sql;
+    }
+
+    /** Comandos de uma requisição; guarda só referências, limitado a {@value #MAXIMO_POR_REQUISICAO}. */
+    static final class Captura {
+        private List<String> comandos = List.of();
+        private int total;
+
+        private void registrar(String sql) {
+            total++;
+            if (comandos.size() < MAXIMO_POR_REQUISICAO) {
+                if (comandos.isEmpty()) {
+                    comandos = new ArrayList<>();
+                }
+                comandos.add(sql);
+            }
+        }
+
+        int getTotal() {
+            return total;
+        }
+
+        List<String> getComandos() {
+            return comandos;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.edu.ibmec.rastreamento;
+
+import br.edu.ibmec.dto.RequisicaoLentaDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * As últimas requisições rastreadas, num anel sem trava: cada publicação reserva uma posição
+ * com um {@code getAndIncrement} e grava o rastro já encerrado por cima do mais antigo.
+ * A leitura copia o anel posição a posição; um rastro sobrescrito durante a cópia só troca
+ * uma requisição recente por outra.
+ */
+@Component
+@ConditionalOnProperty(name = "universidade.rastreamento.habilitado", havingValue = "true")
+public class AnelRastros {
+
+    private final AtomicReferenceArray<Rastro> rastros;
+    private final AtomicLong proxima = new AtomicLong();
+    private final int mascara;
+
+    public AnelRastros(RastreamentoProperties properties) {
+        int pedida = properties.getCapacidade();
+        int capacidade = pedida <= 1 ? 1 : Integer.highestOneBit(pedida - 1) << 1;
+        this.rastros = new AtomicReferenceArray<>(capacidade);
+        this.mascara = capacidade - 1;
+    }
+
+    void publicar(Rastro rastro) {
+        rastros.set((int) (proxima.getAndIncrement() & mascara), rastro);
+    }
+
+    public int capacidade() {
+        return rastros.length();
+    }
+
+    /** As {@code quantidade} requisições mais lentas entre as guardadas, da mais lenta para a mais rápida. */
+    public List<RequisicaoLentaDTO> maisLentas(int quantidade) {
+        List<Rastro> guardados = new ArrayList<>(rastros.length());
+        for (int i = 0; i < rastros.length(); i++) {
+            Rastro rastro = rastros.get(i);
+            if (rastro != null) {
+                guardados.add(rastro);
+            }
+        }
+        return guardados.stream()
+                .sorted(Comparator.comparingLong(Rastro::duracao).reversed())
+                .limit(quantidade)
+                .map(Rastro::paraDTO)
+                .collect(Collectors.toList());
+    }
+}
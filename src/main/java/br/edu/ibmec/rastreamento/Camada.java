@@ -0,0 +1,6 @@
+package br.edu.ibmec.rastreamento;
+
+/** Onde um trecho de uma requisição rastreada gastou tempo. */
+public enum Camada {
+    CONTROLLER, SERVICO, CONEXAO, FLUSH, JSON
+}
@@ -0,0 +1,23 @@
+package br.edu.ibmec.rastreamento;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Trecho de cada flush do Hibernate, inclusive o automático antes de uma consulta.
+ * O Hibernate cria uma instância por sessão ({@code hibernate.session.events.auto}).
+ */
+public class FlushRastreado extends BaseSessionEventListener {
+
+    private int trecho = -1;
+
+    @Override
+    public void flushStart() {
+        trecho = Rastreamento.abrir(Camada.FLUSH, "flush");
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        Rastreamento.fechar(trecho);
+        trecho = -1;
+    }
+}
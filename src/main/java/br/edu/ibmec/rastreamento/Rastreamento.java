@@ -0,0 +1,74 @@
+package br.edu.ibmec.rastreamento;
+
+/**
+ * Pontos de instrumentação chamados pelas camadas (filtro, interceptor, aspecto dos
+ * serviços, Hibernate, pool). Só fazem algo na thread de uma requisição sorteada pelo
+ * {@link RastreamentoFilter}; nas outras custam a leitura de um ThreadLocal vazio.
+ * Trabalho entregue a outras threads (grupo de commit, agendamentos) não entra no rastro.
+ */
+public final class Rastreamento {
+
+    private static final ThreadLocal<Rastro> ATUAL = new ThreadLocal<>();
+
+    private Rastreamento() {
+    }
+
+    static void iniciar(Rastro rastro) {
+        ATUAL.set(rastro);
+    }
+
+    static Rastro encerrar() {
+        Rastro rastro = ATUAL.get();
+        ATUAL.remove();
+        return rastro;
+    }
+
+    /** Abre um trecho; o índice devolvido vai para {@link #fechar}. */
+    public static int abrir(Camada camada, String nome) {
+        Rastro rastro = ATUAL.get();
+        return rastro != null ? rastro.abrir(camada, nome) : -1;
+    }
+
+    public static void fechar(int trecho) {
+        Rastro rastro = ATUAL.get();
+        if (rastro != null) {
+            rastro.fechar(trecho);
+        }
+    }
+
+    /** Trecho que começou em {@code inicio} ({@link System#nanoTime()}) e terminou agora. */
+    public static void registrar(Camada camada, String nome, long inicio) {
+        Rastro rastro = ATUAL.get();
+        if (rastro != null) {
+            rastro.registrar(camada, nome, inicio);
+        }
+    }
+
+    public static void sql(String comando) {
+        Rastro rastro = ATUAL.get();
+        if (rastro != null) {
+            rastro.sql(comando);
+        }
+    }
+
+    static void iniciarController(String nome) {
+        Rastro rastro = ATUAL.get();
+        if (rastro != null) {
+            rastro.iniciarController(nome);
+        }
+    }
+
+    static void iniciarEscrita() {
+        Rastro rastro = ATUAL.get();
+        if (rastro != null) {
+            rastro.iniciarEscrita();
+        }
+    }
+
+    static void encerrarHandler() {
+        Rastro rastro = ATUAL.get();
+        if (rastro != null) {
+            rastro.encerrarHandler();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.edu.ibmec.rastreamento;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Sorteia as requisições rastreadas ({@code universidade.rastreamento.amostragem}) e, ao
+ * final, publica o rastro no {@link AnelRastros}. É o primeiro filtro, então o tempo dos
+ * demais (idempotência, limite de concorrência, log) aparece como {@code OUTROS}.
+ * Requisições que viram assíncronas (SSE) não são publicadas: a thread sai do filtro com a
+ * resposta ainda aberta, e o rastro mediria só o início da conexão.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "universidade.rastreamento.habilitado", havingValue = "true")
+@EnableConfigurationProperties(RastreamentoProperties.class)
+public class RastreamentoFilter extends OncePerRequestFilter {
+
+    private final RastreamentoProperties properties;
+    private final AnelRastros anel;
+
+    public RastreamentoFilter(RastreamentoProperties properties, AnelRastros anel) {
+        this.properties = properties;
+        this.anel = anel;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getAmostragem()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Rastreamento.iniciar(new Rastro(request.getMethod(), request.getRequestURI(), properties.getMaximoTrechos(),
+                properties.getMaximoSql()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Rastro rastro = Rastreamento.encerrar();
+            if (request.isAsyncStarted()) {
+                return;
+            }
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            rastro.encerrar(padrao != null ? padrao.toString() : null, response.getStatus());
+            anel.publicar(rastro);
+        }
+    }
+}
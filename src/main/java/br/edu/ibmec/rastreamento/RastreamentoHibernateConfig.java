@@ -0,0 +1,25 @@
+package br.edu.ibmec.rastreamento;
+
+import br.edu.ibmec.logging.SqlPorRequisicao;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Liga o {@link FlushRastreado} a cada sessão e, se nenhum perfil já o fez, o
+ * {@link SqlPorRequisicao}, que também passa o SQL executado para o rastro.
+ */
+@Configuration
+@ConditionalOnProperty(name = "universidade.rastreamento.habilitado", havingValue = "true")
+public class RastreamentoHibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer rastreamentoHibernate() {
+        return propriedades -> {
+            propriedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, FlushRastreado.class.getName());
+            propriedades.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, SqlPorRequisicao.class.getName());
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package br.edu.ibmec.rastreamento;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Parâmetros do rastreamento por requisição ({@code universidade.rastreamento.*}). */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "universidade.rastreamento")
+public class RastreamentoProperties {
+
+    private boolean habilitado;
+
+    /** Fração das requisições (0.0 a 1.0) rastreadas; as demais só pagam um ThreadLocal vazio por trecho. */
+    private double amostragem = 0.01;
+
+    /** Requisições rastreadas mais recentes guardadas no anel; arredondado para potência de 2. */
+    private int capacidade = 1024;
+
+    /** Acima disso os trechos de uma requisição só são contados. */
+    private int maximoTrechos = 200;
+
+    private int maximoSql = 50;
+}
@@ -0,0 +1,188 @@
+package br.edu.ibmec.rastreamento;
+
+import br.edu.ibmec.dto.RequisicaoLentaDTO;
+import br.edu.ibmec.dto.TrechoDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Linha do tempo de uma requisição: trechos aninhados (início e duração relativos ao início
+ * da requisição) e o SQL executado. É escrito só pela thread da requisição e, depois de
+ * {@link #encerrar}, publicado no {@link AnelRastros} e não muda mais.
+ */
+final class Rastro {
+
+    private static final double NANOS_POR_MS = 1_000_000.0;
+    private static final int TRECHOS_INICIAIS = 16;
+
+    private final String metodo;
+    private final String caminho;
+    private final Instant inicio = Instant.now();
+    private final long inicioNanos = System.nanoTime();
+    private final int maximoSql;
+
+    private final int maximoTrechos;
+    private Camada[] camadas;
+    private String[] nomes;
+    private int[] profundidades;
+    private long[] inicios;
+    private long[] duracoes;
+    /** Soma das durações dos filhos diretos, para o tempo exclusivo de cada trecho. */
+    private long[] filhos;
+    private int[] pai;
+    private int trechos;
+    private int descartados;
+    /** Trecho aberto mais interno, ou -1. */
+    private int aberto = -1;
+
+    private final List<String> sql = new ArrayList<>();
+    private int sqlTotal;
+
+    private int controller = -1;
+    private int json = -1;
+
+    private String endpoint;
+    private int status;
+    private long duracao;
+
+    Rastro(String metodo, String caminho, int maximoTrechos, int maximoSql) {
+        this.metodo = metodo;
+        this.caminho = caminho;
+        this.maximoSql = maximoSql;
+        this.maximoTrechos = maximoTrechos;
+        redimensionar(Math.min(TRECHOS_INICIAIS, maximoTrechos));
+    }
+
+    /** Abre um trecho dentro do trecho aberto; devolve -1 se o limite de trechos já foi atingido. */
+    int abrir(Camada camada, String nome) {
+        if (trechos == camadas.length) {
+            if (trechos == maximoTrechos) {
+                descartados++;
+                return -1;
+            }
+            redimensionar(Math.min(trechos * 2, maximoTrechos));
+        }
+        int indice = trechos++;
+        camadas[indice] = camada;
+        nomes[indice] = nome;
+        pai[indice] = aberto;
+        profundidades[indice] = aberto < 0 ? 0 : profundidades[aberto] + 1;
+        inicios[indice] = System.nanoTime() - inicioNanos;
+        duracoes[indice] = -1;
+        aberto = indice;
+        return indice;
+    }
+
+    /** Fecha o trecho e, se uma exceção pulou algum fechamento, os que ficaram abertos dentro dele. */
+    void fechar(int indice) {
+        if (indice < 0 || duracoes[indice] >= 0) {
+            return;
+        }
+        long agora = System.nanoTime() - inicioNanos;
+        while (aberto >= indice) {
+            int atual = aberto;
+            duracoes[atual] = agora - inicios[atual];
+            aberto = pai[atual];
+            if (aberto >= 0) {
+                filhos[aberto] += duracoes[atual];
+            }
+        }
+    }
+
+    /** Trecho já terminado, de {@code inicioTrecho} (System.nanoTime) até agora, dentro do trecho aberto. */
+    void registrar(Camada camada, String nome, long inicioTrecho) {
+        int indice = abrir(camada, nome);
+        if (indice >= 0) {
+            inicios[indice] = inicioTrecho - inicioNanos;
+            fechar(indice);
+        }
+    }
+
+    void sql(String comando) {
+        sqlTotal++;
+        if (sql.size() < maximoSql) {
+            sql.add(comando);
+        }
+    }
+
+    void iniciarController(String nome) {
+        controller = abrir(Camada.CONTROLLER, nome);
+    }
+
+    /** O controller devolveu o corpo e o conversor vai escrevê-lo. */
+    void iniciarEscrita() {
+        fechar(controller);
+        if (json < 0) {
+            json = abrir(Camada.JSON, "escrita da resposta");
+        }
+    }
+
+    void encerrarHandler() {
+        fechar(json);
+        fechar(controller);
+    }
+
+    void encerrar(String endpoint, int status) {
+        while (aberto >= 0) {
+            fechar(aberto);
+        }
+        this.endpoint = endpoint;
+        this.status = status;
+        this.duracao = System.nanoTime() - inicioNanos;
+    }
+
+    long duracao() {
+        return duracao;
+    }
+
+    private void redimensionar(int tamanho) {
+        camadas = camadas == null ? new Camada[tamanho] : Arrays.copyOf(camadas, tamanho);
+        nomes = nomes == null ? new String[tamanho] : Arrays.copyOf(nomes, tamanho);
+        profundidades = profundidades == null ? new int[tamanho] : Arrays.copyOf(profundidades, tamanho);
+        inicios = inicios == null ? new long[tamanho] : Arrays.copyOf(inicios, tamanho);
+        duracoes = duracoes == null ? new long[tamanho] : Arrays.copyOf(duracoes, tamanho);
+        filhos = filhos == null ? new long[tamanho] : Arrays.copyOf(filhos, tamanho);
+        pai = pai == null ? new int[tamanho] : Arrays.copyOf(pai, tamanho);
+    }
+
+    RequisicaoLentaDTO paraDTO() {
+        List<TrechoDTO> lista = new ArrayList<>(trechos);
+        Map<Camada, Long> exclusivo = new EnumMap<>(Camada.class);
+        long foraDeTrechos = duracao;
+        for (int i = 0; i < trechos; i++) {
+            lista.add(TrechoDTO.builder()
+                    .camada(camadas[i].name())
+                    .nome(nomes[i])
+                    .profundidade(profundidades[i])
+                    .inicioMs(inicios[i] / NANOS_POR_MS)
+                    .duracaoMs(duracoes[i] / NANOS_POR_MS)
+                    .build());
+            exclusivo.merge(camadas[i], duracoes[i] - filhos[i], Long::sum);
+            if (pai[i] < 0) {
+                foraDeTrechos -= duracoes[i];
+            }
+        }
+        Map<String, Double> porCamada = new LinkedHashMap<>();
+        Arrays.stream(Camada.values()).filter(exclusivo::containsKey)
+                .forEach(camada -> porCamada.put(camada.name(), exclusivo.get(camada) / NANOS_POR_MS));
+        porCamada.put("OUTROS", foraDeTrechos / NANOS_POR_MS);
+        return RequisicaoLentaDTO.builder()
+                .metodo(metodo)
+                .caminho(caminho)
+                .endpoint(endpoint)
+                .status(status)
+                .inicio(inicio)
+                .duracaoMs(duracao / NANOS_POR_MS)
+                .tempoPorCamadaMs(porCamada)
+                .trechos(lista)
+                .trechosDescartados(descartados)
+                .sqlTotal(sqlTotal)
+                .sql(List.copyOf(sql))
+                .build();
+    }
+}
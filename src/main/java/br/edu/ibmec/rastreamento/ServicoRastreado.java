@@ -0,0 +1,31 @@
+package br.edu.ibmec.rastreamento;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trecho de cada método público dos {@code *RepositoryService}. Roda por fora do
+ * {@code @Transactional}, então o trecho inclui obter a conexão e o commit (com o flush).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "universidade.rastreamento.habilitado", havingValue = "true")
+public class ServicoRastreado {
+
+    @Around("execution(public * br.edu.ibmec.service.*RepositoryService.*(..))")
+    public Object rastrear(ProceedingJoinPoint chamada) throws Throwable {
+        int trecho = Rastreamento.abrir(Camada.SERVICO,
+                chamada.getSignature().getDeclaringType().getSimpleName() + "." + chamada.getSignature().getName());
+        try {
+            return chamada.proceed();
+        } finally {
+            Rastreamento.fechar(trecho);
+        }
+    }
+}
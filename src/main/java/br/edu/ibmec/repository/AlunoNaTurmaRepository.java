@@ -0,0 +1,99 @@
+package br.edu.ibmec.repository;
+
+import br.edu.ibmec.entity.AlunoNaTurma;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lista de alunos por turma (ver {@link AlunoNaTurma}). Todas as escritas são uma instrução
+ * só, sem carregar entidades, e rodam dentro da transação de quem altera a origem.
+ */
+@Repository
+public interface AlunoNaTurmaRepository extends JpaRepository<AlunoNaTurma, AlunoNaTurma.Chave> {
+
+    /** Matrícula, nome e curso dos alunos da turma, por matrícula. */
+    @Query("select r.alunoMatricula, r.alunoNome, r.cursoNome from AlunoNaTurma r "
+            + "where r.turmaCodigo = :codigo and r.turmaAno = :ano and r.turmaSemestre = :semestre "
+            + "order by r.alunoMatricula")
+    List<Object[]> listarDaTurma(@Param("codigo") int codigo, @Param("ano") int ano, @Param("semestre") int semestre);
+
+    /** Turma, matrícula, nome e curso de todo o período, por turma e matrícula. */
+    @Query("select r.turmaCodigo, r.alunoMatricula, r.alunoNome, r.cursoNome from AlunoNaTurma r "
+            + "where r.turmaAno = :ano and r.turmaSemestre = :semestre order by r.turmaCodigo, r.alunoMatricula")
+    List<Object[]> listarDoPeriodo(@Param("ano") int ano, @Param("semestre") int semestre);
+
+    /** Curso, turma, disciplina, matrícula e nome de todo o período, por curso, turma e matrícula. */
+    @Query("select a.curso.codigo, r.turmaCodigo, d.nome, r.alunoMatricula, r.alunoNome "
+            + "from AlunoNaTurma r, Aluno a, Turma t join t.disciplina d "
+            + "where a.matricula = r.alunoMatricula and t.codigo = r.turmaCodigo and t.ano = r.turmaAno "
+            + "and t.semestre = r.turmaSemestre and r.turmaAno = :ano and r.turmaSemestre = :semestre "
+            + "order by a.curso.codigo, r.turmaCodigo, r.alunoMatricula")
+    List<Object[]> listarPorCursoDoPeriodo(@Param("ano") int ano, @Param("semestre") int semestre);
+
+    /** Mesmas colunas de {@link #listarPorCursoDoPeriodo}, só de um curso. */
+    @Query("select a.curso.codigo, r.turmaCodigo, d.nome, r.alunoMatricula, r.alunoNome "
+            + "from AlunoNaTurma r, Aluno a, Turma t join t.disciplina d "
+            + "where a.matricula = r.alunoMatricula and a.curso.codigo = :curso and t.codigo = r.turmaCodigo "
+            + "and t.ano = r.turmaAno and t.semestre = r.turmaSemestre "
+            + "and r.turmaAno = :ano and r.turmaSemestre = :semestre order by r.turmaCodigo, r.alunoMatricula")
+    List<Object[]> listarDoCursoNoPeriodo(@Param("curso") int curso, @Param("ano") int ano, @Param("semestre") int semestre);
+
+    /** Código, ano e semestre das turmas do aluno. */
+    @Query("select r.turmaCodigo, r.turmaAno, r.turmaSemestre from AlunoNaTurma r where r.alunoMatricula = :matricula")
+    List<Object[]> listarTurmasDoAluno(@Param("matricula") int matricula);
+
+    /**
+     * Uma linha por inscrição informada, com nome do aluno e do curso, num único INSERT ... SELECT
+     * sem trazê-los para a aplicação. Lê {@code inscricoes}: quem chama grava um lote inteiro,
+     * dá flush uma vez e só então chama com os ids do lote.
+     */
+    @Modifying
+    @Query(value = "insert into turma_alunos (turma_codigo, turma_ano, turma_semestre, aluno_matricula, aluno_nome, curso_nome) "
+            + "select t.codigo, t.ano, t.semestre, a.matricula, a.nome, c.nome "
+            + "from inscricoes i join turmas t on t.id = i.turma_id join alunos a on a.matricula = i.aluno_matricula "
+            + "join cursos c on c.codigo = a.curso_codigo where i.id in :ids",
+            nativeQuery = true)
+    int inserirDeInscricoes(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from AlunoNaTurma r where r.alunoMatricula = :matricula "
+            + "and r.turmaCodigo = :codigo and r.turmaAno = :ano and r.turmaSemestre = :semestre")
+    int remover(@Param("matricula") int matricula, @Param("codigo") int codigo,
+                @Param("ano") int ano, @Param("semestre") int semestre);
+
+    @Modifying
+    @Query("delete from AlunoNaTurma r where r.alunoMatricula = :matricula")
+    int removerPorAluno(@Param("matricula") int matricula);
+
+    @Modifying
+    @Query("delete from AlunoNaTurma r where r.turmaCodigo = :codigo and r.turmaAno = :ano and r.turmaSemestre = :semestre")
+    int removerPorTurma(@Param("codigo") int codigo, @Param("ano") int ano, @Param("semestre") int semestre);
+
+    /** Precisa rodar antes de as turmas da disciplina saírem. */
+    @Modifying
+    @Query("delete from AlunoNaTurma r where exists (select t.id from Turma t where t.codigo = r.turmaCodigo "
+            + "and t.ano = r.turmaAno and t.semestre = r.turmaSemestre and t.disciplina.codigo = :disciplina)")
+    int removerPorDisciplina(@Param("disciplina") int disciplina);
+
+    /** Precisa rodar antes de as turmas e disciplinas do curso saírem. */
+    @Modifying
+    @Query("delete from AlunoNaTurma r where exists (select t.id from Turma t where t.codigo = r.turmaCodigo "
+            + "and t.ano = r.turmaAno and t.semestre = r.turmaSemestre "
+            + "and t.disciplina.codigo in (select d.codigo from Disciplina d where d.curso.codigo = :curso))")
+    int removerPorCurso(@Param("curso") int curso);
+
+    @Modifying
+    @Query("update AlunoNaTurma r set r.alunoNome = :nome, "
+            + "r.cursoNome = (select c.nome from Curso c where c.codigo = :curso) where r.alunoMatricula = :matricula")
+    int alterarAluno(@Param("matricula") int matricula, @Param("nome") String nome, @Param("curso") int curso);
+
+    @Modifying
+    @Query("update AlunoNaTurma r set r.cursoNome = :nome "
+            + "where r.alunoMatricula in (select a.matricula from Aluno a where a.curso.codigo = :curso)")
+    int alterarNomeCurso(@Param("curso") int curso, @Param("nome") String nome);
+}
@@ -1,9 +1,16 @@
 package br.edu.ibmec.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import br.edu.ibmec.entity.Aluno;
+import br.edu.ibmec.entity.Curso;
 
 @Repository
 public interface AlunoRepository extends JpaRepository<Aluno, Integer> {
@@ -11,4 +18,43 @@ public interface AlunoRepository extends JpaRepository<Aluno, Integer> {
     boolean existsByMatricula(int matricula);
 
     Aluno findByMatricula(int matricula);
+
+    @Query("select a.matricula, a.nome from Aluno a")
+    List<Object[]> listarMatriculasENomes();
+
+    @Query("select a.matricula, a.nome, c.codigo, c.nome from Aluno a join a.curso c")
+    List<Object[]> listarComCurso();
+
+    @Query("select a.matricula, a.nome, c.codigo, c.nome from Aluno a join a.curso c where a.matricula in :matriculas")
+    List<Object[]> listarComCurso(@Param("matriculas") Collection<Integer> matriculas);
+
+    /** Sem o nome do curso: o código sai da própria FK, sem join com cursos. */
+    @Query("select a.matricula, a.nome, a.curso.codigo from Aluno a")
+    List<Object[]> listarSemCurso();
+
+    @Query("select a.matricula, a.nome, a.curso.codigo from Aluno a where a.matricula = :matricula")
+    List<Object[]> buscarSemCurso(@Param("matricula") int matricula);
+
+    @Query("select a.matricula from Aluno a where a.matricula in :matriculas")
+    List<Integer> listarMatriculasExistentes(@Param("matriculas") Collection<Integer> matriculas);
+
+    /** Matrícula e nome de quem teve inscrição no período, esteja ela arquivada ou não. */
+    @Query("select a.matricula, a.nome from Aluno a where a.matricula in "
+            + "(select i.alunoMatricula from InscricaoArquivada i where i.turmaAno = :ano and i.turmaSemestre = :semestre) "
+            + "or a.matricula in (select i.aluno.matricula from Inscricao i where i.turma.ano = :ano and i.turma.semestre = :semestre)")
+    List<Object[]> listarNomesInscritosNoPeriodo(@Param("ano") int ano, @Param("semestre") int semestre);
+
+    /**
+     * Nome e curso numa única instrução, sem carregar aluno nem curso. Devolve 0 se o aluno
+     * não existir ou se o curso informado não existir.
+     */
+    @Modifying
+    @Query("update Aluno a set a.nome = :nome, a.curso = :curso where a.matricula = :matricula "
+            + "and exists (select c.codigo from Curso c where c = :curso)")
+    int alterar(@Param("matricula") int matricula, @Param("nome") String nome, @Param("curso") Curso curso);
+
+    /** As inscrições do aluno têm que sair antes (ver {@code InscricaoRepository.removerPorAluno}). */
+    @Modifying
+    @Query("delete from Aluno a where a.matricula = :matricula")
+    int removerPorMatricula(@Param("matricula") int matricula);
 }
@@ -1,6 +1,10 @@
 package br.edu.ibmec.repository;
 
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import br.edu.ibmec.entity.Curso;
@@ -11,4 +15,16 @@ public interface CursoRepository extends JpaRepository<Curso, Integer> {
     boolean existsByCodigo(int codigo);
 
     Curso findByCodigo(int codigo);
+
+    @Query("select c.codigo, c.nome from Curso c")
+    List<Object[]> listarCodigosENomes();
+
+    @Modifying
+    @Query("update Curso c set c.nome = :nome where c.codigo = :codigo")
+    int alterarNome(@Param("codigo") int codigo, @Param("nome") String nome);
+
+    /** Disciplinas, turmas e inscrições do curso têm que sair antes; alunos do curso impedem a remoção. */
+    @Modifying
+    @Query("delete from Curso c where c.codigo = :codigo")
+    int removerPorCodigo(@Param("codigo") int codigo);
 }
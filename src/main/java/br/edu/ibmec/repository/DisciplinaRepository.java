@@ -1,8 +1,13 @@
 package br.edu.ibmec.repository;
 
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import br.edu.ibmec.entity.Curso;
 import br.edu.ibmec.entity.Disciplina;
 
 /**
@@ -24,4 +29,36 @@ public interface DisciplinaRepository extends JpaRepository<Disciplina, Integer>
      * @return a disciplina encontrada ou null
      */
     Disciplina findByCodigo(int codigo);
+
+    /**
+     * Todas as disciplinas sem carregar entidades; o curso sai da própria FK
+     * @return linhas com codigo, nome e código do curso
+     */
+    @Query("select d.codigo, d.nome, d.curso.codigo from Disciplina d")
+    List<Object[]> listarResumo();
+
+    /**
+     * Nome e curso numa única instrução, sem carregar disciplina nem curso
+     * @return 1, ou 0 se a disciplina ou o curso não existirem
+     */
+    @Modifying
+    @Query("update Disciplina d set d.nome = :nome, d.curso = :curso where d.codigo = :codigo "
+            + "and exists (select c.codigo from Curso c where c = :curso)")
+    int alterar(@Param("codigo") int codigo, @Param("nome") String nome, @Param("curso") Curso curso);
+
+    /**
+     * Remove a disciplina; turmas e inscrições dela têm que sair antes
+     * @return quantidade de linhas removidas (0 ou 1)
+     */
+    @Modifying
+    @Query("delete from Disciplina d where d.codigo = :codigo")
+    int removerPorCodigo(@Param("codigo") int codigo);
+
+    /**
+     * Remove as disciplinas do curso, para a remoção do curso
+     * @return quantidade de disciplinas removidas
+     */
+    @Modifying
+    @Query("delete from Disciplina d where d.curso.codigo = :curso")
+    int removerPorCurso(@Param("curso") int curso);
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package br.edu.ibmec.repository;
+
+import br.edu.ibmec.entity.InscricaoArquivada;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InscricaoArquivadaRepository extends JpaRepository<InscricaoArquivada, Long> {
+
+    List<InscricaoArquivada> findByAlunoMatricula(int matricula);
+
+    List<InscricaoArquivada> findByTurmaCodigoAndTurmaAnoAndTurmaSemestre(int codigo, int ano, int semestre);
+
+    Optional<InscricaoArquivada> findByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(int matricula, int codigo, int ano, int semestre);
+
+    boolean existsByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(int matricula, int codigo, int ano, int semestre);
+
+    /** Candidatos de um lote; quem chama descarta as combinações não pedidas. */
+    @Query("select i.alunoMatricula, i.turmaCodigo, i.turmaAno, i.turmaSemestre from InscricaoArquivada i "
+            + "where i.alunoMatricula in :matriculas and i.turmaCodigo in :codigos "
+            + "and i.turmaAno in :anos and i.turmaSemestre in :semestres")
+    List<Object[]> listarParesAlunoTurma(@Param("matriculas") Collection<Integer> matriculas,
+                                         @Param("codigos") Collection<Integer> codigos,
+                                         @Param("anos") Collection<Integer> anos,
+                                         @Param("semestres") Collection<Integer> semestres);
+
+    @Query("select i.id from InscricaoArquivada i where i.id in :ids")
+    List<Long> listarIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @Query("select i.id, i.alunoMatricula, i.turmaCodigo from InscricaoArquivada i "
+            + "where i.turmaAno = :ano and i.turmaSemestre = :semestre")
+    List<Object[]> listarDoPeriodo(@Param("ano") int ano, @Param("semestre") int semestre);
+
+    /**
+     * Copia as inscrições informadas da tabela quente para o arquivo em um único INSERT ... SELECT.
+     * Um par (aluno, turma) que já está no arquivo não é copiado de novo; a linha quente sai mesmo assim.
+     */
+    @Modifying
+    @Query(value = "insert into inscricoes_arquivo (id, aluno_matricula, turma_codigo, turma_ano, turma_semestre, arquivada_em) "
+            + "select i.id, i.aluno_matricula, t.codigo, t.ano, t.semestre, :agora "
+            + "from inscricoes i join turmas t on t.id = i.turma_id where i.id in :ids "
+            + "and not exists (select 1 from inscricoes_arquivo x where x.aluno_matricula = i.aluno_matricula "
+            + "and x.turma_codigo = t.codigo and x.turma_ano = t.ano and x.turma_semestre = t.semestre)",
+            nativeQuery = true)
+    int copiarDeInscricoes(@Param("ids") Collection<Long> ids, @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("delete from InscricaoArquivada i where i.alunoMatricula = :matricula")
+    int removerPorAluno(@Param("matricula") int matricula);
+
+    @Modifying
+    @Query("delete from InscricaoArquivada i where i.turmaCodigo = :codigo and i.turmaAno = :ano and i.turmaSemestre = :semestre")
+    int removerPorTurma(@Param("codigo") int codigo, @Param("ano") int ano, @Param("semestre") int semestre);
+
+    /** Arquivadas das turmas da disciplina; roda antes de remover as turmas, que dão o vínculo. */
+    @Modifying
+    @Query("delete from InscricaoArquivada i where exists (select 1 from Turma t where t.codigo = i.turmaCodigo "
+            + "and t.ano = i.turmaAno and t.semestre = i.turmaSemestre and t.disciplina.codigo = :disciplina)")
+    int removerPorDisciplina(@Param("disciplina") int disciplina);
+
+    /** Arquivadas das turmas das disciplinas do curso; roda antes de remover as turmas. */
+    @Modifying
+    @Query("delete from InscricaoArquivada i where exists (select 1 from Turma t where t.codigo = i.turmaCodigo "
+            + "and t.ano = i.turmaAno and t.semestre = i.turmaSemestre and t.disciplina.curso.codigo = :curso)")
+    int removerPorCurso(@Param("curso") int curso);
+}
@@ -6,9 +6,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import br.edu.ibmec.entity.Inscricao;
+import java.util.Collection;
 import java.util.Optional;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface InscricaoRepository extends JpaRepository<Inscricao, Long> {
@@ -17,7 +20,86 @@ public interface InscricaoRepository extends JpaRepository<Inscricao, Long> {
 
     List<Inscricao> findByTurmaCodigoAndTurmaAnoAndTurmaSemestre(int codigo, int ano, int semestre);
 
+    @Query("select i.id, i.aluno.matricula, t.codigo, t.ano, t.semestre from Inscricao i join i.turma t")
+    List<Object[]> listarComTurma();
+
+    /** Sem os campos da turma: id e matrícula saem da própria tabela, sem join com turmas. */
+    @Query("select i.id, i.aluno.matricula from Inscricao i")
+    List<Object[]> listarSemTurma();
+
+    @Query("select i.id, i.aluno.matricula, t.codigo, t.ano, t.semestre from Inscricao i join i.turma t "
+            + "where i.aluno.matricula = :matricula")
+    List<Object[]> listarDoAlunoComTurma(@Param("matricula") int matricula);
+
+    @Query("select i.id, i.aluno.matricula from Inscricao i where i.aluno.matricula = :matricula")
+    List<Object[]> listarDoAlunoSemTurma(@Param("matricula") int matricula);
+
+    @Query("select i.id, i.aluno.matricula from Inscricao i "
+            + "where i.turma.codigo = :codigo and i.turma.ano = :ano and i.turma.semestre = :semestre")
+    List<Object[]> listarDaTurma(@Param("codigo") int codigo, @Param("ano") int ano, @Param("semestre") int semestre);
+
+    @Query("select i.id from Inscricao i where i.aluno.matricula = :matricula "
+            + "and i.turma.codigo = :codigo and i.turma.ano = :ano and i.turma.semestre = :semestre")
+    Optional<Long> buscarId(@Param("matricula") int matricula, @Param("codigo") int codigo,
+                            @Param("ano") int ano, @Param("semestre") int semestre);
+
+    long countByTurmaCodigoAndTurmaAnoAndTurmaSemestre(int codigo, int ano, int semestre);
+
     boolean existsByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(int matricula, int codigo, int ano, int semestre);
 
+    /** Candidatos de um lote, pela chave inteira da turma; quem chama descarta as combinações não pedidas. */
+    @Query("select i.aluno.matricula, t.codigo, t.ano, t.semestre from Inscricao i join i.turma t "
+            + "where i.aluno.matricula in :matriculas and t.codigo in :codigos and t.ano in :anos and t.semestre in :semestres")
+    List<Object[]> listarParesAlunoTurma(@Param("matriculas") Collection<Integer> matriculas,
+                                         @Param("codigos") Collection<Integer> codigos,
+                                         @Param("anos") Collection<Integer> anos,
+                                         @Param("semestres") Collection<Integer> semestres);
+
+    @Query("select i.id from Inscricao i where i.id in :ids")
+    List<Long> listarIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @Query("select i.id from Inscricao i where i.turma.ano < :ano or (i.turma.ano = :ano and i.turma.semestre < :semestre) "
+            + "order by i.id")
+    List<Long> listarIdsAnterioresAoPeriodo(@Param("ano") int ano, @Param("semestre") int semestre, Limit limite);
+
+    @Modifying
+    @Query("delete from Inscricao i where i.id in :ids")
+    int removerPorIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Inscricao i where i.aluno.matricula = :matricula")
+    int removerPorAluno(@Param("matricula") int matricula);
+
+    @Modifying
+    @Query("delete from Inscricao i where i.turma.id = :turmaId")
+    int removerPorTurma(@Param("turmaId") Long turmaId);
+
+    @Modifying
+    @Query("delete from Inscricao i where i.turma.id in (select t.id from Turma t where t.disciplina.codigo = :disciplina)")
+    int removerPorDisciplina(@Param("disciplina") int disciplina);
+
+    @Modifying
+    @Query("delete from Inscricao i where i.turma.id in (select t.id from Turma t where t.disciplina.codigo in "
+            + "(select d.codigo from Disciplina d where d.curso.codigo = :curso))")
+    int removerPorCurso(@Param("curso") int curso);
+
+    @Query("select i.id, i.aluno.matricula, i.turma.codigo from Inscricao i "
+            + "where i.turma.ano = :ano and i.turma.semestre = :semestre")
+    List<Object[]> listarDoPeriodo(@Param("ano") int ano, @Param("semestre") int semestre);
+
+    /** Página da carga do índice em memória, por id crescente. */
+    @Query("select i.id, i.aluno.matricula, i.turma.id from Inscricao i where i.id > :depois order by i.id")
+    List<Object[]> listarParesAposId(@Param("depois") long depois, Limit limite);
+
+    @Query("select i.aluno.matricula, i.turma.id from Inscricao i where i.id in :ids")
+    List<Object[]> listarParesPorIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select i.aluno.matricula from Inscricao i "
+            + "where i.turma.codigo = :codigo and i.turma.ano = :ano and i.turma.semestre = :semestre order by i.aluno.matricula")
+    List<Integer> listarMatriculasDaTurma(@Param("codigo") int codigo, @Param("ano") int ano, @Param("semestre") int semestre);
+
+    @Query("select distinct i.aluno.matricula from Inscricao i where i.turma.ano = :ano and i.turma.semestre = :semestre")
+    List<Integer> listarMatriculasDoPeriodo(@Param("ano") int ano, @Param("semestre") int semestre, Limit limite);
+
     Optional<Inscricao> findByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(int matricula, int codigo, int ano, int semestre);
 }
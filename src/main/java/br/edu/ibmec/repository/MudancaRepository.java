@@ -0,0 +1,129 @@
+package br.edu.ibmec.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.edu.ibmec.entity.Mudanca;
+import br.edu.ibmec.entity.Mudanca.Operacao;
+
+@Repository
+public interface MudancaRepository extends JpaRepository<Mudanca, Long> {
+
+    /** Página do log publicado; registros ainda sem {@code seq} não entram. */
+    List<Mudanca> findBySeqGreaterThanOrderBySeqAsc(long seq, Limit limite);
+
+    @Query("select coalesce(max(m.seq), 0) from Mudanca m")
+    long ultimaSeq();
+
+    /** Menor id confirmado e ainda não publicado, ou nulo se não houver. */
+    @Query("select min(m.id) from Mudanca m where m.seq is null")
+    Long menorIdPendente();
+
+    /**
+     * Publica numa instrução: {@code seq = id + deslocamento} cresce com o id e, com o
+     * deslocamento calculado a partir de {@code desdeId}, fica acima de tudo que já foi publicado.
+     * Registros com id menor que {@code desdeId} que confirmarem depois ficam para a próxima vez.
+     */
+    @Modifying
+    @Query("update Mudanca m set m.seq = m.id + :deslocamento where m.seq is null and m.id >= :desdeId")
+    int publicar(@Param("desdeId") long desdeId, @Param("deslocamento") long deslocamento);
+
+    // Remoções em cascata: uma mudança por filho removido, gravadas com INSERT ... SELECT antes do DELETE.
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'INSCRICAO', concat(cast(i.aluno.matricula as String), '/', cast(t.codigo as String), '/', "
+            + "cast(t.ano as String), '/', cast(t.semestre as String)), :operacao, :agora "
+            + "from Inscricao i join i.turma t where i.aluno.matricula = :matricula")
+    int registrarInscricoesDoAluno(@Param("matricula") int matricula, @Param("operacao") Operacao operacao,
+                                   @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'INSCRICAO', concat(cast(a.alunoMatricula as String), '/', cast(a.turmaCodigo as String), '/', "
+            + "cast(a.turmaAno as String), '/', cast(a.turmaSemestre as String)), :operacao, :agora "
+            + "from InscricaoArquivada a where a.alunoMatricula = :matricula")
+    int registrarArquivadasDoAluno(@Param("matricula") int matricula, @Param("operacao") Operacao operacao,
+                                   @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'INSCRICAO', concat(cast(i.aluno.matricula as String), '/', cast(t.codigo as String), '/', "
+            + "cast(t.ano as String), '/', cast(t.semestre as String)), :operacao, :agora "
+            + "from Inscricao i join i.turma t where t.id = :turmaId")
+    int registrarInscricoesDaTurma(@Param("turmaId") long turmaId, @Param("operacao") Operacao operacao,
+                                   @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'INSCRICAO', concat(cast(a.alunoMatricula as String), '/', cast(a.turmaCodigo as String), '/', "
+            + "cast(a.turmaAno as String), '/', cast(a.turmaSemestre as String)), :operacao, :agora "
+            + "from InscricaoArquivada a "
+            + "where a.turmaCodigo = :codigo and a.turmaAno = :ano and a.turmaSemestre = :semestre")
+    int registrarArquivadasDaTurma(@Param("codigo") int codigo, @Param("ano") int ano, @Param("semestre") int semestre,
+                                   @Param("operacao") Operacao operacao, @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'INSCRICAO', concat(cast(i.aluno.matricula as String), '/', cast(t.codigo as String), '/', "
+            + "cast(t.ano as String), '/', cast(t.semestre as String)), :operacao, :agora "
+            + "from Inscricao i join i.turma t where t.disciplina.codigo = :disciplina")
+    int registrarInscricoesDaDisciplina(@Param("disciplina") int disciplina, @Param("operacao") Operacao operacao,
+                                        @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'INSCRICAO', concat(cast(a.alunoMatricula as String), '/', cast(a.turmaCodigo as String), '/', "
+            + "cast(a.turmaAno as String), '/', cast(a.turmaSemestre as String)), :operacao, :agora "
+            + "from InscricaoArquivada a join Turma t on t.codigo = a.turmaCodigo and t.ano = a.turmaAno "
+            + "and t.semestre = a.turmaSemestre where t.disciplina.codigo = :disciplina")
+    int registrarArquivadasDaDisciplina(@Param("disciplina") int disciplina, @Param("operacao") Operacao operacao,
+                                        @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'TURMA', concat(cast(t.codigo as String), '/', cast(t.ano as String), '/', "
+            + "cast(t.semestre as String)), :operacao, :agora "
+            + "from Turma t where t.disciplina.codigo = :disciplina")
+    int registrarTurmasDaDisciplina(@Param("disciplina") int disciplina, @Param("operacao") Operacao operacao,
+                                    @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'INSCRICAO', concat(cast(i.aluno.matricula as String), '/', cast(t.codigo as String), '/', "
+            + "cast(t.ano as String), '/', cast(t.semestre as String)), :operacao, :agora "
+            + "from Inscricao i join i.turma t where t.disciplina.curso.codigo = :curso")
+    int registrarInscricoesDoCurso(@Param("curso") int curso, @Param("operacao") Operacao operacao,
+                                   @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'INSCRICAO', concat(cast(a.alunoMatricula as String), '/', cast(a.turmaCodigo as String), '/', "
+            + "cast(a.turmaAno as String), '/', cast(a.turmaSemestre as String)), :operacao, :agora "
+            + "from InscricaoArquivada a join Turma t on t.codigo = a.turmaCodigo and t.ano = a.turmaAno "
+            + "and t.semestre = a.turmaSemestre where t.disciplina.curso.codigo = :curso")
+    int registrarArquivadasDoCurso(@Param("curso") int curso, @Param("operacao") Operacao operacao,
+                                   @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'TURMA', concat(cast(t.codigo as String), '/', cast(t.ano as String), '/', "
+            + "cast(t.semestre as String)), :operacao, :agora "
+            + "from Turma t where t.disciplina.curso.codigo = :curso")
+    int registrarTurmasDoCurso(@Param("curso") int curso, @Param("operacao") Operacao operacao,
+                               @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("insert into Mudanca (entidade, chave, operacao, registradaEm) "
+            + "select 'DISCIPLINA', cast(d.codigo as String), :operacao, :agora "
+            + "from Disciplina d where d.curso.codigo = :curso")
+    int registrarDisciplinasDoCurso(@Param("curso") int curso, @Param("operacao") Operacao operacao,
+                                    @Param("agora") Instant agora);
+}
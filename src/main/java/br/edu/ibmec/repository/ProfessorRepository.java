@@ -1,11 +1,30 @@
 package br.edu.ibmec.repository;
 
 import br.edu.ibmec.entity.Professor;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ProfessorRepository extends JpaRepository<Professor, Long> {
 
     boolean existsByNomeIgnoreCase(String nome);
+
+    @Query("select p.id, p.nome from Professor p")
+    List<Object[]> listarIdsENomes();
+
+    @Query("select p.id, p.nome from Professor p where p.id in :ids")
+    List<Object[]> listarIdsENomes(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Professor p set p.nome = :nome where p.id = :id")
+    int alterarNome(@Param("id") Long id, @Param("nome") String nome);
+
+    @Modifying
+    @Query("delete from Professor p where p.id = :id")
+    int removerPorId(@Param("id") Long id);
 }
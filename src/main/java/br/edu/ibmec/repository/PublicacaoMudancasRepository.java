@@ -0,0 +1,20 @@
+package br.edu.ibmec.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import br.edu.ibmec.entity.PublicacaoMudancas;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface PublicacaoMudancasRepository extends JpaRepository<PublicacaoMudancas, Integer> {
+
+    /** {@code SELECT ... FOR UPDATE} na linha única; segura outras publicações até o commit. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PublicacaoMudancas p where p.id = " + PublicacaoMudancas.ID)
+    Optional<PublicacaoMudancas> travar();
+}
@@ -1,16 +1,23 @@
 package br.edu.ibmec.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import br.edu.ibmec.entity.Disciplina;
+import br.edu.ibmec.entity.Professor;
 import br.edu.ibmec.entity.Turma;
-import br.edu.ibmec.entity.TurmaId;
 
 /**
  * Repository Spring Data JPA para a entidade Turma
  */
 @Repository
-public interface TurmaRepository extends JpaRepository<Turma, TurmaId> {
+public interface TurmaRepository extends JpaRepository<Turma, Long> {
     
     /**
      * Busca turma por código, ano e semestre
@@ -20,4 +27,102 @@ public interface TurmaRepository extends JpaRepository<Turma, TurmaId> {
      * @return a turma encontrada ou null
      */
     Turma findByCodigoAndAnoAndSemestre(int codigo, int ano, int semestre);
-}
\ No newline at end of file
+
+    boolean existsByCodigoAndAnoAndSemestre(int codigo, int ano, int semestre);
+
+    /**
+     * Turmas candidatas para um lote; como em {@link #listarResumo(Collection, Collection, Collection)},
+     * quem chama descarta as combinações que não foram pedidas
+     */
+    List<Turma> findByCodigoInAndAnoInAndSemestreIn(Collection<Integer> codigos, Collection<Integer> anos,
+                                                   Collection<Integer> semestres);
+
+    /**
+     * Chaves (codigo, ano, semestre) das turmas candidatas de um lote, sem carregar entidades;
+     * quem chama descarta as combinações que não foram pedidas
+     * @return linhas com codigo, ano e semestre
+     */
+    @Query("select t.codigo, t.ano, t.semestre from Turma t "
+            + "where t.codigo in :codigos and t.ano in :anos and t.semestre in :semestres")
+    List<Object[]> listarChaves(@Param("codigos") Collection<Integer> codigos,
+                                @Param("anos") Collection<Integer> anos,
+                                @Param("semestres") Collection<Integer> semestres);
+
+    /**
+     * Id substituto e chave natural de todas as turmas, sem carregar entidades
+     * @return linhas com id, codigo, ano e semestre
+     */
+    @Query("select t.id, t.codigo, t.ano, t.semestre from Turma t")
+    List<Object[]> listarChaves();
+
+    /**
+     * Todas as turmas sem carregar entidades; disciplina e professor saem das próprias FKs
+     * @return linhas com codigo, ano, semestre, código da disciplina e id do professor
+     */
+    @Query("select t.codigo, t.ano, t.semestre, t.disciplina.codigo, t.professor.id from Turma t")
+    List<Object[]> listarResumo();
+
+    /**
+     * Turmas candidatas para uma busca em lote; sem IN de tuplas, quem chama descarta as
+     * combinações de código, ano e semestre que não foram pedidas
+     * @return linhas no formato de {@link #listarResumo()}
+     */
+    @Query("select t.codigo, t.ano, t.semestre, t.disciplina.codigo, t.professor.id from Turma t "
+            + "where t.codigo in :codigos and t.ano in :anos and t.semestre in :semestres")
+    List<Object[]> listarResumo(@Param("codigos") Collection<Integer> codigos,
+                                @Param("anos") Collection<Integer> anos,
+                                @Param("semestres") Collection<Integer> semestres);
+
+    /**
+     * Código, nome da disciplina e nome do professor das turmas do período
+     * @param ano ano das turmas
+     * @param semestre semestre das turmas
+     * @return linhas com codigo, disciplina e professor
+     */
+    @Query("select t.codigo, d.nome, p.nome from Turma t join t.disciplina d join t.professor p "
+            + "where t.ano = :ano and t.semestre = :semestre")
+    List<Object[]> listarResumoDoPeriodo(@Param("ano") int ano, @Param("semestre") int semestre);
+
+    /**
+     * Id substituto da turma, sem carregar a entidade
+     * @return o id, ou vazio se a turma não existir
+     */
+    @Query("select t.id from Turma t where t.codigo = :codigo and t.ano = :ano and t.semestre = :semestre")
+    Optional<Long> buscarId(@Param("codigo") int codigo, @Param("ano") int ano, @Param("semestre") int semestre);
+
+    /**
+     * Disciplina e professor numa única instrução, sem carregar turma, disciplina nem professor
+     * @return 1, ou 0 se a turma, a disciplina ou o professor não existirem
+     */
+    @Modifying
+    @Query("update Turma t set t.disciplina = :disciplina, t.professor = :professor "
+            + "where t.codigo = :codigo and t.ano = :ano and t.semestre = :semestre "
+            + "and exists (select d.codigo from Disciplina d where d = :disciplina) "
+            + "and exists (select p.id from Professor p where p = :professor)")
+    int alterar(@Param("codigo") int codigo, @Param("ano") int ano, @Param("semestre") int semestre,
+                @Param("disciplina") Disciplina disciplina, @Param("professor") Professor professor);
+
+    /**
+     * Remove a turma; as inscrições dela têm que sair antes
+     * @return quantidade de linhas removidas (0 ou 1)
+     */
+    @Modifying
+    @Query("delete from Turma t where t.id = :id")
+    int removerPorId(@Param("id") Long id);
+
+    /**
+     * Remove as turmas da disciplina, para a remoção da disciplina
+     * @return quantidade de turmas removidas
+     */
+    @Modifying
+    @Query("delete from Turma t where t.disciplina.codigo = :disciplina")
+    int removerPorDisciplina(@Param("disciplina") int disciplina);
+
+    /**
+     * Remove as turmas de todas as disciplinas do curso, para a remoção do curso
+     * @return quantidade de turmas removidas
+     */
+    @Modifying
+    @Query("delete from Turma t where t.disciplina.codigo in (select d.codigo from Disciplina d where d.curso.codigo = :curso)")
+    int removerPorCurso(@Param("curso") int curso);
+}
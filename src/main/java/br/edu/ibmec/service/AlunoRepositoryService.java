@@ -1,19 +1,34 @@
 package br.edu.ibmec.service;
 
 import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.ItemLoteDTO;
 import br.edu.ibmec.entity.Aluno;
 import br.edu.ibmec.entity.Curso;
+import br.edu.ibmec.entity.Mudanca.Operacao;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
 import br.edu.ibmec.exception.ServiceException.ServiceExceptionEnum;
+import br.edu.ibmec.json.FormatoJson;
+import br.edu.ibmec.json.LinhasJson;
+import br.edu.ibmec.repository.AlunoNaTurmaRepository;
 import br.edu.ibmec.repository.AlunoRepository;
 import br.edu.ibmec.repository.CursoRepository;
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.service.cache.CacheProximoInt;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service("alunoRepositoryService")
 @Transactional
@@ -27,20 +42,107 @@ public class AlunoRepositoryService {
     @Autowired
     private CursoRepository cursoRepository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private AlunoNaTurmaRepository alunosNaTurma;
+
+    @Autowired
+    private InscricaoArquivadaRepository inscricaoArquivadaRepository;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BuscaEmLote buscaEmLote;
+
+    @Value("${universidade.cache.aluno.capacidade:100000}")
+    private int capacidadeCache;
+
+    private final ChamadaUnica<Integer, AlunoDTO> buscas = new ChamadaUnica<>();
+    private CacheProximoInt<AlunoDTO> cache;
+
+    @PostConstruct
+    void registrarMetricas() {
+        cache = new CacheProximoInt<>(capacidadeCache);
+        buscas.registrarMetricas("aluno", meterRegistry);
+        cache.registrarMetricas("aluno", meterRegistry);
+    }
+
+    /**
+     * Primeiro o cache local por matrícula; na falta, buscas simultâneas pela mesma
+     * matrícula compartilham uma única consulta. Só a chamada que de fato consulta abre
+     * transação, para que as que esperam não ocupem conexão do pool. Dentro de uma
+     * transação de escrita a leitura é feita nela, sem cache nem coalescência
+     * (ver {@link AposCommit#emTransacaoDeEscrita()}).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AlunoDTO buscarAluno(int matricula) throws DaoException {
-        Aluno aluno = alunoRepository.findByMatricula(matricula);
-        if (aluno == null) {
-            throw new DaoException("Aluno com matrícula " + matricula + " não encontrado");
+        return buscarAluno(matricula, Campos.TODOS);
+    }
+
+    /**
+     * Sem {@code cursoNome} entre os campos pedidos, uma falta no cache vira uma consulta só de
+     * {@code alunos}, sem carregar o curso; o resultado parcial não entra no cache.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public AlunoDTO buscarAluno(int matricula, Campos campos) throws DaoException {
+        if (AposCommit.emTransacaoDeEscrita()) {
+            return campos.inclui("cursoNome") ? carregarAluno(matricula) : carregarSemCurso(matricula);
         }
-        return convertToDTO(aluno);
+        AlunoDTO emCache = cache.get(matricula);
+        if (emCache != null) {
+            return emCache;
+        }
+        if (!campos.inclui("cursoNome")) {
+            return carregarSemCurso(matricula);
+        }
+        return buscas.executar(matricula, () -> {
+            long marca = cache.marca(matricula);
+            AlunoDTO dto = carregarAluno(matricula);
+            cache.colocar(matricula, dto, marca);
+            return dto;
+        });
+    }
+
+    /**
+     * Vários alunos de uma vez, na ordem pedida (ver {@link BuscaEmLote}). Os que estão no
+     * cache não vão ao banco e os carregados entram nele.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ItemLoteDTO<AlunoDTO>> buscarAlunos(List<Integer> matriculas) throws ServiceException {
+        if (AposCommit.emTransacaoDeEscrita()) {
+            return buscaEmLote.buscar(matriculas, String::valueOf, this::consultarAlunos);
+        }
+        return buscaEmLote.buscar(matriculas, String::valueOf, cache::get, this::carregarAlunos);
+    }
+
+    /** Para mudanças que alteram o {@link AlunoDTO} de muitos alunos, como o nome do curso. */
+    public void invalidarCacheAposCommit() {
+        AposCommit.executar(cache::limpar);
     }
 
+    /**
+     * Linhas de projeção escritas direto na resposta (ver {@link LinhasJson}). Com
+     * {@code cursoNome} o curso entra por join; sem ele, nem é lido.
+     */
     @Transactional(readOnly = true)
-    public List<AlunoDTO> listarAlunos() {
-        return alunoRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public LinhasJson listarAlunos(Campos campos) {
+        List<Object[]> linhas = campos.inclui("cursoNome") ? alunoRepository.listarComCurso() : alunoRepository.listarSemCurso();
+        return new LinhasJson(FormatoJson.ALUNO, linhas, campos);
     }
 
     public void cadastrarAluno(AlunoDTO alunoDTO) throws ServiceException {
@@ -49,26 +151,46 @@ public class AlunoRepositoryService {
             throw new ServiceException(ServiceExceptionEnum.ALUNO_MATRICULA_INVALIDA);
         }
         Curso curso = obterCurso(alunoDTO.getCursoCodigo());
-        alunoRepository.save(convertToEntity(alunoDTO, curso));
+        Aluno salvo = alunoRepository.save(convertToEntity(alunoDTO, curso));
+        mudancaService.registrar("ALUNO", String.valueOf(salvo.getMatricula()), Operacao.CRIACAO, convertToDTO(salvo));
+        buscaService.indexarAluno(salvo.getMatricula(), salvo.getNome());
     }
 
+    /**
+     * Um único {@code UPDATE}, sem carregar aluno nem curso. Só quando nada é alterado se
+     * consulta de novo, para saber se faltou o aluno (404) ou o curso (400). O registro de
+     * mudança leva o que foi pedido, sem o nome do curso.
+     */
     public void alterarAluno(AlunoDTO alunoDTO) throws ServiceException, DaoException {
         validar(alunoDTO);
-        Optional<Aluno> existente = alunoRepository.findById(alunoDTO.getMatricula());
-        if (existente.isEmpty()) {
-            throw new DaoException("Aluno com matrícula " + alunoDTO.getMatricula() + " não encontrado");
+        int matricula = alunoDTO.getMatricula();
+        String nome = alunoDTO.getNome().trim();
+        if (alunoRepository.alterar(matricula, nome, cursoRepository.getReferenceById(alunoDTO.getCursoCodigo())) == 0) {
+            if (!alunoRepository.existsById(matricula)) {
+                throw new DaoException("Aluno com matrícula " + matricula + " não encontrado");
+            }
+            throw new ServiceException("Curso com código " + alunoDTO.getCursoCodigo() + " não encontrado");
         }
-        Aluno aluno = existente.get();
-        aluno.setNome(alunoDTO.getNome());
-        aluno.setCurso(obterCurso(alunoDTO.getCursoCodigo()));
-        alunoRepository.save(aluno);
+        alunosNaTurma.alterarAluno(matricula, nome, alunoDTO.getCursoCodigo());
+        AlunoDTO alterado = AlunoDTO.builder().matricula(matricula).nome(nome).cursoCodigo(alunoDTO.getCursoCodigo()).build();
+        mudancaService.registrar("ALUNO", String.valueOf(matricula), Operacao.ALTERACAO, alterado);
+        buscaService.indexarAluno(matricula, nome);
+        AposCommit.executar(() -> cache.invalidar(matricula));
     }
 
+    /** As inscrições saem numa instrução e o aluno em outra, sem carregar nenhum dos dois. */
     public void removerAluno(int matricula) throws DaoException {
-        if (!alunoRepository.existsById(matricula)) {
+        mudancaService.registrarCascataDoAluno(matricula);
+        inscricaoRepository.removerPorAluno(matricula);
+        if (alunoRepository.removerPorMatricula(matricula) == 0) {
             throw new DaoException("Aluno com matrícula " + matricula + " não encontrado");
         }
-        alunoRepository.deleteById(matricula);
+        inscricaoArquivadaRepository.removerPorAluno(matricula);
+        alunosNaTurma.removerPorAluno(matricula);
+        mudancaService.registrar("ALUNO", String.valueOf(matricula), Operacao.REMOCAO, null);
+        buscaService.removerAluno(matricula);
+        indiceInscricoes.removerAluno(matricula);
+        AposCommit.executar(() -> cache.invalidar(matricula));
     }
 
     private void validar(AlunoDTO dto) throws ServiceException {
@@ -83,6 +205,61 @@ public class AlunoRepositoryService {
         }
     }
 
+    private AlunoDTO carregarAluno(int matricula) throws DaoException {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        AlunoDTO dto = leitura.execute(status -> {
+            Aluno aluno = alunoRepository.findByMatricula(matricula);
+            return aluno != null ? convertToDTO(aluno) : null;
+        });
+        if (dto == null) {
+            throw new DaoException("Aluno com matrícula " + matricula + " não encontrado");
+        }
+        return dto;
+    }
+
+    private Map<Integer, AlunoDTO> carregarAlunos(List<Integer> matriculas) {
+        long[] marcas = new long[matriculas.size()];
+        for (int i = 0; i < marcas.length; i++) {
+            marcas[i] = cache.marca(matriculas.get(i));
+        }
+        Map<Integer, AlunoDTO> alunos = consultarAlunos(matriculas);
+        for (int i = 0; i < marcas.length; i++) {
+            int matricula = matriculas.get(i);
+            cache.colocar(matricula, alunos.get(matricula), marcas[i]);
+        }
+        return alunos;
+    }
+
+    private Map<Integer, AlunoDTO> consultarAlunos(List<Integer> matriculas) {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        List<Object[]> linhas = leitura.execute(status -> alunoRepository.listarComCurso(matriculas));
+        Map<Integer, AlunoDTO> alunos = new HashMap<>();
+        linhas.forEach(linha -> alunos.put((Integer) linha[0], linhaParaDTO(linha)));
+        return alunos;
+    }
+
+    private AlunoDTO carregarSemCurso(int matricula) throws DaoException {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        List<Object[]> linhas = leitura.execute(status -> alunoRepository.buscarSemCurso(matricula));
+        if (linhas == null || linhas.isEmpty()) {
+            throw new DaoException("Aluno com matrícula " + matricula + " não encontrado");
+        }
+        return linhaParaDTO(linhas.get(0));
+    }
+
+    /** Linha (matrícula, nome, código do curso[, nome do curso]) das consultas de projeção. */
+    private static AlunoDTO linhaParaDTO(Object[] linha) {
+        return AlunoDTO.builder()
+                .matricula((Integer) linha[0])
+                .nome((String) linha[1])
+                .cursoCodigo((Integer) linha[2])
+                .cursoNome(linha.length > 3 ? (String) linha[3] : null)
+                .build();
+    }
+
     private AlunoDTO convertToDTO(Aluno aluno) {
         return AlunoDTO.builder()
                 .matricula(aluno.getMatricula())
@@ -95,7 +272,7 @@ public class AlunoRepositoryService {
     private Aluno convertToEntity(AlunoDTO dto, Curso curso) {
         Aluno aluno = new Aluno();
         aluno.setMatricula(dto.getMatricula());
-        aluno.setNome(dto.getNome());
+        aluno.setNome(dto.getNome().trim());
         aluno.setCurso(curso);
         return aluno;
     }
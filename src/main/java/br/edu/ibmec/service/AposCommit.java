@@ -0,0 +1,40 @@
+package br.edu.ibmec.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia efeitos colaterais em memória (índices, caches) para depois do commit,
+ * evitando que uma transação revertida deixe estruturas fora de sincronia com o banco.
+ * Pelo mesmo motivo, {@link #emTransacaoDeEscrita()} diz quando uma leitura não deve
+ * passar por essas estruturas.
+ */
+public final class AposCommit {
+
+    private AposCommit() {
+    }
+
+    public static void executar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    /**
+     * Há uma transação de escrita em andamento na thread. O que ela lê deve vir dela mesma
+     * (primário, vendo o que já escreveu) e não de cache ou de uma leitura compartilhada com
+     * outra thread, que pode ter vindo da réplica ou de antes da escrita; e o que ela lê pode
+     * ainda não estar confirmado, então também não deve ir para um cache.
+     */
+    public static boolean emTransacaoDeEscrita() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,105 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Move inscrições de períodos encerrados de {@code inscricoes} para {@code inscricoes_arquivo},
+ * mantendo a tabela quente só com o período corrente.
+ *
+ * <p>O período corrente é {@code universidade.arquivamento.periodo-atual} (ex.: {@code 2025/2})
+ * ou, se ausente, o semestre da data de hoje. Cada bloco de {@code universidade.arquivamento.lote}
+ * inscrições é copiado e removido na mesma transação, para que uma falha no meio não deixe
+ * linhas duplicadas nem perdidas.</p>
+ */
+@Service
+public class ArquivamentoInscricoesService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoInscricoesService.class);
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private InscricaoArquivadaRepository arquivoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
+    @Value("${universidade.arquivamento.periodo-atual:}")
+    private String periodoAtual;
+
+    @Value("${universidade.arquivamento.lote:1000}")
+    private int lote;
+
+    private Counter arquivadas;
+
+    @PostConstruct
+    void registrarMetricas() {
+        arquivadas = meterRegistry.counter("universidade.inscricao.arquivadas");
+    }
+
+    @Scheduled(cron = "${universidade.arquivamento.cron:0 30 3 * * *}")
+    public int arquivarPeriodosEncerrados() {
+        int[] atual = periodoAtual();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (true) {
+            Integer movidas = transacao.execute(status -> {
+                List<Long> ids = inscricaoRepository.listarIdsAnterioresAoPeriodo(atual[0], atual[1], Limit.of(lote));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                arquivoRepository.copiarDeInscricoes(ids, Instant.now());
+                indiceInscricoes.removerPares(inscricaoRepository.listarParesPorIds(ids));
+                return inscricaoRepository.removerPorIds(ids);
+            });
+            if (movidas == null || movidas == 0) {
+                break;
+            }
+            total += movidas;
+            arquivadas.increment(movidas);
+        }
+        if (total > 0) {
+            log.info("{} inscrições de períodos anteriores a {}/{} arquivadas", total, atual[0], atual[1]);
+        }
+        return total;
+    }
+
+    /** Verdadeiro se o período já foi (ou será no próximo ciclo) arquivado. */
+    public boolean encerrado(int ano, int semestre) {
+        int[] atual = periodoAtual();
+        return ano < atual[0] || (ano == atual[0] && semestre < atual[1]);
+    }
+
+    /** Ano e semestre do período corrente. */
+    public int[] periodoAtual() {
+        if (periodoAtual != null && !periodoAtual.isBlank()) {
+            String[] partes = periodoAtual.trim().split("/");
+            return new int[] {Integer.parseInt(partes[0]), Integer.parseInt(partes[1])};
+        }
+        LocalDate hoje = LocalDate.now();
+        return new int[] {hoje.getYear(), hoje.getMonthValue() <= 6 ? 1 : 2};
+    }
+}
@@ -0,0 +1,69 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.dto.ItemLoteDTO;
+import br.edu.ibmec.exception.ServiceException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Busca várias chaves de uma vez para os GETs em lote: chaves repetidas são resolvidas uma
+ * vez, o que estiver em cache não vai ao banco e o resto sai em consultas {@code IN} de até
+ * {@code universidade.lote.tamanho-in} chaves. A resposta segue a ordem do pedido, com
+ * {@code encontrado=false} para as chaves que não existem.
+ */
+@Component
+public class BuscaEmLote {
+
+    @Value("${universidade.lote.maximo:1000}")
+    private int maximo;
+
+    @Value("${universidade.lote.tamanho-in:500}")
+    private int tamanhoIn;
+
+    /** Para entidades sem cache local: tudo o que foi pedido vai ao banco. */
+    public <K, V> List<ItemLoteDTO<V>> buscar(List<K> chaves, Function<K, String> rotulo,
+                                              Function<List<K>, Map<K, V>> consultar) throws ServiceException {
+        return buscar(chaves, rotulo, chave -> null, consultar);
+    }
+
+    /**
+     * @param rotulo como a chave aparece no campo {@code chave} da resposta
+     * @param doCache valor já em memória ou {@code null}
+     * @param consultar uma consulta {@code IN} para as chaves do pedaço; chaves ausentes ficam fora do mapa
+     */
+    public <K, V> List<ItemLoteDTO<V>> buscar(List<K> chaves, Function<K, String> rotulo, Function<K, V> doCache,
+                                              Function<List<K>, Map<K, V>> consultar) throws ServiceException {
+        if (chaves.size() > maximo) {
+            throw new ServiceException("No máximo " + maximo + " chaves por requisição");
+        }
+        if (chaves.stream().anyMatch(Objects::isNull)) {
+            throw new ServiceException("Lista de chaves com item vazio");
+        }
+        Map<K, V> encontrados = new HashMap<>();
+        List<K> faltantes = new ArrayList<>();
+        for (K chave : new LinkedHashSet<>(chaves)) {
+            V valor = doCache.apply(chave);
+            if (valor != null) {
+                encontrados.put(chave, valor);
+            } else {
+                faltantes.add(chave);
+            }
+        }
+        for (int inicio = 0; inicio < faltantes.size(); inicio += tamanhoIn) {
+            encontrados.putAll(consultar.apply(faltantes.subList(inicio, Math.min(inicio + tamanhoIn, faltantes.size()))));
+        }
+        List<ItemLoteDTO<V>> itens = new ArrayList<>(chaves.size());
+        for (K chave : chaves) {
+            V valor = encontrados.get(chave);
+            itens.add(new ItemLoteDTO<>(rotulo.apply(chave), valor != null, valor));
+        }
+        return itens;
+    }
+}
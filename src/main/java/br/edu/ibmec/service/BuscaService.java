@@ -0,0 +1,129 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.dto.EstatisticasBuscaDTO;
+import br.edu.ibmec.dto.ResultadoBuscaDTO;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.repository.AlunoRepository;
+import br.edu.ibmec.repository.ProfessorRepository;
+import br.edu.ibmec.service.busca.IndiceNomes;
+import br.edu.ibmec.service.busca.IndiceNomes.Tipo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Busca por nome de alunos e professores servida pelo {@link IndiceNomes} em memória.
+ * O índice é carregado na subida da aplicação e mantido pelos serviços de cadastro.
+ * Alterações confirmadas durante a carga ficam guardadas e são aplicadas depois dela,
+ * para que a reconstrução com a leitura anterior não as desfaça.
+ */
+@Service
+public class BuscaService {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaService.class);
+    private static final int LIMITE_MAXIMO = 100;
+
+    private final IndiceNomes indice = new IndiceNomes();
+    private final Object monitor = new Object();
+    private List<Consumer<IndiceNomes>> duranteCarga;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregarIndice() {
+        long inicio = System.nanoTime();
+        synchronized (monitor) {
+            duranteCarga = new ArrayList<>();
+        }
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        List<Object[]> alunos = leitura.execute(status -> alunoRepository.listarMatriculasENomes());
+        List<Object[]> professores = leitura.execute(status -> professorRepository.listarIdsENomes());
+        indice.reconstruir(Tipo.ALUNO, alunos);
+        indice.reconstruir(Tipo.PROFESSOR, professores);
+        synchronized (monitor) {
+            duranteCarga.forEach(operacao -> operacao.accept(indice));
+            duranteCarga = null;
+        }
+        IndiceNomes.Estatisticas estatisticas = indice.estatisticas();
+        log.info("Índice de nomes carregado: {} documentos, {} trigramas, ~{} KB em {} ms",
+                estatisticas.documentos(), estatisticas.trigramas(), estatisticas.bytesEstimados() / 1024,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public List<ResultadoBuscaDTO> buscar(String consulta, int limite) throws ServiceException {
+        if (consulta == null || consulta.isBlank()) {
+            throw new ServiceException("Informe o termo de busca");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ServiceException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return indice.buscar(consulta, limite).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public EstatisticasBuscaDTO estatisticas() {
+        IndiceNomes.Estatisticas estatisticas = indice.estatisticas();
+        return EstatisticasBuscaDTO.builder()
+                .documentos(estatisticas.documentos())
+                .removidos(estatisticas.removidos())
+                .trigramas(estatisticas.trigramas())
+                .postings(estatisticas.postings())
+                .bytesEstimados(estatisticas.bytesEstimados())
+                .build();
+    }
+
+    public void indexarAluno(int matricula, String nome) {
+        aplicar(indice -> indice.indexar(Tipo.ALUNO, matricula, nome));
+    }
+
+    public void removerAluno(int matricula) {
+        aplicar(indice -> indice.remover(Tipo.ALUNO, matricula));
+    }
+
+    public void indexarProfessor(long id, String nome) {
+        aplicar(indice -> indice.indexar(Tipo.PROFESSOR, id, nome));
+    }
+
+    public void removerProfessor(long id) {
+        aplicar(indice -> indice.remover(Tipo.PROFESSOR, id));
+    }
+
+    private void aplicar(Consumer<IndiceNomes> operacao) {
+        AposCommit.executar(() -> {
+            synchronized (monitor) {
+                if (duranteCarga != null) {
+                    duranteCarga.add(operacao);
+                } else {
+                    operacao.accept(indice);
+                }
+            }
+        });
+    }
+
+    private ResultadoBuscaDTO convertToDTO(IndiceNomes.Resultado resultado) {
+        return ResultadoBuscaDTO.builder()
+                .tipo(resultado.tipo().name())
+                .id(resultado.id())
+                .nome(resultado.nome())
+                .pontuacao(resultado.pontuacao())
+                .build();
+    }
+}
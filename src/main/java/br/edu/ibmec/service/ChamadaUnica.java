@@ -0,0 +1,82 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.exception.DaoException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalescência de chamadas idênticas ("single flight"): enquanto uma busca por uma
+ * chave está em andamento, as demais chamadas com a mesma chave esperam e recebem
+ * o mesmo resultado (ou a mesma exceção), sem nova ida ao banco. Nada é guardado
+ * depois que a chamada termina.
+ */
+public class ChamadaUnica<K, V> {
+
+    /** Carga executada apenas pela primeira chamada de cada chave. */
+    @FunctionalInterface
+    public interface Carregador<V> {
+        V carregar() throws DaoException;
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+    private final LongAdder executadas = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+
+    public V executar(K chave, Carregador<V> carregador) throws DaoException {
+        CompletableFuture<V> nova = new CompletableFuture<>();
+        CompletableFuture<V> existente = emAndamento.putIfAbsent(chave, nova);
+        if (existente != null) {
+            coalescidas.increment();
+            return aguardar(existente);
+        }
+        executadas.increment();
+        try {
+            V valor = carregador.carregar();
+            nova.complete(valor);
+            return valor;
+        } catch (DaoException | RuntimeException | Error e) {
+            nova.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+    }
+
+    public long getExecutadas() {
+        return executadas.sum();
+    }
+
+    public long getCoalescidas() {
+        return coalescidas.sum();
+    }
+
+    public void registrarMetricas(String consulta, MeterRegistry registry) {
+        FunctionCounter.builder("universidade.coalescencia.chamadas", this, ChamadaUnica::getExecutadas)
+                .tag("consulta", consulta).tag("resultado", "executada").register(registry);
+        FunctionCounter.builder("universidade.coalescencia.chamadas", this, ChamadaUnica::getCoalescidas)
+                .tag("consulta", consulta).tag("resultado", "coalescida").register(registry);
+    }
+
+    private static <V> V aguardar(CompletableFuture<V> futuro) throws DaoException {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof DaoException daoException) {
+                throw daoException;
+            }
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package br.edu.ibmec.service;
 
+import br.edu.ibmec.dto.Campos;
 import br.edu.ibmec.dto.CursoDTO;
 import br.edu.ibmec.entity.Curso;
+import br.edu.ibmec.entity.Mudanca.Operacao;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
 import br.edu.ibmec.exception.ServiceException.ServiceExceptionEnum;
+import br.edu.ibmec.json.FormatoJson;
+import br.edu.ibmec.json.LinhasJson;
+import br.edu.ibmec.repository.AlunoNaTurmaRepository;
 import br.edu.ibmec.repository.CursoRepository;
+import br.edu.ibmec.repository.DisciplinaRepository;
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,6 +28,30 @@ public class CursoRepositoryService {
     @Autowired
     private CursoRepository cursoRepository;
 
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private InscricaoArquivadaRepository inscricaoArquivadaRepository;
+
+    @Autowired
+    private AlunoNaTurmaRepository alunosNaTurma;
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
+    @Autowired
+    private AlunoRepositoryService alunoService;
+
     @Transactional(readOnly = true)
     public CursoDTO buscarCurso(int codigo) throws DaoException {
         Curso curso = cursoRepository.findByCodigo(codigo);
@@ -36,6 +68,12 @@ public class CursoRepositoryService {
                 .collect(Collectors.toList());
     }
 
+    /** Para a listagem da API: as linhas vão direto para a resposta (ver {@link LinhasJson}). */
+    @Transactional(readOnly = true)
+    public LinhasJson listarCursos(Campos campos) {
+        return new LinhasJson(FormatoJson.CURSO, cursoRepository.listarCodigosENomes(), campos);
+    }
+
     public void cadastrarCurso(CursoDTO dto) throws ServiceException {
         validar(dto);
         if (cursoRepository.existsByCodigo(dto.getCodigo())) {
@@ -43,26 +81,40 @@ public class CursoRepositoryService {
         }
         Curso curso = new Curso();
         curso.setCodigo(dto.getCodigo());
-        curso.setNome(dto.getNome());
+        curso.setNome(dto.getNome().trim());
         cursoRepository.save(curso);
+        mudancaService.registrar("CURSO", String.valueOf(curso.getCodigo()), Operacao.CRIACAO, convertToDTO(curso));
     }
 
     public void alterarCurso(CursoDTO dto) throws ServiceException, DaoException {
         validar(dto);
-        Optional<Curso> existente = cursoRepository.findById(dto.getCodigo());
-        if (existente.isEmpty()) {
+        String nome = dto.getNome().trim();
+        if (cursoRepository.alterarNome(dto.getCodigo(), nome) == 0) {
             throw new DaoException("Curso com código " + dto.getCodigo() + " não encontrado");
         }
-        Curso curso = existente.get();
-        curso.setNome(dto.getNome());
-        cursoRepository.save(curso);
+        alunosNaTurma.alterarNomeCurso(dto.getCodigo(), nome);
+        mudancaService.registrar("CURSO", String.valueOf(dto.getCodigo()), Operacao.ALTERACAO, new CursoDTO(dto.getCodigo(), nome));
+        alunoService.invalidarCacheAposCommit();
     }
 
+    /**
+     * A cascata curso → disciplinas → turmas → inscrições vira uma instrução por tabela, de
+     * baixo para cima, em vez de carregar e remover entidade por entidade. Cada filho removido
+     * entra no log de mudanças antes, também com uma instrução por tabela.
+     */
     public void removerCurso(int codigo) throws DaoException {
-        if (!cursoRepository.existsById(codigo)) {
+        mudancaService.registrarCascataDoCurso(codigo);
+        alunosNaTurma.removerPorCurso(codigo);
+        inscricaoArquivadaRepository.removerPorCurso(codigo);
+        inscricaoRepository.removerPorCurso(codigo);
+        turmaRepository.removerPorCurso(codigo);
+        disciplinaRepository.removerPorCurso(codigo);
+        if (cursoRepository.removerPorCodigo(codigo) == 0) {
             throw new DaoException("Curso com código " + codigo + " não encontrado");
         }
-        cursoRepository.deleteById(codigo);
+        mudancaService.registrar("CURSO", String.valueOf(codigo), Operacao.REMOCAO, null);
+        indiceInscricoes.recarregarAposCommit();
+        alunoService.invalidarCacheAposCommit();
     }
 
     private void validar(CursoDTO dto) throws ServiceException {
@@ -1,15 +1,22 @@
 package br.edu.ibmec.service;
 
+import br.edu.ibmec.dto.Campos;
 import br.edu.ibmec.dto.DisciplinaDTO;
 import br.edu.ibmec.entity.Curso;
 import br.edu.ibmec.entity.Disciplina;
+import br.edu.ibmec.entity.Mudanca.Operacao;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
 import br.edu.ibmec.exception.ServiceException.ServiceExceptionEnum;
+import br.edu.ibmec.json.FormatoJson;
+import br.edu.ibmec.json.LinhasJson;
+import br.edu.ibmec.repository.AlunoNaTurmaRepository;
 import br.edu.ibmec.repository.CursoRepository;
 import br.edu.ibmec.repository.DisciplinaRepository;
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -25,6 +32,24 @@ public class DisciplinaRepositoryService {
     @Autowired
     private CursoRepository cursoRepository;
 
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private InscricaoArquivadaRepository inscricaoArquivadaRepository;
+
+    @Autowired
+    private AlunoNaTurmaRepository alunosNaTurma;
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
     @Transactional(readOnly = true)
     public DisciplinaDTO buscarDisciplina(int codigo) throws DaoException {
         Disciplina disciplina = disciplinaRepository.findByCodigo(codigo);
@@ -41,6 +66,12 @@ public class DisciplinaRepositoryService {
                 .collect(Collectors.toList());
     }
 
+    /** Para a listagem da API: as linhas vão direto para a resposta (ver {@link LinhasJson}). */
+    @Transactional(readOnly = true)
+    public LinhasJson listarDisciplinas(Campos campos) {
+        return new LinhasJson(FormatoJson.DISCIPLINA, disciplinaRepository.listarResumo(), campos);
+    }
+
     public void cadastrarDisciplina(DisciplinaDTO dto) throws ServiceException, DaoException {
         validar(dto);
         if (disciplinaRepository.existsByCodigo(dto.getCodigo())) {
@@ -49,28 +80,38 @@ public class DisciplinaRepositoryService {
         Curso curso = obterCurso(dto.getCurso());
         Disciplina disciplina = new Disciplina();
         disciplina.setCodigo(dto.getCodigo());
-        disciplina.setNome(dto.getNome());
+        disciplina.setNome(dto.getNome().trim());
         disciplina.setCurso(curso);
         disciplinaRepository.save(disciplina);
+        mudancaService.registrar("DISCIPLINA", String.valueOf(disciplina.getCodigo()), Operacao.CRIACAO, convertToDTO(disciplina));
     }
 
+    /** Um único {@code UPDATE}; com 0 linhas, uma consulta a mais diz se faltou a disciplina ou o curso. */
     public void alterarDisciplina(DisciplinaDTO dto) throws ServiceException, DaoException {
         validar(dto);
-        Optional<Disciplina> existente = disciplinaRepository.findById(dto.getCodigo());
-        if (existente.isEmpty()) {
-            throw new DaoException("Disciplina com código " + dto.getCodigo() + " não encontrada");
+        String nome = dto.getNome().trim();
+        if (disciplinaRepository.alterar(dto.getCodigo(), nome, cursoRepository.getReferenceById(dto.getCurso())) == 0) {
+            if (!disciplinaRepository.existsById(dto.getCodigo())) {
+                throw new DaoException("Disciplina com código " + dto.getCodigo() + " não encontrada");
+            }
+            throw new DaoException("Curso com código " + dto.getCurso() + " não encontrado");
         }
-        Disciplina disciplina = existente.get();
-        disciplina.setNome(dto.getNome());
-        disciplina.setCurso(obterCurso(dto.getCurso()));
-        disciplinaRepository.save(disciplina);
+        mudancaService.registrar("DISCIPLINA", String.valueOf(dto.getCodigo()), Operacao.ALTERACAO,
+                new DisciplinaDTO(dto.getCodigo(), nome, dto.getCurso()));
     }
 
+    /** Inscrições (ativas e arquivadas) e turmas da disciplina saem antes, uma instrução por tabela. */
     public void removerDisciplina(int codigo) throws DaoException {
-        if (!disciplinaRepository.existsById(codigo)) {
+        mudancaService.registrarCascataDaDisciplina(codigo);
+        alunosNaTurma.removerPorDisciplina(codigo);
+        inscricaoArquivadaRepository.removerPorDisciplina(codigo);
+        inscricaoRepository.removerPorDisciplina(codigo);
+        turmaRepository.removerPorDisciplina(codigo);
+        if (disciplinaRepository.removerPorCodigo(codigo) == 0) {
             throw new DaoException("Disciplina com código " + codigo + " não encontrada");
         }
-        disciplinaRepository.deleteById(codigo);
+        mudancaService.registrar("DISCIPLINA", String.valueOf(codigo), Operacao.REMOCAO, null);
+        indiceInscricoes.recarregarAposCommit();
     }
 
     private void validar(DisciplinaDTO dto) throws ServiceException {
@@ -0,0 +1,210 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.exception.TempoEsgotadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Modo opcional de group commit para {@code POST /api/inscricao}.
+ *
+ * <p>As requisições entram numa fila limitada e threads escritoras juntam até
+ * {@code tamanho-lote} inscrições (ou esperam no máximo {@code espera-maxima}) numa única
+ * transação, pagando um commit por lote em vez de um por inscrição. Cada chamador só
+ * recebe seu sucesso ou erro depois do commit compartilhado. Se o lote falhar no banco,
+ * as inscrições são refeitas uma a uma para que cada chamador receba o próprio erro.</p>
+ *
+ * <p>Com a fila cheia, ou durante o desligamento, o chamador grava pelo caminho normal.
+ * No desligamento as escritoras esvaziam a fila antes de encerrar. O chamador espera no
+ * máximo {@code espera-resultado}: se o pedido ainda estava na fila, ele o retira e grava
+ * pelo caminho normal; se uma escritora já o pegou, recebe {@link TempoEsgotadoException}.</p>
+ */
+@Service
+@ConditionalOnProperty(prefix = "universidade.inscricao.grupo", name = "habilitado", havingValue = "true")
+public class GrupoCommitInscricoes {
+
+    private static final Logger log = LoggerFactory.getLogger(GrupoCommitInscricoes.class);
+
+    @Autowired
+    private InscricaoRepositoryService inscricaoService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${universidade.inscricao.grupo.tamanho-lote:64}")
+    private int tamanhoLote;
+
+    @Value("${universidade.inscricao.grupo.espera-maxima:5ms}")
+    private Duration esperaMaxima;
+
+    @Value("${universidade.inscricao.grupo.capacidade-fila:2048}")
+    private int capacidadeFila;
+
+    @Value("${universidade.inscricao.grupo.escritoras:2}")
+    private int escritoras;
+
+    @Value("${universidade.inscricao.grupo.tempo-desligamento:30s}")
+    private Duration tempoDesligamento;
+
+    @Value("${universidade.inscricao.grupo.espera-resultado:10s}")
+    private Duration esperaResultado;
+
+    private BlockingQueue<Pedido> fila;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean aceitando;
+    private DistributionSummary lotes;
+    private Counter refeitas;
+    private Counter diretas;
+
+    @PostConstruct
+    void iniciar() {
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        lotes = DistributionSummary.builder("universidade.inscricao.grupo.lote").register(meterRegistry);
+        refeitas = meterRegistry.counter("universidade.inscricao.grupo.refeitas");
+        diretas = meterRegistry.counter("universidade.inscricao.grupo.diretas");
+        meterRegistry.gaugeCollectionSize("universidade.inscricao.grupo.fila", List.of(), fila);
+        aceitando = true;
+        for (int i = 0; i < escritoras; i++) {
+            Thread thread = new Thread(this::escrever, "grupo-commit-inscricoes-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        aceitando = false;
+        long limite = System.nanoTime() + tempoDesligamento.toNanos();
+        for (Thread thread : threads) {
+            thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime())));
+        }
+        if (!fila.isEmpty()) {
+            log.warn("{} inscrições ainda na fila após {}; gravando no caminho normal", fila.size(), tempoDesligamento);
+            List<Pedido> restantes = new ArrayList<>();
+            fila.drainTo(restantes);
+            restantes.forEach(this::gravarSozinho);
+        }
+    }
+
+    public void cadastrar(InscricaoDTO dto) throws ServiceException, DaoException {
+        Pedido pedido = new Pedido(dto, new CompletableFuture<>());
+        if (!aceitando || !fila.offer(pedido)) {
+            diretas.increment();
+            inscricaoService.cadastrarInscricao(dto);
+            return;
+        }
+        try {
+            pedido.resultado().get(esperaResultado.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (fila.remove(pedido)) {
+                diretas.increment();
+                inscricaoService.cadastrarInscricao(dto);
+                return;
+            }
+            throw new TempoEsgotadoException("Tempo esgotado aguardando o commit da inscrição " + dto.getId()
+                    + "; consulte a inscrição antes de reenviar");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o commit da inscrição", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof ServiceException serviceException) {
+                throw serviceException;
+            }
+            if (causa instanceof DaoException daoException) {
+                throw daoException;
+            }
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(causa);
+        }
+    }
+
+    private void escrever() {
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+        while (aceitando || !fila.isEmpty()) {
+            try {
+                Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                long prazo = System.nanoTime() + esperaMaxima.toNanos();
+                while (lote.size() < tamanhoLote) {
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                    long restante = prazo - System.nanoTime();
+                    if (lote.size() >= tamanhoLote || restante <= 0) {
+                        break;
+                    }
+                    Pedido proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo != null) {
+                        lote.add(proximo);
+                    }
+                }
+                gravar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha inesperada na escritora de inscrições", e);
+                lote.forEach(pedido -> pedido.resultado().completeExceptionally(e));
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<Pedido> lote) {
+        lotes.record(lote.size());
+        List<Exception> falhas;
+        try {
+            falhas = inscricaoService.cadastrarInscricoes(lote.stream().map(Pedido::dto).toList());
+        } catch (RuntimeException e) {
+            log.debug("Lote de {} inscrições revertido, refazendo individualmente", lote.size(), e);
+            refeitas.increment(lote.size());
+            lote.forEach(this::gravarSozinho);
+            return;
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            CompletableFuture<Void> resultado = lote.get(i).resultado();
+            if (falhas.get(i) == null) {
+                resultado.complete(null);
+            } else {
+                resultado.completeExceptionally(falhas.get(i));
+            }
+        }
+    }
+
+    private void gravarSozinho(Pedido pedido) {
+        try {
+            inscricaoService.cadastrarInscricao(pedido.dto());
+            pedido.resultado().complete(null);
+        } catch (Exception e) {
+            pedido.resultado().completeExceptionally(e);
+        }
+    }
+
+    private record Pedido(InscricaoDTO dto, CompletableFuture<Void> resultado) {
+    }
+}
@@ -0,0 +1,149 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.dto.ArquivoColunarDTO;
+import br.edu.ibmec.dto.InscricaoHistoricaDTO;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.repository.AlunoRepository;
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
+import br.edu.ibmec.service.colunar.ArquivoColunar;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Exporta períodos encerrados para {@link ArquivoColunar} e responde consultas históricas
+ * direto dos arquivos mapeados em memória, sem abrir conexão com o banco.
+ */
+@Service
+public class HistoricoColunarService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoricoColunarService.class);
+
+    @Autowired
+    private InscricaoArquivadaRepository arquivoRepository;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ArquivamentoInscricoesService arquivamento;
+
+    @Value("${universidade.colunar.diretorio:arquivo-colunar}")
+    private String diretorio;
+
+    private final Map<String, ArquivoColunar> abertos = new ConcurrentHashMap<>();
+
+    @Transactional(readOnly = true)
+    public ArquivoColunarDTO exportar(int ano, int semestre) throws ServiceException {
+        if (!arquivamento.encerrado(ano, semestre)) {
+            throw new ServiceException("Só é possível exportar períodos encerrados");
+        }
+        long inicio = System.nanoTime();
+        List<ArquivoColunar.Inscricao> inscricoes = new ArrayList<>();
+        arquivoRepository.listarDoPeriodo(ano, semestre).forEach(linha -> inscricoes.add(inscricao(linha)));
+        inscricaoRepository.listarDoPeriodo(ano, semestre).forEach(linha -> inscricoes.add(inscricao(linha)));
+        List<ArquivoColunar.Aluno> alunos = alunoRepository.listarNomesInscritosNoPeriodo(ano, semestre).stream()
+                .map(linha -> new ArquivoColunar.Aluno((Integer) linha[0], (String) linha[1]))
+                .collect(Collectors.toList());
+        List<ArquivoColunar.Turma> turmas = turmaRepository.listarResumoDoPeriodo(ano, semestre).stream()
+                .map(linha -> new ArquivoColunar.Turma((Integer) linha[0], (String) linha[1], (String) linha[2]))
+                .collect(Collectors.toList());
+        Path destino = caminho(ano, semestre);
+        try {
+            long bytes = ArquivoColunar.escrever(destino, ano, semestre, inscricoes, alunos, turmas);
+            abertos.put(chave(ano, semestre), ArquivoColunar.abrir(destino));
+            log.info("Período {}/{} exportado: {} inscrições, {} KB em {} ms", ano, semestre, inscricoes.size(),
+                    bytes / 1024, (System.nanoTime() - inicio) / 1_000_000);
+            return ArquivoColunarDTO.builder()
+                    .ano(ano)
+                    .semestre(semestre)
+                    .inscricoes(inscricoes.size())
+                    .bytes(bytes)
+                    .arquivo(destino.toString())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar " + destino, e);
+        }
+    }
+
+    public List<InscricaoHistoricaDTO> inscritosNaTurma(int ano, int semestre, int codigo) throws DaoException {
+        return abrir(ano, semestre).inscritosNaTurma(codigo).stream()
+                .map(linha -> convertToDTO(linha, ano, semestre))
+                .collect(Collectors.toList());
+    }
+
+    public List<InscricaoHistoricaDTO> turmasDoAluno(int ano, int semestre, int matricula) throws DaoException {
+        return abrir(ano, semestre).turmasDoAluno(matricula).stream()
+                .map(linha -> convertToDTO(linha, ano, semestre))
+                .collect(Collectors.toList());
+    }
+
+    private ArquivoColunar abrir(int ano, int semestre) throws DaoException {
+        ArquivoColunar aberto = abertos.get(chave(ano, semestre));
+        if (aberto != null) {
+            return aberto;
+        }
+        Path caminho = caminho(ano, semestre);
+        if (!Files.exists(caminho)) {
+            throw new DaoException("Período " + ano + "/" + semestre + " não foi exportado");
+        }
+        try {
+            return abertos.computeIfAbsent(chave(ano, semestre), chave -> {
+                try {
+                    return ArquivoColunar.abrir(caminho);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("Falha ao abrir " + caminho, e.getCause());
+        }
+    }
+
+    private Path caminho(int ano, int semestre) {
+        return Paths.get(diretorio, "inscricoes-" + ano + "-" + semestre + ".col");
+    }
+
+    private static String chave(int ano, int semestre) {
+        return ano + "/" + semestre;
+    }
+
+    private static ArquivoColunar.Inscricao inscricao(Object[] linha) {
+        return new ArquivoColunar.Inscricao((Long) linha[0], (Integer) linha[1], (Integer) linha[2]);
+    }
+
+    private InscricaoHistoricaDTO convertToDTO(ArquivoColunar.Linha linha, int ano, int semestre) {
+        return InscricaoHistoricaDTO.builder()
+                .id(linha.id())
+                .alunoMatricula(linha.matricula())
+                .alunoNome(linha.aluno())
+                .turmaCodigo(linha.turma())
+                .disciplinaNome(linha.disciplina())
+                .professorNome(linha.professor())
+                .ano(ano)
+                .semestre(semestre)
+                .build();
+    }
+}
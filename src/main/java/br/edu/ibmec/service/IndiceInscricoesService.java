@@ -0,0 +1,233 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.dto.EstatisticasIndiceInscricoesDTO;
+import br.edu.ibmec.entity.Turma;
+import br.edu.ibmec.entity.TurmaId;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
+import br.edu.ibmec.service.indice.IndiceInscricoes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mantém o {@link IndiceInscricoes} em memória e responde por ele as perguntas de
+ * pertinência ("aluno está inscrito?"), lista de matrículas da turma e interseções.
+ *
+ * <p>O índice é carregado na subida da aplicação em páginas por id e acompanha as
+ * gravações depois do commit ({@link AposCommit}). Alterações confirmadas durante uma
+ * carga são enfileiradas e aplicadas, na ordem, quando ela termina. Enquanto o índice
+ * não está {@link #disponivel()}, as consultas vão ao banco.</p>
+ */
+@Service
+public class IndiceInscricoesService {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceInscricoesService.class);
+
+    private final IndiceInscricoes indice = new IndiceInscricoes();
+    private final Object monitor = new Object();
+    private List<Consumer<IndiceInscricoes>> duranteCarga;
+    private volatile boolean disponivel;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${universidade.indice-inscricoes.lote-carga:50000}")
+    private int loteCarga;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregarIndice() {
+        long inicio = System.nanoTime();
+        synchronized (monitor) {
+            disponivel = false;
+            duranteCarga = new ArrayList<>();
+            indice.limpar();
+        }
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        leitura.executeWithoutResult(status -> turmaRepository.listarChaves().forEach(linha -> indice.registrarTurma(
+                Math.toIntExact((Long) linha[0]), new TurmaId((Integer) linha[1], (Integer) linha[2], (Integer) linha[3]))));
+        long depois = 0;
+        while (true) {
+            long cursor = depois;
+            List<Object[]> pagina = leitura.execute(status -> inscricaoRepository.listarParesAposId(cursor, Limit.of(loteCarga)));
+            if (pagina == null || pagina.isEmpty()) {
+                break;
+            }
+            for (Object[] linha : pagina) {
+                indice.adicionar((Integer) linha[1], Math.toIntExact((Long) linha[2]));
+            }
+            depois = (Long) pagina.get(pagina.size() - 1)[0];
+        }
+        synchronized (monitor) {
+            duranteCarga.forEach(operacao -> operacao.accept(indice));
+            duranteCarga = null;
+            disponivel = true;
+        }
+        IndiceInscricoes.Estatisticas estatisticas = indice.estatisticas();
+        log.info("Índice de inscrições carregado: {} inscrições, {} turmas, {} alunos, ~{} KB em {} ms",
+                estatisticas.inscricoes(), estatisticas.turmas(), estatisticas.alunos(),
+                estatisticas.bytesEstimados() / 1024, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public boolean disponivel() {
+        return disponivel;
+    }
+
+    public void registrarTurma(Turma turma) {
+        int id = Math.toIntExact(turma.getId());
+        TurmaId chave = new TurmaId(turma.getCodigo(), turma.getAno(), turma.getSemestre());
+        aplicar(indice -> indice.registrarTurma(id, chave));
+    }
+
+    public void adicionar(int matricula, Turma turma) {
+        int id = Math.toIntExact(turma.getId());
+        TurmaId chave = new TurmaId(turma.getCodigo(), turma.getAno(), turma.getSemestre());
+        aplicar(indice -> {
+            indice.registrarTurma(id, chave);
+            indice.adicionar(matricula, id);
+        });
+    }
+
+    public void remover(int matricula, Turma turma) {
+        int id = Math.toIntExact(turma.getId());
+        aplicar(indice -> indice.remover(matricula, id));
+    }
+
+    /** Pares (matrícula, id da turma) que saíram da tabela quente, como no arquivamento. */
+    public void removerPares(Collection<Object[]> pares) {
+        aplicar(indice -> pares.forEach(par -> indice.remover((Integer) par[0], Math.toIntExact((Long) par[1]))));
+    }
+
+    public void removerAluno(int matricula) {
+        aplicar(indice -> indice.removerAluno(matricula));
+    }
+
+    public void removerTurma(long turmaId) {
+        int id = Math.toIntExact(turmaId);
+        aplicar(indice -> indice.removerTurma(id));
+    }
+
+    /** Para remoções em cascata (curso, disciplina) que apagam inscrições sem passar pelos serviços. */
+    public void recarregarAposCommit() {
+        AposCommit.executar(() -> CompletableFuture.runAsync(this::carregarIndice)
+                .exceptionally(e -> {
+                    log.error("Falha ao recarregar o índice de inscrições", e);
+                    return null;
+                }));
+    }
+
+    /** Só deve ser chamado com o índice {@link #disponivel()}. */
+    public boolean inscrito(int matricula, int codigo, int ano, int semestre) {
+        return indice.inscrito(matricula, indice.idDaTurma(new TurmaId(codigo, ano, semestre)));
+    }
+
+    /** Só deve ser chamado com o índice {@link #disponivel()}. */
+    public int inscritos(int codigo, int ano, int semestre) {
+        return indice.inscritos(indice.idDaTurma(new TurmaId(codigo, ano, semestre)));
+    }
+
+    /** Matrículas inscritas na turma, em ordem crescente. */
+    public int[] matriculasDaTurma(int codigo, int ano, int semestre) throws DaoException {
+        if (!disponivel) {
+            return matriculasNoBanco(codigo, ano, semestre);
+        }
+        int id = indice.idDaTurma(new TurmaId(codigo, ano, semestre));
+        if (id < 0) {
+            throw new DaoException("Turma não encontrada");
+        }
+        return indice.alunosDaTurma(id);
+    }
+
+    /** Matrículas inscritas em todas as turmas informadas, em ordem crescente. */
+    public int[] intersecao(List<TurmaId> turmas) throws DaoException {
+        if (!disponivel) {
+            int[] resultado = null;
+            for (TurmaId turma : turmas) {
+                int[] matriculas = matriculasNoBanco(turma.getCodigo(), turma.getAno(), turma.getSemestre());
+                resultado = resultado == null ? matriculas : intersecao(resultado, matriculas);
+            }
+            return resultado != null ? resultado : new int[0];
+        }
+        int[] ids = new int[turmas.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = indice.idDaTurma(turmas.get(i));
+            if (ids[i] < 0) {
+                throw new DaoException("Turma não encontrada");
+            }
+        }
+        return indice.intersecao(ids);
+    }
+
+    public EstatisticasIndiceInscricoesDTO estatisticas() {
+        IndiceInscricoes.Estatisticas estatisticas = indice.estatisticas();
+        return EstatisticasIndiceInscricoesDTO.builder()
+                .disponivel(disponivel)
+                .turmas(estatisticas.turmas())
+                .alunos(estatisticas.alunos())
+                .inscricoes(estatisticas.inscricoes())
+                .bytesEstimados(estatisticas.bytesEstimados())
+                .build();
+    }
+
+    private void aplicar(Consumer<IndiceInscricoes> operacao) {
+        AposCommit.executar(() -> {
+            synchronized (monitor) {
+                if (duranteCarga != null) {
+                    duranteCarga.add(operacao);
+                } else {
+                    operacao.accept(indice);
+                }
+            }
+        });
+    }
+
+    private int[] matriculasNoBanco(int codigo, int ano, int semestre) throws DaoException {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        int[] matriculas = leitura.execute(status -> turmaRepository.existsByCodigoAndAnoAndSemestre(codigo, ano, semestre)
+                ? inscricaoRepository.listarMatriculasDaTurma(codigo, ano, semestre).stream().mapToInt(Integer::intValue).toArray()
+                : null);
+        if (matriculas == null) {
+            throw new DaoException("Turma não encontrada");
+        }
+        return matriculas;
+    }
+
+    private static int[] intersecao(int[] a, int[] b) {
+        int[] comuns = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                comuns[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(comuns, n);
+    }
+}
@@ -1,20 +1,40 @@
 package br.edu.ibmec.service;
 
+import br.edu.ibmec.dto.Campos;
 import br.edu.ibmec.dto.InscricaoDTO;
 import br.edu.ibmec.entity.Aluno;
 import br.edu.ibmec.entity.Inscricao;
+import br.edu.ibmec.entity.InscricaoArquivada;
 import br.edu.ibmec.entity.Turma;
+import br.edu.ibmec.entity.TurmaId;
+import br.edu.ibmec.entity.Mudanca.Operacao;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.json.FormatoJson;
+import br.edu.ibmec.json.LinhasJson;
+import br.edu.ibmec.repository.AlunoNaTurmaRepository;
 import br.edu.ibmec.repository.AlunoRepository;
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
 import br.edu.ibmec.repository.InscricaoRepository;
 import br.edu.ibmec.repository.TurmaRepository;
+import br.edu.ibmec.service.validation.ExistenciaInscricaoStrategy;
 import br.edu.ibmec.service.validation.InscricaoValidacaoStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
 
 @Service
 @Transactional
@@ -28,77 +48,291 @@ public class InscricaoRepositoryService {
 
     @Autowired
     private TurmaRepository turmaRepository;
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private InscricoesAoVivoService inscricoesAoVivo;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InscricaoArquivadaRepository arquivoRepository;
+
+    @Autowired
+    private AlunoNaTurmaRepository alunosNaTurma;
+
+    @Autowired
+    private ArquivamentoInscricoesService arquivamento;
     
     @Autowired
     private List<InscricaoValidacaoStrategy> inscricaoValidacoes;
 
+    /**
+     * Linhas de projeção escritas direto na resposta (ver {@link LinhasJson}). Só faz join com
+     * turmas se algum campo da turma foi pedido.
+     */
     @Transactional(readOnly = true)
-    public List<InscricaoDTO> listarInscricoes() {
-        return inscricaoRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public LinhasJson listarInscricoes(Campos campos) {
+        List<Object[]> linhas = pedeTurma(campos) ? inscricaoRepository.listarComTurma() : inscricaoRepository.listarSemTurma();
+        return new LinhasJson(FormatoJson.INSCRICAO, linhas, campos);
     }
 
+    /** Histórico completo do aluno: inscrições arquivadas seguidas das do período corrente. */
     @Transactional(readOnly = true)
-    public List<InscricaoDTO> listarInscricoesPorAluno(int matricula) {
-        return inscricaoRepository.findByAlunoMatricula(matricula).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public LinhasJson listarInscricoesPorAluno(int matricula, Campos campos) {
+        List<Object[]> linhas = new ArrayList<>();
+        arquivoRepository.findByAlunoMatricula(matricula).forEach(inscricao -> linhas.add(linha(inscricao)));
+        linhas.addAll(pedeTurma(campos)
+                ? inscricaoRepository.listarDoAlunoComTurma(matricula)
+                : inscricaoRepository.listarDoAlunoSemTurma(matricula));
+        return new LinhasJson(FormatoJson.INSCRICAO, linhas, campos);
     }
 
+    /**
+     * Turmas do período corrente só consultam a tabela quente; as de períodos encerrados incluem o arquivo.
+     * Os campos da turma já são conhecidos, então a turma nunca é carregada.
+     */
     @Transactional(readOnly = true)
-    public List<InscricaoDTO> listarInscricoesPorTurma(int codigo, int ano, int semestre) {
-        return inscricaoRepository.findByTurmaCodigoAndTurmaAnoAndTurmaSemestre(codigo, ano, semestre).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public LinhasJson listarInscricoesPorTurma(int codigo, int ano, int semestre, Campos campos) {
+        List<Object[]> linhas = new ArrayList<>();
+        if (arquivamento.encerrado(ano, semestre)) {
+            arquivoRepository.findByTurmaCodigoAndTurmaAnoAndTurmaSemestre(codigo, ano, semestre)
+                    .forEach(inscricao -> linhas.add(linha(inscricao)));
+        }
+        List<Object[]> pares = inscricaoRepository.listarDaTurma(codigo, ano, semestre);
+        if (pedeTurma(campos)) {
+            Integer turmaCodigo = codigo;
+            Integer turmaAno = ano;
+            Integer turmaSemestre = semestre;
+            pares.forEach(par -> linhas.add(new Object[] {par[0], par[1], turmaCodigo, turmaAno, turmaSemestre}));
+        } else {
+            linhas.addAll(pares);
+        }
+        return new LinhasJson(FormatoJson.INSCRICAO, linhas, campos);
     }
 
     @Transactional(readOnly = true)
     public InscricaoDTO buscarInscricao(int matricula, int codigo, int ano, int semestre) throws DaoException {
-        Inscricao inscricao = inscricaoRepository.findByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(matricula, codigo, ano, semestre)
-                .orElseThrow(() -> new DaoException("Inscrição não encontrada"));
-        return convertToDTO(inscricao);
+        Optional<InscricaoDTO> inscricao = inscricaoRepository.buscarId(matricula, codigo, ano, semestre)
+                .map(id -> novoDTO(id, matricula, codigo, ano, semestre));
+        if (inscricao.isEmpty() && arquivamento.encerrado(ano, semestre)) {
+            inscricao = arquivoRepository.findByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(matricula, codigo, ano, semestre)
+                    .map(this::convertToDTO);
+        }
+        return inscricao.orElseThrow(() -> new DaoException("Inscrição não encontrada"));
     }
 
     public void cadastrarInscricao(InscricaoDTO dto) throws ServiceException, DaoException {
-        aplicarValidacoes(dto);
-        if (dto.getId() == null || dto.getId() < 1) {
-            throw new ServiceException("Id da inscrição é obrigatório");
+        Inscricao inscricao = prepararInscricao(dto);
+        persistir(inscricao);
+        alunosNaTurma.inserirDeInscricoes(List.of(inscricao.getId()));
+    }
+
+    /**
+     * Cadastra um lote de inscrições em uma única transação (ver
+     * {@link GrupoCommitInscricoes}). As validações rodam em lote
+     * ({@link InscricaoValidacaoStrategy#validarTodos}) antes do primeiro insert, assim as
+     * consultas não forçam flush e os inserts saem em lote num único flush; a lista de
+     * alunos das turmas é gravada depois dele, numa instrução. Uma inscrição inválida não
+     * derruba as demais: a lista devolvida traz, na ordem de entrada, {@code null} para
+     * sucesso ou a exceção daquela inscrição. Erros do banco no flush revertem o lote
+     * inteiro.
+     */
+    public List<Exception> cadastrarInscricoes(List<InscricaoDTO> dtos) {
+        List<Exception> falhas = aplicarValidacoes(dtos);
+        List<InscricaoDTO> pendentes = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            if (falhas.get(i) == null) {
+                pendentes.add(dtos.get(i));
+            }
         }
-        if (inscricaoRepository.existsById(dto.getId())) {
-            throw new ServiceException("Já existe inscrição com id " + dto.getId());
+        Set<Long> idsPedidos = pendentes.stream().map(InscricaoDTO::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> idsExistentes = new HashSet<>(inscricaoRepository.listarIdsExistentes(idsPedidos));
+        idsExistentes.addAll(arquivoRepository.listarIdsExistentes(idsPedidos));
+        Map<TurmaId, Turma> turmas = turmaRepository.findByCodigoInAndAnoInAndSemestreIn(
+                        pendentes.stream().map(InscricaoDTO::getTurmaCodigo).collect(Collectors.toSet()),
+                        pendentes.stream().map(InscricaoDTO::getAno).collect(Collectors.toSet()),
+                        pendentes.stream().map(InscricaoDTO::getSemestre).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(turma -> new TurmaId(turma.getCodigo(), turma.getAno(), turma.getSemestre()),
+                        Function.identity()));
+
+        List<Inscricao> validas = new ArrayList<>(pendentes.size());
+        Set<Long> ids = new HashSet<>();
+        Set<String> pares = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            if (falhas.get(i) != null) {
+                continue;
+            }
+            InscricaoDTO dto = dtos.get(i);
+            try {
+                validarId(dto, idsExistentes.contains(dto.getId()) || !ids.add(dto.getId()));
+                if (!pares.add(dto.getAlunoMatricula() + "/" + dto.getTurmaCodigo() + "/" + dto.getAno() + "/" + dto.getSemestre())) {
+                    throw new ServiceException("Aluno já inscrito nesta turma");
+                }
+                Turma turma = turmas.get(new TurmaId(dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre()));
+                if (turma == null) {
+                    throw new DaoException("Turma não encontrada");
+                }
+                validas.add(novaInscricao(dto, turma));
+            } catch (ServiceException | DaoException e) {
+                falhas.set(i, e);
+            }
         }
-        if (inscricaoRepository.existsByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(dto.getAlunoMatricula(), dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre())) {
-            throw new ServiceException("Aluno já inscrito nesta turma");
+        validas.forEach(this::persistir);
+        inscricaoRepository.flush();
+        if (!validas.isEmpty()) {
+            alunosNaTurma.inserirDeInscricoes(validas.stream().map(Inscricao::getId).toList());
         }
-        Aluno aluno = alunoRepository.findById(dto.getAlunoMatricula())
-                .orElseThrow(() -> new DaoException("Aluno não encontrado"));
+        return falhas;
+    }
+
+    private Inscricao prepararInscricao(InscricaoDTO dto) throws ServiceException, DaoException {
+        aplicarValidacoes(dto);
+        validarId(dto, dto.getId() != null
+                && (inscricaoRepository.existsById(dto.getId()) || arquivoRepository.existsById(dto.getId())));
         Turma turma = turmaRepository.findByCodigoAndAnoAndSemestre(dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre());
         if (turma == null) {
             throw new DaoException("Turma não encontrada");
         }
+        return novaInscricao(dto, turma);
+    }
+
+    private static void validarId(InscricaoDTO dto, boolean duplicado) throws ServiceException {
+        if (dto.getId() == null || dto.getId() < 1) {
+            throw new ServiceException("Id da inscrição é obrigatório");
+        }
+        if (duplicado) {
+            throw new ServiceException("Já existe inscrição com id " + dto.getId());
+        }
+    }
+
+    /** A existência do aluno já foi conferida por {@link ExistenciaInscricaoStrategy}; basta a referência. */
+    private Inscricao novaInscricao(InscricaoDTO dto, Turma turma) {
         Inscricao inscricao = new Inscricao();
         inscricao.setId(dto.getId());
-        inscricao.setAluno(aluno);
+        inscricao.setAluno(alunoRepository.getReferenceById(dto.getAlunoMatricula()));
         inscricao.setTurma(turma);
+        return inscricao;
+    }
+
+    /** Sem a lista de alunos da turma, que quem chama grava depois (ver {@link AlunoNaTurmaRepository#inserirDeInscricoes}). */
+    private void persistir(Inscricao inscricao) {
+        Turma turma = inscricao.getTurma();
         inscricaoRepository.save(inscricao);
+        mudancaService.registrar("INSCRICAO", chave(inscricao), Operacao.CRIACAO, convertToDTO(inscricao));
+        indiceInscricoes.adicionar(inscricao.getAluno().getMatricula(), turma);
+        inscricoesAoVivo.notificarMudanca(turma.getCodigo(), turma.getAno(), turma.getSemestre());
     }
 
     public void removerInscricao(int matricula, int codigo, int ano, int semestre) throws DaoException {
-        Inscricao inscricao = inscricaoRepository.findByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(matricula, codigo, ano, semestre)
-                .orElseThrow(() -> new DaoException("Inscrição não encontrada"));
+        Optional<Inscricao> encontrada = inscricaoRepository.findByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(matricula, codigo, ano, semestre);
+        if (encontrada.isEmpty()) {
+            InscricaoArquivada arquivada = arquivoRepository.findByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(matricula, codigo, ano, semestre)
+                    .orElseThrow(() -> new DaoException("Inscrição não encontrada"));
+            arquivoRepository.delete(arquivada);
+            alunosNaTurma.remover(matricula, codigo, ano, semestre);
+            mudancaService.registrar("INSCRICAO", matricula + "/" + codigo + "/" + ano + "/" + semestre, Operacao.REMOCAO, null);
+            return;
+        }
+        Inscricao inscricao = encontrada.get();
         inscricaoRepository.delete(inscricao);
+        alunosNaTurma.remover(matricula, codigo, ano, semestre);
+        mudancaService.registrar("INSCRICAO", chave(inscricao), Operacao.REMOCAO, null);
+        indiceInscricoes.remover(matricula, inscricao.getTurma());
+        inscricoesAoVivo.notificarMudanca(codigo, ano, semestre);
     }
 
-    private void aplicarValidacoes(InscricaoDTO dto) throws ServiceException {
+    private void aplicarValidacoes(InscricaoDTO dto) throws ServiceException, DaoException {
         if (inscricaoValidacoes == null) {
             return;
         }
         for (InscricaoValidacaoStrategy validacao : inscricaoValidacoes) {
-            validacao.validar(dto);
+            Timer.Sample amostra = Timer.start(meterRegistry);
+            try {
+                validacao.validar(dto);
+            } finally {
+                amostra.stop(timer(validacao, "item"));
+            }
         }
     }
 
+    /** Cada estratégia recebe só as inscrições que passaram pelas anteriores. */
+    private List<Exception> aplicarValidacoes(List<InscricaoDTO> dtos) {
+        List<Exception> falhas = new ArrayList<>(Collections.nCopies(dtos.size(), null));
+        if (inscricaoValidacoes == null) {
+            return falhas;
+        }
+        for (InscricaoValidacaoStrategy validacao : inscricaoValidacoes) {
+            List<Integer> indices = new ArrayList<>();
+            for (int i = 0; i < dtos.size(); i++) {
+                if (falhas.get(i) == null) {
+                    indices.add(i);
+                }
+            }
+            if (indices.isEmpty()) {
+                break;
+            }
+            Timer.Sample amostra = Timer.start(meterRegistry);
+            List<Exception> resultado = validacao.validarTodos(indices.stream().map(dtos::get).toList());
+            amostra.stop(timer(validacao, "lote"));
+            for (int k = 0; k < indices.size(); k++) {
+                if (resultado.get(k) != null) {
+                    falhas.set(indices.get(k), resultado.get(k));
+                }
+            }
+        }
+        return falhas;
+    }
+
+    /** Tempo de cada estratégia em {@code universidade.inscricao.validacao{estrategia, modo}}. */
+    private Timer timer(InscricaoValidacaoStrategy validacao, String modo) {
+        return Timer.builder("universidade.inscricao.validacao")
+                .tag("estrategia", ClassUtils.getUserClass(validacao).getSimpleName())
+                .tag("modo", modo)
+                .register(meterRegistry);
+    }
+
+    private static String chave(Inscricao inscricao) {
+        Turma turma = inscricao.getTurma();
+        return inscricao.getAluno().getMatricula() + "/" + turma.getCodigo() + "/" + turma.getAno() + "/" + turma.getSemestre();
+    }
+
+    private InscricaoDTO convertToDTO(InscricaoArquivada inscricao) {
+        return InscricaoDTO.builder()
+                .id(inscricao.getId())
+                .alunoMatricula(inscricao.getAlunoMatricula())
+                .turmaCodigo(inscricao.getTurmaCodigo())
+                .ano(inscricao.getTurmaAno())
+                .semestre(inscricao.getTurmaSemestre())
+                .build();
+    }
+
+    private static boolean pedeTurma(Campos campos) {
+        return campos.incluiAlgum("turmaCodigo", "ano", "semestre");
+    }
+
+    /** Inscrição arquivada no formato das linhas de projeção (id, matrícula, código, ano, semestre). */
+    private static Object[] linha(InscricaoArquivada inscricao) {
+        return new Object[] {inscricao.getId(), inscricao.getAlunoMatricula(), inscricao.getTurmaCodigo(),
+                inscricao.getTurmaAno(), inscricao.getTurmaSemestre()};
+    }
+
+    private static InscricaoDTO novoDTO(Long id, int matricula, int codigo, int ano, int semestre) {
+        return InscricaoDTO.builder()
+                .id(id)
+                .alunoMatricula(matricula)
+                .turmaCodigo(codigo)
+                .ano(ano)
+                .semestre(semestre)
+                .build();
+    }
+
     private InscricaoDTO convertToDTO(Inscricao inscricao) {
         return InscricaoDTO.builder()
                 .id(inscricao.getId())
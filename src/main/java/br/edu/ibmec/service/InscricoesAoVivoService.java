@@ -0,0 +1,297 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.dto.ContagemInscricoesDTO;
+import br.edu.ibmec.entity.TurmaId;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * Contagem de inscritos por turma enviada por Server-Sent Events.
+ *
+ * <p>Os commits de inscrição só marcam a turma como pendente; uma única thread publica
+ * as pendentes a cada {@code universidade.eventos.intervalo}, de modo que uma rajada de
+ * matrículas vira no máximo um evento (e uma consulta de contagem) por turma por
+ * intervalo. Conexões ociosas não prendem threads do Tomcat: o {@link SseEmitter}
+ * libera a thread da requisição assim que o controller retorna.</p>
+ *
+ * <p>{@code SseEmitter.send} bloqueia enquanto o socket do cliente não aceita os bytes, então
+ * nem a thread de publicação nem o heartbeat escrevem: cada {@link Assinante} guarda só o
+ * último evento ainda não enviado (uma contagem nova substitui a velha) e um pool de
+ * {@code universidade.eventos.envio-threads} threads faz os envios. Um assinante com envio
+ * parado há mais de {@code universidade.eventos.envio-timeout} sai da turma sem que ninguém
+ * toque mais no emissor; a thread presa nele volta quando o Tomcat desiste da escrita.</p>
+ */
+@Service
+public class InscricoesAoVivoService {
+
+    private static final Logger log = LoggerFactory.getLogger(InscricoesAoVivoService.class);
+    private static final String EVENTO = "inscricoes";
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${universidade.eventos.intervalo:1s}")
+    private Duration intervalo;
+
+    @Value("${universidade.eventos.heartbeat:30s}")
+    private Duration heartbeat;
+
+    @Value("${universidade.eventos.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${universidade.eventos.envio-threads:4}")
+    private int envioThreads;
+
+    @Value("${universidade.eventos.envio-timeout:10s}")
+    private Duration envioTimeout;
+
+    private final Map<TurmaId, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final Set<TurmaId> pendentes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger conexoes = new AtomicInteger();
+    private ScheduledExecutorService agendador;
+    private ExecutorService envios;
+
+    @PostConstruct
+    void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "inscricoes-ao-vivo");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger numero = new AtomicInteger();
+        envios = Executors.newFixedThreadPool(envioThreads, tarefa -> {
+            Thread thread = new Thread(tarefa, "inscricoes-ao-vivo-envio-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(this::publicarPendentes, intervalo.toMillis(), intervalo.toMillis(),
+                TimeUnit.MILLISECONDS);
+        agendador.scheduleWithFixedDelay(this::manterConexoes, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        meterRegistry.gauge("universidade.eventos.conexoes", conexoes);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        agendador.shutdownNow();
+        envios.shutdownNow();
+        assinantes.values().forEach(turma -> turma.forEach(assinante -> assinante.emissor.complete()));
+        assinantes.clear();
+    }
+
+    public SseEmitter assinar(int codigo, int ano, int semestre) throws DaoException {
+        TurmaId turma = new TurmaId(codigo, ano, semestre);
+        if (!turmaRepository.existsByCodigoAndAnoAndSemestre(codigo, ano, semestre)) {
+            throw new DaoException("Turma não encontrada");
+        }
+        SseEmitter emissor = new SseEmitter(timeout.toMillis());
+        Assinante assinante = new Assinante(emissor, envios);
+        Runnable remover = () -> remover(turma, assinante);
+        emissor.onCompletion(remover);
+        emissor.onTimeout(remover);
+        emissor.onError(erro -> remover.run());
+        // Tudo sob a trava da chave: um remover() concorrente não apaga o conjunto entre o get e o add.
+        assinantes.compute(turma, (chave, atuais) -> {
+            Set<Assinante> conjunto = atuais != null ? atuais : ConcurrentHashMap.newKeySet();
+            conjunto.add(assinante);
+            return conjunto;
+        });
+        conexoes.incrementAndGet();
+        assinante.oferecer(evento(contagem(turma)));
+        return emissor;
+    }
+
+    /** Chamado pelos serviços de inscrição; só tem efeito depois do commit. */
+    public void notificarMudanca(int codigo, int ano, int semestre) {
+        TurmaId turma = new TurmaId(codigo, ano, semestre);
+        AposCommit.executar(() -> {
+            if (assinantes.containsKey(turma)) {
+                pendentes.add(turma);
+            }
+        });
+    }
+
+    private void publicarPendentes() {
+        Iterator<TurmaId> iterador = pendentes.iterator();
+        while (iterador.hasNext()) {
+            TurmaId turma = iterador.next();
+            iterador.remove();
+            Set<Assinante> daTurma = assinantes.get(turma);
+            if (daTurma == null || daTurma.isEmpty()) {
+                continue;
+            }
+            try {
+                ContagemInscricoesDTO contagem = contagem(turma);
+                long agora = System.nanoTime();
+                daTurma.forEach(assinante -> {
+                    if (!descartarSeTravado(turma, assinante, agora)) {
+                        assinante.oferecer(evento(contagem));
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Falha ao publicar contagem de inscrições da turma {}", turma, e);
+                pendentes.add(turma);
+            }
+        }
+    }
+
+    /** Comentário SSE periódico para que proxies não derrubem conexões ociosas. */
+    private void manterConexoes() {
+        long agora = System.nanoTime();
+        assinantes.forEach((turma, daTurma) -> daTurma.forEach(assinante -> {
+            if (!descartarSeTravado(turma, assinante, agora)) {
+                assinante.oferecerSeVazio(SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    private boolean descartarSeTravado(TurmaId turma, Assinante assinante, long agora) {
+        if (!assinante.travado(agora, envioTimeout.toNanos())) {
+            return false;
+        }
+        log.debug("Assinante da turma {} sem consumir eventos há mais de {}; descartado", turma, envioTimeout);
+        remover(turma, assinante);
+        return true;
+    }
+
+    private static SseEventBuilder evento(ContagemInscricoesDTO contagem) {
+        return SseEmitter.event().name(EVENTO).data(contagem);
+    }
+
+    /** Com o índice carregado a contagem é a cardinalidade do bitmap da turma, sem ir ao banco. */
+    private ContagemInscricoesDTO contagem(TurmaId turma) {
+        long inscritos = indiceInscricoes.disponivel()
+                ? indiceInscricoes.inscritos(turma.getCodigo(), turma.getAno(), turma.getSemestre())
+                : contarNoBanco(turma);
+        return ContagemInscricoesDTO.builder()
+                .codigo(turma.getCodigo())
+                .ano(turma.getAno())
+                .semestre(turma.getSemestre())
+                .inscritos(inscritos)
+                .build();
+    }
+
+    private long contarNoBanco(TurmaId turma) {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        return leitura.execute(status -> inscricaoRepository
+                .countByTurmaCodigoAndTurmaAnoAndTurmaSemestre(turma.getCodigo(), turma.getAno(), turma.getSemestre()));
+    }
+
+    /** Remove e, se a turma ficou vazia, apaga o conjunto sob a mesma trava de {@link #assinar}. */
+    private void remover(TurmaId turma, Assinante assinante) {
+        AtomicBoolean removido = new AtomicBoolean();
+        assinantes.computeIfPresent(turma, (chave, atuais) -> {
+            removido.set(atuais.remove(assinante));
+            return atuais.isEmpty() ? null : atuais;
+        });
+        if (removido.get()) {
+            conexoes.decrementAndGet();
+        }
+    }
+
+    /**
+     * Fila de um evento por conexão: quem publica só troca o próximo evento e, se não houver
+     * envio em andamento, agenda um no pool. Ninguém além da thread de envio chama {@code send}.
+     */
+    static final class Assinante {
+
+        final SseEmitter emissor;
+        private final Executor envios;
+        private final AtomicReference<SseEventBuilder> proximo = new AtomicReference<>();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile long enviandoDesde;
+
+        Assinante(SseEmitter emissor, Executor envios) {
+            this.emissor = emissor;
+            this.envios = envios;
+        }
+
+        /** Substitui o evento ainda não enviado, se houver. */
+        void oferecer(SseEventBuilder evento) {
+            proximo.set(evento);
+            agendar();
+        }
+
+        /** Para o heartbeat: não passa por cima de uma contagem ainda não enviada. */
+        void oferecerSeVazio(SseEventBuilder evento) {
+            if (proximo.compareAndSet(null, evento)) {
+                agendar();
+            }
+        }
+
+        /** Verdadeiro se um envio está em andamento há mais de {@code limite} nanossegundos. */
+        boolean travado(long agora, long limite) {
+            return enviando.get() && agora - enviandoDesde > limite;
+        }
+
+        private void agendar() {
+            if (enviando.compareAndSet(false, true)) {
+                enviandoDesde = System.nanoTime();
+                envios.execute(this::drenar);
+            }
+        }
+
+        private void drenar() {
+            while (true) {
+                SseEventBuilder evento = proximo.getAndSet(null);
+                if (evento == null) {
+                    enviando.set(false);
+                    // Um oferecer() entre o getAndSet e o set(false) não agendou ninguém.
+                    if (proximo.get() == null || !enviando.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                enviandoDesde = System.nanoTime();
+                try {
+                    emissor.send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    proximo.set(null);
+                    enviando.set(false);
+                    emissor.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.dto.MudancaDTO;
+import br.edu.ibmec.dto.PaginaMudancasDTO;
+import br.edu.ibmec.entity.Mudanca;
+import br.edu.ibmec.entity.Mudanca.Operacao;
+import br.edu.ibmec.entity.PublicacaoMudancas;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.repository.MudancaRepository;
+import br.edu.ibmec.repository.PublicacaoMudancasRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Log de mudanças consumido por sistemas externos (LMS, financeiro) para sincronizar
+ * incrementalmente. Os serviços de cadastro registram cada criação, alteração e
+ * remoção dentro da própria transação; remoções em cascata registram também cada
+ * filho removido (ex.: remover ALUNO registra a remoção de cada inscrição dele).
+ *
+ * <p>O id do registro é atribuído no insert, e transações concorrentes confirmam fora
+ * dessa ordem; usado como cursor, ele deixaria para trás o registro que confirmasse por
+ * último com id menor. Por isso o cursor é {@code seq}, atribuído por {@link #publicar()}
+ * só a registros já confirmados, sob a trava de {@link PublicacaoMudancas}: cada
+ * publicação fica inteira acima da anterior, e quem leu até um {@code seq} já viu tudo
+ * que estava abaixo dele.</p>
+ */
+@Service
+@Transactional
+public class MudancaService {
+
+    private static final int LIMITE_MAXIMO = 1_000;
+
+    @Autowired
+    private MudancaRepository mudancaRepository;
+
+    @Autowired
+    private PublicacaoMudancasRepository publicacaoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(String entidade, String chave, Operacao operacao, Object dados) {
+        Mudanca mudanca = new Mudanca();
+        mudanca.setEntidade(entidade);
+        mudanca.setChave(chave);
+        mudanca.setOperacao(operacao);
+        mudanca.setRegistradaEm(Instant.now());
+        mudanca.setDados(dados != null ? json(dados) : null);
+        mudancaRepository.save(mudanca);
+    }
+
+    /** Remoção de cada inscrição, ativa ou arquivada, que sai junto com o aluno. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCascataDoAluno(int matricula) {
+        Instant agora = Instant.now();
+        mudancaRepository.registrarInscricoesDoAluno(matricula, Operacao.REMOCAO, agora);
+        mudancaRepository.registrarArquivadasDoAluno(matricula, Operacao.REMOCAO, agora);
+    }
+
+    /** Remoção de cada inscrição, ativa ou arquivada, que sai junto com a turma. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCascataDaTurma(long turmaId, int codigo, int ano, int semestre) {
+        Instant agora = Instant.now();
+        mudancaRepository.registrarInscricoesDaTurma(turmaId, Operacao.REMOCAO, agora);
+        mudancaRepository.registrarArquivadasDaTurma(codigo, ano, semestre, Operacao.REMOCAO, agora);
+    }
+
+    /** Remoção de cada turma e inscrição que sai junto com a disciplina. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCascataDaDisciplina(int codigo) {
+        Instant agora = Instant.now();
+        mudancaRepository.registrarInscricoesDaDisciplina(codigo, Operacao.REMOCAO, agora);
+        mudancaRepository.registrarArquivadasDaDisciplina(codigo, Operacao.REMOCAO, agora);
+        mudancaRepository.registrarTurmasDaDisciplina(codigo, Operacao.REMOCAO, agora);
+    }
+
+    /** Remoção de cada disciplina, turma e inscrição que sai junto com o curso. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCascataDoCurso(int codigo) {
+        Instant agora = Instant.now();
+        mudancaRepository.registrarInscricoesDoCurso(codigo, Operacao.REMOCAO, agora);
+        mudancaRepository.registrarArquivadasDoCurso(codigo, Operacao.REMOCAO, agora);
+        mudancaRepository.registrarTurmasDoCurso(codigo, Operacao.REMOCAO, agora);
+        mudancaRepository.registrarDisciplinasDoCurso(codigo, Operacao.REMOCAO, agora);
+    }
+
+    /**
+     * Atribui {@code seq} aos registros confirmados desde a última publicação, numa transação
+     * própria e com a linha de {@link PublicacaoMudancas} travada até o commit.
+     * @return quantidade de registros publicados
+     */
+    @Scheduled(fixedDelayString = "${universidade.mudancas.publicacao-ms:500}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int publicar() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Integer publicadas = transacao.execute(status -> {
+            PublicacaoMudancas publicacao = publicacaoRepository.travar().orElse(null);
+            if (publicacao == null) {
+                criarPublicacao();
+                publicacao = publicacaoRepository.travar().orElseThrow();
+            }
+            Long desdeId = mudancaRepository.menorIdPendente();
+            if (desdeId == null) {
+                return 0;
+            }
+            int total = mudancaRepository.publicar(desdeId, publicacao.getUltimaSeq() + 1 - desdeId);
+            publicacao.setUltimaSeq(mudancaRepository.ultimaSeq());
+            return total;
+        });
+        return publicadas != null ? publicadas : 0;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaMudancasDTO listarDesde(long desde, int limite) throws ServiceException {
+        if (desde < 0) {
+            throw new ServiceException("Cursor deve ser zero ou positivo");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ServiceException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        List<MudancaDTO> mudancas = mudancaRepository.findBySeqGreaterThanOrderBySeqAsc(desde, Limit.of(limite))
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        long proximoCursor = mudancas.isEmpty() ? desde : mudancas.get(mudancas.size() - 1).getSeq();
+        return PaginaMudancasDTO.builder()
+                .mudancas(mudancas)
+                .proximoCursor(proximoCursor)
+                .temMais(mudancas.size() == limite)
+                .build();
+    }
+
+    /** Primeira publicação do banco; se outra instância criar a linha antes, usa a dela. */
+    private void criarPublicacao() {
+        TransactionTemplate nova = new TransactionTemplate(transactionManager);
+        nova.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            nova.executeWithoutResult(status -> publicacaoRepository.saveAndFlush(
+                    new PublicacaoMudancas(PublicacaoMudancas.ID, mudancaRepository.ultimaSeq())));
+        } catch (DataIntegrityViolationException e) {
+            // Criada em paralelo.
+        }
+    }
+
+    private String json(Object dados) {
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar mudança de " + dados.getClass().getSimpleName(), e);
+        }
+    }
+
+    private MudancaDTO convertToDTO(Mudanca mudanca) {
+        return MudancaDTO.builder()
+                .seq(mudanca.getSeq())
+                .entidade(mudanca.getEntidade())
+                .chave(mudanca.getChave())
+                .operacao(mudanca.getOperacao().name())
+                .registradaEm(mudanca.getRegistradaEm())
+                .dados(mudanca.getDados())
+                .build();
+    }
+}
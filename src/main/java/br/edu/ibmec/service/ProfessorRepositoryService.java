@@ -1,11 +1,18 @@
 package br.edu.ibmec.service;
 
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.ItemLoteDTO;
 import br.edu.ibmec.dto.ProfessorDTO;
 import br.edu.ibmec.entity.Professor;
+import br.edu.ibmec.entity.Mudanca.Operacao;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.json.FormatoJson;
+import br.edu.ibmec.json.LinhasJson;
 import br.edu.ibmec.repository.ProfessorRepository;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +26,15 @@ public class ProfessorRepositoryService {
     @Autowired
     private ProfessorRepository professorRepository;
 
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private BuscaEmLote buscaEmLote;
+
     @Transactional(readOnly = true)
     public List<ProfessorDTO> listarProfessores() {
         return professorRepository.findAll().stream()
@@ -26,6 +42,12 @@ public class ProfessorRepositoryService {
                 .collect(Collectors.toList());
     }
 
+    /** Para a listagem da API: as linhas vão direto para a resposta (ver {@link LinhasJson}). */
+    @Transactional(readOnly = true)
+    public LinhasJson listarProfessores(Campos campos) {
+        return new LinhasJson(FormatoJson.PROFESSOR, professorRepository.listarIdsENomes(), campos);
+    }
+
     @Transactional(readOnly = true)
     public ProfessorDTO buscarProfessor(Long id) throws DaoException {
         Optional<Professor> professor = professorRepository.findById(id);
@@ -35,6 +57,17 @@ public class ProfessorRepositoryService {
         return convertToDTO(professor.get());
     }
 
+    /** Vários professores de uma vez, na ordem pedida (ver {@link BuscaEmLote}). */
+    @Transactional(readOnly = true)
+    public List<ItemLoteDTO<ProfessorDTO>> buscarProfessores(List<Long> ids) throws ServiceException {
+        return buscaEmLote.buscar(ids, String::valueOf, lote -> {
+            Map<Long, ProfessorDTO> professores = new HashMap<>();
+            professorRepository.listarIdsENomes(lote).forEach(linha ->
+                    professores.put((Long) linha[0], new ProfessorDTO((Long) linha[0], (String) linha[1])));
+            return professores;
+        });
+    }
+
     public ProfessorDTO cadastrarProfessor(ProfessorDTO dto) throws ServiceException {
         validar(dto);
         if (dto.getId() == null) {
@@ -43,13 +76,16 @@ public class ProfessorRepositoryService {
         if (professorRepository.existsById(dto.getId())) {
             throw new ServiceException("Já existe professor com id " + dto.getId());
         }
-        if (professorRepository.existsByNomeIgnoreCase(dto.getNome())) {
+        String nome = dto.getNome().trim();
+        if (professorRepository.existsByNomeIgnoreCase(nome)) {
             throw new ServiceException("Professor já cadastrado com este nome");
         }
         Professor professor = new Professor();
         professor.setId(dto.getId());
-        professor.setNome(dto.getNome());
+        professor.setNome(nome);
         Professor salvo = professorRepository.save(professor);
+        mudancaService.registrar("PROFESSOR", String.valueOf(salvo.getId()), Operacao.CRIACAO, convertToDTO(salvo));
+        buscaService.indexarProfessor(salvo.getId(), salvo.getNome());
         return convertToDTO(salvo);
     }
 
@@ -58,17 +94,20 @@ public class ProfessorRepositoryService {
             throw new ServiceException("Id do professor é obrigatório para alteração");
         }
         validar(dto);
-        Professor professor = professorRepository.findById(dto.getId())
-                .orElseThrow(() -> new DaoException("Professor com id " + dto.getId() + " não encontrado"));
-        professor.setNome(dto.getNome());
-        professorRepository.save(professor);
+        String nome = dto.getNome().trim();
+        if (professorRepository.alterarNome(dto.getId(), nome) == 0) {
+            throw new DaoException("Professor com id " + dto.getId() + " não encontrado");
+        }
+        mudancaService.registrar("PROFESSOR", String.valueOf(dto.getId()), Operacao.ALTERACAO, new ProfessorDTO(dto.getId(), nome));
+        buscaService.indexarProfessor(dto.getId(), nome);
     }
 
     public void removerProfessor(Long id) throws DaoException {
-        if (!professorRepository.existsById(id)) {
+        if (professorRepository.removerPorId(id) == 0) {
             throw new DaoException("Professor com id " + id + " não encontrado");
         }
-        professorRepository.deleteById(id);
+        mudancaService.registrar("PROFESSOR", String.valueOf(id), Operacao.REMOCAO, null);
+        buscaService.removerProfessor(id);
     }
 
     private void validar(ProfessorDTO dto) throws ServiceException {
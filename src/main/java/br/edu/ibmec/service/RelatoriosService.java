@@ -0,0 +1,508 @@
+package br.edu.ibmec.service;
+
+import br.edu.ibmec.dto.GeracaoRelatoriosDTO;
+import br.edu.ibmec.entity.Mudanca;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.repository.AlunoNaTurmaRepository;
+import br.edu.ibmec.repository.AlunoRepository;
+import br.edu.ibmec.repository.MudancaRepository;
+import br.edu.ibmec.service.relatorio.ArquivoRelatorio;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relatórios de fim de período gravados em disco ({@link ArquivoRelatorio}) para que cada
+ * download seja só a cópia de um arquivo: a lista de alunos de cada turma
+ * ({@code turma-<codigo>}) e as inscrições de cada curso ({@code curso-<codigo>}), ambas
+ * lidas de {@code turma_alunos}, que já cobre inscrições ativas e arquivadas.
+ *
+ * <p>Os relatórios de um período são gerados por inteiro na primeira vez, em
+ * {@link #gerar(int, int)} (encerramento do período) ou quando o agendamento encontra um
+ * período corrente novo. Depois disso o agendamento lê o log de mudanças a partir do último
+ * cursor e refaz só os relatórios afetados: uma inscrição refaz a turma e o curso do aluno;
+ * uma turma refaz a turma e os cursos do período; a alteração de um aluno refaz suas turmas
+ * e os cursos desses períodos; a remoção de aluno e a alteração ou remoção de curso ou
+ * disciplina, que não dizem quais turmas atingiram, refazem tudo. Um relatório refeito com
+ * o mesmo conteúdo mantém o arquivo e o ETag.</p>
+ *
+ * <p>Cursor e períodos acompanhados ficam em {@code estado.properties} no diretório. Versões
+ * substituídas ficam no disco por {@code universidade.relatorios.retencao-substituidos} depois
+ * da troca, para não cortar downloads em andamento, e saem na primeira execução após esse prazo.</p>
+ */
+@Service
+public class RelatoriosService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatoriosService.class);
+
+    private static final String TURMA = "turma";
+    private static final String CURSO = "curso";
+    private static final String[] COLUNAS_TURMA = {"matricula", "nome", "curso"};
+    private static final String[] COLUNAS_CURSO = {"turma", "disciplina", "matricula", "nome"};
+    private static final int LOTE_MUDANCAS = 1_000;
+
+    @Autowired
+    private AlunoNaTurmaRepository alunosNaTurma;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private MudancaRepository mudancaRepository;
+
+    @Autowired
+    private ArquivamentoInscricoesService arquivamento;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${universidade.relatorios.diretorio:relatorios}")
+    private String diretorio;
+
+    @Value("${universidade.relatorios.retencao-substituidos:1h}")
+    private Duration retencaoSubstituidos;
+
+    /** Versão atual de cada relatório, por "ano-semestre/prefixo"; carregada do disco por período. */
+    private final Map<String, Path> atuais = new ConcurrentHashMap<>();
+    private final Set<String> periodosCarregados = ConcurrentHashMap.newKeySet();
+    /** Versões que saíram de {@link #atuais}, com o {@code nanoTime} da troca, na ordem da troca. */
+    private final Map<Path, Long> substituidos = new LinkedHashMap<>();
+    private Estado estado;
+
+    /** Aplica as mudanças desde a última execução e gera o período corrente se ele ainda não tem relatórios. */
+    @Scheduled(cron = "${universidade.relatorios.cron:0 */10 * * * *}")
+    public synchronized void atualizar() {
+        Estado estado = estado();
+        Periodo corrente = Periodo.de(arquivamento.periodoAtual());
+        long inicio = System.nanoTime();
+        Contagem contagem = emLeitura(() -> {
+            Contagem total = new Contagem();
+            Map<Periodo, Pendencias> pendencias = lerMudancas(estado);
+            if (estado.periodos.add(corrente)) {
+                pendencias.put(corrente, Pendencias.tudo());
+            }
+            pendencias.forEach((periodo, doPeriodo) -> gerarPendencias(periodo, doPeriodo, total));
+            return total;
+        });
+        salvar(estado);
+        if (contagem.alterados() > 0) {
+            log.info("Relatórios atualizados: {} gravados, {} removidos, {} sem mudança, em {} ms", contagem.gravados,
+                    contagem.removidos, contagem.inalterados, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    /** Gera todos os relatórios do período e passa a acompanhá-lo; usado no encerramento do período. */
+    public synchronized GeracaoRelatoriosDTO gerar(int ano, int semestre) throws ServiceException {
+        if (semestre != 1 && semestre != 2) {
+            throw new ServiceException("Semestre deve ser 1 ou 2");
+        }
+        Periodo periodo = new Periodo(ano, semestre);
+        Estado estado = estado();
+        long inicio = System.nanoTime();
+        Contagem contagem = emLeitura(() -> {
+            Contagem total = new Contagem();
+            if (estado.periodos.isEmpty()) {
+                estado.cursor = mudancaRepository.ultimaSeq();
+            }
+            gerarPendencias(periodo, Pendencias.tudo(), total);
+            return total;
+        });
+        estado.periodos.add(periodo);
+        salvar(estado);
+        long milissegundos = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Relatórios de {}: {} gravados, {} removidos, {} sem mudança, em {} ms", periodo, contagem.gravados,
+                contagem.removidos, contagem.inalterados, milissegundos);
+        return GeracaoRelatoriosDTO.builder()
+                .ano(ano)
+                .semestre(semestre)
+                .gravados(contagem.gravados)
+                .removidos(contagem.removidos)
+                .inalterados(contagem.inalterados)
+                .milissegundos(milissegundos)
+                .build();
+    }
+
+    public Path relatorioDaTurma(int ano, int semestre, int codigo) throws DaoException {
+        return relatorio(new Periodo(ano, semestre), TURMA, codigo);
+    }
+
+    public Path relatorioDoCurso(int ano, int semestre, int codigo) throws DaoException {
+        return relatorio(new Periodo(ano, semestre), CURSO, codigo);
+    }
+
+    private Path relatorio(Periodo periodo, String tipo, int codigo) throws DaoException {
+        carregar(periodo);
+        Path arquivo = atuais.get(chave(periodo, tipo + "-" + codigo));
+        if (arquivo == null) {
+            throw new DaoException("Relatório de " + tipo + " " + codigo + " em " + periodo + " não foi gerado");
+        }
+        return arquivo;
+    }
+
+    private Map<Periodo, Pendencias> lerMudancas(Estado estado) {
+        Map<Periodo, Pendencias> pendencias = new LinkedHashMap<>();
+        if (estado.periodos.isEmpty()) {
+            // Nada acompanhado ainda: a primeira geração já parte do estado atual.
+            estado.cursor = mudancaRepository.ultimaSeq();
+            return pendencias;
+        }
+        Map<Periodo, Set<Integer>> matriculasInscritas = new HashMap<>();
+        List<Mudanca> lote;
+        do {
+            lote = mudancaRepository.findBySeqGreaterThanOrderBySeqAsc(estado.cursor, Limit.of(LOTE_MUDANCAS));
+            for (Mudanca mudanca : lote) {
+                anotar(mudanca, estado.periodos, pendencias, matriculasInscritas);
+                estado.cursor = mudanca.getSeq();
+            }
+        } while (lote.size() == LOTE_MUDANCAS);
+        // Curso de cada aluno inscrito ou desinscrito, numa consulta só; quem já saiu foi coberto pela remoção.
+        Set<Integer> matriculas = matriculasInscritas.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+        if (!matriculas.isEmpty()) {
+            Map<Integer, Integer> cursos = new HashMap<>();
+            alunoRepository.listarComCurso(matriculas).forEach(linha -> cursos.put((Integer) linha[0], (Integer) linha[2]));
+            matriculasInscritas.forEach((periodo, doPeriodo) -> doPeriodo.stream().map(cursos::get)
+                    .filter(Objects::nonNull)
+                    .forEach(pendencias.get(periodo).cursos::add));
+        }
+        return pendencias;
+    }
+
+    private void anotar(Mudanca mudanca, Set<Periodo> acompanhados, Map<Periodo, Pendencias> pendencias,
+                        Map<Periodo, Set<Integer>> matriculasInscritas) {
+        String[] chave = mudanca.getChave().split("/");
+        switch (mudanca.getEntidade()) {
+            case "INSCRICAO" -> {
+                Periodo periodo = new Periodo(Integer.parseInt(chave[2]), Integer.parseInt(chave[3]));
+                if (acompanhados.contains(periodo)) {
+                    pendencias.computeIfAbsent(periodo, p -> new Pendencias()).turmas.add(Integer.parseInt(chave[1]));
+                    matriculasInscritas.computeIfAbsent(periodo, p -> new HashSet<>()).add(Integer.parseInt(chave[0]));
+                }
+            }
+            case "TURMA" -> {
+                Periodo periodo = new Periodo(Integer.parseInt(chave[1]), Integer.parseInt(chave[2]));
+                if (acompanhados.contains(periodo)) {
+                    Pendencias doPeriodo = pendencias.computeIfAbsent(periodo, p -> new Pendencias());
+                    doPeriodo.turmas.add(Integer.parseInt(chave[0]));
+                    doPeriodo.todosOsCursos = true;
+                }
+            }
+            case "ALUNO" -> {
+                if (mudanca.getOperacao() == Mudanca.Operacao.ALTERACAO) {
+                    for (Object[] turma : alunosNaTurma.listarTurmasDoAluno(Integer.parseInt(chave[0]))) {
+                        Periodo periodo = new Periodo((Integer) turma[1], (Integer) turma[2]);
+                        if (acompanhados.contains(periodo)) {
+                            Pendencias doPeriodo = pendencias.computeIfAbsent(periodo, p -> new Pendencias());
+                            doPeriodo.turmas.add((Integer) turma[0]);
+                            doPeriodo.todosOsCursos = true;
+                        }
+                    }
+                } else if (mudanca.getOperacao() == Mudanca.Operacao.REMOCAO) {
+                    acompanhados.forEach(periodo -> pendencias.put(periodo, Pendencias.tudo()));
+                }
+            }
+            case "CURSO", "DISCIPLINA" -> {
+                if (mudanca.getOperacao() != Mudanca.Operacao.CRIACAO) {
+                    acompanhados.forEach(periodo -> pendencias.put(periodo, Pendencias.tudo()));
+                }
+            }
+            default -> {
+                // Professor não aparece nos relatórios.
+            }
+        }
+    }
+
+    private void gerarPendencias(Periodo periodo, Pendencias pendencias, Contagem contagem) {
+        try {
+            carregar(periodo);
+            Path pasta = pasta(periodo);
+            Files.createDirectories(pasta);
+            if (pendencias.todasAsTurmas) {
+                gerarTodos(periodo, pasta, TURMA, COLUNAS_TURMA,
+                        alunosNaTurma.listarDoPeriodo(periodo.ano(), periodo.semestre()), contagem);
+            } else {
+                for (int turma : pendencias.turmas) {
+                    List<Object[]> linhas = alunosNaTurma.listarDaTurma(turma, periodo.ano(), periodo.semestre());
+                    publicar(periodo, pasta, TURMA + "-" + turma, COLUNAS_TURMA, linhas, 0, contagem);
+                }
+            }
+            if (pendencias.todosOsCursos) {
+                gerarTodos(periodo, pasta, CURSO, COLUNAS_CURSO,
+                        alunosNaTurma.listarPorCursoDoPeriodo(periodo.ano(), periodo.semestre()), contagem);
+            } else {
+                for (int curso : pendencias.cursos) {
+                    List<Object[]> linhas = alunosNaTurma.listarDoCursoNoPeriodo(curso, periodo.ano(), periodo.semestre());
+                    publicar(periodo, pasta, CURSO + "-" + curso, COLUNAS_CURSO, linhas, 1, contagem);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar relatórios de " + periodo, e);
+        }
+    }
+
+    /** Linhas ordenadas pelo código na primeira coluna; um relatório por código, e some quem não apareceu. */
+    private void gerarTodos(Periodo periodo, Path pasta, String tipo, String[] colunas, List<Object[]> linhas,
+                            Contagem contagem) throws IOException {
+        Set<String> gerados = new HashSet<>();
+        int inicio = 0;
+        while (inicio < linhas.size()) {
+            Object codigo = linhas.get(inicio)[0];
+            int fim = inicio + 1;
+            while (fim < linhas.size() && linhas.get(fim)[0].equals(codigo)) {
+                fim++;
+            }
+            String prefixo = tipo + "-" + codigo;
+            publicar(periodo, pasta, prefixo, colunas, linhas.subList(inicio, fim), 1, contagem);
+            gerados.add(prefixo);
+            inicio = fim;
+        }
+        String inicioChave = chave(periodo, tipo + "-");
+        for (String chave : List.copyOf(atuais.keySet())) {
+            if (chave.startsWith(inicioChave) && !gerados.contains(chave.substring(chave.indexOf('/') + 1))) {
+                substituir(chave, null, contagem);
+            }
+        }
+    }
+
+    /** Grava as linhas a partir da coluna {@code descartadas}; sem linhas, o relatório deixa de existir. */
+    private void publicar(Periodo periodo, Path pasta, String prefixo, String[] colunas, List<Object[]> linhas,
+                          int descartadas, Contagem contagem) throws IOException {
+        String chave = chave(periodo, prefixo);
+        if (linhas.isEmpty()) {
+            substituir(chave, null, contagem);
+            return;
+        }
+        Path novo;
+        try (ArquivoRelatorio arquivo = ArquivoRelatorio.criar(pasta, prefixo, colunas)) {
+            Object[] valores = new Object[colunas.length];
+            for (Object[] linha : linhas) {
+                System.arraycopy(linha, descartadas, valores, 0, valores.length);
+                arquivo.linha(valores);
+            }
+            novo = arquivo.concluir();
+        }
+        substituir(chave, novo, contagem);
+    }
+
+    private void substituir(String chave, Path novo, Contagem contagem) {
+        Path anterior = novo != null ? atuais.put(chave, novo) : atuais.remove(chave);
+        if (novo != null && novo.equals(anterior)) {
+            contagem.inalterados++;
+            return;
+        }
+        if (anterior != null) {
+            substituidos.putIfAbsent(anterior, System.nanoTime());
+        }
+        if (novo != null) {
+            // Conteúdo que voltou a ser igual a uma versão recém-substituída reaproveita o mesmo arquivo.
+            substituidos.remove(novo);
+            contagem.gravados++;
+        } else if (anterior != null) {
+            contagem.removidos++;
+        }
+    }
+
+    /** Lê as versões publicadas do período; apaga temporários e versões antigas deixados por outra execução. */
+    private void carregar(Periodo periodo) {
+        if (periodosCarregados.contains(periodo.toString())) {
+            return;
+        }
+        synchronized (periodosCarregados) {
+            if (periodosCarregados.contains(periodo.toString())) {
+                return;
+            }
+            Path pasta = pasta(periodo);
+            if (Files.isDirectory(pasta)) {
+                Map<String, Path> maisNovos = new HashMap<>();
+                try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(pasta)) {
+                    for (Path arquivo : arquivos) {
+                        String prefixo = ArquivoRelatorio.prefixo(arquivo);
+                        if (prefixo == null) {
+                            Files.deleteIfExists(arquivo);
+                            continue;
+                        }
+                        maisNovos.merge(prefixo, arquivo, (a, b) -> {
+                            Path velho = modificado(a) <= modificado(b) ? a : b;
+                            apagar(velho);
+                            return velho == a ? b : a;
+                        });
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Falha ao ler " + pasta, e);
+                }
+                maisNovos.forEach((prefixo, arquivo) -> atuais.put(chave(periodo, prefixo), arquivo));
+            }
+            periodosCarregados.add(periodo.toString());
+        }
+    }
+
+    private <T> T emLeitura(Supplier<T> trabalho) {
+        apagarSubstituidos();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        try {
+            return transacao.execute(status -> trabalho.get());
+        } catch (RuntimeException e) {
+            // Cursor e períodos podem ter avançado em memória sem os relatórios; volta ao que está em disco.
+            estado = null;
+            throw e;
+        }
+    }
+
+    private void apagarSubstituidos() {
+        long limite = System.nanoTime() - retencaoSubstituidos.toNanos();
+        Iterator<Map.Entry<Path, Long>> versoes = substituidos.entrySet().iterator();
+        while (versoes.hasNext()) {
+            Map.Entry<Path, Long> versao = versoes.next();
+            if (versao.getValue() - limite > 0) {
+                break;
+            }
+            apagar(versao.getKey());
+            versoes.remove();
+        }
+    }
+
+    private Estado estado() {
+        if (estado == null) {
+            estado = new Estado();
+            Path arquivo = Paths.get(diretorio, "estado.properties");
+            if (Files.exists(arquivo)) {
+                Properties propriedades = new Properties();
+                try (InputStream entrada = Files.newInputStream(arquivo)) {
+                    propriedades.load(entrada);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Falha ao ler " + arquivo, e);
+                }
+                estado.cursor = Long.parseLong(propriedades.getProperty("cursor", "0"));
+                for (String periodo : propriedades.getProperty("periodos", "").split(",")) {
+                    if (!periodo.isBlank()) {
+                        estado.periodos.add(Periodo.de(periodo.trim()));
+                    }
+                }
+            }
+        }
+        return estado;
+    }
+
+    private void salvar(Estado estado) {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("cursor", Long.toString(estado.cursor));
+        propriedades.setProperty("periodos", estado.periodos.stream().map(Periodo::toString).collect(Collectors.joining(",")));
+        Path arquivo = Paths.get(diretorio, "estado.properties");
+        try {
+            Files.createDirectories(arquivo.getParent());
+            Path temporario = Files.createTempFile(arquivo.getParent(), "estado-", ".tmp");
+            try (OutputStream saida = Files.newOutputStream(temporario)) {
+                propriedades.store(saida, "Relatorios: ultimo seq de mudancas aplicado e periodos acompanhados");
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar " + arquivo, e);
+        }
+    }
+
+    private Path pasta(Periodo periodo) {
+        return Paths.get(diretorio, periodo.ano() + "-" + periodo.semestre());
+    }
+
+    private static String chave(Periodo periodo, String prefixo) {
+        return periodo.ano() + "-" + periodo.semestre() + "/" + prefixo;
+    }
+
+    private static long modificado(Path arquivo) {
+        try {
+            return Files.getLastModifiedTime(arquivo).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    record Periodo(int ano, int semestre) {
+
+        static Periodo de(int[] anoSemestre) {
+            return new Periodo(anoSemestre[0], anoSemestre[1]);
+        }
+
+        static Periodo de(String texto) {
+            String[] partes = texto.split("/");
+            return new Periodo(Integer.parseInt(partes[0]), Integer.parseInt(partes[1]));
+        }
+
+        @Override
+        public String toString() {
+            return ano + "/" + semestre;
+        }
+    }
+
+    private static final class Estado {
+
+        private long cursor;
+        private final Set<Periodo> periodos = new TreeSet<>(Comparator.comparingInt(Periodo::ano).thenComparingInt(Periodo::semestre));
+    }
+
+    /** Relatórios a refazer num período. */
+    private static final class Pendencias {
+
+        private final Set<Integer> turmas = new LinkedHashSet<>();
+        private final Set<Integer> cursos = new LinkedHashSet<>();
+        private boolean todasAsTurmas;
+        private boolean todosOsCursos;
+
+        static Pendencias tudo() {
+            Pendencias pendencias = new Pendencias();
+            pendencias.todasAsTurmas = true;
+            pendencias.todosOsCursos = true;
+            return pendencias;
+        }
+    }
+
+    private static final class Contagem {
+
+        private int gravados;
+        private int removidos;
+        private int inalterados;
+
+        int alterados() {
+            return gravados + removidos;
+        }
+    }
+}
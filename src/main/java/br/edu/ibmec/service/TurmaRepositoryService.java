@@ -1,20 +1,37 @@
 package br.edu.ibmec.service;
 
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.ItemLoteDTO;
 import br.edu.ibmec.dto.TurmaDTO;
 import br.edu.ibmec.entity.Disciplina;
 import br.edu.ibmec.entity.Professor;
 import br.edu.ibmec.entity.Turma;
+import br.edu.ibmec.entity.TurmaId;
+import br.edu.ibmec.entity.Mudanca.Operacao;
 import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
 import br.edu.ibmec.exception.ServiceException.ServiceExceptionEnum;
+import br.edu.ibmec.json.FormatoJson;
+import br.edu.ibmec.json.LinhasJson;
+import br.edu.ibmec.repository.AlunoNaTurmaRepository;
 import br.edu.ibmec.repository.DisciplinaRepository;
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
 import br.edu.ibmec.repository.ProfessorRepository;
 import br.edu.ibmec.repository.TurmaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Transactional
@@ -29,20 +46,71 @@ public class TurmaRepositoryService {
     @Autowired
     private ProfessorRepository professorRepository;
 
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private AlunoNaTurmaRepository alunosNaTurma;
+
+    @Autowired
+    private InscricaoArquivadaRepository inscricaoArquivadaRepository;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BuscaEmLote buscaEmLote;
+
+    private final ChamadaUnica<TurmaId, TurmaDTO> buscas = new ChamadaUnica<>();
+
+    @PostConstruct
+    void registrarMetricas() {
+        buscas.registrarMetricas("turma", meterRegistry);
+    }
+
     @Transactional(readOnly = true)
-    public List<TurmaDTO> listarTurmas() {
-        return turmaRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public LinhasJson listarTurmas(Campos campos) {
+        return new LinhasJson(FormatoJson.TURMA, turmaRepository.listarResumo(), campos);
     }
 
+    /**
+     * Lista de alunos da turma, lida de {@code turma_alunos} numa varredura da chave primária
+     * (ver {@link br.edu.ibmec.entity.AlunoNaTurma}). Só uma lista vazia confere se a turma existe.
+     */
     @Transactional(readOnly = true)
-    public TurmaDTO buscarTurma(int codigo, int ano, int semestre) throws DaoException {
-        Turma turma = turmaRepository.findByCodigoAndAnoAndSemestre(codigo, ano, semestre);
-        if (turma == null) {
+    public LinhasJson listarAlunos(int codigo, int ano, int semestre, Campos campos) throws DaoException {
+        List<Object[]> linhas = alunosNaTurma.listarDaTurma(codigo, ano, semestre);
+        if (linhas.isEmpty() && !turmaRepository.existsByCodigoAndAnoAndSemestre(codigo, ano, semestre)) {
             throw new DaoException("Turma não encontrada");
         }
-        return convertToDTO(turma);
+        return new LinhasJson(FormatoJson.ALUNO_NA_TURMA, linhas, campos);
+    }
+
+    /**
+     * Buscas simultâneas pela mesma turma compartilham uma única consulta (ver {@link ChamadaUnica}),
+     * exceto dentro de uma transação de escrita, que lê na própria transação.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TurmaDTO buscarTurma(int codigo, int ano, int semestre) throws DaoException {
+        if (AposCommit.emTransacaoDeEscrita()) {
+            return carregarTurma(codigo, ano, semestre);
+        }
+        return buscas.executar(new TurmaId(codigo, ano, semestre), () -> carregarTurma(codigo, ano, semestre));
+    }
+
+    /** Várias turmas de uma vez, na ordem pedida (ver {@link BuscaEmLote}). */
+    @Transactional(readOnly = true)
+    public List<ItemLoteDTO<TurmaDTO>> buscarTurmas(List<TurmaId> turmas) throws ServiceException {
+        return buscaEmLote.buscar(turmas, TurmaRepositoryService::chave, this::carregarTurmas);
     }
 
     public void cadastrarTurma(TurmaDTO dto) throws ServiceException, DaoException {
@@ -59,25 +127,42 @@ public class TurmaRepositoryService {
         turma.setDisciplina(disciplina);
         turma.setProfessor(professor);
         turmaRepository.save(turma);
+        mudancaService.registrar("TURMA", chave(turma), Operacao.CRIACAO, convertToDTO(turma));
+        indiceInscricoes.registrarTurma(turma);
     }
 
+    /**
+     * Um único {@code UPDATE} com referências para disciplina e professor; com 0 linhas, as
+     * consultas de existência só servem para escolher a mensagem do 404.
+     */
     public void alterarTurma(TurmaDTO dto) throws ServiceException, DaoException {
         validar(dto);
-        Turma turma = turmaRepository.findByCodigoAndAnoAndSemestre(dto.getCodigo(), dto.getAno(), dto.getSemestre());
-        if (turma == null) {
-            throw new DaoException("Turma não encontrada");
+        int alteradas = turmaRepository.alterar(dto.getCodigo(), dto.getAno(), dto.getSemestre(),
+                disciplinaRepository.getReferenceById(dto.getDisciplina()), professorRepository.getReferenceById(dto.getProfessorId()));
+        if (alteradas == 0) {
+            if (!turmaRepository.existsByCodigoAndAnoAndSemestre(dto.getCodigo(), dto.getAno(), dto.getSemestre())) {
+                throw new DaoException("Turma não encontrada");
+            }
+            if (!disciplinaRepository.existsById(dto.getDisciplina())) {
+                throw new DaoException("Disciplina com código " + dto.getDisciplina() + " não encontrada");
+            }
+            throw new DaoException("Professor com id " + dto.getProfessorId() + " não encontrado");
         }
-        turma.setDisciplina(obterDisciplina(dto.getDisciplina()));
-        turma.setProfessor(obterProfessor(dto.getProfessorId()));
-        turmaRepository.save(turma);
+        TurmaId turma = new TurmaId(dto.getCodigo(), dto.getAno(), dto.getSemestre());
+        mudancaService.registrar("TURMA", chave(turma), Operacao.ALTERACAO, dto);
     }
 
+    /** Só o id da turma é lido; inscrições e turma saem numa instrução cada. */
     public void removerTurma(int codigo, int ano, int semestre) throws DaoException {
-        Turma turma = turmaRepository.findByCodigoAndAnoAndSemestre(codigo, ano, semestre);
-        if (turma == null) {
-            throw new DaoException("Turma não encontrada");
-        }
-        turmaRepository.delete(turma);
+        Long id = turmaRepository.buscarId(codigo, ano, semestre)
+                .orElseThrow(() -> new DaoException("Turma não encontrada"));
+        mudancaService.registrarCascataDaTurma(id, codigo, ano, semestre);
+        inscricaoRepository.removerPorTurma(id);
+        turmaRepository.removerPorId(id);
+        inscricaoArquivadaRepository.removerPorTurma(codigo, ano, semestre);
+        alunosNaTurma.removerPorTurma(codigo, ano, semestre);
+        mudancaService.registrar("TURMA", chave(new TurmaId(codigo, ano, semestre)), Operacao.REMOCAO, null);
+        indiceInscricoes.removerTurma(id);
     }
 
     private void validar(TurmaDTO dto) throws ServiceException {
@@ -108,6 +193,48 @@ public class TurmaRepositoryService {
                 .orElseThrow(() -> new DaoException("Professor com id " + id + " não encontrado"));
     }
 
+    private TurmaDTO carregarTurma(int codigo, int ano, int semestre) throws DaoException {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        TurmaDTO dto = leitura.execute(status -> {
+            Turma turma = turmaRepository.findByCodigoAndAnoAndSemestre(codigo, ano, semestre);
+            return turma != null ? convertToDTO(turma) : null;
+        });
+        if (dto == null) {
+            throw new DaoException("Turma não encontrada");
+        }
+        return dto;
+    }
+
+    private Map<TurmaId, TurmaDTO> carregarTurmas(List<TurmaId> turmas) {
+        Set<Integer> codigos = new HashSet<>();
+        Set<Integer> anos = new HashSet<>();
+        Set<Integer> semestres = new HashSet<>();
+        for (TurmaId turma : turmas) {
+            codigos.add(turma.getCodigo());
+            anos.add(turma.getAno());
+            semestres.add(turma.getSemestre());
+        }
+        Set<TurmaId> pedidas = new HashSet<>(turmas);
+        Map<TurmaId, TurmaDTO> encontradas = new HashMap<>();
+        for (Object[] linha : turmaRepository.listarResumo(codigos, anos, semestres)) {
+            TurmaId chave = new TurmaId((Integer) linha[0], (Integer) linha[1], (Integer) linha[2]);
+            if (pedidas.contains(chave)) {
+                encontradas.put(chave, new TurmaDTO(chave.getCodigo(), chave.getAno(), chave.getSemestre(),
+                        (Integer) linha[3], (Long) linha[4]));
+            }
+        }
+        return encontradas;
+    }
+
+    private static String chave(TurmaId turma) {
+        return turma.getCodigo() + "/" + turma.getAno() + "/" + turma.getSemestre();
+    }
+
+    private static String chave(Turma turma) {
+        return turma.getCodigo() + "/" + turma.getAno() + "/" + turma.getSemestre();
+    }
+
     private TurmaDTO convertToDTO(Turma turma) {
         return TurmaDTO.builder()
                 .codigo(turma.getCodigo())
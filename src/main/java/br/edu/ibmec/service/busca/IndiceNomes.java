@@ -0,0 +1,392 @@
+package br.edu.ibmec.service.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória de trigramas sobre nomes normalizados (sem acento,
+ * minúsculos). Cada palavra é indexada com dois espaços à esquerda, de forma que
+ * consultas de 1 ou 2 letras viram buscas por prefixo de palavra e consultas
+ * maiores casam também no meio da palavra.
+ *
+ * <p>Leituras concorrentes compartilham um read lock; alterações usam o write lock.
+ * Remoções apenas marcam a entrada e o índice é compactado quando as entradas
+ * removidas passam de um quarto do total.</p>
+ */
+public class IndiceNomes {
+
+    /** Tipo do documento indexado. */
+    public enum Tipo {
+        ALUNO, PROFESSOR
+    }
+
+    /** Resultado ranqueado de uma consulta. */
+    public record Resultado(Tipo tipo, long id, String nome, int pontuacao) {
+    }
+
+    /** Números do índice para acompanhamento de uso de memória. */
+    public record Estatisticas(int documentos, int removidos, int trigramas, long postings, long bytesEstimados) {
+    }
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String PREFIXO_PALAVRA = "  ";
+    private static final int LISTAS_INTERSECTADAS = 3;
+    static final int LIMITE_CANDIDATOS = 10_000;
+    private static final int COMPACTACAO_MINIMA = 1_024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> porChave = new HashMap<>();
+    private final Map<String, String> vocabulario = new HashMap<>();
+    private Entrada[] entradas = new Entrada[1_024];
+    private int totalEntradas;
+    private int removidos;
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcento = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcento.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public void indexar(Tipo tipo, long id, String nome) {
+        if (nome == null || nome.isBlank()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            marcarRemovido(chave(tipo, id));
+            adicionar(new Entrada(tipo, id, nome, tokensCompartilhados(nome)));
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Tipo tipo, long id) {
+        lock.writeLock().lock();
+        try {
+            marcarRemovido(chave(tipo, id));
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Substitui todas as entradas do tipo pelas informadas; as que não vierem deixam o índice. */
+    public void reconstruir(Tipo tipo, List<Object[]> idsENomes) {
+        lock.writeLock().lock();
+        try {
+            porChave.entrySet().removeIf(item -> {
+                if (entradas[item.getValue()].tipo != tipo) {
+                    return false;
+                }
+                entradas[item.getValue()].removida = true;
+                removidos++;
+                return true;
+            });
+            for (Object[] linha : idsENomes) {
+                String nome = (String) linha[1];
+                if (nome == null || nome.isBlank()) {
+                    continue;
+                }
+                long id = ((Number) linha[0]).longValue();
+                marcarRemovido(chave(tipo, id));
+                adicionar(new Entrada(tipo, id, nome, tokensCompartilhados(nome)));
+            }
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Resultado> buscar(String consulta, int limite) {
+        String[] termos = tokens(normalizar(consulta));
+        if (termos.length == 0 || limite < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] listas = listasDosTermos(termos);
+            if (listas == null) {
+                return List.of();
+            }
+            return ranquear(termos, listas, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        lock.readLock().lock();
+        try {
+            long totalPostings = 0;
+            long bytes = 16L + 4L * entradas.length;
+            for (Postings lista : postings.values()) {
+                totalPostings += lista.tamanho;
+                // nó do HashMap + Long da chave + objeto Postings + array de ids
+                bytes += 32 + 24 + 24 + 16 + 4L * lista.ids.length;
+            }
+            for (int i = 0; i < totalEntradas; i++) {
+                bytes += entradas[i].bytesEstimados();
+            }
+            for (String palavra : vocabulario.keySet()) {
+                bytes += 32 + 40 + palavra.length();
+            }
+            bytes += (long) porChave.size() * (32 + 24 + 16);
+            return new Estatisticas(totalEntradas - removidos, removidos, postings.size(), totalPostings, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * As {@value #LISTAS_INTERSECTADAS} listas mais raras, com a mais rara de cada termo antes
+     * das demais: numa consulta de vários termos as três mais raras costumam ser do mesmo
+     * termo, e a interseção deixaria passar todos os nomes que só casam com ele.
+     */
+    private Postings[] listasDosTermos(String[] termos) {
+        List<Postings> raras = new ArrayList<>();
+        List<Postings> demais = new ArrayList<>();
+        for (String termo : termos) {
+            // termos curtos só casam como prefixo de palavra; os demais em qualquer posição
+            String palavra = termo.length() < 3 ? PREFIXO_PALAVRA + termo : termo;
+            int inicio = termo.length() < 3 ? palavra.length() - 3 : 0;
+            Postings maisRara = null;
+            for (int i = inicio; i + 3 <= palavra.length(); i++) {
+                Postings lista = postings.get(trigrama(palavra, i));
+                if (lista == null) {
+                    return null;
+                }
+                if (maisRara == null || lista.tamanho < maisRara.tamanho) {
+                    if (maisRara != null) {
+                        demais.add(maisRara);
+                    }
+                    maisRara = lista;
+                } else {
+                    demais.add(lista);
+                }
+            }
+            raras.add(maisRara);
+        }
+        Comparator<Postings> porTamanho = Comparator.comparingInt(p -> p.tamanho);
+        raras.sort(porTamanho);
+        demais.sort(porTamanho);
+        List<Postings> listas = new ArrayList<>(raras.subList(0, Math.min(raras.size(), LISTAS_INTERSECTADAS)));
+        for (int i = 0; listas.size() < LISTAS_INTERSECTADAS && i < demais.size(); i++) {
+            listas.add(demais.get(i));
+        }
+        // as listas mais raras já filtram quase tudo; a pontuação confirma o casamento exato
+        listas.sort(porTamanho);
+        return listas.toArray(new Postings[0]);
+    }
+
+    /**
+     * Percorre a interseção em ordem de documento mantendo os {@code limite} melhores. Como o
+     * desempate é pela ordem de inserção, a varredura para assim que o heap está cheio apenas
+     * de entradas com a pontuação máxima possível para a consulta, sem mudar o resultado.
+     *
+     * <p>Fora isso, pontua no máximo {@value #LIMITE_CANDIDATOS} candidatos: até esse número
+     * o top-K é exato; acima dele é o top-K entre os primeiros candidatos em ordem de
+     * cadastro. Sem o teto, um sobrenome comum pontua todos os nomes que o contêm: com 500 mil
+     * alunos no {@code IndiceNomesBenchmark}, ~33 mil candidatos e ~3,5 ms por busca, contra
+     * ~1,1 ms com o teto. Uma consulta tão ampla é refinada por quem digita.</p>
+     */
+    private List<Resultado> ranquear(String[] termos, Postings[] listas, int limite) {
+        int pontuacaoMaxima = 1;
+        for (String termo : termos) {
+            pontuacaoMaxima += vocabulario.containsKey(termo) ? 3 : 2;
+        }
+        PriorityQueue<long[]> melhores = new PriorityQueue<>(limite + 1,
+                (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1]));
+        int[] cursores = new int[listas.length];
+        Postings menor = listas[0];
+        int candidatos = 0;
+        for (int i = 0; i < menor.tamanho && candidatos < LIMITE_CANDIDATOS; i++) {
+            int doc = menor.ids[i];
+            if (!contidoEmTodas(doc, listas, cursores)) {
+                continue;
+            }
+            Entrada entrada = entradas[doc];
+            if (entrada.removida) {
+                continue;
+            }
+            candidatos++;
+            int pontuacao = entrada.pontuar(termos);
+            if (pontuacao == 0 || (melhores.size() == limite && pontuacao <= melhores.peek()[0])) {
+                continue;
+            }
+            melhores.offer(new long[] {pontuacao, doc});
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+            if (melhores.size() == limite && melhores.peek()[0] == pontuacaoMaxima) {
+                break;
+            }
+        }
+        List<long[]> ordenados = new ArrayList<>(melhores);
+        ordenados.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+        List<Resultado> resultado = new ArrayList<>(ordenados.size());
+        for (long[] item : ordenados) {
+            Entrada entrada = entradas[(int) item[1]];
+            resultado.add(new Resultado(entrada.tipo, entrada.id, entrada.nome, (int) item[0]));
+        }
+        return resultado;
+    }
+
+    /** Avança os cursores das demais listas (busca exponencial) até {@code doc}. */
+    private static boolean contidoEmTodas(int doc, Postings[] listas, int[] cursores) {
+        for (int j = 1; j < listas.length; j++) {
+            int[] ids = listas[j].ids;
+            int tamanho = listas[j].tamanho;
+            int baixo = cursores[j];
+            int passo = 1;
+            while (baixo + passo < tamanho && ids[baixo + passo] < doc) {
+                baixo += passo;
+                passo <<= 1;
+            }
+            int posicao = Arrays.binarySearch(ids, baixo, Math.min(tamanho, baixo + passo + 1), doc);
+            if (posicao < 0) {
+                cursores[j] = Math.min(tamanho, -posicao - 1);
+                return false;
+            }
+            cursores[j] = posicao;
+        }
+        return true;
+    }
+
+    private void adicionar(Entrada entrada) {
+        if (totalEntradas == entradas.length) {
+            entradas = Arrays.copyOf(entradas, entradas.length * 2);
+        }
+        int doc = totalEntradas++;
+        entradas[doc] = entrada;
+        porChave.put(chave(entrada.tipo, entrada.id), doc);
+        for (String token : entrada.tokens) {
+            String palavra = PREFIXO_PALAVRA + token;
+            for (int i = 0; i + 3 <= palavra.length(); i++) {
+                postings.computeIfAbsent(trigrama(palavra, i), k -> new Postings()).adicionar(doc);
+            }
+        }
+    }
+
+    private void marcarRemovido(long chave) {
+        Integer doc = porChave.remove(chave);
+        if (doc != null) {
+            entradas[doc].removida = true;
+            removidos++;
+        }
+    }
+
+    private void compactarSeNecessario() {
+        if (removidos < COMPACTACAO_MINIMA || removidos * 4 < totalEntradas) {
+            return;
+        }
+        Entrada[] antigas = entradas;
+        int total = totalEntradas;
+        postings.clear();
+        porChave.clear();
+        vocabulario.clear();
+        entradas = new Entrada[Math.max(1_024, (total - removidos) * 2)];
+        totalEntradas = 0;
+        removidos = 0;
+        for (int i = 0; i < total; i++) {
+            if (!antigas[i].removida) {
+                Entrada antiga = antigas[i];
+                adicionar(new Entrada(antiga.tipo, antiga.id, antiga.nome, tokensCompartilhados(antiga.nome)));
+            }
+        }
+    }
+
+    private static String[] tokens(String normalizado) {
+        return normalizado.isEmpty() ? new String[0] : normalizado.split(" ");
+    }
+
+    /** Compartilha a mesma instância entre palavras repetidas (sobrenomes comuns). */
+    private String[] tokensCompartilhados(String nome) {
+        String[] tokens = tokens(normalizar(nome));
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = vocabulario.computeIfAbsent(tokens[i], t -> t);
+        }
+        return tokens;
+    }
+
+    private static long trigrama(String texto, int inicio) {
+        return ((long) texto.charAt(inicio) << 32) | ((long) texto.charAt(inicio + 1) << 16) | texto.charAt(inicio + 2);
+    }
+
+    private static long chave(Tipo tipo, long id) {
+        return ((long) tipo.ordinal() << 56) | id;
+    }
+
+    private static final class Entrada {
+        private final Tipo tipo;
+        private final long id;
+        private final String nome;
+        private final String[] tokens;
+        private boolean removida;
+
+        private Entrada(Tipo tipo, long id, String nome, String[] tokens) {
+            this.tipo = tipo;
+            this.id = id;
+            this.nome = nome;
+            this.tokens = tokens;
+        }
+
+        /** Palavra igual vale 3, prefixo de palavra 2 e trecho interno 1; zero se algum termo não casa. */
+        private int pontuar(String[] termos) {
+            int total = 0;
+            for (int t = 0; t < termos.length; t++) {
+                int melhor = 0;
+                for (int p = 0; p < tokens.length && melhor < 3; p++) {
+                    if (tokens[p].equals(termos[t])) {
+                        melhor = 3;
+                    } else if (tokens[p].startsWith(termos[t])) {
+                        melhor = Math.max(melhor, 2);
+                    } else if (melhor == 0 && tokens[p].contains(termos[t])) {
+                        melhor = 1;
+                    }
+                }
+                if (melhor == 0) {
+                    return 0;
+                }
+                total += melhor;
+            }
+            if (tokens[0].startsWith(termos[0])) {
+                total++;
+            }
+            return total;
+        }
+
+        /** Objeto, nome (Latin-1 compacto) e array de referências; as palavras ficam no vocabulário. */
+        private long bytesEstimados() {
+            return 40 + 40 + nome.length() + 16 + 4L * tokens.length;
+        }
+    }
+
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int tamanho;
+
+        private void adicionar(int doc) {
+            if (tamanho > 0 && ids[tamanho - 1] == doc) {
+                return;
+            }
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho + (tamanho >> 1));
+            }
+            ids[tamanho++] = doc;
+        }
+    }
+}
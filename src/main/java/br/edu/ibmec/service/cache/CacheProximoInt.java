@@ -0,0 +1,285 @@
+package br.edu.ibmec.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Cache local de tamanho fixo com chave {@code int}, sem boxing da chave e sem um nó por
+ * entrada: cada segmento é um par de arrays ({@code int[]} de chaves, {@code Object[]} de
+ * valores) com endereçamento aberto e sondagem linear, ocupado no máximo até a metade.
+ *
+ * <p>Quando o segmento enche, a expulsão segue o CLOCK (segunda chance): um ponteiro
+ * percorre as posições, limpando o bit de uso das entradas lidas desde a última volta e
+ * expulsando a primeira que não foi. Entradas novas entram sem o bit, para que leituras
+ * únicas (varreduras) não expulsem as que são relidas.</p>
+ *
+ * <p>Leituras usam a leitura otimista do {@link StampedLock} e só pegam o lock de leitura se
+ * houve escrita concorrente no segmento. Para não guardar um valor lido do banco antes de
+ * uma invalidação, quem carrega pega uma {@link #marca(int)} antes da consulta e a passa
+ * para {@link #colocar(int, Object, long)}; se o segmento foi invalidado no meio, o valor é
+ * descartado. A chave 0 não é guardada.</p>
+ */
+public final class CacheProximoInt<V> {
+
+    private static final int PHI = 0x9E3779B9;
+    private static final int SEGMENTOS = 16;
+
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder expulsoes = new LongAdder();
+
+    public CacheProximoInt(int capacidade) {
+        if (capacidade < SEGMENTOS) {
+            throw new IllegalArgumentException("Capacidade mínima do cache é " + SEGMENTOS);
+        }
+        int porSegmento = (capacidade + SEGMENTOS - 1) / SEGMENTOS;
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento(porSegmento);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int chave) {
+        if (chave == 0) {
+            return null;
+        }
+        int hash = chave * PHI;
+        Object valor = segmentos[hash >>> 28].get(hash, chave);
+        if (valor == null) {
+            faltas.increment();
+            return null;
+        }
+        acertos.increment();
+        return (V) valor;
+    }
+
+    /** Versão das invalidações do segmento da chave; pegar antes de consultar a origem. */
+    public long marca(int chave) {
+        return segmentos[(chave * PHI) >>> 28].invalidacoes;
+    }
+
+    /** Guarda o valor, a menos que a chave tenha sido invalidada depois da {@code marca}. */
+    public void colocar(int chave, V valor, long marca) {
+        if (chave == 0 || valor == null) {
+            return;
+        }
+        int hash = chave * PHI;
+        if (segmentos[hash >>> 28].colocar(hash, chave, valor, marca)) {
+            expulsoes.increment();
+        }
+    }
+
+    public void invalidar(int chave) {
+        int hash = chave * PHI;
+        segmentos[hash >>> 28].invalidar(hash, chave);
+    }
+
+    public void limpar() {
+        for (Segmento segmento : segmentos) {
+            segmento.limpar();
+        }
+    }
+
+    public int tamanho() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.tamanho();
+        }
+        return total;
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    public long getExpulsoes() {
+        return expulsoes.sum();
+    }
+
+    public void registrarMetricas(String nome, MeterRegistry registry) {
+        FunctionCounter.builder("universidade.cache.leituras", this, CacheProximoInt::getAcertos)
+                .tag("cache", nome).tag("resultado", "acerto").register(registry);
+        FunctionCounter.builder("universidade.cache.leituras", this, CacheProximoInt::getFaltas)
+                .tag("cache", nome).tag("resultado", "falta").register(registry);
+        FunctionCounter.builder("universidade.cache.expulsoes", this, CacheProximoInt::getExpulsoes)
+                .tag("cache", nome).register(registry);
+        Gauge.builder("universidade.cache.tamanho", this, CacheProximoInt::tamanho)
+                .tag("cache", nome).register(registry);
+    }
+
+    private static final class Segmento {
+
+        private final StampedLock lock = new StampedLock();
+        private final int[] chaves;
+        private final Object[] valores;
+        private final byte[] usadas;
+        private final int mascara;
+        private final int deslocamento;
+        private final int capacidade;
+        private int tamanho;
+        private int ponteiro;
+        private volatile long invalidacoes;
+
+        Segmento(int capacidade) {
+            int posicoes = Integer.highestOneBit(Math.max(2, capacidade) * 2 - 1) << 1;
+            this.chaves = new int[posicoes];
+            this.valores = new Object[posicoes];
+            this.usadas = new byte[posicoes];
+            this.mascara = posicoes - 1;
+            // Os 4 bits altos do hash escolhem o segmento; a posição usa os bits logo abaixo.
+            this.deslocamento = 28 - Integer.numberOfTrailingZeros(posicoes);
+            this.capacidade = capacidade;
+        }
+
+        Object get(int hash, int chave) {
+            long carimbo = lock.tryOptimisticRead();
+            int i = procurar(hash, chave);
+            Object valor = i >= 0 ? valores[i] : null;
+            if (!lock.validate(carimbo)) {
+                carimbo = lock.readLock();
+                try {
+                    i = procurar(hash, chave);
+                    valor = i >= 0 ? valores[i] : null;
+                } finally {
+                    lock.unlockRead(carimbo);
+                }
+            }
+            if (valor != null && usadas[i] == 0) {
+                // Corrida benigna: no pior caso marca uma entrada que acabou de ocupar a posição.
+                usadas[i] = 1;
+            }
+            return valor;
+        }
+
+        /** Devolve verdadeiro se precisou expulsar uma entrada. */
+        boolean colocar(int hash, int chave, Object valor, long marca) {
+            long carimbo = lock.writeLock();
+            try {
+                if (invalidacoes != marca) {
+                    return false;
+                }
+                int i = procurar(hash, chave);
+                if (i >= 0) {
+                    valores[i] = valor;
+                    return false;
+                }
+                boolean expulsou = false;
+                if (tamanho == capacidade) {
+                    expulsar();
+                    expulsou = true;
+                }
+                i = posicao(hash);
+                while (chaves[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                chaves[i] = chave;
+                valores[i] = valor;
+                usadas[i] = 0;
+                tamanho++;
+                return expulsou;
+            } finally {
+                lock.unlockWrite(carimbo);
+            }
+        }
+
+        void invalidar(int hash, int chave) {
+            long carimbo = lock.writeLock();
+            try {
+                invalidacoes++;
+                int i = procurar(hash, chave);
+                if (i >= 0) {
+                    remover(i);
+                }
+            } finally {
+                lock.unlockWrite(carimbo);
+            }
+        }
+
+        void limpar() {
+            long carimbo = lock.writeLock();
+            try {
+                invalidacoes++;
+                Arrays.fill(chaves, 0);
+                Arrays.fill(valores, null);
+                Arrays.fill(usadas, (byte) 0);
+                tamanho = 0;
+            } finally {
+                lock.unlockWrite(carimbo);
+            }
+        }
+
+        int tamanho() {
+            long carimbo = lock.readLock();
+            try {
+                return tamanho;
+            } finally {
+                lock.unlockRead(carimbo);
+            }
+        }
+
+        /**
+         * Posição da chave ou -1. Sob leitura otimista os arrays podem estar mudando, por
+         * isso a sondagem é limitada ao tamanho da tabela; o resultado só vale após validar.
+         */
+        private int procurar(int hash, int chave) {
+            int i = posicao(hash);
+            for (int passos = 0; passos <= mascara; passos++) {
+                int atual = chaves[i];
+                if (atual == chave) {
+                    return i;
+                }
+                if (atual == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mascara;
+            }
+            return -1;
+        }
+
+        private int posicao(int hash) {
+            return (hash >>> deslocamento) & mascara;
+        }
+
+        private void expulsar() {
+            while (true) {
+                ponteiro = (ponteiro + 1) & mascara;
+                if (chaves[ponteiro] == 0) {
+                    continue;
+                }
+                if (usadas[ponteiro] != 0) {
+                    usadas[ponteiro] = 0;
+                } else {
+                    remover(ponteiro);
+                    return;
+                }
+            }
+        }
+
+        /** Remoção por deslocamento para trás, sem lápides (como em {@code MapaInt}). */
+        private void remover(int posicao) {
+            int livre = posicao;
+            for (int j = (posicao + 1) & mascara; chaves[j] != 0; j = (j + 1) & mascara) {
+                int ideal = posicao(chaves[j] * PHI);
+                if (((j - ideal) & mascara) >= ((j - livre) & mascara)) {
+                    chaves[livre] = chaves[j];
+                    valores[livre] = valores[j];
+                    usadas[livre] = usadas[j];
+                    livre = j;
+                }
+            }
+            chaves[livre] = 0;
+            valores[livre] = null;
+            usadas[livre] = 0;
+            tamanho--;
+        }
+    }
+}
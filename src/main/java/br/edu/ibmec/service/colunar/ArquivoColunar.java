@@ -0,0 +1,526 @@
+package br.edu.ibmec.service.colunar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Arquivo colunar somente leitura com as inscrições de um período encerrado.
+ *
+ * <p>As inscrições são gravadas em duas projeções: ordenadas por (turma, matrícula) e por
+ * (matrícula, turma). A coluna que define a ordem fica em RLE (um valor e o início de cada
+ * sequência, em int32 de largura fixa), o que permite busca binária direto no arquivo
+ * mapeado; as demais ficam em blocos de {@value #TAMANHO_BLOCO} valores ({@value #TAMANHO_BLOCO_DIMENSAO}
+ * nas tabelas de aluno e turma) com delta e varint zigzag, e só os blocos do intervalo
+ * consultado são decodificados. Ano e semestre são RLE
+ * de uma única sequência. Nomes de alunos, disciplinas e professores ficam num dicionário
+ * ordenado e as tabelas de aluno e turma guardam só o índice no dicionário.</p>
+ *
+ * <p>Formato: cabeçalho ({@code UNIVCOL1}, versão, ano, semestre, linhas, número de
+ * colunas), diretório (nome, codificação, deslocamento e tamanho de cada coluna) e os dados
+ * das colunas. Inteiros em little-endian.</p>
+ */
+public final class ArquivoColunar {
+
+    static final int TAMANHO_BLOCO = 1024;
+
+    /** Tabelas de aluno e turma são acessadas por posição a cada linha; blocos menores decodificam menos. */
+    static final int TAMANHO_BLOCO_DIMENSAO = 64;
+
+    private static final byte[] MAGICO = "UNIVCOL1".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSAO = 1;
+    private static final byte RLE = 1;
+    private static final byte BLOCOS = 2;
+    private static final byte BLOCOS_DELTA = 3;
+    private static final byte DICIONARIO = 4;
+
+    /** Uma inscrição do período. */
+    public record Inscricao(long id, int matricula, int turma) {
+    }
+
+    public record Aluno(int matricula, String nome) {
+    }
+
+    public record Turma(int codigo, String disciplina, String professor) {
+    }
+
+    /** Linha devolvida pelas consultas, já com os nomes resolvidos pelo dicionário. */
+    public record Linha(long id, int matricula, String aluno, int turma, String disciplina, String professor) {
+    }
+
+    private final Path caminho;
+    private final int ano;
+    private final int semestre;
+    private final int linhas;
+    private final long bytes;
+    private final ColunaRle turmaPorTurma;
+    private final ColunaBlocos matriculaPorTurma;
+    private final ColunaBlocos idPorTurma;
+    private final ColunaRle matriculaPorAluno;
+    private final ColunaBlocos turmaPorAluno;
+    private final ColunaBlocos idPorAluno;
+    private final ColunaBlocos alunoMatricula;
+    private final ColunaBlocos alunoNome;
+    private final ColunaBlocos turmaCodigo;
+    private final ColunaBlocos turmaDisciplina;
+    private final ColunaBlocos turmaProfessor;
+    private final Dicionario dicionario;
+
+    private ArquivoColunar(Path caminho, MappedByteBuffer mapa) throws IOException {
+        this.caminho = caminho;
+        this.bytes = mapa.capacity();
+        ByteBuffer cabecalho = mapa.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magico = new byte[MAGICO.length];
+        cabecalho.get(magico);
+        if (!Arrays.equals(magico, MAGICO) || cabecalho.getInt() != VERSAO) {
+            throw new IOException("Arquivo colunar inválido: " + caminho);
+        }
+        this.ano = cabecalho.getInt();
+        this.semestre = cabecalho.getInt();
+        this.linhas = cabecalho.getInt();
+        int quantidade = cabecalho.getInt();
+        Map<String, ByteBuffer> colunas = new HashMap<>();
+        for (int i = 0; i < quantidade; i++) {
+            byte[] nome = new byte[cabecalho.get()];
+            cabecalho.get(nome);
+            cabecalho.get();
+            long deslocamento = cabecalho.getLong();
+            long tamanho = cabecalho.getLong();
+            colunas.put(new String(nome, StandardCharsets.US_ASCII),
+                    mapa.slice((int) deslocamento, (int) tamanho).order(ByteOrder.LITTLE_ENDIAN));
+        }
+        this.turmaPorTurma = new ColunaRle(coluna(colunas, "t.turma"));
+        this.matriculaPorTurma = new ColunaBlocos(coluna(colunas, "t.matricula"), true);
+        this.idPorTurma = new ColunaBlocos(coluna(colunas, "t.id"), true);
+        this.matriculaPorAluno = new ColunaRle(coluna(colunas, "a.matricula"));
+        this.turmaPorAluno = new ColunaBlocos(coluna(colunas, "a.turma"), true);
+        this.idPorAluno = new ColunaBlocos(coluna(colunas, "a.id"), true);
+        this.alunoMatricula = new ColunaBlocos(coluna(colunas, "aluno.matricula"), true);
+        this.alunoNome = new ColunaBlocos(coluna(colunas, "aluno.nome"), false);
+        this.turmaCodigo = new ColunaBlocos(coluna(colunas, "turma.codigo"), true);
+        this.turmaDisciplina = new ColunaBlocos(coluna(colunas, "turma.disciplina"), false);
+        this.turmaProfessor = new ColunaBlocos(coluna(colunas, "turma.professor"), false);
+        this.dicionario = new Dicionario(coluna(colunas, "nomes"));
+    }
+
+    public static ArquivoColunar abrir(Path caminho) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            return new ArquivoColunar(caminho, canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    public Path caminho() {
+        return caminho;
+    }
+
+    public int ano() {
+        return ano;
+    }
+
+    public int semestre() {
+        return semestre;
+    }
+
+    public int linhas() {
+        return linhas;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    /** Quem esteve inscrito na turma, em ordem de matrícula. */
+    public List<Linha> inscritosNaTurma(int codigo) {
+        int[] intervalo = turmaPorTurma.intervalo(codigo);
+        if (intervalo == null) {
+            return List.of();
+        }
+        int inicio = intervalo[0];
+        int quantidade = intervalo[1] - inicio;
+        long[] matriculas = matriculaPorTurma.ler(inicio, quantidade);
+        long[] ids = idPorTurma.ler(inicio, quantidade);
+        String[] turma = turma(codigo);
+        List<Linha> resultado = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int matricula = (int) matriculas[i];
+            resultado.add(new Linha(ids[i], matricula, nomeAluno(matricula), codigo, turma[0], turma[1]));
+        }
+        return resultado;
+    }
+
+    /** Turmas que o aluno cursou no período, em ordem de código. */
+    public List<Linha> turmasDoAluno(int matricula) {
+        int[] intervalo = matriculaPorAluno.intervalo(matricula);
+        if (intervalo == null) {
+            return List.of();
+        }
+        int inicio = intervalo[0];
+        int quantidade = intervalo[1] - inicio;
+        long[] turmas = turmaPorAluno.ler(inicio, quantidade);
+        long[] ids = idPorAluno.ler(inicio, quantidade);
+        String aluno = nomeAluno(matricula);
+        List<Linha> resultado = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int codigo = (int) turmas[i];
+            String[] turma = turma(codigo);
+            resultado.add(new Linha(ids[i], matricula, aluno, codigo, turma[0], turma[1]));
+        }
+        return resultado;
+    }
+
+    private String nomeAluno(int matricula) {
+        int posicao = alunoMatricula.buscar(matricula);
+        return posicao < 0 ? null : dicionario.get((int) alunoNome.get(posicao));
+    }
+
+    private String[] turma(int codigo) {
+        int posicao = turmaCodigo.buscar(codigo);
+        if (posicao < 0) {
+            return new String[2];
+        }
+        return new String[] {dicionario.get((int) turmaDisciplina.get(posicao)),
+                dicionario.get((int) turmaProfessor.get(posicao))};
+    }
+
+    private static ByteBuffer coluna(Map<String, ByteBuffer> colunas, String nome) throws IOException {
+        ByteBuffer coluna = colunas.get(nome);
+        if (coluna == null) {
+            throw new IOException("Coluna ausente no arquivo colunar: " + nome);
+        }
+        return coluna;
+    }
+
+    /**
+     * Grava o período em {@code destino}. O arquivo é escrito ao lado e renomeado no fim,
+     * então leitores nunca veem um arquivo pela metade.
+     */
+    public static long escrever(Path destino, int ano, int semestre, List<Inscricao> inscricoes,
+                                List<Aluno> alunos, List<Turma> turmas) throws IOException {
+        List<Inscricao> porTurma = new ArrayList<>(inscricoes);
+        porTurma.sort(Comparator.comparingInt(Inscricao::turma).thenComparingInt(Inscricao::matricula));
+        List<Inscricao> porAluno = new ArrayList<>(inscricoes);
+        porAluno.sort(Comparator.comparingInt(Inscricao::matricula).thenComparingInt(Inscricao::turma));
+        List<Aluno> alunosOrdenados = new ArrayList<>(alunos);
+        alunosOrdenados.sort(Comparator.comparingInt(Aluno::matricula));
+        List<Turma> turmasOrdenadas = new ArrayList<>(turmas);
+        turmasOrdenadas.sort(Comparator.comparingInt(Turma::codigo));
+
+        TreeSet<String> nomes = new TreeSet<>();
+        alunosOrdenados.forEach(aluno -> nomes.add(texto(aluno.nome())));
+        turmasOrdenadas.forEach(turma -> {
+            nomes.add(texto(turma.disciplina()));
+            nomes.add(texto(turma.professor()));
+        });
+        Map<String, Integer> indices = new HashMap<>();
+        for (String nome : nomes) {
+            indices.put(nome, indices.size());
+        }
+
+        Map<String, byte[]> colunas = new LinkedHashMap<>();
+        colunas.put("t.turma", rle(porTurma.stream().mapToInt(Inscricao::turma).toArray()));
+        colunas.put("t.matricula", blocos(porTurma.stream().mapToLong(Inscricao::matricula).toArray(), true, TAMANHO_BLOCO));
+        colunas.put("t.id", blocos(porTurma.stream().mapToLong(Inscricao::id).toArray(), true, TAMANHO_BLOCO));
+        colunas.put("a.matricula", rle(porAluno.stream().mapToInt(Inscricao::matricula).toArray()));
+        colunas.put("a.turma", blocos(porAluno.stream().mapToLong(Inscricao::turma).toArray(), true, TAMANHO_BLOCO));
+        colunas.put("a.id", blocos(porAluno.stream().mapToLong(Inscricao::id).toArray(), true, TAMANHO_BLOCO));
+        int[] periodo = new int[inscricoes.size()];
+        Arrays.fill(periodo, ano);
+        colunas.put("ano", rle(periodo));
+        Arrays.fill(periodo, semestre);
+        colunas.put("semestre", rle(periodo));
+        colunas.put("aluno.matricula", blocos(alunosOrdenados.stream().mapToLong(Aluno::matricula).toArray(), true, TAMANHO_BLOCO_DIMENSAO));
+        colunas.put("aluno.nome", blocos(alunosOrdenados.stream().mapToLong(aluno -> indices.get(texto(aluno.nome()))).toArray(), false, TAMANHO_BLOCO_DIMENSAO));
+        colunas.put("turma.codigo", blocos(turmasOrdenadas.stream().mapToLong(Turma::codigo).toArray(), true, TAMANHO_BLOCO_DIMENSAO));
+        colunas.put("turma.disciplina", blocos(turmasOrdenadas.stream().mapToLong(turma -> indices.get(texto(turma.disciplina()))).toArray(), false, TAMANHO_BLOCO_DIMENSAO));
+        colunas.put("turma.professor", blocos(turmasOrdenadas.stream().mapToLong(turma -> indices.get(texto(turma.professor()))).toArray(), false, TAMANHO_BLOCO_DIMENSAO));
+        colunas.put("nomes", dicionario(nomes));
+
+        int tamanhoCabecalho = MAGICO.length + 5 * Integer.BYTES;
+        for (String nome : colunas.keySet()) {
+            tamanhoCabecalho += 1 + nome.length() + 1 + 2 * Long.BYTES;
+        }
+        ByteBuffer cabecalho = ByteBuffer.allocate(tamanhoCabecalho).order(ByteOrder.LITTLE_ENDIAN);
+        cabecalho.put(MAGICO).putInt(VERSAO).putInt(ano).putInt(semestre).putInt(inscricoes.size()).putInt(colunas.size());
+        long deslocamento = tamanhoCabecalho;
+        for (Map.Entry<String, byte[]> coluna : colunas.entrySet()) {
+            byte[] nome = coluna.getKey().getBytes(StandardCharsets.US_ASCII);
+            cabecalho.put((byte) nome.length).put(nome).put(codificacao(coluna.getKey()))
+                    .putLong(deslocamento).putLong(coluna.getValue().length);
+            deslocamento += coluna.getValue().length;
+        }
+        cabecalho.flip();
+
+        Files.createDirectories(destino.toAbsolutePath().getParent());
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.write(cabecalho);
+            for (byte[] dados : colunas.values()) {
+                canal.write(ByteBuffer.wrap(dados));
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return deslocamento;
+    }
+
+    private static byte codificacao(String coluna) {
+        if (coluna.equals("nomes")) {
+            return DICIONARIO;
+        }
+        if (coluna.equals("t.turma") || coluna.equals("a.matricula") || coluna.equals("ano") || coluna.equals("semestre")) {
+            return RLE;
+        }
+        return coluna.endsWith(".nome") || coluna.endsWith(".disciplina") || coluna.endsWith(".professor") ? BLOCOS : BLOCOS_DELTA;
+    }
+
+    private static String texto(String nome) {
+        return nome != null ? nome : "";
+    }
+
+    /** [sequências][valores int32...][inícios int32...]; os valores precisam vir agrupados. */
+    private static byte[] rle(int[] valores) {
+        int[] valoresRle = new int[valores.length];
+        int[] inicios = new int[valores.length];
+        int sequencias = 0;
+        for (int i = 0; i < valores.length; i++) {
+            if (i == 0 || valores[i] != valores[i - 1]) {
+                valoresRle[sequencias] = valores[i];
+                inicios[sequencias++] = i;
+            }
+        }
+        ByteBuffer saida = ByteBuffer.allocate(Integer.BYTES * (2 + 2 * sequencias)).order(ByteOrder.LITTLE_ENDIAN);
+        saida.putInt(sequencias).putInt(valores.length);
+        for (int i = 0; i < sequencias; i++) {
+            saida.putInt(valoresRle[i]);
+        }
+        for (int i = 0; i < sequencias; i++) {
+            saida.putInt(inicios[i]);
+        }
+        return saida.array();
+    }
+
+    /**
+     * [quantidade][tamanho do bloco][blocos][primeiro valor int64 por bloco][deslocamento int32 por bloco][dados].
+     * Dentro do bloco, a partir do segundo valor: varint zigzag do valor ou da diferença para o anterior.
+     */
+    private static byte[] blocos(long[] valores, boolean delta, int tamanhoBloco) {
+        int quantidadeBlocos = (valores.length + tamanhoBloco - 1) / tamanhoBloco;
+        long[] primeiros = new long[quantidadeBlocos];
+        int[] deslocamentos = new int[quantidadeBlocos];
+        Varints dados = new Varints(valores.length * 2);
+        for (int bloco = 0; bloco < quantidadeBlocos; bloco++) {
+            int inicio = bloco * tamanhoBloco;
+            int fim = Math.min(valores.length, inicio + tamanhoBloco);
+            primeiros[bloco] = valores[inicio];
+            deslocamentos[bloco] = dados.tamanho;
+            for (int i = inicio + 1; i < fim; i++) {
+                dados.escrever(delta ? valores[i] - valores[i - 1] : valores[i]);
+            }
+        }
+        ByteBuffer saida = ByteBuffer.allocate(3 * Integer.BYTES + quantidadeBlocos * (Long.BYTES + Integer.BYTES) + dados.tamanho)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        saida.putInt(valores.length).putInt(tamanhoBloco).putInt(quantidadeBlocos);
+        for (long primeiro : primeiros) {
+            saida.putLong(primeiro);
+        }
+        for (int deslocamento : deslocamentos) {
+            saida.putInt(deslocamento);
+        }
+        saida.put(dados.bytes, 0, dados.tamanho);
+        return saida.array();
+    }
+
+    /** [quantidade][fim de cada nome int32...][UTF-8 concatenado]. */
+    private static byte[] dicionario(TreeSet<String> nomes) {
+        List<byte[]> codificados = new ArrayList<>(nomes.size());
+        int total = 0;
+        for (String nome : nomes) {
+            byte[] utf8 = nome.getBytes(StandardCharsets.UTF_8);
+            codificados.add(utf8);
+            total += utf8.length;
+        }
+        ByteBuffer saida = ByteBuffer.allocate(Integer.BYTES * (1 + codificados.size()) + total).order(ByteOrder.LITTLE_ENDIAN);
+        saida.putInt(codificados.size());
+        int fim = 0;
+        for (byte[] utf8 : codificados) {
+            fim += utf8.length;
+            saida.putInt(fim);
+        }
+        codificados.forEach(saida::put);
+        return saida.array();
+    }
+
+    private static final class Varints {
+
+        private byte[] bytes;
+        private int tamanho;
+
+        Varints(int capacidade) {
+            bytes = new byte[Math.max(16, capacidade)];
+        }
+
+        void escrever(long valor) {
+            long zigzag = (valor << 1) ^ (valor >> 63);
+            if (tamanho + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((zigzag & ~0x7FL) != 0) {
+                bytes[tamanho++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            bytes[tamanho++] = (byte) zigzag;
+        }
+    }
+
+    private static final class ColunaRle {
+
+        private final IntBuffer valores;
+        private final IntBuffer inicios;
+        private final int sequencias;
+        private final int total;
+
+        ColunaRle(ByteBuffer dados) {
+            sequencias = dados.getInt(0);
+            total = dados.getInt(Integer.BYTES);
+            valores = dados.slice(2 * Integer.BYTES, sequencias * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            inicios = dados.slice((2 + sequencias) * Integer.BYTES, sequencias * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+
+        /** [início, fim) das linhas com o valor, por busca binária no arquivo mapeado; null se ausente. */
+        int[] intervalo(int valor) {
+            int baixo = 0;
+            int alto = sequencias - 1;
+            while (baixo <= alto) {
+                int meio = (baixo + alto) >>> 1;
+                int atual = valores.get(meio);
+                if (atual < valor) {
+                    baixo = meio + 1;
+                } else if (atual > valor) {
+                    alto = meio - 1;
+                } else {
+                    int fim = meio + 1 < sequencias ? inicios.get(meio + 1) : total;
+                    return new int[] {inicios.get(meio), fim};
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class ColunaBlocos {
+
+        private final ByteBuffer dados;
+        private final boolean delta;
+        private final int quantidade;
+        private final int tamanhoBloco;
+        private final int blocos;
+        private final int inicioPrimeiros;
+        private final int inicioDeslocamentos;
+        private final int inicioDados;
+
+        ColunaBlocos(ByteBuffer dados, boolean delta) {
+            this.dados = dados;
+            this.delta = delta;
+            this.quantidade = dados.getInt(0);
+            this.tamanhoBloco = dados.getInt(Integer.BYTES);
+            this.blocos = dados.getInt(2 * Integer.BYTES);
+            this.inicioPrimeiros = 3 * Integer.BYTES;
+            this.inicioDeslocamentos = inicioPrimeiros + blocos * Long.BYTES;
+            this.inicioDados = inicioDeslocamentos + blocos * Integer.BYTES;
+        }
+
+        long get(int posicao) {
+            return ler(posicao, 1)[0];
+        }
+
+        /** Decodifica {@code quantidade} valores a partir de {@code inicio}, tocando só os blocos do intervalo. */
+        long[] ler(int inicio, int total) {
+            long[] saida = new long[total];
+            int bloco = inicio / tamanhoBloco;
+            int posicao = bloco * tamanhoBloco;
+            int escritos = 0;
+            while (escritos < total) {
+                long valor = dados.getLong(inicioPrimeiros + bloco * Long.BYTES);
+                int cursor = inicioDados + dados.getInt(inicioDeslocamentos + bloco * Integer.BYTES);
+                int fimBloco = Math.min(quantidade, (bloco + 1) * tamanhoBloco);
+                for (; posicao < fimBloco && escritos < total; posicao++) {
+                    if (posicao > bloco * tamanhoBloco) {
+                        long zigzag = 0;
+                        int deslocamento = 0;
+                        byte b;
+                        do {
+                            b = dados.get(cursor++);
+                            zigzag |= (long) (b & 0x7F) << deslocamento;
+                            deslocamento += 7;
+                        } while (b < 0);
+                        long lido = (zigzag >>> 1) ^ -(zigzag & 1);
+                        valor = delta ? valor + lido : lido;
+                    }
+                    if (posicao >= inicio) {
+                        saida[escritos++] = valor;
+                    }
+                }
+                bloco++;
+            }
+            return saida;
+        }
+
+        /** Posição do valor numa coluna ordenada e sem repetições, ou -1. */
+        int buscar(long valor) {
+            int baixo = 0;
+            int alto = blocos - 1;
+            int bloco = -1;
+            while (baixo <= alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (dados.getLong(inicioPrimeiros + meio * Long.BYTES) <= valor) {
+                    bloco = meio;
+                    baixo = meio + 1;
+                } else {
+                    alto = meio - 1;
+                }
+            }
+            if (bloco < 0) {
+                return -1;
+            }
+            int inicio = bloco * tamanhoBloco;
+            long[] valores = ler(inicio, Math.min(quantidade, inicio + tamanhoBloco) - inicio);
+            int posicao = Arrays.binarySearch(valores, valor);
+            return posicao < 0 ? -1 : inicio + posicao;
+        }
+    }
+
+    private static final class Dicionario {
+
+        private final ByteBuffer dados;
+        private final int quantidade;
+
+        Dicionario(ByteBuffer dados) {
+            this.dados = dados;
+            this.quantidade = dados.getInt(0);
+        }
+
+        String get(int indice) {
+            int inicio = indice == 0 ? 0 : dados.getInt(Integer.BYTES * indice);
+            int fim = dados.getInt(Integer.BYTES * (indice + 1));
+            byte[] utf8 = new byte[fim - inicio];
+            dados.get(Integer.BYTES * (1 + quantidade) + inicio, utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package br.edu.ibmec.service.indice;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de inteiros no estilo Roaring: os 16 bits altos escolhem um contêiner e os 16
+ * bits baixos ficam dentro dele. Contêineres com até {@value #LIMITE_ARRAY} valores são um
+ * {@code char[]} ordenado; acima disso viram um bitmap de 65536 bits ({@code long[1024]}).
+ * Tudo em arrays primitivos, sem boxing.
+ *
+ * <p>Não é thread-safe; quem usa controla o acesso (ver {@link IndiceInscricoes}).</p>
+ */
+public final class BitmapCompactado {
+
+    static final int LIMITE_ARRAY = 4096;
+    private static final int PALAVRAS_BITMAP = 1024;
+
+    private char[] chaves = new char[1];
+    private Object[] conteineres = new Object[1];
+    private int[] cardinalidades = new int[1];
+    private int tamanho;
+
+    public boolean adicionar(int valor) {
+        char alto = (char) (valor >>> 16);
+        char baixo = (char) valor;
+        int posicao = Arrays.binarySearch(chaves, 0, tamanho, alto);
+        if (posicao < 0) {
+            posicao = -posicao - 1;
+            inserirConteiner(posicao, alto, new char[4]);
+        }
+        Object conteiner = conteineres[posicao];
+        int cardinalidade = cardinalidades[posicao];
+        if (conteiner instanceof long[] bitmap) {
+            long bit = 1L << baixo;
+            if ((bitmap[baixo >>> 6] & bit) != 0) {
+                return false;
+            }
+            bitmap[baixo >>> 6] |= bit;
+        } else {
+            char[] valores = (char[]) conteiner;
+            int indice = Arrays.binarySearch(valores, 0, cardinalidade, baixo);
+            if (indice >= 0) {
+                return false;
+            }
+            indice = -indice - 1;
+            if (cardinalidade == LIMITE_ARRAY) {
+                long[] bitmap = paraBitmap(valores, cardinalidade);
+                bitmap[baixo >>> 6] |= 1L << baixo;
+                conteineres[posicao] = bitmap;
+            } else {
+                if (cardinalidade == valores.length) {
+                    valores = Arrays.copyOf(valores, Math.min(LIMITE_ARRAY, cardinalidade + (cardinalidade >> 1) + 1));
+                    conteineres[posicao] = valores;
+                }
+                System.arraycopy(valores, indice, valores, indice + 1, cardinalidade - indice);
+                valores[indice] = baixo;
+            }
+        }
+        cardinalidades[posicao] = cardinalidade + 1;
+        return true;
+    }
+
+    public boolean remover(int valor) {
+        int posicao = Arrays.binarySearch(chaves, 0, tamanho, (char) (valor >>> 16));
+        if (posicao < 0) {
+            return false;
+        }
+        char baixo = (char) valor;
+        Object conteiner = conteineres[posicao];
+        int cardinalidade = cardinalidades[posicao];
+        if (conteiner instanceof long[] bitmap) {
+            long bit = 1L << baixo;
+            if ((bitmap[baixo >>> 6] & bit) == 0) {
+                return false;
+            }
+            bitmap[baixo >>> 6] &= ~bit;
+            if (cardinalidade - 1 <= LIMITE_ARRAY) {
+                conteineres[posicao] = paraArray(bitmap, cardinalidade - 1);
+            }
+        } else {
+            char[] valores = (char[]) conteiner;
+            int indice = Arrays.binarySearch(valores, 0, cardinalidade, baixo);
+            if (indice < 0) {
+                return false;
+            }
+            System.arraycopy(valores, indice + 1, valores, indice, cardinalidade - indice - 1);
+        }
+        if (cardinalidade == 1) {
+            removerConteiner(posicao);
+        } else {
+            cardinalidades[posicao] = cardinalidade - 1;
+        }
+        return true;
+    }
+
+    public boolean contem(int valor) {
+        int posicao = Arrays.binarySearch(chaves, 0, tamanho, (char) (valor >>> 16));
+        if (posicao < 0) {
+            return false;
+        }
+        char baixo = (char) valor;
+        if (conteineres[posicao] instanceof long[] bitmap) {
+            return (bitmap[baixo >>> 6] & (1L << baixo)) != 0;
+        }
+        return Arrays.binarySearch((char[]) conteineres[posicao], 0, cardinalidades[posicao], baixo) >= 0;
+    }
+
+    public int cardinalidade() {
+        int total = 0;
+        for (int i = 0; i < tamanho; i++) {
+            total += cardinalidades[i];
+        }
+        return total;
+    }
+
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+
+    /** Valores em ordem crescente (sem sinal). */
+    public int[] paraArray() {
+        int[] resultado = new int[cardinalidade()];
+        int n = 0;
+        for (int i = 0; i < tamanho; i++) {
+            int alto = chaves[i] << 16;
+            if (conteineres[i] instanceof long[] bitmap) {
+                for (int palavra = 0; palavra < PALAVRAS_BITMAP; palavra++) {
+                    long bits = bitmap[palavra];
+                    while (bits != 0) {
+                        resultado[n++] = alto | (palavra << 6) | Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                char[] valores = (char[]) conteineres[i];
+                for (int k = 0; k < cardinalidades[i]; k++) {
+                    resultado[n++] = alto | valores[k];
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /** Interseção de dois conjuntos, contêiner a contêiner. */
+    public static BitmapCompactado intersecao(BitmapCompactado a, BitmapCompactado b) {
+        BitmapCompactado resultado = new BitmapCompactado();
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho && j < b.tamanho) {
+            if (a.chaves[i] < b.chaves[j]) {
+                i++;
+            } else if (a.chaves[i] > b.chaves[j]) {
+                j++;
+            } else {
+                Object conteiner = intersecao(a.conteineres[i], a.cardinalidades[i], b.conteineres[j], b.cardinalidades[j]);
+                int cardinalidade = conteiner instanceof long[] bitmap ? contar(bitmap) : ((char[]) conteiner).length;
+                if (cardinalidade > 0) {
+                    resultado.inserirConteiner(resultado.tamanho, a.chaves[i], conteiner);
+                    resultado.cardinalidades[resultado.tamanho - 1] = cardinalidade;
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /** Estimativa do heap ocupado (cabeçalhos de objeto de 16 bytes, referências comprimidas). */
+    public long bytesEstimados() {
+        long bytes = 16 + 3 * 4 + 4 + (16 + 2L * chaves.length) + (16 + 4L * conteineres.length) + (16 + 4L * cardinalidades.length);
+        for (int i = 0; i < tamanho; i++) {
+            bytes += conteineres[i] instanceof long[] ? 16 + 8L * PALAVRAS_BITMAP : 16 + 2L * ((char[]) conteineres[i]).length;
+        }
+        return bytes;
+    }
+
+    private static Object intersecao(Object a, int cardinalidadeA, Object b, int cardinalidadeB) {
+        if (a instanceof long[] bitsA && b instanceof long[] bitsB) {
+            long[] bitmap = new long[PALAVRAS_BITMAP];
+            int cardinalidade = 0;
+            for (int k = 0; k < PALAVRAS_BITMAP; k++) {
+                bitmap[k] = bitsA[k] & bitsB[k];
+                cardinalidade += Long.bitCount(bitmap[k]);
+            }
+            return cardinalidade > LIMITE_ARRAY ? bitmap : paraArray(bitmap, cardinalidade);
+        }
+        if (a instanceof long[] bitmap) {
+            return filtrar((char[]) b, cardinalidadeB, bitmap);
+        }
+        if (b instanceof long[] bitmap) {
+            return filtrar((char[]) a, cardinalidadeA, bitmap);
+        }
+        char[] valoresA = (char[]) a;
+        char[] valoresB = (char[]) b;
+        char[] comuns = new char[Math.min(cardinalidadeA, cardinalidadeB)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < cardinalidadeA && j < cardinalidadeB) {
+            if (valoresA[i] < valoresB[j]) {
+                i++;
+            } else if (valoresA[i] > valoresB[j]) {
+                j++;
+            } else {
+                comuns[n++] = valoresA[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(comuns, n);
+    }
+
+    private static char[] filtrar(char[] valores, int cardinalidade, long[] bitmap) {
+        char[] comuns = new char[cardinalidade];
+        int n = 0;
+        for (int k = 0; k < cardinalidade; k++) {
+            char valor = valores[k];
+            if ((bitmap[valor >>> 6] & (1L << valor)) != 0) {
+                comuns[n++] = valor;
+            }
+        }
+        return Arrays.copyOf(comuns, n);
+    }
+
+    private static long[] paraBitmap(char[] valores, int cardinalidade) {
+        long[] bitmap = new long[PALAVRAS_BITMAP];
+        for (int k = 0; k < cardinalidade; k++) {
+            bitmap[valores[k] >>> 6] |= 1L << valores[k];
+        }
+        return bitmap;
+    }
+
+    private static char[] paraArray(long[] bitmap, int cardinalidade) {
+        char[] valores = new char[cardinalidade];
+        int n = 0;
+        for (int palavra = 0; palavra < PALAVRAS_BITMAP; palavra++) {
+            long bits = bitmap[palavra];
+            while (bits != 0) {
+                valores[n++] = (char) ((palavra << 6) | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return valores;
+    }
+
+    private static int contar(long[] bitmap) {
+        int total = 0;
+        for (long palavra : bitmap) {
+            total += Long.bitCount(palavra);
+        }
+        return total;
+    }
+
+    private void inserirConteiner(int posicao, char chave, Object conteiner) {
+        if (tamanho == chaves.length) {
+            int capacidade = tamanho * 2;
+            chaves = Arrays.copyOf(chaves, capacidade);
+            conteineres = Arrays.copyOf(conteineres, capacidade);
+            cardinalidades = Arrays.copyOf(cardinalidades, capacidade);
+        }
+        System.arraycopy(chaves, posicao, chaves, posicao + 1, tamanho - posicao);
+        System.arraycopy(conteineres, posicao, conteineres, posicao + 1, tamanho - posicao);
+        System.arraycopy(cardinalidades, posicao, cardinalidades, posicao + 1, tamanho - posicao);
+        chaves[posicao] = chave;
+        conteineres[posicao] = conteiner;
+        cardinalidades[posicao] = 0;
+        tamanho++;
+    }
+
+    private void removerConteiner(int posicao) {
+        System.arraycopy(chaves, posicao + 1, chaves, posicao, tamanho - posicao - 1);
+        System.arraycopy(conteineres, posicao + 1, conteineres, posicao, tamanho - posicao - 1);
+        System.arraycopy(cardinalidades, posicao + 1, cardinalidades, posicao, tamanho - posicao - 1);
+        tamanho--;
+        conteineres[tamanho] = null;
+    }
+}
@@ -0,0 +1,263 @@
+package br.edu.ibmec.service.indice;
+
+import br.edu.ibmec.entity.TurmaId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória das inscrições da tabela quente: para cada turma, o
+ * {@link BitmapCompactado} das matrículas inscritas; para cada aluno, o das turmas em que
+ * está inscrito. Turmas são identificadas pelo id substituto ({@code turmas.id}), que é
+ * denso e serve de posição direta num array; alunos ficam num {@link MapaInt} por
+ * matrícula. O índice também guarda a chave natural de cada turma conhecida.
+ *
+ * <p>Com 1M de inscrições (100 mil alunos em 10 turmas cada, 5 mil turmas de 200 alunos)
+ * o índice ocupa cerca de 18,5 MB de heap medido (17,5 MB pela estimativa de
+ * {@link #estatisticas()}), a maior parte nos bitmaps por aluno, dominados pelo custo fixo
+ * de um bitmap pequeno. Ver {@code IndiceInscricoesTest}.</p>
+ *
+ * <p>Leituras concorrentes compartilham um read lock; alterações usam o write lock.</p>
+ */
+public class IndiceInscricoes {
+
+    /** Números do índice para acompanhamento de uso de memória. */
+    public record Estatisticas(int turmas, int alunos, long inscricoes, long bytesEstimados) {
+    }
+
+    private static final int[] VAZIO = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<TurmaId, Integer> idPorTurma = new HashMap<>();
+    private TurmaId[] turmaPorId = new TurmaId[1_024];
+    private BitmapCompactado[] alunosPorTurma = new BitmapCompactado[1_024];
+    private final MapaInt<BitmapCompactado> turmasPorAluno = new MapaInt<>(1_024);
+    private long inscricoes;
+
+    public void registrarTurma(int id, TurmaId turma) {
+        lock.writeLock().lock();
+        try {
+            garantirCapacidade(id);
+            TurmaId anterior = turmaPorId[id];
+            if (anterior != null) {
+                idPorTurma.remove(anterior);
+            }
+            turmaPorId[id] = turma;
+            idPorTurma.put(turma, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void adicionar(int matricula, int turma) {
+        lock.writeLock().lock();
+        try {
+            garantirCapacidade(turma);
+            BitmapCompactado alunos = alunosPorTurma[turma];
+            if (alunos == null) {
+                alunos = new BitmapCompactado();
+                alunosPorTurma[turma] = alunos;
+            }
+            if (!alunos.adicionar(matricula)) {
+                return;
+            }
+            BitmapCompactado turmas = turmasPorAluno.get(matricula);
+            if (turmas == null) {
+                turmas = new BitmapCompactado();
+                turmasPorAluno.put(matricula, turmas);
+            }
+            turmas.adicionar(turma);
+            inscricoes++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(int matricula, int turma) {
+        lock.writeLock().lock();
+        try {
+            BitmapCompactado alunos = turma < alunosPorTurma.length ? alunosPorTurma[turma] : null;
+            if (alunos == null || !alunos.remover(matricula)) {
+                return;
+            }
+            BitmapCompactado turmas = turmasPorAluno.get(matricula);
+            if (turmas != null) {
+                turmas.remover(turma);
+                if (turmas.vazio()) {
+                    turmasPorAluno.remove(matricula);
+                }
+            }
+            inscricoes--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Tira o aluno de todas as turmas, usando o bitmap reverso para achá-las. */
+    public void removerAluno(int matricula) {
+        lock.writeLock().lock();
+        try {
+            BitmapCompactado turmas = turmasPorAluno.remove(matricula);
+            if (turmas == null) {
+                return;
+            }
+            for (int turma : turmas.paraArray()) {
+                alunosPorTurma[turma].remover(matricula);
+                inscricoes--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removerTurma(int turma) {
+        lock.writeLock().lock();
+        try {
+            if (turma >= turmaPorId.length) {
+                return;
+            }
+            BitmapCompactado alunos = alunosPorTurma[turma];
+            if (alunos != null) {
+                for (int matricula : alunos.paraArray()) {
+                    BitmapCompactado turmas = turmasPorAluno.get(matricula);
+                    turmas.remover(turma);
+                    if (turmas.vazio()) {
+                        turmasPorAluno.remove(matricula);
+                    }
+                    inscricoes--;
+                }
+                alunosPorTurma[turma] = null;
+            }
+            if (turmaPorId[turma] != null) {
+                idPorTurma.remove(turmaPorId[turma]);
+                turmaPorId[turma] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void limpar() {
+        lock.writeLock().lock();
+        try {
+            idPorTurma.clear();
+            Arrays.fill(turmaPorId, null);
+            Arrays.fill(alunosPorTurma, null);
+            turmasPorAluno.clear();
+            inscricoes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Id substituto da turma, ou -1 se ela não é conhecida pelo índice. */
+    public int idDaTurma(TurmaId turma) {
+        lock.readLock().lock();
+        try {
+            Integer id = idPorTurma.get(turma);
+            return id != null ? id : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean inscrito(int matricula, int turma) {
+        lock.readLock().lock();
+        try {
+            BitmapCompactado alunos = turma >= 0 && turma < alunosPorTurma.length ? alunosPorTurma[turma] : null;
+            return alunos != null && alunos.contem(matricula);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int inscritos(int turma) {
+        lock.readLock().lock();
+        try {
+            BitmapCompactado alunos = turma >= 0 && turma < alunosPorTurma.length ? alunosPorTurma[turma] : null;
+            return alunos != null ? alunos.cardinalidade() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Matrículas inscritas na turma, em ordem crescente. */
+    public int[] alunosDaTurma(int turma) {
+        lock.readLock().lock();
+        try {
+            BitmapCompactado alunos = turma >= 0 && turma < alunosPorTurma.length ? alunosPorTurma[turma] : null;
+            return alunos != null ? alunos.paraArray() : VAZIO;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Chaves naturais das turmas do aluno, em ordem de id. */
+    public TurmaId[] turmasDoAluno(int matricula) {
+        lock.readLock().lock();
+        try {
+            BitmapCompactado turmas = turmasPorAluno.get(matricula);
+            if (turmas == null) {
+                return new TurmaId[0];
+            }
+            return Arrays.stream(turmas.paraArray()).mapToObj(id -> turmaPorId[id]).toArray(TurmaId[]::new);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Matrículas inscritas em todas as turmas informadas, em ordem crescente. */
+    public int[] intersecao(int... turmas) {
+        lock.readLock().lock();
+        try {
+            BitmapCompactado[] conjuntos = new BitmapCompactado[turmas.length];
+            for (int i = 0; i < turmas.length; i++) {
+                int turma = turmas[i];
+                conjuntos[i] = turma >= 0 && turma < alunosPorTurma.length ? alunosPorTurma[turma] : null;
+                if (conjuntos[i] == null) {
+                    return VAZIO;
+                }
+            }
+            if (conjuntos.length == 0) {
+                return VAZIO;
+            }
+            // Começa pelas menores para que os resultados intermediários encolham logo.
+            Arrays.sort(conjuntos, (a, b) -> Integer.compare(a.cardinalidade(), b.cardinalidade()));
+            BitmapCompactado resultado = conjuntos[0];
+            for (int i = 1; i < conjuntos.length && !resultado.vazio(); i++) {
+                resultado = BitmapCompactado.intersecao(resultado, conjuntos[i]);
+            }
+            return resultado.paraArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        lock.readLock().lock();
+        try {
+            long[] bytes = {16L + 4L * turmaPorId.length + 16L + 4L * alunosPorTurma.length + turmasPorAluno.bytesEstimados()
+                    + idPorTurma.size() * 80L};
+            int turmas = 0;
+            for (BitmapCompactado alunos : alunosPorTurma) {
+                if (alunos != null) {
+                    bytes[0] += alunos.bytesEstimados();
+                    turmas++;
+                }
+            }
+            turmasPorAluno.forEachValue(conjunto -> bytes[0] += conjunto.bytesEstimados());
+            return new Estatisticas(turmas, turmasPorAluno.size(), inscricoes, bytes[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void garantirCapacidade(int id) {
+        if (id >= turmaPorId.length) {
+            int capacidade = Math.max(id + 1, turmaPorId.length * 2);
+            turmaPorId = Arrays.copyOf(turmaPorId, capacidade);
+            alunosPorTurma = Arrays.copyOf(alunosPorTurma, capacidade);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package br.edu.ibmec.service.indice;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Mapa de chave {@code int} com endereçamento aberto e sondagem linear, sem boxing da
+ * chave. A chave 0 marca posição livre e não pode ser usada (matrículas começam em 1).
+ * Remoção por deslocamento para trás, sem lápides. Não é thread-safe.
+ */
+final class MapaInt<V> {
+
+    private static final int PHI = 0x9E3779B9;
+
+    private int[] chaves;
+    private Object[] valores;
+    private int mascara;
+    private int tamanho;
+
+    MapaInt() {
+        this(16);
+    }
+
+    MapaInt(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(4, capacidadeInicial * 2 - 1)) << 1;
+        chaves = new int[capacidade];
+        valores = new Object[capacidade];
+        mascara = capacidade - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int chave) {
+        for (int i = posicao(chave); ; i = (i + 1) & mascara) {
+            if (chaves[i] == chave) {
+                return (V) valores[i];
+            }
+            if (chaves[i] == 0) {
+                return null;
+            }
+        }
+    }
+
+    void put(int chave, V valor) {
+        if (chave == 0) {
+            throw new IllegalArgumentException("Chave 0 é reservada");
+        }
+        int i = posicao(chave);
+        while (chaves[i] != 0 && chaves[i] != chave) {
+            i = (i + 1) & mascara;
+        }
+        if (chaves[i] == 0) {
+            chaves[i] = chave;
+            if (++tamanho > (mascara + 1) * 3 / 4) {
+                valores[i] = valor;
+                redimensionar();
+                return;
+            }
+        }
+        valores[i] = valor;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(int chave) {
+        int i = posicao(chave);
+        while (chaves[i] != chave) {
+            if (chaves[i] == 0) {
+                return null;
+            }
+            i = (i + 1) & mascara;
+        }
+        V anterior = (V) valores[i];
+        // Desloca para trás as entradas do mesmo agrupamento que ficariam inalcançáveis.
+        int livre = i;
+        for (int j = (i + 1) & mascara; chaves[j] != 0; j = (j + 1) & mascara) {
+            int ideal = posicao(chaves[j]);
+            if (((j - ideal) & mascara) >= ((j - livre) & mascara)) {
+                chaves[livre] = chaves[j];
+                valores[livre] = valores[j];
+                livre = j;
+            }
+        }
+        chaves[livre] = 0;
+        valores[livre] = null;
+        tamanho--;
+        return anterior;
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    void clear() {
+        Arrays.fill(chaves, 0);
+        Arrays.fill(valores, null);
+        tamanho = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> acao) {
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != 0) {
+                acao.accept((V) valores[i]);
+            }
+        }
+    }
+
+    /** Estimativa do heap dos arrays internos (sem os valores). */
+    long bytesEstimados() {
+        return 16 + 16 + 4L * chaves.length + 16 + 4L * valores.length;
+    }
+
+    private int posicao(int chave) {
+        return (chave * PHI) >>> (32 - Integer.numberOfTrailingZeros(mascara + 1)) & mascara;
+    }
+
+    private void redimensionar() {
+        int[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        int capacidade = chavesAntigas.length * 2;
+        chaves = new int[capacidade];
+        valores = new Object[capacidade];
+        mascara = capacidade - 1;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != 0) {
+                int j = posicao(chavesAntigas[i]);
+                while (chaves[j] != 0) {
+                    j = (j + 1) & mascara;
+                }
+                chaves[j] = chavesAntigas[i];
+                valores[j] = valoresAntigos[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package br.edu.ibmec.service.relatorio;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Relatório em CSV (UTF-8 com BOM, para o Excel reconhecer acentos) compactado com gzip.
+ *
+ * <p>O arquivo é imutável: o nome termina num resumo SHA-256 dos bytes gravados
+ * ({@code turma-101-<resumo>.csv.gz}), que também serve de ETag. Uma nova versão ganha outro
+ * nome em vez de sobrescrever a anterior, então um download em andamento (ou um sendfile que
+ * o Tomcat ainda vai abrir pelo nome) nunca vê o conteúdo trocado. Conteúdo igual gera o
+ * mesmo nome, e {@link #concluir()} descarta a cópia.</p>
+ */
+public final class ArquivoRelatorio implements Closeable {
+
+    private static final Pattern NOME = Pattern.compile("(.+)-([0-9a-f]{16})\\.csv\\.gz");
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final Path diretorio;
+    private final String prefixo;
+    private final Path temporario;
+    private final MessageDigest resumo;
+    private final Writer saida;
+    private boolean concluido;
+
+    private ArquivoRelatorio(Path diretorio, String prefixo) throws IOException {
+        this.diretorio = diretorio;
+        this.prefixo = prefixo;
+        this.temporario = Files.createTempFile(diretorio, prefixo + "-", ".tmp");
+        try {
+            this.resumo = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        this.saida = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new DigestOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporario), TAMANHO_BUFFER), resumo), TAMANHO_BUFFER),
+                StandardCharsets.UTF_8), TAMANHO_BUFFER);
+    }
+
+    /** Começa um relatório em {@code diretorio} com a linha de cabeçalho {@code colunas}. */
+    public static ArquivoRelatorio criar(Path diretorio, String prefixo, String... colunas) throws IOException {
+        ArquivoRelatorio arquivo = new ArquivoRelatorio(diretorio, prefixo);
+        try {
+            arquivo.saida.write('\uFEFF');
+            arquivo.linha((Object[]) colunas);
+            return arquivo;
+        } catch (IOException | RuntimeException e) {
+            arquivo.close();
+            throw e;
+        }
+    }
+
+    public void linha(Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                saida.write(',');
+            }
+            if (valores[i] != null) {
+                campo(valores[i].toString());
+            }
+        }
+        saida.write("\r\n");
+    }
+
+    /** Fecha o arquivo e o publica com o nome definitivo, que é devolvido. */
+    public Path concluir() throws IOException {
+        saida.close();
+        Path destino = diretorio.resolve(prefixo + "-" + HexFormat.of().formatHex(resumo.digest(), 0, 8) + ".csv.gz");
+        if (Files.exists(destino)) {
+            Files.delete(temporario);
+        } else {
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+        }
+        concluido = true;
+        return destino;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (concluido) {
+            return;
+        }
+        try {
+            saida.close();
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    /** Prefixo ({@code turma-101}) de um arquivo publicado, ou nulo se o nome não for de relatório. */
+    public static String prefixo(Path arquivo) {
+        Matcher nome = NOME.matcher(arquivo.getFileName().toString());
+        return nome.matches() ? nome.group(1) : null;
+    }
+
+    /** ETag forte do arquivo publicado: o resumo que está no nome. */
+    public static String etag(Path arquivo) {
+        Matcher nome = NOME.matcher(arquivo.getFileName().toString());
+        if (!nome.matches()) {
+            throw new IllegalArgumentException("Não é um relatório publicado: " + arquivo);
+        }
+        return "\"" + nome.group(2) + "\"";
+    }
+
+    private void campo(String valor) throws IOException {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            saida.write(valor);
+            return;
+        }
+        saida.write('"');
+        saida.write(valor.replace("\"", "\"\""));
+        saida.write('"');
+    }
+}
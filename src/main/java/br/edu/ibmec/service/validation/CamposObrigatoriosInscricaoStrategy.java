@@ -6,7 +6,7 @@ import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 /**
- * Verifica campos obrigatórios básicos de Inscricao (aluno/turma).
+ * Verifica campos obrigatórios básicos de Inscricao (aluno/turma/id).
  */
 @Component
 @Order(1)
@@ -20,5 +20,8 @@ public class CamposObrigatoriosInscricaoStrategy implements InscricaoValidacaoSt
         if (dto.getTurmaCodigo() < 1) {
             throw new ServiceException("Código da turma é obrigatório");
         }
+        if (dto.getId() == null || dto.getId() < 1) {
+            throw new ServiceException("Id da inscrição é obrigatório");
+        }
     }
 }
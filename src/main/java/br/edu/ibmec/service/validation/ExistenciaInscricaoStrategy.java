@@ -0,0 +1,126 @@
+package br.edu.ibmec.service.validation;
+
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.entity.TurmaId;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.repository.AlunoRepository;
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
+import br.edu.ibmec.service.ArquivamentoInscricoesService;
+import br.edu.ibmec.service.IndiceInscricoesService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regras que dependem do banco: aluno e turma existem e o aluno ainda não está
+ * inscrito na turma. Em lote, cada regra vira uma única consulta com {@code IN}.
+ * Com o {@link IndiceInscricoesService} carregado, a checagem de inscrição repetida
+ * é feita nele, sem ir ao banco; a constraint única continua protegendo corridas.
+ * Inscrições arquivadas não estão no índice nem em {@code inscricoes}: em turmas de
+ * período encerrado a checagem consulta também {@code inscricoes_arquivo}.
+ */
+@Component
+@Order(3)
+public class ExistenciaInscricaoStrategy implements InscricaoValidacaoStrategy {
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private IndiceInscricoesService indiceInscricoes;
+
+    @Autowired
+    private InscricaoArquivadaRepository arquivoRepository;
+
+    @Autowired
+    private ArquivamentoInscricoesService arquivamento;
+
+    @Override
+    public void validar(InscricaoDTO dto) throws ServiceException, DaoException {
+        if (!alunoRepository.existsByMatricula(dto.getAlunoMatricula())) {
+            throw new DaoException("Aluno não encontrado");
+        }
+        if (!turmaRepository.existsByCodigoAndAnoAndSemestre(dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre())) {
+            throw new DaoException("Turma não encontrada");
+        }
+        if (indiceInscricoes.disponivel()
+                ? indiceInscricoes.inscrito(dto.getAlunoMatricula(), dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre())
+                : inscricaoRepository.existsByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(
+                        dto.getAlunoMatricula(), dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre())) {
+            throw new ServiceException("Aluno já inscrito nesta turma");
+        }
+        if (arquivamento.encerrado(dto.getAno(), dto.getSemestre())
+                && arquivoRepository.existsByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(
+                        dto.getAlunoMatricula(), dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre())) {
+            throw new ServiceException("Aluno já inscrito nesta turma");
+        }
+    }
+
+    @Override
+    public List<Exception> validarTodos(List<InscricaoDTO> dtos) {
+        List<Exception> falhas = new ArrayList<>(Collections.nCopies(dtos.size(), null));
+        if (dtos.isEmpty()) {
+            return falhas;
+        }
+        Set<Integer> matriculas = dtos.stream().map(InscricaoDTO::getAlunoMatricula).collect(Collectors.toSet());
+        Set<Integer> codigos = dtos.stream().map(InscricaoDTO::getTurmaCodigo).collect(Collectors.toSet());
+        Set<Integer> anos = dtos.stream().map(InscricaoDTO::getAno).collect(Collectors.toSet());
+        Set<Integer> semestres = dtos.stream().map(InscricaoDTO::getSemestre).collect(Collectors.toSet());
+
+        Set<Integer> alunos = new HashSet<>(alunoRepository.listarMatriculasExistentes(matriculas));
+        Set<TurmaId> turmas = turmaRepository.listarChaves(codigos, anos, semestres).stream()
+                .map(linha -> new TurmaId((Integer) linha[0], (Integer) linha[1], (Integer) linha[2]))
+                .collect(Collectors.toSet());
+        boolean indice = indiceInscricoes.disponivel();
+        Set<String> inscritos = indice ? Set.of() : inscricaoRepository.listarParesAlunoTurma(matriculas, codigos, anos, semestres).stream()
+                .map(linha -> par((Integer) linha[0], (Integer) linha[1], (Integer) linha[2], (Integer) linha[3]))
+                .collect(Collectors.toCollection(HashSet::new));
+        List<InscricaoDTO> encerradas = dtos.stream().filter(dto -> arquivamento.encerrado(dto.getAno(), dto.getSemestre())).toList();
+        Set<String> arquivados = encerradas.isEmpty() ? Set.of() : arquivoRepository.listarParesAlunoTurma(
+                        encerradas.stream().map(InscricaoDTO::getAlunoMatricula).collect(Collectors.toSet()),
+                        encerradas.stream().map(InscricaoDTO::getTurmaCodigo).collect(Collectors.toSet()),
+                        encerradas.stream().map(InscricaoDTO::getAno).collect(Collectors.toSet()),
+                        encerradas.stream().map(InscricaoDTO::getSemestre).collect(Collectors.toSet())).stream()
+                .map(linha -> par((Integer) linha[0], (Integer) linha[1], (Integer) linha[2], (Integer) linha[3]))
+                .collect(Collectors.toSet());
+
+        for (int i = 0; i < dtos.size(); i++) {
+            InscricaoDTO dto = dtos.get(i);
+            if (!alunos.contains(dto.getAlunoMatricula())) {
+                falhas.set(i, new DaoException("Aluno não encontrado"));
+            } else if (!turmas.contains(turma(dto))) {
+                falhas.set(i, new DaoException("Turma não encontrada"));
+            } else if (indice
+                    ? indiceInscricoes.inscrito(dto.getAlunoMatricula(), dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre())
+                    : inscritos.contains(par(dto.getAlunoMatricula(), dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre()))) {
+                falhas.set(i, new ServiceException("Aluno já inscrito nesta turma"));
+            } else if (arquivados.contains(par(dto.getAlunoMatricula(), dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre()))) {
+                falhas.set(i, new ServiceException("Aluno já inscrito nesta turma"));
+            }
+        }
+        return falhas;
+    }
+
+    private static TurmaId turma(InscricaoDTO dto) {
+        return new TurmaId(dto.getTurmaCodigo(), dto.getAno(), dto.getSemestre());
+    }
+
+    private static String par(int matricula, int codigo, int ano, int semestre) {
+        return matricula + "/" + codigo + "/" + ano + "/" + semestre;
+    }
+}
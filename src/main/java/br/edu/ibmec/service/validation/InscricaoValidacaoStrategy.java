@@ -1,7 +1,11 @@
 package br.edu.ibmec.service.validation;
 
 import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.exception.DaoException;
 import br.edu.ibmec.exception.ServiceException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Estratégia do padrão Strategy utilizada para encapsular diferentes regras
@@ -10,5 +14,23 @@ import br.edu.ibmec.exception.ServiceException;
  */
 public interface InscricaoValidacaoStrategy {
 
-    void validar(InscricaoDTO dto) throws ServiceException;
+    void validar(InscricaoDTO dto) throws ServiceException, DaoException;
+
+    /**
+     * Valida um lote de inscrições. Devolve, na ordem de entrada, {@code null} para
+     * cada inscrição válida ou a exceção que {@link #validar(InscricaoDTO)} lançaria.
+     * O padrão chama {@code validar} item a item; regras que consultam o banco devem
+     * sobrescrever com consultas em conjunto.
+     */
+    default List<Exception> validarTodos(List<InscricaoDTO> dtos) {
+        List<Exception> falhas = new ArrayList<>(Collections.nCopies(dtos.size(), null));
+        for (int i = 0; i < dtos.size(); i++) {
+            try {
+                validar(dtos.get(i));
+            } catch (ServiceException | DaoException e) {
+                falhas.set(i, e);
+            }
+        }
+        return falhas;
+    }
 }
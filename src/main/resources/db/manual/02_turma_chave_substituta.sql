@@ -0,0 +1,50 @@
+-- Turma passa a ter chave substituta (turmas.id) e inscricoes referencia turmas por uma
+-- única coluna (turma_id). (codigo, ano, semestre) continua único em turmas.
+-- MySQL 8. Script manual (o projeto não usa Flyway): rodar uma vez, antes de subir a versão
+-- nova, com mysql universidade_v3 < 02_turma_chave_substituta.sql; ddl-auto=update não troca
+-- chave primária.
+
+-- 1. Remove a FK de três colunas inscricoes -> turmas (nome gerado pelo Hibernate).
+SET @fk = (SELECT constraint_name FROM information_schema.referential_constraints
+           WHERE constraint_schema = DATABASE() AND table_name = 'inscricoes' AND referenced_table_name = 'turmas');
+SET @sql = CONCAT('ALTER TABLE inscricoes DROP FOREIGN KEY ', @fk);
+PREPARE comando FROM @sql;
+EXECUTE comando;
+DEALLOCATE PREPARE comando;
+
+-- 2. Chave substituta em turmas; a chave natural vira unique.
+ALTER TABLE turmas
+    DROP PRIMARY KEY,
+    ADD COLUMN id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY FIRST,
+    ADD CONSTRAINT uk_turma_codigo_periodo UNIQUE (codigo, ano, semestre),
+    ADD INDEX idx_turma_periodo (ano, semestre);
+
+-- 3. inscricoes.turma_id preenchido a partir da chave natural.
+ALTER TABLE inscricoes ADD COLUMN turma_id BIGINT NULL;
+
+UPDATE inscricoes i
+    JOIN turmas t ON t.codigo = i.turma_codigo AND t.ano = i.turma_ano AND t.semestre = i.turma_semestre
+SET i.turma_id = t.id;
+
+-- 4. Troca as colunas antigas e os índices que dependiam delas. O schema de origem é o que o
+-- ddl-auto gera para a Turma de chave composta: em inscricoes só há a PK, a unique
+-- uk_inscricao_aluno_turma e os índices das FKs. idx_inscricao_periodo só existe em bancos de
+-- desenvolvimento que passaram por uma versão intermediária; sai apenas se estiver lá.
+SET @sql = IF(EXISTS (SELECT 1 FROM information_schema.statistics
+                      WHERE table_schema = DATABASE() AND table_name = 'inscricoes'
+                        AND index_name = 'idx_inscricao_periodo'),
+              'ALTER TABLE inscricoes DROP INDEX idx_inscricao_periodo',
+              'DO 0');
+PREPARE comando FROM @sql;
+EXECUTE comando;
+DEALLOCATE PREPARE comando;
+
+ALTER TABLE inscricoes
+    DROP INDEX uk_inscricao_aluno_turma,
+    DROP COLUMN turma_codigo,
+    DROP COLUMN turma_ano,
+    DROP COLUMN turma_semestre,
+    MODIFY turma_id BIGINT NOT NULL,
+    ADD CONSTRAINT uk_inscricao_aluno_turma UNIQUE (aluno_matricula, turma_id),
+    ADD INDEX idx_inscricao_turma (turma_id),
+    ADD CONSTRAINT fk_inscricoes_turma FOREIGN KEY (turma_id) REFERENCES turmas (id);
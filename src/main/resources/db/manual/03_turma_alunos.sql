@@ -0,0 +1,29 @@
+-- Lista de alunos por turma desnormalizada (entidade AlunoNaTurma), com nome do aluno e do
+-- curso copiados. MySQL 8. Script manual (o projeto não usa Flyway): rodar uma vez, depois do
+-- 02, antes de subir a versão nova. A aplicação passa a manter a tabela a cada escrita, e as
+-- inscrições que já existem entram aqui uma vez.
+
+-- 1. Mesma estrutura que o Hibernate gera; o índice por turma cobre a leitura da lista e o
+-- índice por aluno atende às escritas por aluno.
+CREATE TABLE IF NOT EXISTS turma_alunos (
+    aluno_matricula INT NOT NULL,
+    turma_ano INT NOT NULL,
+    turma_codigo INT NOT NULL,
+    turma_semestre INT NOT NULL,
+    aluno_nome VARCHAR(80) NOT NULL,
+    curso_nome VARCHAR(80) NOT NULL,
+    PRIMARY KEY (aluno_matricula, turma_ano, turma_codigo, turma_semestre),
+    INDEX idx_turma_alunos_turma (turma_codigo, turma_ano, turma_semestre, aluno_matricula, aluno_nome, curso_nome),
+    INDEX idx_turma_alunos_aluno (aluno_matricula)
+);
+
+-- 2. Inscrições que já existem. Num banco anterior a esta versão não há inscricoes_arquivo
+-- (o arquivamento sai junto com ela), então só inscricoes é copiada. INSERT IGNORE: rodar o
+-- script de novo não falha na chave primária.
+INSERT IGNORE INTO turma_alunos (turma_codigo, turma_ano, turma_semestre, aluno_matricula, aluno_nome, curso_nome)
+SELECT t.codigo, t.ano, t.semestre, a.matricula, a.nome, c.nome
+FROM inscricoes i
+    JOIN turmas t ON t.id = i.turma_id
+    JOIN alunos a ON a.matricula = i.aluno_matricula
+    JOIN cursos c ON c.codigo = a.curso_codigo;
+
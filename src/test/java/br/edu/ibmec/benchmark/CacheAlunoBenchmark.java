@@ -0,0 +1,118 @@
+package br.edu.ibmec.benchmark;
+
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.service.cache.CacheProximoInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link CacheProximoInt} contra um {@code ConcurrentHashMap<Integer, AlunoDTO>} com as
+ * mesmas {@value #ALUNOS} entradas: só leituras ({@code leitura*}) e leituras com 5% de
+ * invalidação seguida de recarga ({@code misto*}), que é o que {@code alterarAluno} provoca.
+ * Matrículas acima de 127 não vêm do cache de {@code Integer}, então cada acesso ao mapa
+ * boxeia a chave (a menos que o JIT elimine a alocação); rodar com {@code -prof gc} para ver
+ * {@code gc.alloc.rate.norm}. O heap retido por cada estrutura é impresso no setup.
+ *
+ * <p>Execução: {@code mvn test-compile} e depois rodar {@link #main(String[])} com o
+ * classpath de teste.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CacheAlunoBenchmark {
+
+    private static final int ALUNOS = 100_000;
+    private static final int PRIMEIRA_MATRICULA = 2_024_000;
+
+    private CacheProximoInt<AlunoDTO> cache;
+    private ConcurrentHashMap<Integer, AlunoDTO> mapa;
+    private AlunoDTO[] alunos;
+
+    @Setup
+    public void preparar() {
+        alunos = new AlunoDTO[ALUNOS];
+        for (int i = 0; i < ALUNOS; i++) {
+            alunos[i] = AlunoDTO.builder().matricula(PRIMEIRA_MATRICULA + i).nome("Aluno " + i)
+                    .cursoCodigo(1 + i % 20).cursoNome("Curso " + (1 + i % 20)).build();
+        }
+        long antes = heapUsado();
+        cache = new CacheProximoInt<>(ALUNOS);
+        for (AlunoDTO aluno : alunos) {
+            cache.colocar(aluno.getMatricula(), aluno, cache.marca(aluno.getMatricula()));
+        }
+        long depoisCache = heapUsado();
+        mapa = new ConcurrentHashMap<>();
+        for (AlunoDTO aluno : alunos) {
+            mapa.put(aluno.getMatricula(), aluno);
+        }
+        long depoisMapa = heapUsado();
+        System.out.printf("%nheap retido (sem os DTOs): CacheProximoInt %.2f MB (%d entradas), ConcurrentHashMap %.2f MB%n",
+                (depoisCache - antes) / 1048576.0, cache.tamanho(), (depoisMapa - depoisCache) / 1048576.0);
+    }
+
+    @Benchmark
+    public AlunoDTO leituraCacheProximo() {
+        return cache.get(sortear());
+    }
+
+    @Benchmark
+    public AlunoDTO leituraConcurrentHashMap() {
+        return mapa.get(sortear());
+    }
+
+    @Benchmark
+    public AlunoDTO mistoCacheProximo() {
+        int matricula = sortear();
+        if (ThreadLocalRandom.current().nextInt(100) < 5) {
+            cache.invalidar(matricula);
+            long marca = cache.marca(matricula);
+            cache.colocar(matricula, alunos[matricula - PRIMEIRA_MATRICULA], marca);
+        }
+        return cache.get(matricula);
+    }
+
+    @Benchmark
+    public AlunoDTO mistoConcurrentHashMap() {
+        int matricula = sortear();
+        if (ThreadLocalRandom.current().nextInt(100) < 5) {
+            mapa.remove(matricula);
+            mapa.put(matricula, alunos[matricula - PRIMEIRA_MATRICULA]);
+        }
+        return mapa.get(matricula);
+    }
+
+    private static int sortear() {
+        return PRIMEIRA_MATRICULA + ThreadLocalRandom.current().nextInt(ALUNOS);
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheAlunoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,223 @@
+package br.edu.ibmec.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Antes e depois da chave substituta de {@code turmas}: tamanho dos índices de
+ * {@code inscricoes} e latência da consulta que
+ * {@code InscricaoRepository.findByTurmaCodigoAndTurmaAnoAndTurmaSemestre} executa.
+ *
+ * <p>{@code composta} reproduz o esquema anterior (PK (codigo, ano, semestre) em turmas e FK
+ * de três colunas em inscricoes); {@code substituta} é o esquema atual. As duas variantes
+ * usam o DDL e o SQL que o Hibernate gera para cada mapeamento, em H2 em arquivo, com
+ * {@value #TURMAS} turmas e {@value #ALUNOS} alunos em {@value #TURMAS_POR_ALUNO} turmas cada.</p>
+ *
+ * <p>O tamanho de cada índice é medido criando-o sobre os dados já carregados e comparando o
+ * arquivo compactado ({@code SHUTDOWN COMPACT}) antes e depois; os valores são impressos no
+ * setup. Execução: {@code mvn test-compile} e depois rodar {@link #main(String[])} com o
+ * classpath de teste.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChaveTurmaBenchmark {
+
+    private static final int TURMAS = 2_000;
+    private static final int ALUNOS = 20_000;
+    private static final int TURMAS_POR_ALUNO = 10;
+    private static final int ANO = 2025;
+
+    private static final Map<String, Esquema> ESQUEMAS = Map.of(
+            "composta", new Esquema(
+                    "create table turmas (ano integer not null, codigo integer not null, semestre integer not null, "
+                            + "disciplina_codigo integer not null, professor_id bigint not null, primary key (codigo, ano, semestre))",
+                    "create table inscricoes (id bigint not null, aluno_matricula integer not null, turma_codigo integer not null, "
+                            + "turma_ano integer not null, turma_semestre integer not null, primary key (id))",
+                    "insert into turmas (codigo, ano, semestre, disciplina_codigo, professor_id) values (?, ?, ?, 1, 1)",
+                    "insert into inscricoes (id, aluno_matricula, turma_codigo, turma_ano, turma_semestre) values (?, ?, ?, ?, ?)",
+                    indices(
+                            "inscricoes.uk_inscricao_aluno_turma",
+                            "alter table inscricoes add constraint uk_inscricao_aluno_turma "
+                                    + "unique (aluno_matricula, turma_codigo, turma_ano, turma_semestre)",
+                            "inscricoes.idx_inscricao_periodo",
+                            "create index idx_inscricao_periodo on inscricoes (turma_ano, turma_semestre)",
+                            "inscricoes.fk_turma",
+                            "alter table inscricoes add constraint fk_turma foreign key (turma_codigo, turma_ano, turma_semestre) "
+                                    + "references turmas (codigo, ano, semestre)"),
+                    "select i.id, i.aluno_matricula, i.turma_codigo, i.turma_ano, i.turma_semestre from inscricoes i "
+                            + "where i.turma_codigo = ? and i.turma_ano = ? and i.turma_semestre = ?"),
+            "substituta", new Esquema(
+                    "create table turmas (id bigint generated by default as identity, ano integer not null, codigo integer not null, "
+                            + "semestre integer not null, disciplina_codigo integer not null, professor_id bigint not null, primary key (id))",
+                    "create table inscricoes (id bigint not null, aluno_matricula integer not null, turma_id bigint not null, "
+                            + "primary key (id))",
+                    "insert into turmas (id, codigo, ano, semestre, disciplina_codigo, professor_id) values (?, ?, ?, ?, 1, 1)",
+                    "insert into inscricoes (id, aluno_matricula, turma_id) values (?, ?, ?)",
+                    indices(
+                            "turmas.uk_turma_codigo_periodo",
+                            "alter table turmas add constraint uk_turma_codigo_periodo unique (codigo, ano, semestre)",
+                            "turmas.idx_turma_periodo",
+                            "create index idx_turma_periodo on turmas (ano, semestre)",
+                            "inscricoes.uk_inscricao_aluno_turma",
+                            "alter table inscricoes add constraint uk_inscricao_aluno_turma unique (aluno_matricula, turma_id)",
+                            "inscricoes.idx_inscricao_turma",
+                            "create index idx_inscricao_turma on inscricoes (turma_id)",
+                            "inscricoes.fk_turma",
+                            "alter table inscricoes add constraint fk_turma foreign key (turma_id) references turmas (id)"),
+                    "select i.id, i.aluno_matricula, i.turma_id from inscricoes i join turmas t on t.id = i.turma_id "
+                            + "where t.codigo = ? and t.ano = ? and t.semestre = ?"));
+
+    @Param({"composta", "substituta"})
+    public String chave;
+
+    private Path diretorio;
+    private Connection conexao;
+    private PreparedStatement consulta;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException, SQLException {
+        Esquema esquema = ESQUEMAS.get(chave);
+        diretorio = Files.createTempDirectory("chave-turma");
+        String url = "jdbc:h2:file:" + diretorio.resolve("db") + ";MODE=MySQL";
+        try (Connection carga = DriverManager.getConnection(url, "sa", "")) {
+            carga.setAutoCommit(false);
+            try (Statement ddl = carga.createStatement()) {
+                ddl.execute(esquema.turmas());
+                ddl.execute(esquema.inscricoes());
+            }
+            popular(carga, esquema);
+            carga.commit();
+            try (Statement ddl = carga.createStatement()) {
+                ddl.execute("shutdown compact");
+            }
+        }
+        long anterior = Files.size(diretorio.resolve("db.mv.db"));
+        System.out.printf("%n[%s] dados sem índices secundários: %,d bytes%n", chave, anterior);
+        for (Map.Entry<String, String> indice : esquema.indices().entrySet()) {
+            try (Connection ddl = DriverManager.getConnection(url, "sa", "");
+                 Statement comando = ddl.createStatement()) {
+                comando.execute(indice.getValue());
+                comando.execute("shutdown compact");
+            }
+            long atual = Files.size(diretorio.resolve("db.mv.db"));
+            System.out.printf("[%s] %-34s %,12d bytes%n", chave, indice.getKey(), atual - anterior);
+            anterior = atual;
+        }
+        conexao = DriverManager.getConnection(url, "sa", "");
+        consulta = conexao.prepareStatement(esquema.consulta());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException, SQLException {
+        conexao.close();
+        try (var arquivos = Files.walk(diretorio)) {
+            arquivos.sorted((a, b) -> b.compareTo(a)).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void inscricoesDaTurma(Blackhole blackhole) throws SQLException {
+        int turma = ThreadLocalRandom.current().nextInt(TURMAS);
+        consulta.setInt(1, turma / 2 + 1);
+        consulta.setInt(2, ANO);
+        consulta.setInt(3, turma % 2 + 1);
+        try (ResultSet linhas = consulta.executeQuery()) {
+            while (linhas.next()) {
+                blackhole.consume(linhas.getLong(1));
+                blackhole.consume(linhas.getInt(2));
+            }
+        }
+    }
+
+    /** Turma {@code t} (0-based) é o código {@code t / 2 + 1} no semestre {@code t % 2 + 1}; id substituto {@code t + 1}. */
+    private void popular(Connection carga, Esquema esquema) throws SQLException {
+        boolean substituta = "substituta".equals(chave);
+        try (PreparedStatement turmas = carga.prepareStatement(esquema.inserirTurma())) {
+            for (int t = 0; t < TURMAS; t++) {
+                int i = 1;
+                if (substituta) {
+                    turmas.setLong(i++, t + 1);
+                }
+                turmas.setInt(i++, t / 2 + 1);
+                turmas.setInt(i++, ANO);
+                turmas.setInt(i, t % 2 + 1);
+                turmas.addBatch();
+            }
+            turmas.executeBatch();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = 1;
+        try (PreparedStatement inscricoes = carga.prepareStatement(esquema.inserirInscricao())) {
+            for (int matricula = 1; matricula <= ALUNOS; matricula++) {
+                int primeira = random.nextInt(TURMAS);
+                for (int k = 0; k < TURMAS_POR_ALUNO; k++) {
+                    int t = (primeira + k * 197) % TURMAS;
+                    inscricoes.setLong(1, id++);
+                    inscricoes.setInt(2, matricula);
+                    if (substituta) {
+                        inscricoes.setLong(3, t + 1);
+                    } else {
+                        inscricoes.setInt(3, t / 2 + 1);
+                        inscricoes.setInt(4, ANO);
+                        inscricoes.setInt(5, t % 2 + 1);
+                    }
+                    inscricoes.addBatch();
+                }
+                if (matricula % 1_000 == 0) {
+                    inscricoes.executeBatch();
+                }
+            }
+            inscricoes.executeBatch();
+        }
+    }
+
+    private static Map<String, String> indices(String... nomesEComandos) {
+        Map<String, String> indices = new LinkedHashMap<>();
+        List<String> lista = List.of(nomesEComandos);
+        for (int i = 0; i < lista.size(); i += 2) {
+            indices.put(lista.get(i), lista.get(i + 1));
+        }
+        return indices;
+    }
+
+    private record Esquema(String turmas, String inscricoes, String inserirTurma, String inserirInscricao,
+                           Map<String, String> indices, String consulta) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ChaveTurmaBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,148 @@
+package br.edu.ibmec.benchmark;
+
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.dto.TurmaDTO;
+import br.edu.ibmec.service.AlunoRepositoryService;
+import br.edu.ibmec.service.CursoRepositoryService;
+import br.edu.ibmec.service.DisciplinaRepositoryService;
+import br.edu.ibmec.service.GrupoCommitInscricoes;
+import br.edu.ibmec.service.InscricaoRepositoryService;
+import br.edu.ibmec.service.ProfessorRepositoryService;
+import br.edu.ibmec.service.TurmaRepositoryService;
+import br.edu.ibmec.universidade.UniversidadeApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Inscrições por segundo com 32 requisições simultâneas: caminho atual (uma transação e
+ * um commit por inscrição) contra o group commit. Usa H2 em arquivo, que grava no disco
+ * a cada commit mas não faz fsync; no MySQL, onde cada commit paga um fsync do redo log,
+ * a diferença tende a ser maior. No fim do trial o tamanho médio do lote é impresso,
+ * o que dá os commits por segundo do modo em grupo (inscrições/s ÷ lote médio).
+ *
+ * <p>Execução: {@code mvn test-compile} e depois rodar {@link #main(String[])} com o
+ * classpath de teste (IDE ou {@code java -cp target/test-classes:target/classes:<deps>}).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(32)
+public class GrupoCommitBenchmark {
+
+    private static final int ALUNOS = 1_000;
+    private static final int TURMAS = 1_000;
+    private static final int ANO = 2025;
+
+    @Param({"false", "true"})
+    public boolean grupo;
+
+    private Path diretorio;
+    private ConfigurableApplicationContext contexto;
+    private InscricaoRepositoryService inscricaoService;
+    private GrupoCommitInscricoes grupoCommit;
+    private final AtomicLong proximoId = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        diretorio = Files.createTempDirectory("grupo-commit");
+        contexto = new SpringApplicationBuilder(UniversidadeApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:file:" + diretorio.resolve("db") + ";MODE=MySQL",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.springframework.orm.jpa=WARN",
+                        "--logging.level.org.springframework.transaction=WARN",
+                        "--logging.level.br.edu.ibmec=WARN",
+                        "--universidade.inscricao.grupo.habilitado=" + grupo);
+        inscricaoService = contexto.getBean(InscricaoRepositoryService.class);
+        grupoCommit = contexto.getBeanProvider(GrupoCommitInscricoes.class).getIfAvailable();
+        popular();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        if (grupo) {
+            HistogramSnapshot lotes = contexto.getBean(MeterRegistry.class)
+                    .get("universidade.inscricao.grupo.lote").summary().takeSnapshot();
+            System.out.printf("%n%d lotes, média de %.1f inscrições por commit%n", lotes.count(), lotes.mean());
+        }
+        contexto.close();
+        try (var arquivos = Files.walk(diretorio)) {
+            arquivos.sorted((a, b) -> b.compareTo(a)).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void cadastrarInscricao() throws Exception {
+        long id = proximoId.incrementAndGet();
+        InscricaoDTO dto = InscricaoDTO.builder()
+                .id(id)
+                .alunoMatricula((int) (id % ALUNOS) + 1)
+                .turmaCodigo((int) (id / ALUNOS) % TURMAS + 1)
+                .ano(ANO)
+                .semestre(1)
+                .build();
+        if (grupoCommit != null) {
+            grupoCommit.cadastrar(dto);
+        } else {
+            inscricaoService.cadastrarInscricao(dto);
+        }
+    }
+
+    private void popular() {
+        try {
+            contexto.getBean(CursoRepositoryService.class).cadastrarCurso(new CursoDTO(1, "Engenharia"));
+            contexto.getBean(DisciplinaRepositoryService.class).cadastrarDisciplina(new DisciplinaDTO(1, "Cálculo", 1));
+            contexto.getBean(ProfessorRepositoryService.class).cadastrarProfessor(new ProfessorDTO(1L, "Professor"));
+            AlunoRepositoryService alunos = contexto.getBean(AlunoRepositoryService.class);
+            for (int matricula = 1; matricula <= ALUNOS; matricula++) {
+                alunos.cadastrarAluno(AlunoDTO.builder().matricula(matricula).nome("Aluno " + matricula).cursoCodigo(1).build());
+            }
+            TurmaRepositoryService turmas = contexto.getBean(TurmaRepositoryService.class);
+            for (int codigo = 1; codigo <= TURMAS; codigo++) {
+                turmas.cadastrarTurma(TurmaDTO.builder().codigo(codigo).ano(ANO).semestre(1).disciplina(1).professorId(1L).build());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao popular a base do benchmark", e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GrupoCommitBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package br.edu.ibmec.benchmark;
+
+import br.edu.ibmec.dados.GeradorDados;
+import br.edu.ibmec.service.busca.IndiceNomes;
+import br.edu.ibmec.service.busca.IndiceNomes.Resultado;
+import br.edu.ibmec.service.busca.IndiceNomes.Tipo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Latência de {@link IndiceNomes#buscar} com {@value #ALUNOS} alunos gerados como na massa do
+ * {@link GeradorDados} (nome e dois sobrenomes de listas de 30). As consultas cobrem os casos
+ * em que a interseção é grande e o heap não se enche de pontuações máximas: sobrenome comum
+ * ({@code silva}, ~6% dos nomes), prefixo de uma ou duas letras e nome mais sobrenome. O número
+ * de resultados de cada consulta, limitado pelo teto de candidatos do índice, é impresso no
+ * setup.
+ *
+ * <p>Execução: {@code mvn test-compile} e depois rodar {@link #main(String[])} com o
+ * classpath de teste.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class IndiceNomesBenchmark {
+
+    private static final int ALUNOS = 500_000;
+    private static final int LIMITE = 10;
+
+    @Param({"silva", "ana", "a", "ma", "silva souza", "ana silva"})
+    private String consulta;
+
+    private IndiceNomes indice;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        List<Object[]> alunos = new ArrayList<>(ALUNOS);
+        for (int i = 1; i <= ALUNOS; i++) {
+            alunos.add(new Object[] {i, GeradorDados.nomeAluno(aleatorio)});
+        }
+        indice = new IndiceNomes();
+        indice.reconstruir(Tipo.ALUNO, alunos);
+        System.out.printf("%n'%s': %d resultados com limite %d; índice com %d documentos, ~%d MB%n", consulta,
+                indice.buscar(consulta, ALUNOS).size(), LIMITE, indice.estatisticas().documentos(),
+                indice.estatisticas().bytesEstimados() / 1_048_576);
+    }
+
+    @Benchmark
+    public List<Resultado> buscar() {
+        return indice.buscar(consulta, LIMITE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IndiceNomesBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,148 @@
+package br.edu.ibmec.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compara o custo de log por requisição entre a configuração anterior (SELECT formatado e
+ * binds em TRACE) e o perfil prod (uma linha JSON), com o mesmo appender nos dois lados:
+ * {@code sincrono} grava direto no arquivo e {@code assincrono} usa o AsyncAppender que o
+ * logback-spring.xml oferece com {@code universidade.log.saida=ASYNC} (fila de 8192,
+ * {@code neverBlock}). Cada lado grava no seu arquivo temporário, como o stdout de um
+ * container; o logback não abre dois appenders no mesmo arquivo. Com {@code neverBlock} a
+ * fila cheia descarta eventos, então no modo assíncrono a vazão mede a thread da
+ * requisição, não o disco.
+ *
+ * <p>Execução: {@code mvn test-compile} e depois rodar {@link #main(String[])} com o
+ * classpath de teste (IDE ou {@code java -cp target/test-classes:target/classes:<deps>}).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LogRequisicaoBenchmark {
+
+    private static final String SQL_FORMATADO = "\n    select\n        i1_0.id,\n        i1_0.aluno_matricula,\n"
+            + "        i1_0.turma_ano,\n        i1_0.turma_codigo,\n        i1_0.turma_semestre \n    from\n"
+            + "        inscricoes i1_0 \n    where\n        i1_0.aluno_matricula=?";
+    private static final String JSON = "{\"ts\":\"2025-01-01T00:00:00Z\",\"metodo\":\"GET\","
+            + "\"caminho\":\"/api/inscricao/aluno/42\",\"status\":200,\"duracaoMs\":3,\"lenta\":false,\"sqlTotal\":1}";
+
+    @Param({"sincrono", "assincrono"})
+    private String appender;
+
+    private LoggerContext contexto;
+    private Logger sqlAtual;
+    private Logger binderAtual;
+    private Logger requisicaoProd;
+    private File diretorio;
+
+    @Setup
+    public void preparar() throws IOException {
+        diretorio = Files.createTempDirectory("log-benchmark").toFile();
+        contexto = new LoggerContext();
+
+        sqlAtual = contexto.getLogger("atual.org.hibernate.SQL");
+        binderAtual = contexto.getLogger("atual.org.hibernate.type.descriptor.sql.BasicBinder");
+        Appender<ILoggingEvent> atual = saida("atual", "%d %5p [%t] %logger{39} : %m%n");
+        ligar(sqlAtual, Level.DEBUG, atual);
+        ligar(binderAtual, Level.TRACE, atual);
+
+        requisicaoProd = contexto.getLogger("prod.br.edu.ibmec.requisicao");
+        ligar(requisicaoProd, Level.INFO, saida("json", "%m%n"));
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.stop();
+        for (File arquivo : diretorio.listFiles()) {
+            arquivo.delete();
+        }
+        diretorio.delete();
+    }
+
+    /** Uma requisição de leitura típica: um SELECT formatado e o valor do parâmetro. */
+    @Benchmark
+    public void configuracaoAtual() {
+        sqlAtual.debug(SQL_FORMATADO);
+        binderAtual.trace("binding parameter [1] as [INTEGER] - [42]");
+    }
+
+    /** A mesma requisição no perfil prod, fora da amostra de SQL. */
+    @Benchmark
+    public void configuracaoProd() {
+        requisicaoProd.info(JSON);
+    }
+
+    /** O arquivo, direto ou atrás de um AsyncAppender configurado como no perfil prod. */
+    private Appender<ILoggingEvent> saida(String nome, String padrao) {
+        FileAppender<ILoggingEvent> arquivo = arquivo(nome, padrao);
+        if ("sincrono".equals(appender)) {
+            return arquivo;
+        }
+        AsyncAppender assincrono = new AsyncAppender();
+        assincrono.setContext(contexto);
+        assincrono.setName(nome + "-async");
+        assincrono.setQueueSize(8192);
+        assincrono.setDiscardingThreshold(819);
+        assincrono.setNeverBlock(true);
+        assincrono.setIncludeCallerData(false);
+        assincrono.addAppender(arquivo);
+        assincrono.start();
+        return assincrono;
+    }
+
+    private FileAppender<ILoggingEvent> arquivo(String nome, String padrao) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(contexto);
+        encoder.setPattern(padrao);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(contexto);
+        appender.setName(nome);
+        appender.setFile(new File(diretorio, nome + ".log").getAbsolutePath());
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(true);
+        appender.start();
+        return appender;
+    }
+
+    private static void ligar(Logger logger, Level nivel, Appender<ILoggingEvent> appender) {
+        logger.setLevel(nivel);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LogRequisicaoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
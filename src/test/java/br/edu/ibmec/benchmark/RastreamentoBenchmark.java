@@ -0,0 +1,104 @@
+package br.edu.ibmec.benchmark;
+
+import br.edu.ibmec.rastreamento.AnelRastros;
+import br.edu.ibmec.rastreamento.Camada;
+import br.edu.ibmec.rastreamento.Rastreamento;
+import br.edu.ibmec.rastreamento.RastreamentoFilter;
+import br.edu.ibmec.rastreamento.RastreamentoProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Custo do rastreamento por requisição: o filtro e os trechos de uma escrita típica
+ * (controller, serviço, conexão, dois flushes, oito comandos SQL e a escrita da resposta),
+ * sem o filtro, com a amostragem de produção (1%) e com todas as requisições rastreadas.
+ * Oito threads publicam no mesmo anel.
+ *
+ * <p>Execução: {@code mvn test-compile} e depois rodar {@link #main(String[])} com o
+ * classpath de teste (IDE ou {@code java -cp target/test-classes:target/classes:<deps>}).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RastreamentoBenchmark {
+
+    private static final String SQL = "insert into inscricoes (aluno_matricula,turma_id,id) values (?,?,?)";
+
+    private static final FilterChain REQUISICAO = (request, response) -> {
+        int controller = Rastreamento.abrir(Camada.CONTROLLER, "InscricaoController.cadastrarInscricao");
+        int servico = Rastreamento.abrir(Camada.SERVICO, "InscricaoRepositoryService.cadastrarInscricao");
+        Rastreamento.registrar(Camada.CONEXAO, "getConnection", System.nanoTime());
+        for (int i = 0; i < 8; i++) {
+            Rastreamento.sql(SQL);
+        }
+        for (int i = 0; i < 2; i++) {
+            Rastreamento.fechar(Rastreamento.abrir(Camada.FLUSH, "flush"));
+        }
+        Rastreamento.fechar(servico);
+        Rastreamento.fechar(controller);
+        Rastreamento.fechar(Rastreamento.abrir(Camada.JSON, "escrita da resposta"));
+    };
+
+    private RastreamentoFilter amostrado;
+    private RastreamentoFilter tudo;
+
+    /** O filtro remove o próprio atributo no fim, então a mesma requisição serve para todas as chamadas. */
+    @State(Scope.Thread)
+    public static class Troca {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/inscricao");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+    }
+
+    @Setup
+    public void preparar() {
+        amostrado = filtro(0.01);
+        tudo = filtro(1.0);
+    }
+
+    @Benchmark
+    public void semFiltro(Troca troca) throws ServletException, IOException {
+        REQUISICAO.doFilter(troca.request, troca.response);
+    }
+
+    @Benchmark
+    public void amostragemDeProducao(Troca troca) throws ServletException, IOException {
+        amostrado.doFilter(troca.request, troca.response, REQUISICAO);
+    }
+
+    @Benchmark
+    public void todasRastreadas(Troca troca) throws ServletException, IOException {
+        tudo.doFilter(troca.request, troca.response, REQUISICAO);
+    }
+
+    private static RastreamentoFilter filtro(double amostragem) {
+        RastreamentoProperties properties = new RastreamentoProperties();
+        properties.setAmostragem(amostragem);
+        return new RastreamentoFilter(properties, new AnelRastros(properties));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RastreamentoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
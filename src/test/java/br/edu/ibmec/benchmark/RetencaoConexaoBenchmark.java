@@ -0,0 +1,103 @@
+package br.edu.ibmec.benchmark;
+
+import br.edu.ibmec.config.RetencaoConexaoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Custo do {@link RetencaoConexaoDataSource} numa leitura por chave como a de
+ * {@code GET /api/inscricao/...}: empréstimo do pool, transação somente leitura, um SELECT e
+ * devolução. {@code direta} usa o Hikari sem nada na frente; {@code medida} põe a medição de
+ * retenção; {@code aplicacao} é a pilha da aplicação, com o {@code LazyConnectionDataSourceProxy}
+ * por fora. H2 em memória, fora de requisição HTTP (endpoint {@code nenhum}).
+ *
+ * <p>Execução: {@code mvn test-compile} e depois rodar {@link #main(String[])} com o
+ * classpath de teste.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RetencaoConexaoBenchmark {
+
+    private static final int LINHAS = 10_000;
+
+    @Param({"direta", "medida", "aplicacao"})
+    public String pilha;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+
+    @Setup
+    public void preparar() throws SQLException {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:retencao;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(4);
+        try (Connection conexao = pool.getConnection(); Statement comando = conexao.createStatement()) {
+            comando.execute("create table inscricoes (id bigint primary key, aluno_matricula int, turma_id bigint)");
+            comando.execute("insert into inscricoes select x, x, x % 100 from system_range(1, " + LINHAS + ")");
+        }
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource = switch (pilha) {
+            case "direta" -> pool;
+            case "medida" -> new RetencaoConexaoDataSource(pool, registry);
+            default -> new LazyConnectionDataSourceProxy(new RetencaoConexaoDataSource(pool, registry));
+        };
+    }
+
+    @TearDown
+    public void encerrar() {
+        pool.close();
+    }
+
+    @Benchmark
+    public long leituraPorChave() throws SQLException {
+        try (Connection conexao = dataSource.getConnection()) {
+            conexao.setAutoCommit(false);
+            conexao.setReadOnly(true);
+            long matricula;
+            try (PreparedStatement consulta = conexao.prepareStatement(
+                    "select aluno_matricula, turma_id from inscricoes where id = ?")) {
+                consulta.setLong(1, 1 + ThreadLocalRandom.current().nextInt(LINHAS));
+                try (ResultSet linha = consulta.executeQuery()) {
+                    linha.next();
+                    matricula = linha.getInt(1) + linha.getLong(2);
+                }
+            }
+            conexao.commit();
+            conexao.setReadOnly(false);
+            conexao.setAutoCommit(true);
+            return matricula;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RetencaoConexaoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package br.edu.ibmec.benchmark;
+
+import br.edu.ibmec.config.CamposEsparsosConfig;
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.json.FormatoJson;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Listagem de {@value #LINHAS} inscrições a partir das linhas de projeção: o caminho antigo
+ * ({@code InscricaoDTO.builder()} por linha e {@code ObjectMapper} com o filtro de campos)
+ * contra o {@link FormatoJson}, que escreve as linhas direto no gerador. Os tempos saem por
+ * linha ({@code @OperationsPerInvocation}); rodar com {@code -prof gc} e dividir
+ * {@code gc.alloc.rate.norm} por {@value #LINHAS} para ter bytes alocados por linha. A saída
+ * é descartada, como se fosse o socket.
+ *
+ * <p>Execução: {@code mvn test-compile} e depois rodar {@link #main(String[])} com o
+ * classpath de teste.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(SerializacaoLinhasBenchmark.LINHAS)
+public class SerializacaoLinhasBenchmark {
+
+    static final int LINHAS = 10_000;
+
+    private ObjectMapper objectMapper;
+    private List<Object[]> linhas;
+
+    @Setup
+    public void preparar() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new CamposEsparsosConfig().camposEsparsos().customize(builder);
+        objectMapper = builder.build();
+        linhas = new ArrayList<>(LINHAS);
+        for (int i = 0; i < LINHAS; i++) {
+            linhas.add(new Object[] {(long) i + 1, 2_024_000 + i, 100 + i % 300, 2025, 1 + i % 2});
+        }
+    }
+
+    @Benchmark
+    public void dtoEObjectMapper() throws IOException {
+        List<InscricaoDTO> inscricoes = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            inscricoes.add(InscricaoDTO.builder()
+                    .id((Long) linha[0])
+                    .alunoMatricula((Integer) linha[1])
+                    .turmaCodigo((Integer) linha[2])
+                    .ano((Integer) linha[3])
+                    .semestre((Integer) linha[4])
+                    .build());
+        }
+        objectMapper.writeValue(OutputStream.nullOutputStream(), inscricoes);
+    }
+
+    @Benchmark
+    public void linhasDiretoNoGerador() throws IOException {
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream(), JsonEncoding.UTF8)) {
+            FormatoJson.INSCRICAO.escrever(gerador, linhas, Campos.TODOS);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SerializacaoLinhasBenchmark.class.getSimpleName()).build()).run();
+    }
+}
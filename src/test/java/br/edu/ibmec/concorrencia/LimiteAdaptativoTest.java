@@ -0,0 +1,69 @@
+package br.edu.ibmec.concorrencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Relógio simulado: uma liberação por milissegundo, com {@code emUso} fixo no limite inicial. */
+class LimiteAdaptativoTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LimiteAdaptativo limite = new LimiteAdaptativo(10, 2, 100, 2.0, 0.9);
+    private long agora = 1_000 * MS;
+
+    @Test
+    void cresceComLatenciaEstavelEReduzUmaVezPorJanelaQuandoElaSobe() {
+        ocupar(10);
+        assertFalse(limite.tentarAdquirir());
+
+        // Latência estável e limite em uso: cresce ~1/limite por liberação (l² ≈ 10² + 2n).
+        liberarEReocupar(100, 5 * MS);
+        assertEquals(17, limite.getLimite());
+
+        // Latência 4x a base: a média curta passa de 2x em poucas amostras e o limite cai
+        // 10% por vez, com pelo menos uma janela (a média curta, >10 ms) entre as quedas.
+        int anterior = limite.getLimite();
+        int ultimaQueda = -100;
+        for (int i = 0; i < 100; i++) {
+            liberarEReocupar(1, 20 * MS);
+            int atual = limite.getLimite();
+            if (atual < anterior) {
+                assertTrue(i - ultimaQueda > 10, "duas quedas na mesma janela");
+                assertEquals((int) (anterior * 0.9), atual, 1);
+                ultimaQueda = i;
+            }
+            assertTrue(atual <= anterior);
+            anterior = atual;
+        }
+        assertTrue(limite.getLimite() < 17 && limite.getLimite() >= 2);
+        assertEquals(10, limite.getEmAndamento());
+    }
+
+    @Test
+    void liberacaoSemAmostraNaoMexeNoLimite() {
+        ocupar(10);
+        for (int i = 0; i < 10; i++) {
+            limite.liberarSemAmostra();
+        }
+        assertEquals(10, limite.getLimite());
+        assertEquals(0, limite.getEmAndamento());
+    }
+
+    private void ocupar(int vagas) {
+        for (int i = 0; i < vagas; i++) {
+            assertTrue(limite.tentarAdquirir());
+        }
+    }
+
+    private void liberarEReocupar(int vezes, long rtt) {
+        for (int i = 0; i < vezes; i++) {
+            agora += MS;
+            limite.liberar(rtt, agora);
+            assertTrue(limite.tentarAdquirir());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.edu.ibmec.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+class RetencaoConexaoDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DataSource dataSource = new RetencaoConexaoDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:retencao;DB_CLOSE_DELAY=-1"), registry);
+
+    @AfterEach
+    void limparRequisicao() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void registraUmaVezPorConexaoDoEmprestimoAoClose() throws Exception {
+        Connection conexao = dataSource.getConnection();
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("select 1");
+        }
+        Thread.sleep(20);
+        conexao.close();
+        conexao.close();
+
+        Timer timer = timer(RetencaoConexaoDataSource.FORA_DE_REQUISICAO);
+        assertEquals(1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertTrue(conexao.isClosed());
+    }
+
+    @Test
+    void endpointEhMetodoMaisPadraoDoMapeamento() throws SQLException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/inscricao/1/2/2025/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/inscricao/{matricula}/{codigo}/{ano}/{semestre}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        dataSource.getConnection().close();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("POST", "/x")));
+        dataSource.getConnection().close();
+
+        assertEquals(1, timer("GET /api/inscricao/{matricula}/{codigo}/{ano}/{semestre}").count());
+        assertEquals(1, timer("POST sem-mapeamento").count());
+    }
+
+    @Test
+    void proxyRepassaChamadasEErrosDoDriver() throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Connection outra = dataSource.getConnection()) {
+            assertEquals(conexao, conexao);
+            assertNotEquals(conexao, outra);
+            assertEquals(System.identityHashCode(conexao), conexao.hashCode());
+            // A exceção do driver sai como veio, não embrulhada pelo proxy.
+            try (Statement comando = conexao.createStatement()) {
+                assertThrows(SQLException.class, () -> comando.execute("select * from tabela_inexistente"));
+            }
+        }
+    }
+
+    @Test
+    void atrasDoProxyPreguicosoSoContaConexaoQueExecutouSql() throws SQLException {
+        // Na primeira vez o proxy lê os padrões de autocommit e isolamento numa conexão de verdade.
+        LazyConnectionDataSourceProxy preguicoso = new LazyConnectionDataSourceProxy(dataSource);
+        preguicoso.getConnection().close();
+        Timer timer = timer(RetencaoConexaoDataSource.FORA_DE_REQUISICAO);
+        long antes = timer.count();
+        try (Connection conexao = preguicoso.getConnection()) {
+            conexao.setAutoCommit(false);
+            conexao.setReadOnly(true);
+        }
+        assertEquals(antes, timer.count());
+
+        try (Connection conexao = preguicoso.getConnection(); Statement comando = conexao.createStatement()) {
+            comando.execute("select 1");
+        }
+        assertEquals(antes + 1, timer.count());
+    }
+
+    private Timer timer(String endpoint) {
+        return registry.get(RetencaoConexaoDataSource.METRICA).tag("endpoint", endpoint).timer();
+    }
+}
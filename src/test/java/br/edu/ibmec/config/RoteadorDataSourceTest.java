@@ -0,0 +1,141 @@
+package br.edu.ibmec.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Roteamento com duas instâncias H2 em memória fazendo papel de primário e réplica. */
+class RoteadorDataSourceTest {
+
+    private static final String PRIMARIO = "jdbc:h2:mem:primario";
+    private static final String REPLICA = "jdbc:h2:mem:replica";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void limparTransacao() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void leituraVaiParaReplicaEEscritaParaPrimario() throws SQLException {
+        RoteadorDataSource roteador = new RoteadorDataSource(h2(PRIMARIO), List.of(h2(REPLICA)),
+                TimeUnit.SECONDS.toNanos(10), registry);
+        DataSource dataSource = proxy(roteador);
+
+        assertEquals(PRIMARIO, url(dataSource));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(REPLICA, url(dataSource));
+
+        assertEquals(1.0, contador("primario", "sucesso"));
+        assertEquals(1.0, contador("replica-0", "sucesso"));
+    }
+
+    @Test
+    void replicaForaDoArCaiParaPrimarioEFicaEmQuarentena() throws SQLException {
+        DriverManagerDataSource foraDoAr = h2("jdbc:h2:file:/caminho/inexistente/replica;IFEXISTS=TRUE");
+        RoteadorDataSource roteador = new RoteadorDataSource(h2(PRIMARIO), List.of(foraDoAr),
+                TimeUnit.SECONDS.toNanos(10), registry);
+        DataSource dataSource = proxy(roteador);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(PRIMARIO, url(dataSource));
+        assertEquals(PRIMARIO, url(dataSource));
+
+        assertEquals(1.0, contador("replica-0", "falha"));
+        assertEquals(2.0, registry.get("universidade.datasource.fallback").counter().count());
+        assertEquals(0.0, registry.get("universidade.datasource.disponivel").tag("alvo", "replica-0").gauge().value());
+    }
+
+    /**
+     * Como na aplicação: JpaTransactionManager sobre o proxy preguiçoso. O begin do Hibernate
+     * pede a conexão antes de a transação ser marcada readOnly; sem o proxy ela iria sempre
+     * ao primário.
+     */
+    @Test
+    void transacaoJpaReadOnlyVaiParaReplicaEEscritaParaPrimario() {
+        RoteadorDataSource roteador = new RoteadorDataSource(h2(PRIMARIO), List.of(h2(REPLICA)),
+                TimeUnit.SECONDS.toNanos(10), registry);
+        EntityManagerFactory emf = entityManagerFactory(proxy(roteador));
+        try {
+            JpaTransactionManager transactionManager = new JpaTransactionManager(emf);
+            TransactionTemplate escrita = new TransactionTemplate(transactionManager);
+            TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+            leitura.setReadOnly(true);
+
+            assertEquals(REPLICA, leitura.execute(status -> urlNaTransacao(emf)));
+            assertEquals(PRIMARIO, escrita.execute(status -> urlNaTransacao(emf)));
+            // O readOnly interno participa da transação de escrita: mesma conexão, no primário.
+            assertEquals(List.of(PRIMARIO, PRIMARIO), escrita.execute(status -> List.of(
+                    urlNaTransacao(emf), leitura.execute(interno -> urlNaTransacao(emf)))));
+
+            assertEquals(2.0, contador("primario", "sucesso"));
+            assertEquals(1.0, contador("replica-0", "sucesso"));
+        } finally {
+            emf.close();
+        }
+    }
+
+    private double contador(String alvo, String resultado) {
+        return registry.get("universidade.datasource.conexoes").tag("alvo", alvo).tag("resultado", resultado)
+                .counter().count();
+    }
+
+    /** Defaults fixos evitam que o proxy abra uma conexão extra só para descobri-los. */
+    private static DataSource proxy(RoteadorDataSource roteador) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.setTargetDataSource(roteador);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    private static String url(DataSource dataSource) throws SQLException {
+        try (Connection conexao = dataSource.getConnection()) {
+            return conexao.getMetaData().getURL();
+        }
+    }
+
+    /** URL da conexão que o Hibernate usa na transação corrente, como num repositório. */
+    private static String urlNaTransacao(EntityManagerFactory emf) {
+        Session sessao = EntityManagerFactoryUtils.getTransactionalEntityManager(emf).unwrap(Session.class);
+        return sessao.doReturningWork(conexao -> conexao.getMetaData().getURL());
+    }
+
+    /** Hibernate sem entidades sobre o datasource, sem ler metadados do banco na subida. */
+    private static EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean fabrica = new LocalContainerEntityManagerFactoryBean();
+        fabrica.setDataSource(dataSource);
+        fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        fabrica.setPackagesToScan(RoteadorDataSourceTest.class.getPackageName());
+        fabrica.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.boot.allow_jdbc_metadata_access", "false",
+                "hibernate.hbm2ddl.auto", "none"));
+        fabrica.afterPropertiesSet();
+        return fabrica.getObject();
+    }
+
+    private static DriverManagerDataSource h2(String url) {
+        return new DriverManagerDataSource(url, "sa", "");
+    }
+}
@@ -0,0 +1,79 @@
+package br.edu.ibmec.controller;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.dto.TurmaDTO;
+import br.edu.ibmec.service.CursoRepositoryService;
+import br.edu.ibmec.service.DisciplinaRepositoryService;
+import br.edu.ibmec.service.ProfessorRepositoryService;
+import br.edu.ibmec.service.TurmaRepositoryService;
+import br.edu.ibmec.universidade.UniversidadeApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(classes = UniversidadeApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CamposEsparsosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CursoRepositoryService cursoService;
+
+    @Autowired
+    private DisciplinaRepositoryService disciplinaService;
+
+    @Autowired
+    private ProfessorRepositoryService professorService;
+
+    @Autowired
+    private TurmaRepositoryService turmaService;
+
+    @Test
+    void respostaTrazSoOsCamposPedidos() throws Exception {
+        cursoService.cadastrarCurso(new CursoDTO(42001, "Curso Esparso"));
+        disciplinaService.cadastrarDisciplina(new DisciplinaDTO(42002, "Disciplina Esparsa", 42001));
+        professorService.cadastrarProfessor(new ProfessorDTO(42003L, "Professor Esparso"));
+        turmaService.cadastrarTurma(new TurmaDTO(42004, 2026, 1, 42002, 42003L));
+
+        mockMvc.perform(get("/api/curso/42001").param("fields", "nome"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"nome\":\"Curso Esparso\"}", true));
+        mockMvc.perform(get("/api/curso/42001"))
+                .andExpect(content().json("{\"codigo\":42001,\"nome\":\"Curso Esparso\"}", true));
+        // Em lote o filtro vale para o DTO dentro de cada item.
+        mockMvc.perform(get("/api/turma").param("turmas", "42004/2026/1,42005/2026/1").param("fields", "codigo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].valor").value(aMapWithSize(1)))
+                .andExpect(jsonPath("$[0].valor.codigo").value(42004))
+                .andExpect(jsonPath("$[1].encontrado").value(false));
+        mockMvc.perform(get("/api/curso").param("fields", "codigo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.codigo == 42001)]").isNotEmpty())
+                .andExpect(jsonPath("$[?(@.codigo == 42001)].nome").isEmpty());
+    }
+
+    @Test
+    void campoDesconhecidoDa400() throws Exception {
+        mockMvc.perform(get("/api/curso/1").param("fields", "nome,senha"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Campo desconhecido em fields: senha"));
+        mockMvc.perform(get("/api/professor").param("ids", "1,2").param("fields", "matricula"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/curso").param("fields", "senha"))
+                .andExpect(status().isBadRequest());
+    }
+}
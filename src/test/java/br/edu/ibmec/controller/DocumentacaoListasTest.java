@@ -0,0 +1,36 @@
+package br.edu.ibmec.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.edu.ibmec.universidade.UniversidadeApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** As listagens respondem {@code LinhasJson}, mas a documentação mostra o array do DTO. */
+@SpringBootTest(classes = UniversidadeApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DocumentacaoListasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void listagensDocumentamArrayDoDto() throws Exception {
+        mockMvc.perform(get("/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paths['/api/curso'].get.responses['200'].content.*.schema.items['$ref']")
+                        .value("#/components/schemas/CursoDTO"))
+                .andExpect(jsonPath("$.paths['/api/turma/{codigo}/{ano}/{semestre}/alunos'].get.responses['200'].content.*.schema.items['$ref']")
+                        .value("#/components/schemas/AlunoNaTurmaDTO"))
+                .andExpect(jsonPath("$.paths['/api/inscricao/aluno/{matricula}'].get.responses['200'].content.*.schema.items['$ref']")
+                        .value("#/components/schemas/InscricaoDTO"))
+                .andExpect(jsonPath("$.components.schemas.LinhasJson").doesNotExist());
+    }
+}
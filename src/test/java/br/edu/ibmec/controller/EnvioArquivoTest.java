@@ -0,0 +1,85 @@
+package br.edu.ibmec.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Sem o atributo de sendfile do Tomcat, o corpo sai pelo {@code transferTo} para a resposta. */
+class EnvioArquivoTest {
+
+    private static final String ETAG = "\"0123456789abcdef\"";
+
+    @TempDir
+    Path diretorio;
+
+    private Path arquivo;
+    private byte[] conteudo;
+
+    @BeforeEach
+    void criarArquivo() throws IOException {
+        conteudo = new byte[1000];
+        for (int i = 0; i < conteudo.length; i++) {
+            conteudo[i] = (byte) i;
+        }
+        arquivo = Files.write(diretorio.resolve("turma-1.csv.gz"), conteudo);
+    }
+
+    @Test
+    void enviaOArquivoInteiroOuUmIntervalo() throws IOException {
+        MockHttpServletResponse inteiro = enviar(new MockHttpServletRequest("GET", "/"));
+        assertEquals(200, inteiro.getStatus());
+        assertEquals(ETAG, inteiro.getHeader("ETag"));
+        assertEquals("bytes", inteiro.getHeader("Accept-Ranges"));
+        assertArrayEquals(conteudo, inteiro.getContentAsByteArray());
+
+        MockHttpServletRequest comRange = new MockHttpServletRequest("GET", "/");
+        comRange.addHeader("Range", "bytes=100-199");
+        comRange.addHeader("If-Range", ETAG);
+        MockHttpServletResponse parcial = enviar(comRange);
+        assertEquals(206, parcial.getStatus());
+        assertEquals("bytes 100-199/1000", parcial.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(conteudo, 100, 200), parcial.getContentAsByteArray());
+
+        MockHttpServletRequest sufixo = new MockHttpServletRequest("GET", "/");
+        sufixo.addHeader("Range", "bytes=-10");
+        assertArrayEquals(Arrays.copyOfRange(conteudo, 990, 1000), enviar(sufixo).getContentAsByteArray());
+
+        // If-Range de outra versão: o arquivo todo, não um pedaço dele.
+        MockHttpServletRequest versaoVelha = new MockHttpServletRequest("GET", "/");
+        versaoVelha.addHeader("Range", "bytes=100-199");
+        versaoVelha.addHeader("If-Range", "\"fedcba9876543210\"");
+        assertEquals(1000, enviar(versaoVelha).getContentAsByteArray().length);
+    }
+
+    @Test
+    void respondeNaoModificadoEIntervaloForaDoArquivo() throws IOException {
+        MockHttpServletRequest condicional = new MockHttpServletRequest("GET", "/");
+        condicional.addHeader("If-None-Match", ETAG);
+        MockHttpServletResponse naoModificado = enviar(condicional);
+        assertEquals(304, naoModificado.getStatus());
+        assertEquals(0, naoModificado.getContentAsByteArray().length);
+
+        MockHttpServletRequest foraDoArquivo = new MockHttpServletRequest("GET", "/");
+        foraDoArquivo.addHeader("Range", "bytes=1000-");
+        MockHttpServletResponse invalido = enviar(foraDoArquivo);
+        assertEquals(416, invalido.getStatus());
+        assertEquals("bytes */1000", invalido.getHeader("Content-Range"));
+        assertNull(invalido.getContentType());
+    }
+
+    private MockHttpServletResponse enviar(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        EnvioArquivo.enviar(arquivo, ETAG, "application/gzip", "turma-1.csv.gz", request, response);
+        return response;
+    }
+}
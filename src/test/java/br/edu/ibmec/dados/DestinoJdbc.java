@@ -0,0 +1,129 @@
+package br.edu.ibmec.dados;
+
+import br.edu.ibmec.dados.GeradorDados.Destino;
+import br.edu.ibmec.dados.GeradorDados.Tabela;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Grava as linhas do {@link GeradorDados} com {@code addBatch}, executando e confirmando a
+ * cada {@code lote} linhas. Uma tabela por vez, na ordem das chaves estrangeiras; no fim,
+ * a lista de alunos por turma ({@code turma_alunos}) sai das inscrições num INSERT ... SELECT.
+ */
+class DestinoJdbc implements Destino, AutoCloseable {
+
+    private static final String LISTAS_DAS_TURMAS = "turma_alunos";
+
+    private final Connection conexao;
+    private final int lote;
+    private final boolean autoCommitOriginal;
+    private Tabela atual;
+    private PreparedStatement insert;
+    private int pendentes;
+
+    DestinoJdbc(Connection conexao, int lote) throws SQLException {
+        this.conexao = conexao;
+        this.lote = lote;
+        this.autoCommitOriginal = conexao.getAutoCommit();
+        conexao.setAutoCommit(false);
+    }
+
+    /** Ids de turma são lidos de volta pela ordem de inserção, o que só vale com as tabelas vazias. */
+    void exigirVazias() throws SQLException {
+        try (Statement consulta = conexao.createStatement()) {
+            for (Tabela tabela : Tabela.values()) {
+                exigirVazia(consulta, tabela.nome());
+            }
+            exigirVazia(consulta, LISTAS_DAS_TURMAS);
+        }
+    }
+
+    /** Mesma cópia que o script manual {@code db/manual/03_turma_alunos.sql} faz das inscrições ativas. */
+    void preencherListasDasTurmas() throws SQLException {
+        try (Statement insert = conexao.createStatement()) {
+            insert.executeUpdate("insert into " + LISTAS_DAS_TURMAS
+                    + " (turma_codigo, turma_ano, turma_semestre, aluno_matricula, aluno_nome, curso_nome)"
+                    + " select t.codigo, t.ano, t.semestre, a.matricula, a.nome, c.nome from inscricoes i"
+                    + " join turmas t on t.id = i.turma_id join alunos a on a.matricula = i.aluno_matricula"
+                    + " join cursos c on c.codigo = a.curso_codigo");
+            conexao.commit();
+        }
+    }
+
+    private static void exigirVazia(Statement consulta, String tabela) throws SQLException {
+        try (ResultSet linhas = consulta.executeQuery("select count(*) from " + tabela)) {
+            linhas.next();
+            if (linhas.getLong(1) > 0) {
+                throw new IllegalStateException("A tabela " + tabela + " não está vazia");
+            }
+        }
+    }
+
+    @Override
+    public void inserir(Tabela tabela, Object... valores) throws SQLException {
+        if (tabela != atual) {
+            concluir(atual);
+            atual = tabela;
+            insert = conexao.prepareStatement(tabela.sql);
+        }
+        for (int i = 0; i < valores.length; i++) {
+            insert.setObject(i + 1, valores[i]);
+        }
+        insert.addBatch();
+        if (++pendentes == lote) {
+            executar();
+        }
+    }
+
+    @Override
+    public void concluir(Tabela tabela) throws SQLException {
+        if (tabela == null || tabela != atual) {
+            return;
+        }
+        executar();
+        insert.close();
+        insert = null;
+        atual = null;
+    }
+
+    @Override
+    public long[] idsDasTurmas(int quantidade) throws SQLException {
+        long[] ids = new long[quantidade];
+        int lidos = 0;
+        try (Statement consulta = conexao.createStatement();
+             ResultSet linhas = consulta.executeQuery("select id from turmas order by id")) {
+            while (linhas.next()) {
+                if (lidos == quantidade) {
+                    throw new IllegalStateException("Mais turmas no banco do que as geradas");
+                }
+                ids[lidos++] = linhas.getLong(1);
+            }
+        }
+        if (lidos != quantidade) {
+            throw new IllegalStateException("Esperadas " + quantidade + " turmas, encontradas " + lidos);
+        }
+        return ids;
+    }
+
+    private void executar() throws SQLException {
+        if (pendentes > 0) {
+            insert.executeBatch();
+            conexao.commit();
+            pendentes = 0;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (insert != null) {
+                insert.close();
+            }
+        } finally {
+            conexao.setAutoCommit(autoCommitOriginal);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package br.edu.ibmec.dados;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import javax.sql.DataSource;
+import lombok.Builder;
+
+/**
+ * Massa de dados sintética e reproduzível: cursos, disciplinas, professores, turmas de
+ * vários períodos, alunos e inscrições. A mesma {@code semente} com os mesmos parâmetros
+ * gera sempre as mesmas linhas, então benchmarks e testes de carga rodam contra o mesmo
+ * banco. A popularidade é assimétrica: alunos se concentram em alguns cursos e, dentro do
+ * curso, as inscrições seguem uma Zipf sobre as disciplinas, o que produz turmas lotadas ao
+ * lado de turmas quase vazias.
+ *
+ * <p>As tabelas precisam existir (criadas pelo Hibernate ao subir a aplicação) e estar
+ * vazias. A carga é JDBC puro em lotes de {@code lote} linhas, com um commit por lote; no
+ * MySQL use {@code rewriteBatchedStatements=true} na URL. A lista de alunos por turma
+ * ({@code turma_alunos}) é preenchida no fim, a partir das inscrições.</p>
+ *
+ * <p>Pela linha de comando, com o classpath de teste:</p>
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;deps&gt; br.edu.ibmec.dados.GeradorDados \
+ *     --url=jdbc:h2:file:./target/dados/universidade;MODE=MySQL --usuario=sa --alunos=1000000 --semente=42
+ * </pre>
+ *
+ * <p>Em testes, {@link #carregar(DataSource, Parametros)}. Índices e caches em memória da
+ * aplicação são montados na subida; carregue antes de subir o contexto.</p>
+ */
+public final class GeradorDados {
+
+    /** Parcela das inscrições de um aluno em disciplinas do próprio curso. */
+    private static final double PROPRIO_CURSO = 0.8;
+    private static final int TENTATIVAS_SEM_REPETIR = 10;
+
+    private static final String[] CURSOS = {"Administração", "Direito", "Economia", "Engenharia Civil",
+            "Engenharia de Produção", "Engenharia de Computação", "Ciência da Computação", "Sistemas de Informação",
+            "Ciências Contábeis", "Relações Internacionais", "Comunicação Social", "Psicologia", "Arquitetura",
+            "Matemática", "Estatística", "Física", "Design", "Jornalismo", "Publicidade", "Medicina"};
+    private static final String[] TEMAS = {"Cálculo", "Álgebra Linear", "Estatística", "Contabilidade", "Microeconomia",
+            "Macroeconomia", "Direito Civil", "Direito Constitucional", "Programação", "Estruturas de Dados",
+            "Banco de Dados", "Redes", "Física", "Marketing", "Finanças", "Gestão de Projetos", "Ética", "Filosofia",
+            "Sociologia", "Metodologia Científica", "Comunicação Empresarial", "Inglês Instrumental"};
+    private static final String[] NIVEIS = {"I", "II", "III", "IV"};
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela",
+            "Henrique", "Isabela", "João", "Larissa", "Lucas", "Mariana", "Mateus", "Natália", "Otávio", "Paula",
+            "Rafael", "Sofia", "Thiago", "Beatriz", "Gustavo", "Júlia", "Pedro", "Camila", "Rodrigo", "Letícia",
+            "Vinícius", "Fernanda", "Leonardo"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes",
+            "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira",
+            "Nunes", "Marques", "Machado", "Mendes", "Freitas"};
+
+    /**
+     * Tamanho e forma da massa. {@link #paraAlunos(int, long)} deriva o resto do número de
+     * alunos; {@code toBuilder()} ajusta o que for preciso.
+     *
+     * @param assimetria expoente da Zipf das disciplinas (0 = uniforme); os cursos usam a metade
+     * @param ano ano do período mais recente; os {@code periodos} anteriores vêm antes dele
+     */
+    @Builder(toBuilder = true)
+    public record Parametros(long semente, int alunos, int inscricoesPorAluno, int cursos, int disciplinasPorCurso,
+                             int professores, int turmasPorDisciplina, int periodos, int ano, int semestre,
+                             double assimetria, int lote) {
+
+        /** 1 milhão de alunos dá 50 cursos, 2 mil disciplinas, 16 mil turmas e ~10 milhões de inscrições. */
+        public static Parametros paraAlunos(int alunos, long semente) {
+            return new Parametros(semente, alunos, 10, Math.min(200, Math.max(1, alunos / 20_000)), 40,
+                    Math.max(1, alunos / 250), 2, 4, 2026, 2, 1.0, 1_000);
+        }
+    }
+
+    /** Contagem do que foi gerado. */
+    public record Resumo(int cursos, int disciplinas, int professores, int turmas, int alunos, long inscricoes) {
+    }
+
+    /** Para onde vão as linhas; o JDBC em produção de carga, memória nos testes do próprio gerador. */
+    interface Destino {
+
+        void inserir(Tabela tabela, Object... valores) throws SQLException;
+
+        /** Todas as linhas da tabela já foram enviadas. */
+        void concluir(Tabela tabela) throws SQLException;
+
+        /** Ids gerados das turmas, na ordem em que foram inseridas. */
+        long[] idsDasTurmas(int quantidade) throws SQLException;
+    }
+
+    enum Tabela {
+        CURSOS("insert into cursos (codigo, nome) values (?, ?)"),
+        DISCIPLINAS("insert into disciplinas (codigo, nome, curso_codigo) values (?, ?, ?)"),
+        PROFESSORES("insert into professores (id, nome) values (?, ?)"),
+        TURMAS("insert into turmas (codigo, ano, semestre, disciplina_codigo, professor_id) values (?, ?, ?, ?, ?)"),
+        ALUNOS("insert into alunos (matricula, nome, curso_codigo) values (?, ?, ?)"),
+        INSCRICOES("insert into inscricoes (id, aluno_matricula, turma_id) values (?, ?, ?)");
+
+        final String sql;
+
+        Tabela(String sql) {
+            this.sql = sql;
+        }
+
+        String nome() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final Parametros p;
+
+    GeradorDados(Parametros parametros) {
+        this.p = parametros;
+    }
+
+    /** Carrega a massa inteira numa conexão própria do {@code dataSource}. */
+    public static Resumo carregar(DataSource dataSource, Parametros parametros) throws SQLException {
+        try (Connection conexao = dataSource.getConnection()) {
+            return carregar(conexao, parametros);
+        }
+    }
+
+    static Resumo carregar(Connection conexao, Parametros parametros) throws SQLException {
+        try (DestinoJdbc destino = new DestinoJdbc(conexao, parametros.lote())) {
+            destino.exigirVazias();
+            Resumo resumo = new GeradorDados(parametros).gerar(destino);
+            destino.preencherListasDasTurmas();
+            return resumo;
+        }
+    }
+
+    Resumo gerar(Destino destino) throws SQLException {
+        SplittableRandom raiz = new SplittableRandom(p.semente());
+        SplittableRandom aleatorio = raiz.split();
+        int disciplinas = p.cursos() * p.disciplinasPorCurso();
+
+        for (int c = 1; c <= p.cursos(); c++) {
+            int volta = (c - 1) / CURSOS.length;
+            destino.inserir(Tabela.CURSOS, c, CURSOS[(c - 1) % CURSOS.length] + (volta > 0 ? " " + (volta + 1) : ""));
+        }
+        destino.concluir(Tabela.CURSOS);
+
+        for (int d = 1; d <= disciplinas; d++) {
+            int curso = (d - 1) / p.disciplinasPorCurso() + 1;
+            String nome = TEMAS[aleatorio.nextInt(TEMAS.length)] + " " + NIVEIS[aleatorio.nextInt(NIVEIS.length)];
+            destino.inserir(Tabela.DISCIPLINAS, d, nome, curso);
+        }
+        destino.concluir(Tabela.DISCIPLINAS);
+
+        for (long id = 1; id <= p.professores(); id++) {
+            destino.inserir(Tabela.PROFESSORES, id, nome(aleatorio));
+        }
+        destino.concluir(Tabela.PROFESSORES);
+
+        // Turma de índice (período * disciplinas + disciplina) * turmasPorDisciplina + t, do período mais antigo ao atual.
+        int turmas = p.periodos() * disciplinas * p.turmasPorDisciplina();
+        for (int periodo = 0; periodo < p.periodos(); periodo++) {
+            int[] anoSemestre = periodo(periodo);
+            for (int d = 1; d <= disciplinas; d++) {
+                for (int t = 1; t <= p.turmasPorDisciplina(); t++) {
+                    int codigo = (d - 1) * p.turmasPorDisciplina() + t;
+                    long professor = aleatorio.nextInt(p.professores()) + 1L;
+                    destino.inserir(Tabela.TURMAS, codigo, anoSemestre[0], anoSemestre[1], d, professor);
+                }
+            }
+        }
+        destino.concluir(Tabela.TURMAS);
+        long[] idsTurmas = destino.idsDasTurmas(turmas);
+
+        Zipf cursos = new Zipf(p.cursos(), p.assimetria() / 2, raiz.split());
+        int[] cursoDoAluno = new int[p.alunos()];
+        for (int a = 0; a < p.alunos(); a++) {
+            cursoDoAluno[a] = cursos.sortear(aleatorio);
+            destino.inserir(Tabela.ALUNOS, a + 1, nomeAluno(aleatorio), cursoDoAluno[a] + 1);
+        }
+        destino.concluir(Tabela.ALUNOS);
+
+        Zipf disciplinasDoCurso = new Zipf(p.disciplinasPorCurso(), p.assimetria(), raiz.split());
+        int[] escolhidas = new int[2 * p.inscricoesPorAluno() + 1];
+        long inscricoes = 0;
+        for (int a = 0; a < p.alunos(); a++) {
+            int quantidade = p.inscricoesPorAluno() / 2 + aleatorio.nextInt(p.inscricoesPorAluno() + 1);
+            int feitas = 0;
+            for (int i = 0; i < quantidade; i++) {
+                int turma = sortearTurma(aleatorio, disciplinasDoCurso, cursoDoAluno[a], disciplinas, escolhidas, feitas);
+                if (turma < 0) {
+                    continue;
+                }
+                escolhidas[feitas++] = turma;
+                destino.inserir(Tabela.INSCRICOES, ++inscricoes, a + 1, idsTurmas[turma]);
+            }
+        }
+        destino.concluir(Tabela.INSCRICOES);
+
+        return new Resumo(p.cursos(), disciplinas, p.professores(), turmas, p.alunos(), inscricoes);
+    }
+
+    /** Índice de uma turma ainda não escolhida pelo aluno, ou -1 se as tentativas acabarem. */
+    private int sortearTurma(SplittableRandom aleatorio, Zipf disciplinasDoCurso, int cursoDoAluno, int disciplinas,
+                             int[] escolhidas, int feitas) {
+        for (int tentativa = 0; tentativa < TENTATIVAS_SEM_REPETIR; tentativa++) {
+            int curso = aleatorio.nextDouble() < PROPRIO_CURSO ? cursoDoAluno : aleatorio.nextInt(p.cursos());
+            // A mesma ordem de popularidade, deslocada por curso, para o topo não ser sempre a disciplina 1.
+            int disciplina = curso * p.disciplinasPorCurso()
+                    + (disciplinasDoCurso.sortear(aleatorio) + curso * 7) % p.disciplinasPorCurso();
+            int periodo = aleatorio.nextInt(p.periodos());
+            int turma = (periodo * disciplinas + disciplina) * p.turmasPorDisciplina()
+                    + aleatorio.nextInt(p.turmasPorDisciplina());
+            if (!contem(escolhidas, feitas, turma)) {
+                return turma;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean contem(int[] valores, int quantidade, int valor) {
+        for (int i = 0; i < quantidade; i++) {
+            if (valores[i] == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Ano e semestre do período {@code indice}, contando do mais antigo (0) ao mais recente. */
+    private int[] periodo(int indice) {
+        int atras = p.periodos() - 1 - indice;
+        int semestres = p.ano() * 2 + (p.semestre() - 1) - atras;
+        return new int[] {semestres / 2, semestres % 2 + 1};
+    }
+
+    private static String nome(SplittableRandom aleatorio) {
+        return NOMES[aleatorio.nextInt(NOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+    }
+
+    /** Nome e dois sobrenomes, como os alunos da massa; usado também pelo benchmark da busca. */
+    public static String nomeAluno(SplittableRandom aleatorio) {
+        return nome(aleatorio) + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+    }
+
+    /** Zipf sobre {@code n} posições, com a ordem de popularidade embaralhada pela semente. */
+    static final class Zipf {
+
+        private final double[] acumulada;
+        private final int[] ordem;
+
+        Zipf(int n, double expoente, SplittableRandom aleatorio) {
+            acumulada = new double[n];
+            double soma = 0;
+            for (int i = 0; i < n; i++) {
+                soma += 1 / Math.pow(i + 1, expoente);
+                acumulada[i] = soma;
+            }
+            for (int i = 0; i < n; i++) {
+                acumulada[i] /= soma;
+            }
+            ordem = new int[n];
+            for (int i = 0; i < n; i++) {
+                ordem[i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = aleatorio.nextInt(i + 1);
+                int troca = ordem[i];
+                ordem[i] = ordem[j];
+                ordem[j] = troca;
+            }
+        }
+
+        int sortear(SplittableRandom aleatorio) {
+            int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+            return ordem[Math.min(posicao < 0 ? -posicao - 1 : posicao, ordem.length - 1)];
+        }
+    }
+
+    /** {@code --url=... [--usuario=sa] [--senha=] [--alunos=1000] [--semente=42] [--inscricoes-por-aluno=10] ...} */
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+            opcoes.put(partes[0], partes.length > 1 ? partes[1] : "");
+        }
+        if (!opcoes.containsKey("url")) {
+            System.err.println("Uso: GeradorDados --url=<jdbc> [--usuario=] [--senha=] [--alunos=1000] [--semente=42]"
+                    + " [--inscricoes-por-aluno=] [--cursos=] [--professores=] [--periodos=] [--ano=] [--semestre=]"
+                    + " [--assimetria=] [--lote=]");
+            System.exit(2);
+        }
+        Parametros padrao = Parametros.paraAlunos(Integer.parseInt(opcoes.getOrDefault("alunos", "1000")),
+                Long.parseLong(opcoes.getOrDefault("semente", "42")));
+        Parametros parametros = padrao.toBuilder()
+                .inscricoesPorAluno(inteiro(opcoes, "inscricoes-por-aluno", padrao.inscricoesPorAluno()))
+                .cursos(inteiro(opcoes, "cursos", padrao.cursos()))
+                .professores(inteiro(opcoes, "professores", padrao.professores()))
+                .periodos(inteiro(opcoes, "periodos", padrao.periodos()))
+                .ano(inteiro(opcoes, "ano", padrao.ano()))
+                .semestre(inteiro(opcoes, "semestre", padrao.semestre()))
+                .assimetria(Double.parseDouble(opcoes.getOrDefault("assimetria", String.valueOf(padrao.assimetria()))))
+                .lote(inteiro(opcoes, "lote", padrao.lote()))
+                .build();
+
+        long inicio = System.nanoTime();
+        try (Connection conexao = DriverManager.getConnection(opcoes.get("url"),
+                opcoes.getOrDefault("usuario", "sa"), opcoes.getOrDefault("senha", ""))) {
+            Resumo resumo = carregar(conexao, parametros);
+            System.out.printf("%s%ncarregado em %.1f s%n", resumo, (System.nanoTime() - inicio) / 1e9);
+        }
+    }
+
+    private static int inteiro(Map<String, String> opcoes, String chave, int padrao) {
+        String valor = opcoes.get(chave);
+        return valor != null ? Integer.parseInt(valor) : padrao;
+    }
+}
@@ -0,0 +1,85 @@
+package br.edu.ibmec.dados;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.dados.GeradorDados.Destino;
+import br.edu.ibmec.dados.GeradorDados.Parametros;
+import br.edu.ibmec.dados.GeradorDados.Resumo;
+import br.edu.ibmec.dados.GeradorDados.Tabela;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GeradorDadosTest {
+
+    private static final Parametros PARAMETROS = Parametros.paraAlunos(5_000, 42);
+
+    @Test
+    void mesmaSementeGeraAsMesmasLinhas() throws SQLException {
+        Memoria primeira = gerar(PARAMETROS);
+        Memoria segunda = gerar(PARAMETROS);
+        Memoria outraSemente = gerar(PARAMETROS.toBuilder().semente(7).build());
+
+        assertEquals(primeira.resumos, segunda.resumos);
+        assertNotEquals(primeira.resumos.get(Tabela.INSCRICOES), outraSemente.resumos.get(Tabela.INSCRICOES));
+        assertEquals(primeira.resumo.inscricoes(), primeira.linhas.get(Tabela.INSCRICOES).longValue());
+        assertEquals(primeira.resumo.turmas(), primeira.linhas.get(Tabela.TURMAS).intValue());
+        assertTrue(Math.abs(primeira.resumo.inscricoes() - 5_000L * 10) < 5_000, "média fora de ~10 por aluno");
+    }
+
+    @Test
+    void inscricoesSeConcentramEmPoucasTurmasSemRepetirAlunoNaTurma() throws SQLException {
+        Memoria memoria = gerar(PARAMETROS);
+
+        long[] porTurma = memoria.inscritosPorTurma.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        long total = Arrays.stream(porTurma).sum();
+        long topo = Arrays.stream(porTurma, porTurma.length - porTurma.length / 10, porTurma.length).sum();
+        // Uniforme daria 10% das inscrições nos 10% de turmas mais cheias.
+        assertTrue(topo > total / 4, "10% das turmas com só " + topo + " de " + total);
+        assertEquals(memoria.linhas.get(Tabela.INSCRICOES).longValue(), memoria.pares.size());
+    }
+
+    private static Memoria gerar(Parametros parametros) throws SQLException {
+        Memoria memoria = new Memoria();
+        memoria.resumo = new GeradorDados(parametros).gerar(memoria);
+        return memoria;
+    }
+
+    /** Guarda um resumo das linhas por tabela em vez das linhas. */
+    private static final class Memoria implements Destino {
+
+        private final Map<Tabela, Integer> resumos = new EnumMap<>(Tabela.class);
+        private final Map<Tabela, Long> linhas = new EnumMap<>(Tabela.class);
+        private final Map<Object, Long> inscritosPorTurma = new HashMap<>();
+        private final Set<String> pares = new HashSet<>();
+        private Resumo resumo;
+
+        @Override
+        public void inserir(Tabela tabela, Object... valores) {
+            resumos.merge(tabela, Arrays.hashCode(valores), (a, b) -> 31 * a + b);
+            linhas.merge(tabela, 1L, Long::sum);
+            if (tabela == Tabela.INSCRICOES) {
+                inscritosPorTurma.merge(valores[2], 1L, Long::sum);
+                pares.add(valores[1] + "/" + valores[2]);
+            }
+        }
+
+        @Override
+        public void concluir(Tabela tabela) {
+        }
+
+        @Override
+        public long[] idsDasTurmas(int quantidade) {
+            long[] ids = new long[quantidade];
+            Arrays.setAll(ids, i -> i + 1L);
+            return ids;
+        }
+    }
+}
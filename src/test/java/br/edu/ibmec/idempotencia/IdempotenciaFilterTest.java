@@ -0,0 +1,201 @@
+package br.edu.ibmec.idempotencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+/** Filtro com uma cadeia falsa que conta quantas vezes a requisição chegou ao "controller". */
+class IdempotenciaFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IdempotenciaFilter filtro = new IdempotenciaFilter(new IdempotenciaProperties(), registry,
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final AtomicInteger execucoes = new AtomicInteger();
+    private final AtomicInteger cadastros = new AtomicInteger();
+
+    /** Primeiro cadastro cria; os seguintes falham como duplicados. */
+    private final FilterChain cadastro = (request, response) -> {
+        byte[] corpo = StreamUtils.copyToByteArray(request.getInputStream());
+        execucoes.incrementAndGet();
+        int n = cadastros.incrementAndGet();
+        response.setContentType("text/plain;charset=UTF-8");
+        ((HttpServletResponse) response).setStatus(n == 1 ? 201 : 400);
+        response.getOutputStream().write((n == 1 ? "criado " : "duplicado ").getBytes(StandardCharsets.UTF_8));
+        response.getOutputStream().write(corpo);
+    };
+
+    @Test
+    void repeticaoDevolveRespostaGuardadaSemExecutarDeNovo() throws Exception {
+        MockHttpServletResponse primeira = post("chave-1", "{\"matricula\":1}", cadastro);
+        MockHttpServletResponse segunda = post("chave-1", "{\"matricula\":1}", cadastro);
+
+        assertEquals(1, execucoes.get());
+        assertEquals(201, primeira.getStatus());
+        assertEquals(201, segunda.getStatus());
+        assertEquals("criado {\"matricula\":1}", segunda.getContentAsString());
+        assertEquals("true", segunda.getHeader(IdempotenciaFilter.CABECALHO_REPETIDA));
+        assertNull(primeira.getHeader(IdempotenciaFilter.CABECALHO_REPETIDA));
+
+        assertEquals(422, post("chave-1", "{\"matricula\":2}", cadastro).getStatus());
+        assertEquals(1, execucoes.get());
+        // Sem o cabeçalho a requisição sempre executa.
+        assertEquals(400, post(null, "{\"matricula\":1}", cadastro).getStatus());
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    void respostaDeErroDoServidorNaoEGuardada() throws Exception {
+        FilterChain falha = (request, response) -> {
+            execucoes.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+        assertEquals(503, post("chave-2", "{}", falha).getStatus());
+        assertEquals(201, post("chave-2", "{}", cadastro).getStatus());
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    void repeticoesSimultaneasEsperamAPrimeira() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        FilterChain lento = (request, response) -> {
+            dentro.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cadastro.doFilter(request, response);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<MockHttpServletResponse> original = executor.submit(() -> post("chave-3", "{}", lento));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+            Future<MockHttpServletResponse> a = executor.submit(() -> post("chave-3", "{}", lento));
+            Future<MockHttpServletResponse> b = executor.submit(() -> post("chave-3", "{}", lento));
+            Thread.sleep(100);
+            liberar.countDown();
+
+            assertEquals(201, original.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(201, a.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(201, b.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(1, execucoes.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void armazemDescartaVencidasEMaisAntigasAlemDaCapacidade() {
+        AtomicLong agora = new AtomicLong();
+        ArmazemIdempotencia armazem = new ArmazemIdempotencia(2, 100, agora::get);
+        byte[] impressao = {1};
+        ArmazemIdempotencia.Resposta ok = new ArmazemIdempotencia.Resposta(201, null, new byte[0]);
+
+        armazem.concluir(armazem.reservar("a", impressao).entrada(), ok);
+        armazem.concluir(armazem.reservar("b", impressao).entrada(), ok);
+        armazem.concluir(armazem.reservar("c", impressao).entrada(), ok);
+        assertEquals(2, armazem.tamanho());
+        ArmazemIdempotencia.Reserva denovo = armazem.reservar("a", impressao);
+        assertTrue(denovo.nova());
+        armazem.concluir(denovo.entrada(), ok);
+        assertFalse(armazem.reservar("c", impressao).nova());
+
+        agora.addAndGet(100);
+        armazem.concluir(armazem.reservar("c", impressao).entrada(), ok);
+        assertEquals(1, armazem.tamanho());
+    }
+
+    @Test
+    void armazemNuncaDescartaChaveEmAndamento() {
+        AtomicLong agora = new AtomicLong();
+        ArmazemIdempotencia armazem = new ArmazemIdempotencia(2, 100, agora::get);
+        byte[] impressao = {1};
+        ArmazemIdempotencia.Resposta ok = new ArmazemIdempotencia.Resposta(201, null, new byte[0]);
+
+        ArmazemIdempotencia.Entrada a = armazem.reservar("a", impressao).entrada();
+        armazem.concluir(armazem.reservar("b", impressao).entrada(), ok);
+        armazem.reservar("c", impressao);
+        // "a" ainda executa: sai "b", a mais antiga concluída.
+        assertEquals(2, armazem.tamanho());
+        assertFalse(armazem.reservar("a", impressao).nova());
+        assertTrue(armazem.reservar("b", impressao).nova());
+        assertEquals(3, armazem.tamanho());
+
+        // Nem vencida: só sai depois de concluir.
+        agora.addAndGet(100);
+        assertFalse(armazem.reservar("a", impressao).nova());
+        armazem.concluir(a, ok);
+        assertTrue(armazem.reservar("a", impressao).nova());
+    }
+
+    @Test
+    void corpoRelidoAceitaLeituraNaoBloqueante() throws Exception {
+        FilterChain naoBloqueante = (request, response) -> {
+            ServletInputStream entrada = request.getInputStream();
+            ByteArrayOutputStream lido = new ByteArrayOutputStream();
+            AtomicInteger fim = new AtomicInteger();
+            entrada.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[4];
+                    int n;
+                    while (entrada.isReady() && (n = entrada.read(buffer)) != -1) {
+                        lido.write(buffer, 0, n);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    fim.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            assertEquals(1, fim.get());
+            ((HttpServletResponse) response).setStatus(201);
+            response.getOutputStream().write(lido.toByteArray());
+        };
+        MockHttpServletResponse resposta = post("chave-4", "{\"matricula\":4}", naoBloqueante);
+        assertEquals(201, resposta.getStatus());
+        assertEquals("{\"matricula\":4}", resposta.getContentAsString());
+    }
+
+    private MockHttpServletResponse post(String chave, String corpo, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/aluno");
+        if (chave != null) {
+            request.addHeader(IdempotenciaFilter.CABECALHO, chave);
+        }
+        request.setContentType("application/json");
+        request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, chain);
+        return response;
+    }
+}
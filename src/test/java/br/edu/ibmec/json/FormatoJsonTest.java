@@ -0,0 +1,75 @@
+package br.edu.ibmec.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import br.edu.ibmec.config.CamposEsparsosConfig;
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.AlunoNaTurmaDTO;
+import br.edu.ibmec.dto.Campos;
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.dto.TurmaDTO;
+import br.edu.ibmec.exception.ServiceException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/** A escrita por linhas tem que produzir exatamente o que o Jackson escreveria a partir dos DTOs. */
+class FormatoJsonTest {
+
+    private final ObjectMapper objectMapper = objectMapper();
+
+    @Test
+    void linhasSaemIguaisAosDTOs() throws IOException {
+        comparar(FormatoJson.ALUNO, Campos.TODOS,
+                List.of(new Object[] {2024001, "Ana \"Bia\" Souza", 3, "Engenharia"}, new Object[] {2024002, "João", 4, null}),
+                List.of(new AlunoDTO(2024001, "Ana \"Bia\" Souza", 3, "Engenharia"), new AlunoDTO(2024002, "João", 4, null)));
+        comparar(FormatoJson.INSCRICAO, Campos.TODOS,
+                List.<Object[]>of(new Object[] {7L, 2024001, 101, 2025, 1}),
+                List.of(new InscricaoDTO(7L, 2024001, 101, 2025, 1)));
+        comparar(FormatoJson.TURMA, Campos.TODOS,
+                List.<Object[]>of(new Object[] {101, 2025, 2, 12, 5L}),
+                List.of(new TurmaDTO(101, 2025, 2, 12, 5L)));
+        comparar(FormatoJson.CURSO, Campos.TODOS,
+                List.<Object[]>of(new Object[] {3, "Engenharia"}), List.of(new CursoDTO(3, "Engenharia")));
+        comparar(FormatoJson.DISCIPLINA, Campos.TODOS,
+                List.<Object[]>of(new Object[] {12, "Cálculo I", 3}), List.of(new DisciplinaDTO(12, "Cálculo I", 3)));
+        comparar(FormatoJson.PROFESSOR, Campos.TODOS,
+                List.<Object[]>of(new Object[] {5L, "Maria"}), List.of(new ProfessorDTO(5L, "Maria")));
+        comparar(FormatoJson.ALUNO_NA_TURMA, Campos.TODOS,
+                List.<Object[]>of(new Object[] {2024001, "Ana", "Engenharia"}), List.of(new AlunoNaTurmaDTO(2024001, "Ana", "Engenharia")));
+    }
+
+    @Test
+    void camposFiltramComoOFiltroDoJackson() throws IOException, ServiceException {
+        Campos campos = Campos.de("alunoMatricula,id", InscricaoDTO.class);
+        // Sem campos da turma o serviço consulta só (id, matrícula): a linha curta tem que bastar.
+        String linhas = escrever(FormatoJson.INSCRICAO, List.<Object[]>of(new Object[] {7L, 2024001}), campos);
+
+        assertEquals("[{\"id\":7,\"alunoMatricula\":2024001}]", linhas);
+        assertEquals("[]", escrever(FormatoJson.INSCRICAO, List.of(), campos));
+    }
+
+    private void comparar(FormatoJson formato, Campos campos, List<Object[]> linhas, List<?> dtos) throws IOException {
+        assertEquals(objectMapper.writeValueAsString(dtos), escrever(formato, linhas, campos));
+    }
+
+    private String escrever(FormatoJson formato, List<Object[]> linhas, Campos campos) throws IOException {
+        StringWriter saida = new StringWriter();
+        try (var gerador = objectMapper.getFactory().createGenerator(saida)) {
+            formato.escrever(gerador, linhas, campos);
+        }
+        return saida.toString();
+    }
+
+    private static ObjectMapper objectMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new CamposEsparsosConfig().camposEsparsos().customize(builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,38 @@
+package br.edu.ibmec.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SqlPorRequisicaoTest {
+
+    private final SqlPorRequisicao inspector = new SqlPorRequisicao();
+
+    @Test
+    void guardaOsComandosDeQualquerRequisicao() {
+        SqlPorRequisicao.iniciar();
+        inspector.inspect("select 1");
+        inspector.inspect("select 2");
+        SqlPorRequisicao.Captura captura = SqlPorRequisicao.encerrar();
+
+        assertEquals(2, captura.getTotal());
+        assertEquals(List.of("select 1", "select 2"), captura.getComandos());
+
+        inspector.inspect("select 3");
+        assertEquals(0, SqlPorRequisicao.encerrar().getTotal());
+    }
+
+    @Test
+    void guardaNoMaximoCinquentaEContaTodos() {
+        SqlPorRequisicao.iniciar();
+        for (int i = 0; i < 60; i++) {
+            inspector.inspect("select " + i);
+        }
+        SqlPorRequisicao.Captura captura = SqlPorRequisicao.encerrar();
+
+        assertEquals(60, captura.getTotal());
+        assertEquals(50, captura.getComandos().size());
+        assertEquals("select 49", captura.getComandos().get(49));
+    }
+}
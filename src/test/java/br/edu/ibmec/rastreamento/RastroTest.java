@@ -0,0 +1,81 @@
+package br.edu.ibmec.rastreamento;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.dto.RequisicaoLentaDTO;
+import br.edu.ibmec.dto.TrechoDTO;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RastroTest {
+
+    @Test
+    void aninhaTrechosESomaTempoExclusivoPorCamada() {
+        Rastro rastro = new Rastro("POST", "/api/inscricao", 3, 1);
+        int controller = rastro.abrir(Camada.CONTROLLER, "InscricaoController.cadastrarInscricao");
+        rastro.abrir(Camada.SERVICO, "InscricaoRepositoryService.cadastrarInscricao");
+        rastro.registrar(Camada.CONEXAO, "getConnection", System.nanoTime());
+        rastro.sql("select 1");
+        rastro.sql("select 2");
+        // Além do limite de trechos: conta como descartado e fechar(-1) não faz nada.
+        rastro.fechar(rastro.abrir(Camada.FLUSH, "flush"));
+        rastro.fechar(controller);
+        rastro.encerrar("/api/inscricao", 201);
+
+        RequisicaoLentaDTO dto = rastro.paraDTO();
+        assertEquals(List.of(0, 1, 2), dto.getTrechos().stream().map(TrechoDTO::getProfundidade).toList());
+        assertEquals(1, dto.getTrechosDescartados());
+        assertEquals(2, dto.getSqlTotal());
+        assertEquals(List.of("select 1"), dto.getSql());
+        // Fechar o controller fechou o serviço que ficou aberto dentro dele.
+        assertTrue(dto.getTrechos().stream().allMatch(trecho -> trecho.getDuracaoMs() >= 0));
+
+        assertEquals(List.of("CONTROLLER", "SERVICO", "CONEXAO", "OUTROS"), List.copyOf(dto.getTempoPorCamadaMs().keySet()));
+        double soma = dto.getTempoPorCamadaMs().values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(dto.getDuracaoMs(), soma, 1e-6);
+    }
+
+    @Test
+    void anelGuardaAsUltimasEOrdenaPelaDuracao() {
+        RastreamentoProperties properties = new RastreamentoProperties();
+        properties.setCapacidade(3);
+        AnelRastros anel = new AnelRastros(properties);
+        assertEquals(4, anel.capacidade());
+
+        // Cada rastro começa antes e termina depois do seguinte, então é mais lento que ele.
+        Rastro[] rastros = new Rastro[6];
+        for (int i = 0; i < rastros.length; i++) {
+            rastros[i] = new Rastro("GET", "/api/aluno/" + i, 10, 10);
+        }
+        for (int i = rastros.length - 1; i >= 0; i--) {
+            rastros[i].encerrar("/api/aluno/{matricula}", 200);
+        }
+        for (Rastro rastro : rastros) {
+            anel.publicar(rastro);
+        }
+
+        // Os dois primeiros foram sobrescritos.
+        assertEquals(List.of("/api/aluno/2", "/api/aluno/3", "/api/aluno/4"),
+                anel.maisLentas(3).stream().map(RequisicaoLentaDTO::getCaminho).toList());
+    }
+
+    @Test
+    void filtroNaoPublicaRequisicaoAssincrona() throws Exception {
+        RastreamentoProperties properties = new RastreamentoProperties();
+        properties.setAmostragem(1.0);
+        AnelRastros anel = new AnelRastros(properties);
+        RastreamentoFilter filtro = new RastreamentoFilter(properties, anel);
+
+        MockHttpServletRequest sse = new MockHttpServletRequest("GET", "/api/turma/1/2025/1/eventos");
+        sse.setAsyncSupported(true);
+        filtro.doFilter(sse, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        assertEquals(List.of(), anel.maisLentas(1));
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/aluno/1"), new MockHttpServletResponse(),
+                (request, response) -> { });
+        assertEquals(List.of("/api/aluno/1"), anel.maisLentas(1).stream().map(RequisicaoLentaDTO::getCaminho).toList());
+    }
+}
@@ -0,0 +1,161 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.entity.Aluno;
+import br.edu.ibmec.entity.Curso;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.repository.AlunoRepository;
+import br.edu.ibmec.repository.CursoRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.service.cache.CacheProximoInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class AlunoRepositoryServiceTest {
+
+    private static final int CHAMADAS = 16;
+
+    @Mock
+    private AlunoRepository alunoRepository;
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private InscricaoRepository inscricaoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MudancaService mudancaService;
+
+    @InjectMocks
+    private AlunoRepositoryService alunoService;
+
+    @BeforeEach
+    void criarCache() {
+        ReflectionTestUtils.setField(alunoService, "cache", new CacheProximoInt<AlunoDTO>(64));
+    }
+
+    @Test
+    void buscaRepetidaVemDoCacheAteSerInvalidada() throws Exception {
+        when(alunoRepository.findByMatricula(7)).thenReturn(aluno(7, "Ana Lima"), aluno(7, "Ana Lima Souza"));
+
+        assertEquals("Ana Lima", alunoService.buscarAluno(7).getNome());
+        assertEquals("Ana Lima", alunoService.buscarAluno(7).getNome());
+        verify(alunoRepository, times(1)).findByMatricula(7);
+
+        alunoService.invalidarCacheAposCommit();
+        assertEquals("Ana Lima Souza", alunoService.buscarAluno(7).getNome());
+        verify(alunoRepository, times(2)).findByMatricula(7);
+    }
+
+    @Test
+    void buscasSimultaneasPelaMesmaMatriculaFazemUmaSoConsulta() throws Exception {
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+        when(alunoRepository.findByMatricula(42)).thenAnswer(invocacao -> {
+            liberarConsulta.await(5, TimeUnit.SECONDS);
+            return aluno(42, "Maria Souza");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADAS);
+        try {
+            List<Future<AlunoDTO>> resultados = new ArrayList<>();
+            for (int i = 0; i < CHAMADAS; i++) {
+                resultados.add(executor.submit(() -> alunoService.buscarAluno(42)));
+            }
+            aguardarCoalescidas(CHAMADAS - 1);
+            liberarConsulta.countDown();
+
+            for (Future<AlunoDTO> resultado : resultados) {
+                assertEquals("Maria Souza", resultado.get(5, TimeUnit.SECONDS).getNome());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(alunoRepository, times(1)).findByMatricula(42);
+    }
+
+    @Test
+    void transacaoDeEscritaLeNelaMesmaSemUsarOCache() throws Exception {
+        when(alunoRepository.findByMatricula(7)).thenReturn(aluno(7, "Ana Lima"), aluno(7, "Ana Lima Souza"));
+        assertEquals("Ana Lima", alunoService.buscarAluno(7).getNome());
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals("Ana Lima Souza", alunoService.buscarAluno(7).getNome());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        // O que a transação leu não substituiu a entrada confirmada do cache.
+        assertEquals("Ana Lima", alunoService.buscarAluno(7).getNome());
+        verify(alunoRepository, times(2)).findByMatricula(7);
+    }
+
+    @Test
+    void alteracaoSemLinhaAfetadaDistingueAlunoDeCursoInexistente() {
+        when(alunoRepository.alterar(eq(7), eq("Ana"), any())).thenReturn(0);
+        when(alunoRepository.existsById(7)).thenReturn(false, true);
+
+        AlunoDTO dto = new AlunoDTO(7, " Ana ", 99, null);
+        assertThrows(DaoException.class, () -> alunoService.alterarAluno(dto));
+        assertThrows(ServiceException.class, () -> alunoService.alterarAluno(dto));
+        verify(alunoRepository, times(0)).findById(7);
+    }
+
+    @Test
+    void remocaoSemLinhaAfetadaEh404() {
+        when(alunoRepository.removerPorMatricula(7)).thenReturn(0);
+
+        assertThrows(DaoException.class, () -> alunoService.removerAluno(7));
+        verify(alunoRepository, times(0)).existsById(7);
+    }
+
+    private void aguardarCoalescidas(int esperadas) throws InterruptedException {
+        ChamadaUnica<?, ?> buscas = (ChamadaUnica<?, ?>) ReflectionTestUtils
+                .getField(alunoService, "buscas");
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (buscas.getCoalescidas() < esperadas && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertTrue(buscas.getCoalescidas() >= esperadas, "chamadas não coalesceram a tempo");
+        assertEquals(1, buscas.getExecutadas());
+    }
+
+    private static Aluno aluno(int matricula, String nome) {
+        Curso curso = new Curso();
+        curso.setCodigo(1);
+        curso.setNome("Engenharia");
+        Aluno aluno = new Aluno();
+        aluno.setMatricula(matricula);
+        aluno.setNome(nome);
+        aluno.setCurso(curso);
+        return aluno;
+    }
+}
@@ -0,0 +1,169 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.dto.PaginaMudancasDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.dto.TurmaDTO;
+import br.edu.ibmec.entity.InscricaoArquivada;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.repository.InscricaoArquivadaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
+import br.edu.ibmec.universidade.UniversidadeApplication;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Turmas de 2024/1, período sempre encerrado em relação à data de hoje. */
+@SpringBootTest(classes = UniversidadeApplication.class)
+@ActiveProfiles("test")
+class ArquivamentoInscricoesServiceTest {
+
+    @Autowired
+    private ArquivamentoInscricoesService arquivamento;
+
+    @Autowired
+    private InscricaoRepositoryService inscricaoService;
+
+    @Autowired
+    private CursoRepositoryService cursoService;
+
+    @Autowired
+    private DisciplinaRepositoryService disciplinaService;
+
+    @Autowired
+    private ProfessorRepositoryService professorService;
+
+    @Autowired
+    private TurmaRepositoryService turmaService;
+
+    @Autowired
+    private AlunoRepositoryService alunoService;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Autowired
+    private InscricaoArquivadaRepository arquivoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void inscricaoArquivadaImpedeNovaInscricaoNaMesmaTurma() throws Exception {
+        cadastrarTurmaEAlunos(35001);
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(35011L, 35005, 35004, 2024, 1));
+
+        arquivamento.arquivarPeriodosEncerrados();
+        assertFalse(inscricaoRepository.existsById(35011L));
+        assertTrue(arquivoRepository.existsById(35011L));
+
+        ServiceException erro = assertThrows(ServiceException.class,
+                () -> inscricaoService.cadastrarInscricao(new InscricaoDTO(35012L, 35005, 35004, 2024, 1)));
+        assertEquals("Aluno já inscrito nesta turma", erro.getMessage());
+
+        List<Exception> falhas = inscricaoService.cadastrarInscricoes(List.of(
+                new InscricaoDTO(35013L, 35005, 35004, 2024, 1),
+                new InscricaoDTO(35014L, 35006, 35004, 2024, 1)));
+        assertInstanceOf(ServiceException.class, falhas.get(0));
+        assertEquals("Aluno já inscrito nesta turma", falhas.get(0).getMessage());
+        assertEquals(null, falhas.get(1));
+        assertFalse(inscricaoRepository.existsById(35013L));
+        assertTrue(inscricaoRepository.existsById(35014L));
+    }
+
+    @Test
+    void parJaArquivadoNaoDuplicaNoArquivoENaoTravaOArquivamento() throws Exception {
+        cadastrarTurmaEAlunos(35101);
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(35111L, 35105, 35104, 2024, 1));
+        arquivamento.arquivarPeriodosEncerrados();
+
+        // Linha quente repetida, gravada antes da checagem no arquivo existir.
+        long turmaId = turmaRepository.findByCodigoAndAnoAndSemestre(35104, 2024, 1).getId();
+        jdbc.update("insert into inscricoes (id, aluno_matricula, turma_id) values (?, ?, ?)", 35112L, 35105, turmaId);
+
+        arquivamento.arquivarPeriodosEncerrados();
+        assertFalse(inscricaoRepository.existsById(35112L));
+        assertFalse(arquivoRepository.existsById(35112L));
+        InscricaoArquivada arquivada = arquivoRepository
+                .findByAlunoMatriculaAndTurmaCodigoAndTurmaAnoAndTurmaSemestre(35105, 35104, 2024, 1).orElseThrow();
+        assertEquals(35111L, arquivada.getId());
+    }
+
+    @Test
+    void remocaoDaDisciplinaApagaERegistraAsArquivadas() throws Exception {
+        cadastrarTurmaEAlunos(35201);
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(35211L, 35205, 35204, 2024, 1));
+        arquivamento.arquivarPeriodosEncerrados();
+        long cursor = publicarTudo();
+
+        disciplinaService.removerDisciplina(35202);
+        assertFalse(arquivoRepository.existsById(35211L));
+        assertEquals(List.of("INSCRICAO 35205/35204/2024/1", "TURMA 35204/2024/1", "DISCIPLINA 35202"), removidas(cursor));
+    }
+
+    @Test
+    void remocaoDoCursoApagaERegistraAsArquivadas() throws Exception {
+        cadastrarTurmaEAlunos(35301);
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(35311L, 35305, 35304, 2024, 1));
+        arquivamento.arquivarPeriodosEncerrados();
+        // Os alunos passam para outro curso: a remoção do curso não remove alunos.
+        cursoService.cadastrarCurso(new CursoDTO(35310, "Curso dos alunos 35301"));
+        for (int matricula = 35305; matricula <= 35306; matricula++) {
+            alunoService.alterarAluno(AlunoDTO.builder().matricula(matricula).nome("Aluno " + matricula).cursoCodigo(35310).build());
+        }
+        long cursor = publicarTudo();
+
+        cursoService.removerCurso(35301);
+        assertFalse(arquivoRepository.existsById(35311L));
+        assertEquals(List.of("INSCRICAO 35305/35304/2024/1", "TURMA 35304/2024/1", "DISCIPLINA 35302", "CURSO 35301"),
+                removidas(cursor));
+    }
+
+    private long publicarTudo() throws Exception {
+        mudancaService.publicar();
+        long cursor = 0;
+        PaginaMudancasDTO pagina;
+        do {
+            pagina = mudancaService.listarDesde(cursor, 1_000);
+            cursor = pagina.getProximoCursor();
+        } while (pagina.isTemMais());
+        return cursor;
+    }
+
+    private List<String> removidas(long cursor) throws Exception {
+        mudancaService.publicar();
+        return mudancaService.listarDesde(cursor, 1_000).getMudancas().stream()
+                .filter(mudanca -> mudanca.getOperacao().equals("REMOCAO"))
+                .map(mudanca -> mudanca.getEntidade() + " " + mudanca.getChave())
+                .toList();
+    }
+
+    private void cadastrarTurmaEAlunos(int base) throws Exception {
+        cursoService.cadastrarCurso(new CursoDTO(base, "Curso Arquivo " + base));
+        disciplinaService.cadastrarDisciplina(new DisciplinaDTO(base + 1, "Disciplina Arquivo " + base, base));
+        professorService.cadastrarProfessor(new ProfessorDTO((long) base + 2, "Professor Arquivo " + base));
+        turmaService.cadastrarTurma(new TurmaDTO(base + 3, 2024, 1, base + 1, (long) base + 2));
+        for (int matricula = base + 4; matricula <= base + 5; matricula++) {
+            alunoService.cadastrarAluno(AlunoDTO.builder().matricula(matricula).nome("Aluno " + matricula).cursoCodigo(base).build());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import br.edu.ibmec.dto.ItemLoteDTO;
+import br.edu.ibmec.exception.ServiceException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BuscaEmLoteTest {
+
+    private final BuscaEmLote buscaEmLote = new BuscaEmLote();
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(buscaEmLote, "maximo", 10);
+        ReflectionTestUtils.setField(buscaEmLote, "tamanhoIn", 2);
+    }
+
+    @Test
+    void respeitaAOrdemDoPedidoEConsultaSoOQueNaoEstaEmCache() throws ServiceException {
+        List<List<Integer>> consultas = new ArrayList<>();
+        List<ItemLoteDTO<String>> itens = buscaEmLote.buscar(List.of(5, 1, 9, 3, 1, 7, 2), String::valueOf,
+                chave -> chave == 1 ? "um" : null,
+                lote -> {
+                    consultas.add(List.copyOf(lote));
+                    Map<Integer, String> encontrados = new HashMap<>();
+                    lote.stream().filter(chave -> chave != 9).forEach(chave -> encontrados.put(chave, "v" + chave));
+                    return encontrados;
+                });
+
+        // 1 veio do cache; repetidas saem uma vez; pedaços de no máximo 2 chaves.
+        assertEquals(List.of(List.of(5, 9), List.of(3, 7), List.of(2)), consultas);
+        assertEquals(List.of("5", "1", "9", "3", "1", "7", "2"), itens.stream().map(ItemLoteDTO::getChave).toList());
+        assertEquals("v5", itens.get(0).getValor());
+        assertEquals("um", itens.get(1).getValor());
+        assertFalse(itens.get(2).isEncontrado());
+        assertNull(itens.get(2).getValor());
+        assertEquals("um", itens.get(4).getValor());
+    }
+
+    @Test
+    void recusaPedidoAcimaDoMaximo() {
+        List<Integer> chaves = new ArrayList<>();
+        for (int i = 1; i <= 11; i++) {
+            chaves.add(i);
+        }
+        assertThrows(ServiceException.class, () -> buscaEmLote.buscar(chaves, String::valueOf, lote -> Map.of()));
+    }
+}
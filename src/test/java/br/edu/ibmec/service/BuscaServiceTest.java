@@ -0,0 +1,61 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import br.edu.ibmec.dto.ResultadoBuscaDTO;
+import br.edu.ibmec.repository.AlunoRepository;
+import br.edu.ibmec.repository.ProfessorRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class BuscaServiceTest {
+
+    @Mock
+    private AlunoRepository alunoRepository;
+
+    @Mock
+    private ProfessorRepository professorRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BuscaService buscaService;
+
+    @Test
+    void alteracoesConfirmadasDuranteACargaNaoSePerdem() throws Exception {
+        List<Object[]> alunos = new ArrayList<>();
+        alunos.add(new Object[] {1, "Joana Prado"});
+        alunos.add(new Object[] {2, "Pedro Lima"});
+        when(alunoRepository.listarMatriculasENomes()).thenAnswer(invocacao -> {
+            // Commits que chegam depois da leitura, antes de o índice ser reconstruído.
+            buscaService.indexarAluno(1, "Joana Prado Souza");
+            buscaService.removerAluno(2);
+            buscaService.indexarAluno(3, "Carla Nunes");
+            return alunos;
+        });
+        when(professorRepository.listarIdsENomes()).thenReturn(List.of());
+
+        buscaService.carregarIndice();
+
+        assertEquals(List.of("Joana Prado Souza"), nomes("joana"));
+        assertTrue(nomes("pedro").isEmpty());
+        assertEquals(List.of("Carla Nunes"), nomes("carla"));
+
+        buscaService.indexarAluno(2, "Pedro Lima");
+        assertEquals(List.of("Pedro Lima"), nomes("pedro"));
+    }
+
+    private List<String> nomes(String consulta) throws Exception {
+        return buscaService.buscar(consulta, 10).stream().map(ResultadoBuscaDTO::getNome).toList();
+    }
+}
@@ -0,0 +1,294 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.exception.ServiceException;
+import br.edu.ibmec.exception.TempoEsgotadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class GrupoCommitInscricoesTest {
+
+    /** Inscrição que segura a escritora no primeiro lote enquanto a fila enche. */
+    private static final long BLOQUEADORA = 1000;
+
+    @Mock
+    private InscricaoRepositoryService inscricaoService;
+
+    @InjectMocks
+    private GrupoCommitInscricoes grupo;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberarEscritora = new CountDownLatch(1);
+    private final List<List<Long>> lotes = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService chamadores = Executors.newCachedThreadPool();
+    private boolean iniciado;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(grupo, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(grupo, "tamanhoLote", 3);
+        ReflectionTestUtils.setField(grupo, "esperaMaxima", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(grupo, "capacidadeFila", 16);
+        ReflectionTestUtils.setField(grupo, "escritoras", 1);
+        ReflectionTestUtils.setField(grupo, "tempoDesligamento", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(grupo, "esperaResultado", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void encerrar() throws InterruptedException {
+        liberarEscritora.countDown();
+        if (iniciado) {
+            grupo.encerrar();
+        }
+        chamadores.shutdownNow();
+    }
+
+    @Test
+    void juntaAteTamanhoLoteNumaChamada() throws Exception {
+        iniciar();
+        doAnswer(invocacao -> lote(invocacao.getArgument(0), List.of()))
+                .when(inscricaoService).cadastrarInscricoes(anyList());
+
+        Future<?> bloqueadora = ocuparEscritora();
+        List<Future<?>> resultados = enfileirar(1, 2, 3, 4, 5, 6);
+        liberarEscritora.countDown();
+
+        bloqueadora.get(5, TimeUnit.SECONDS);
+        for (Future<?> resultado : resultados) {
+            resultado.get(5, TimeUnit.SECONDS);
+        }
+        // A bloqueadora sai sozinha; as seis que esperavam saem em dois lotes cheios.
+        assertEquals(List.of(List.of(BLOQUEADORA), List.of(1L, 2L, 3L), List.of(4L, 5L, 6L)), lotes);
+        verify(inscricaoService, never()).cadastrarInscricao(any());
+    }
+
+    @Test
+    void cadaChamadorRecebeOProprioErroDoLote() throws Exception {
+        iniciar();
+        ServiceException jaInscrito = new ServiceException("Aluno já inscrito na turma");
+        DaoException turmaInexistente = new DaoException("Turma não encontrada");
+        doAnswer(invocacao -> lote(invocacao.getArgument(0), List.of()))
+                .doAnswer(invocacao -> {
+                    lotes.add(ids(invocacao.getArgument(0)));
+                    return new ArrayList<>(Arrays.asList(null, jaInscrito, turmaInexistente));
+                })
+                .when(inscricaoService).cadastrarInscricoes(anyList());
+
+        ocuparEscritora();
+        List<Future<?>> resultados = enfileirar(1, 2, 3);
+        liberarEscritora.countDown();
+
+        resultados.get(0).get(5, TimeUnit.SECONDS);
+        assertEquals(jaInscrito, causa(resultados.get(1)));
+        assertEquals(turmaInexistente, causa(resultados.get(2)));
+        assertEquals(List.of(1L, 2L, 3L), lotes.get(1));
+    }
+
+    @Test
+    void loteRevertidoEhRefeitoUmAUm() throws Exception {
+        iniciar();
+        ServiceException jaInscrito = new ServiceException("Aluno já inscrito na turma");
+        doAnswer(invocacao -> lote(invocacao.getArgument(0), List.of()))
+                .doThrow(new DataIntegrityViolationException("uk_inscricao_aluno_turma"))
+                .when(inscricaoService).cadastrarInscricoes(anyList());
+        doNothing().when(inscricaoService).cadastrarInscricao(dto(1));
+        doThrow(jaInscrito).when(inscricaoService).cadastrarInscricao(dto(2));
+
+        ocuparEscritora();
+        List<Future<?>> resultados = enfileirar(1, 2);
+        liberarEscritora.countDown();
+
+        resultados.get(0).get(5, TimeUnit.SECONDS);
+        assertEquals(jaInscrito, causa(resultados.get(1)));
+        verify(inscricaoService).cadastrarInscricao(dto(1));
+        verify(inscricaoService).cadastrarInscricao(dto(2));
+        assertEquals(2.0, meterRegistry.counter("universidade.inscricao.grupo.refeitas").count());
+    }
+
+    @Test
+    void esperaEsgotadaComPedidoNaFilaGravaDireto() throws Exception {
+        ReflectionTestUtils.setField(grupo, "escritoras", 0);
+        ReflectionTestUtils.setField(grupo, "esperaResultado", Duration.ofMillis(50));
+        iniciar();
+
+        grupo.cadastrar(dto(1));
+
+        verify(inscricaoService).cadastrarInscricao(dto(1));
+        assertEquals(0, fila().size());
+        assertEquals(1.0, meterRegistry.counter("universidade.inscricao.grupo.diretas").count());
+    }
+
+    @Test
+    void esperaEsgotadaComPedidoJaNaEscritoraLancaTempoEsgotado() throws Exception {
+        ReflectionTestUtils.setField(grupo, "esperaResultado", Duration.ofMillis(300));
+        iniciar();
+        CountDownLatch gravando = new CountDownLatch(1);
+        doAnswer(invocacao -> {
+            gravando.countDown();
+            liberarEscritora.await(5, TimeUnit.SECONDS);
+            return lote(invocacao.getArgument(0), List.of());
+        }).when(inscricaoService).cadastrarInscricoes(anyList());
+
+        assertThrows(TempoEsgotadoException.class, () -> grupo.cadastrar(dto(1)));
+        assertTrue(gravando.await(0, TimeUnit.SECONDS));
+        verify(inscricaoService, never()).cadastrarInscricao(any());
+    }
+
+    @Test
+    void encerrarEsperaAsEscritorasEsvaziaremAFila() throws Exception {
+        iniciar();
+        doAnswer(invocacao -> lote(invocacao.getArgument(0), List.of()))
+                .when(inscricaoService).cadastrarInscricoes(anyList());
+
+        ocuparEscritora();
+        List<Future<?>> resultados = enfileirar(1, 2);
+        Future<?> encerramento = chamadores.submit(() -> {
+            grupo.encerrar();
+            return null;
+        });
+        aguardar(() -> !(boolean) ReflectionTestUtils.getField(grupo, "aceitando"));
+
+        // Já não aceita: uma inscrição nova vai pelo caminho normal.
+        grupo.cadastrar(dto(3));
+        verify(inscricaoService).cadastrarInscricao(dto(3));
+
+        liberarEscritora.countDown();
+        encerramento.get(5, TimeUnit.SECONDS);
+        iniciado = false;
+        for (Future<?> resultado : resultados) {
+            resultado.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of(1L, 2L), lotes.get(1));
+    }
+
+    @Test
+    void encerrarGravaNoCaminhoNormalOQueSobrouNaFila() throws Exception {
+        ReflectionTestUtils.setField(grupo, "escritoras", 0);
+        iniciar();
+
+        List<Future<?>> resultados = enfileirar(1, 2);
+        grupo.encerrar();
+        iniciado = false;
+
+        for (Future<?> resultado : resultados) {
+            resultado.get(5, TimeUnit.SECONDS);
+        }
+        verify(inscricaoService).cadastrarInscricao(dto(1));
+        verify(inscricaoService).cadastrarInscricao(dto(2));
+        verify(inscricaoService, never()).cadastrarInscricoes(anyList());
+    }
+
+    private void iniciar() {
+        grupo.iniciar();
+        iniciado = true;
+    }
+
+    /** Envia a inscrição bloqueadora e espera a escritora estar presa no lote dela. */
+    private Future<?> ocuparEscritora() throws InterruptedException {
+        Future<?> bloqueadora = cadastrarEmOutraThread(BLOQUEADORA);
+        aguardar(() -> !lotes.isEmpty());
+        return bloqueadora;
+    }
+
+    /** Cadastra cada id numa thread própria, esperando um entrar na fila antes do próximo. */
+    private List<Future<?>> enfileirar(long... ids) throws InterruptedException {
+        List<Future<?>> resultados = new ArrayList<>();
+        int naFila = fila().size();
+        for (long id : ids) {
+            resultados.add(cadastrarEmOutraThread(id));
+            aguardarFila(++naFila);
+        }
+        return resultados;
+    }
+
+    private Future<?> cadastrarEmOutraThread(long id) {
+        return chamadores.submit(() -> {
+            grupo.cadastrar(dto(id));
+            return null;
+        });
+    }
+
+    /**
+     * Resposta de {@code cadastrarInscricoes}: registra o lote, segura a escritora no lote da
+     * bloqueadora e devolve {@link ServiceException} para os ids em {@code invalidas}.
+     */
+    private List<Exception> lote(List<InscricaoDTO> dtos, List<Long> invalidas) throws InterruptedException {
+        List<Long> ids = ids(dtos);
+        lotes.add(ids);
+        if (ids.contains(BLOQUEADORA)) {
+            liberarEscritora.await(5, TimeUnit.SECONDS);
+        }
+        List<Exception> falhas = new ArrayList<>();
+        for (Long id : ids) {
+            falhas.add(invalidas.contains(id) ? new ServiceException("Inscrição " + id + " inválida") : null);
+        }
+        return falhas;
+    }
+
+    private static List<Long> ids(List<InscricaoDTO> dtos) {
+        return dtos.stream().map(InscricaoDTO::getId).toList();
+    }
+
+    private void aguardarFila(int tamanho) throws InterruptedException {
+        aguardar(() -> fila().size() == tamanho);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Queue<Object> fila() {
+        return (Queue<Object>) ReflectionTestUtils.getField(grupo, "fila");
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            if (System.nanoTime() > limite) {
+                fail("Condição não atingida em 5s");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static Throwable causa(Future<?> resultado) throws Exception {
+        ExecutionException erro = assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+        return erro.getCause();
+    }
+
+    private static InscricaoDTO dto(long id) {
+        return new InscricaoDTO(id, (int) id, 7, 2025, 1);
+    }
+}
@@ -0,0 +1,107 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.dto.TurmaDTO;
+import br.edu.ibmec.entity.Turma;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.repository.AlunoNaTurmaRepository;
+import br.edu.ibmec.repository.InscricaoRepository;
+import br.edu.ibmec.repository.TurmaRepository;
+import br.edu.ibmec.universidade.UniversidadeApplication;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = UniversidadeApplication.class)
+@ActiveProfiles("test")
+class InscricaoRepositoryServiceTest {
+
+    @Autowired
+    private InscricaoRepositoryService inscricaoService;
+
+    @Autowired
+    private CursoRepositoryService cursoService;
+
+    @Autowired
+    private DisciplinaRepositoryService disciplinaService;
+
+    @Autowired
+    private ProfessorRepositoryService professorService;
+
+    @Autowired
+    private TurmaRepositoryService turmaService;
+
+    @Autowired
+    private AlunoRepositoryService alunoService;
+
+    @Autowired
+    private AlunoNaTurmaRepository alunosNaTurma;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+
+    @Test
+    void loteGravaAListaDeAlunosDasTurmasSoDasInscricoesValidas() throws Exception {
+        cursoService.cadastrarCurso(new CursoDTO(48001, "Curso Lote"));
+        disciplinaService.cadastrarDisciplina(new DisciplinaDTO(48002, "Disciplina Lote", 48001));
+        professorService.cadastrarProfessor(new ProfessorDTO(48003L, "Professor Lote"));
+        turmaService.cadastrarTurma(new TurmaDTO(48004, 2026, 2, 48002, 48003L));
+        for (int matricula = 48005; matricula <= 48007; matricula++) {
+            alunoService.cadastrarAluno(AlunoDTO.builder().matricula(matricula).nome("Aluno " + matricula).cursoCodigo(48001).build());
+        }
+
+        List<Exception> falhas = inscricaoService.cadastrarInscricoes(List.of(
+                new InscricaoDTO(48011L, 48005, 48004, 2026, 2),
+                new InscricaoDTO(48012L, 48006, 48004, 2026, 2),
+                new InscricaoDTO(48013L, 48007, 99999, 2026, 2)));
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(48014L, 48007, 48004, 2026, 2));
+
+        assertEquals(Arrays.asList(null, null), falhas.subList(0, 2));
+        assertEquals(List.of(48005, 48006, 48007), alunosNaTurma.listarDaTurma(48004, 2026, 2).stream()
+                .map(linha -> (Integer) linha[0]).toList());
+        assertEquals("Curso Lote", alunosNaTurma.listarDaTurma(48004, 2026, 2).get(0)[2]);
+    }
+
+    @Test
+    void consultasEmLoteFiltramPelaChaveInteiraDaTurma() throws Exception {
+        cursoService.cadastrarCurso(new CursoDTO(34001, "Curso Periodos"));
+        disciplinaService.cadastrarDisciplina(new DisciplinaDTO(34002, "Disciplina Periodos", 34001));
+        professorService.cadastrarProfessor(new ProfessorDTO(34003L, "Professor Periodos"));
+        // O mesmo código de turma em três períodos.
+        turmaService.cadastrarTurma(new TurmaDTO(34004, 2025, 1, 34002, 34003L));
+        turmaService.cadastrarTurma(new TurmaDTO(34004, 2025, 2, 34002, 34003L));
+        turmaService.cadastrarTurma(new TurmaDTO(34004, 2026, 2, 34002, 34003L));
+        alunoService.cadastrarAluno(AlunoDTO.builder().matricula(34005).nome("Aluno Periodos").cursoCodigo(34001).build());
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(34011L, 34005, 34004, 2025, 1));
+
+        List<Turma> turmas = turmaRepository.findByCodigoInAndAnoInAndSemestreIn(Set.of(34004), Set.of(2026), Set.of(2));
+        assertEquals(1, turmas.size());
+        assertEquals(2026, turmas.get(0).getAno());
+        assertEquals(List.of(List.of(34004, 2025, 2)), turmaRepository.listarChaves(Set.of(34004), Set.of(2025), Set.of(2))
+                .stream().map(Arrays::asList).toList());
+        assertEquals(List.of(), inscricaoRepository.listarParesAlunoTurma(Set.of(34005), Set.of(34004), Set.of(2026), Set.of(2)));
+        assertEquals(1, inscricaoRepository.listarParesAlunoTurma(Set.of(34005), Set.of(34004), Set.of(2025), Set.of(1)).size());
+
+        // Inscrito em 34004 de 2025/1 não impede 2026/2; 2024/1 não existe.
+        List<Exception> falhas = inscricaoService.cadastrarInscricoes(List.of(
+                new InscricaoDTO(34012L, 34005, 34004, 2026, 2),
+                new InscricaoDTO(34013L, 34005, 34004, 2024, 1)));
+        assertNull(falhas.get(0));
+        assertInstanceOf(DaoException.class, falhas.get(1));
+    }
+}
@@ -0,0 +1,119 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.service.InscricoesAoVivoService.Assinante;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+class InscricoesAoVivoServiceTest {
+
+    private final ExecutorService envios = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void encerrar() {
+        envios.shutdownNow();
+    }
+
+    @Test
+    void clienteLentoNaoAtrasaOsOutrosEGuardaSoOUltimoEvento() throws Exception {
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        Gravador lento = new Gravador(liberarLento);
+        Gravador rapido = new Gravador(null);
+        Assinante assinanteLento = new Assinante(lento, envios);
+        Assinante assinanteRapido = new Assinante(rapido, envios);
+
+        SseEventBuilder primeiro = SseEmitter.event().data(1);
+        SseEventBuilder segundo = SseEmitter.event().data(2);
+        SseEventBuilder terceiro = SseEmitter.event().data(3);
+        assinanteLento.oferecer(primeiro);
+        assertTrue(lento.iniciado.await(5, TimeUnit.SECONDS));
+        assinanteLento.oferecer(segundo);
+        assinanteLento.oferecer(terceiro);
+
+        // O envio preso ocupa uma thread do pool; o outro assinante recebe pela outra.
+        SseEventBuilder contagem = SseEmitter.event().data(10);
+        assinanteRapido.oferecer(contagem);
+        assertTrue(rapido.entregue.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(contagem), rapido.recebidos);
+
+        // Dez segundos depois, só o lento conta como travado (o rápido fica ocioso logo após entregar).
+        long depois = System.nanoTime() + TimeUnit.SECONDS.toNanos(11);
+        long espera = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (assinanteRapido.travado(depois, TimeUnit.SECONDS.toNanos(10)) && System.nanoTime() < espera) {
+            Thread.sleep(10);
+        }
+        assertFalse(assinanteRapido.travado(depois, TimeUnit.SECONDS.toNanos(10)));
+        assertTrue(assinanteLento.travado(depois, TimeUnit.SECONDS.toNanos(10)));
+
+        // Liberado, o lento recebe o que estava em curso e só o último dos pendentes.
+        liberarLento.countDown();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lento.recebidos.size() < 2 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(List.of(primeiro, terceiro), lento.recebidos);
+    }
+
+    @Test
+    void heartbeatNaoSubstituiContagemPendente() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Gravador emissor = new Gravador(liberar);
+        Assinante assinante = new Assinante(emissor, envios);
+
+        SseEventBuilder primeira = SseEmitter.event().data(1);
+        SseEventBuilder segunda = SseEmitter.event().data(2);
+        assinante.oferecer(primeira);
+        assertTrue(emissor.iniciado.await(5, TimeUnit.SECONDS));
+        assinante.oferecer(segunda);
+        assinante.oferecerSeVazio(SseEmitter.event().comment("ping"));
+
+        liberar.countDown();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emissor.recebidos.size() < 2 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(List.of(primeira, segunda), emissor.recebidos);
+    }
+
+    /** Emissor que grava o que recebeu; com uma trava, o primeiro envio fica preso nela. */
+    private static final class Gravador extends SseEmitter {
+
+        final List<SseEventBuilder> recebidos = new CopyOnWriteArrayList<>();
+        final CountDownLatch iniciado = new CountDownLatch(1);
+        final CountDownLatch entregue = new CountDownLatch(1);
+        private final CountDownLatch trava;
+
+        Gravador(CountDownLatch trava) {
+            this.trava = trava;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            iniciado.countDown();
+            if (trava != null) {
+                try {
+                    trava.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            recebidos.add(evento);
+            entregue.countDown();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.dto.MudancaDTO;
+import br.edu.ibmec.dto.PaginaMudancasDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.dto.TurmaDTO;
+import br.edu.ibmec.entity.Mudanca.Operacao;
+import br.edu.ibmec.universidade.UniversidadeApplication;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(classes = UniversidadeApplication.class)
+@ActiveProfiles("test")
+class MudancaServiceTest {
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private CursoRepositoryService cursoService;
+
+    @Autowired
+    private DisciplinaRepositoryService disciplinaService;
+
+    @Autowired
+    private ProfessorRepositoryService professorService;
+
+    @Autowired
+    private TurmaRepositoryService turmaService;
+
+    @Autowired
+    private AlunoRepositoryService alunoService;
+
+    @Autowired
+    private InscricaoRepositoryService inscricaoService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void cursorNaoPulaMudancaQueConfirmaDepoisDeUmaPosterior() throws Exception {
+        long cursor = publicarTudo();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        CountDownLatch gravada = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+
+        // A primeira mudança recebe o id menor, mas só confirma depois da segunda.
+        CompletableFuture<Void> lenta = CompletableFuture.runAsync(() -> transacao.executeWithoutResult(status -> {
+            mudancaService.registrar("PROFESSOR", "31001", Operacao.ALTERACAO, null);
+            gravada.countDown();
+            aguardar(confirmar);
+        }));
+        aguardar(gravada);
+        transacao.executeWithoutResult(status -> mudancaService.registrar("PROFESSOR", "31002", Operacao.ALTERACAO, null));
+
+        mudancaService.publicar();
+        PaginaMudancasDTO pagina = mudancaService.listarDesde(cursor, 1_000);
+        assertEquals(List.of("31002"), chaves(pagina.getMudancas(), "PROFESSOR"));
+
+        confirmar.countDown();
+        lenta.get(5, TimeUnit.SECONDS);
+        mudancaService.publicar();
+        PaginaMudancasDTO seguinte = mudancaService.listarDesde(pagina.getProximoCursor(), 1_000);
+        assertEquals(List.of("31001"), chaves(seguinte.getMudancas(), "PROFESSOR"));
+        assertTrue(seguinte.getProximoCursor() > pagina.getProximoCursor());
+    }
+
+    @Test
+    void remocaoDoCursoRegistraCadaFilhoRemovido() throws Exception {
+        cursoService.cadastrarCurso(new CursoDTO(31101, "Curso do aluno"));
+        cursoService.cadastrarCurso(new CursoDTO(31102, "Curso removido"));
+        disciplinaService.cadastrarDisciplina(new DisciplinaDTO(31103, "Disciplina removida", 31102));
+        professorService.cadastrarProfessor(new ProfessorDTO(31104L, "Professor Cascata"));
+        turmaService.cadastrarTurma(new TurmaDTO(31105, 2026, 1, 31103, 31104L));
+        alunoService.cadastrarAluno(AlunoDTO.builder().matricula(31106).nome("Aluno Cascata").cursoCodigo(31101).build());
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(31107L, 31106, 31105, 2026, 1));
+        long cursor = publicarTudo();
+
+        cursoService.removerCurso(31102);
+        mudancaService.publicar();
+
+        List<String> removidas = new ArrayList<>();
+        for (MudancaDTO mudanca : mudancaService.listarDesde(cursor, 1_000).getMudancas()) {
+            assertEquals("REMOCAO", mudanca.getOperacao());
+            removidas.add(mudanca.getEntidade() + " " + mudanca.getChave());
+        }
+        assertEquals(List.of("INSCRICAO 31106/31105/2026/1", "TURMA 31105/2026/1", "DISCIPLINA 31103", "CURSO 31102"),
+                removidas);
+    }
+
+    private long publicarTudo() throws Exception {
+        mudancaService.publicar();
+        long cursor = 0;
+        PaginaMudancasDTO pagina;
+        do {
+            pagina = mudancaService.listarDesde(cursor, 1_000);
+            cursor = pagina.getProximoCursor();
+        } while (pagina.isTemMais());
+        return cursor;
+    }
+
+    private static List<String> chaves(List<MudancaDTO> mudancas, String entidade) {
+        return mudancas.stream().filter(mudanca -> mudanca.getEntidade().equals(entidade)).map(MudancaDTO::getChave).toList();
+    }
+
+    private static void aguardar(CountDownLatch sinal) {
+        try {
+            assertTrue(sinal.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
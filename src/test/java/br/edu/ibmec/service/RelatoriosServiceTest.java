@@ -0,0 +1,149 @@
+package br.edu.ibmec.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.dto.AlunoDTO;
+import br.edu.ibmec.dto.CursoDTO;
+import br.edu.ibmec.dto.DisciplinaDTO;
+import br.edu.ibmec.dto.InscricaoDTO;
+import br.edu.ibmec.dto.ProfessorDTO;
+import br.edu.ibmec.dto.TurmaDTO;
+import br.edu.ibmec.exception.DaoException;
+import br.edu.ibmec.universidade.UniversidadeApplication;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Período 2024/1 acompanhado com {@code gerar}; as mudanças chegam pelo log, como no agendamento. */
+@SpringBootTest(classes = UniversidadeApplication.class)
+@ActiveProfiles("test")
+class RelatoriosServiceTest {
+
+    @Autowired
+    private RelatoriosService relatorios;
+
+    @Autowired
+    private MudancaService mudancaService;
+
+    @Autowired
+    private InscricaoRepositoryService inscricaoService;
+
+    @Autowired
+    private CursoRepositoryService cursoService;
+
+    @Autowired
+    private DisciplinaRepositoryService disciplinaService;
+
+    @Autowired
+    private ProfessorRepositoryService professorService;
+
+    @Autowired
+    private TurmaRepositoryService turmaService;
+
+    @Autowired
+    private AlunoRepositoryService alunoService;
+
+    @AfterEach
+    void restaurarRetencao() {
+        reter(Duration.ofHours(1));
+    }
+
+    @Test
+    void atualizacaoRefazSoOsRelatoriosAfetadosPelasMudancas() throws Exception {
+        cursoService.cadastrarCurso(new CursoDTO(49001, "Curso Relatório"));
+        disciplinaService.cadastrarDisciplina(new DisciplinaDTO(49002, "Disciplina Relatório", 49001));
+        professorService.cadastrarProfessor(new ProfessorDTO(49003L, "Professor Relatório"));
+        turmaService.cadastrarTurma(new TurmaDTO(49004, 2024, 1, 49002, 49003L));
+        turmaService.cadastrarTurma(new TurmaDTO(49005, 2024, 1, 49002, 49003L));
+        turmaService.cadastrarTurma(new TurmaDTO(49006, 2024, 2, 49002, 49003L));
+        for (int matricula = 49007; matricula <= 49008; matricula++) {
+            alunoService.cadastrarAluno(AlunoDTO.builder().matricula(matricula).nome("Aluno " + matricula).cursoCodigo(49001).build());
+        }
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(49011L, 49007, 49004, 2024, 1));
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(49012L, 49008, 49005, 2024, 1));
+        mudancaService.publicar();
+        relatorios.gerar(2024, 1);
+        Path turma = relatorios.relatorioDaTurma(2024, 1, 49004);
+        Path outraTurma = relatorios.relatorioDaTurma(2024, 1, 49005);
+        Path curso = relatorios.relatorioDoCurso(2024, 1, 49001);
+        assertEquals(List.of("49007,Aluno 49007,Curso Relatório"), linhas(turma));
+
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(49013L, 49008, 49004, 2024, 1));
+        // Período não acompanhado: a mudança é lida e ignorada.
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(49014L, 49007, 49006, 2024, 2));
+        mudancaService.publicar();
+        relatorios.atualizar();
+
+        Path turmaNova = relatorios.relatorioDaTurma(2024, 1, 49004);
+        assertNotEquals(turma, turmaNova);
+        assertEquals(List.of("49007,Aluno 49007,Curso Relatório", "49008,Aluno 49008,Curso Relatório"), linhas(turmaNova));
+        assertEquals(outraTurma, relatorios.relatorioDaTurma(2024, 1, 49005));
+        assertNotEquals(curso, relatorios.relatorioDoCurso(2024, 1, 49001));
+        assertEquals(3, linhas(relatorios.relatorioDoCurso(2024, 1, 49001)).size());
+        assertThrows(DaoException.class, () -> relatorios.relatorioDaTurma(2024, 2, 49006));
+
+        // Alteração de aluno refaz as turmas dele.
+        alunoService.alterarAluno(AlunoDTO.builder().matricula(49008).nome("Aluna 49008").cursoCodigo(49001).build());
+        mudancaService.publicar();
+        relatorios.atualizar();
+        assertEquals("49008,Aluna 49008,Curso Relatório", linhas(relatorios.relatorioDaTurma(2024, 1, 49005)).get(0));
+    }
+
+    @Test
+    void versaoSubstituidaSoSaiDepoisDaRetencao() throws Exception {
+        cursoService.cadastrarCurso(new CursoDTO(49101, "Curso Retenção"));
+        disciplinaService.cadastrarDisciplina(new DisciplinaDTO(49102, "Disciplina Retenção", 49101));
+        professorService.cadastrarProfessor(new ProfessorDTO(49103L, "Professor Retenção"));
+        turmaService.cadastrarTurma(new TurmaDTO(49104, 2024, 1, 49102, 49103L));
+        for (int matricula = 49105; matricula <= 49106; matricula++) {
+            alunoService.cadastrarAluno(AlunoDTO.builder().matricula(matricula).nome("Aluno " + matricula).cursoCodigo(49101).build());
+        }
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(49111L, 49105, 49104, 2024, 1));
+        mudancaService.publicar();
+        relatorios.gerar(2024, 1);
+        Path antiga = relatorios.relatorioDaTurma(2024, 1, 49104);
+
+        inscricaoService.cadastrarInscricao(new InscricaoDTO(49112L, 49106, 49104, 2024, 1));
+        mudancaService.publicar();
+        relatorios.atualizar();
+        assertNotEquals(antiga, relatorios.relatorioDaTurma(2024, 1, 49104));
+
+        // Um download da versão antiga que começou antes da troca ainda encontra o arquivo.
+        relatorios.atualizar();
+        assertTrue(Files.exists(antiga));
+
+        reter(Duration.ZERO);
+        relatorios.atualizar();
+        assertFalse(Files.exists(antiga));
+        assertTrue(Files.exists(relatorios.relatorioDaTurma(2024, 1, 49104)));
+    }
+
+    private void reter(Duration retencao) {
+        Object alvo = AopTestUtils.getTargetObject(relatorios);
+        ReflectionTestUtils.setField(alvo, "retencaoSubstituidos", retencao);
+    }
+
+    /** Linhas do CSV sem o cabeçalho. */
+    private static List<String> linhas(Path arquivo) throws IOException {
+        try (InputStream entrada = new GZIPInputStream(Files.newInputStream(arquivo))) {
+            List<String> linhas = new String(entrada.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            return linhas.subList(1, linhas.size());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.edu.ibmec.service.busca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.service.busca.IndiceNomes.Resultado;
+import br.edu.ibmec.service.busca.IndiceNomes.Tipo;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class IndiceNomesTest {
+
+    @Test
+    void ranqueiaTodosOsCandidatosAteOTetoEPrefereOMelhorCasamento() {
+        IndiceNomes indice = new IndiceNomes();
+        List<Object[]> alunos = new ArrayList<>();
+        // Muitos casamentos fracos (prefixo no segundo nome) antes do único casamento exato.
+        int fracos = IndiceNomes.LIMITE_CANDIDATOS - 1;
+        for (int i = 1; i <= fracos; i++) {
+            alunos.add(new Object[] {i, "Maria Silvana " + i});
+        }
+        alunos.add(new Object[] {fracos + 1, "Silva Souza"});
+        indice.reconstruir(Tipo.ALUNO, alunos);
+
+        List<Resultado> resultado = indice.buscar("silva", 3);
+        assertEquals(fracos + 1, resultado.get(0).id());
+        assertEquals(List.of(1L, 2L), resultado.subList(1, 3).stream().map(Resultado::id).toList());
+        assertEquals("Silva Souza", indice.buscar("SÍLVA souza", 1).get(0).nome());
+    }
+
+    @Test
+    void acimaDoTetoRanqueiaSoOsPrimeirosCandidatos() {
+        IndiceNomes indice = new IndiceNomes();
+        List<Object[]> alunos = new ArrayList<>();
+        for (int i = 1; i <= IndiceNomes.LIMITE_CANDIDATOS; i++) {
+            alunos.add(new Object[] {i, "Maria Silvana " + i});
+        }
+        alunos.add(new Object[] {IndiceNomes.LIMITE_CANDIDATOS + 1, "Silva Souza"});
+        indice.reconstruir(Tipo.ALUNO, alunos);
+
+        assertEquals(1L, indice.buscar("silva", 1).get(0).id());
+        // Um termo a mais reduz a interseção e o casamento exato volta a aparecer.
+        assertEquals("Silva Souza", indice.buscar("silva souza", 1).get(0).nome());
+    }
+
+    @Test
+    void consultaDeVariosTermosIntersectaUmaListaDeCadaTermo() {
+        IndiceNomes indice = new IndiceNomes();
+        List<Object[]> alunos = new ArrayList<>();
+        // Os dois termos são igualmente comuns, mas só aparecem juntos no último nome.
+        for (int i = 1; i <= IndiceNomes.LIMITE_CANDIDATOS; i++) {
+            alunos.add(new Object[] {2 * i - 1, "Pedro Souza " + i});
+            alunos.add(new Object[] {2 * i, "Ana Silva " + i});
+        }
+        alunos.add(new Object[] {2 * IndiceNomes.LIMITE_CANDIDATOS + 1, "Silva Souza"});
+        indice.reconstruir(Tipo.ALUNO, alunos);
+
+        assertEquals(List.of(2L * IndiceNomes.LIMITE_CANDIDATOS + 1),
+                indice.buscar("souza silva", 10).stream().map(Resultado::id).toList());
+    }
+
+    @Test
+    void reconstruirDescartaOQueNaoVeioEPreservaOutroTipo() {
+        IndiceNomes indice = new IndiceNomes();
+        indice.indexar(Tipo.ALUNO, 1, "Joana Prado");
+        indice.indexar(Tipo.PROFESSOR, 1, "Joana Castro");
+
+        List<Object[]> alunos = new ArrayList<>();
+        alunos.add(new Object[] {2, "Pedro Lima"});
+        indice.reconstruir(Tipo.ALUNO, alunos);
+
+        assertEquals(List.of(Tipo.PROFESSOR), indice.buscar("joana", 10).stream().map(Resultado::tipo).toList());
+        assertEquals(2L, indice.buscar("lima", 10).get(0).id());
+        assertEquals(2, indice.estatisticas().documentos());
+
+        indice.remover(Tipo.ALUNO, 2);
+        assertTrue(indice.buscar("pedro", 10).isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package br.edu.ibmec.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CacheProximoIntTest {
+
+    @Test
+    void bateComHashMapEnquantoNaoEnche() {
+        CacheProximoInt<String> cache = new CacheProximoInt<>(16_384);
+        Map<Integer, String> esperado = new HashMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            int chave = 1 + random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                cache.invalidar(chave);
+                esperado.remove(chave);
+            } else {
+                String valor = "v" + i;
+                cache.colocar(chave, valor, cache.marca(chave));
+                esperado.put(chave, valor);
+            }
+        }
+        for (int chave = 1; chave <= 5_000; chave++) {
+            assertEquals(esperado.get(chave), cache.get(chave));
+        }
+        assertEquals(esperado.size(), cache.tamanho());
+        assertEquals(0, cache.getExpulsoes());
+    }
+
+    @Test
+    void clockPreservaAsEntradasRelidas() {
+        CacheProximoInt<Integer> cache = new CacheProximoInt<>(1_600);
+        for (int chave = 1; chave <= 800; chave++) {
+            cache.colocar(chave, chave, cache.marca(chave));
+        }
+        // Metade das chaves é relida e ganha a segunda chance; depois uma varredura de chaves novas.
+        for (int chave = 1; chave <= 800; chave += 2) {
+            cache.get(chave);
+        }
+        for (int chave = 10_001; chave <= 11_600; chave++) {
+            cache.colocar(chave, chave, cache.marca(chave));
+        }
+
+        assertTrue(cache.tamanho() <= 1_600);
+        assertTrue(cache.getExpulsoes() > 0);
+        int relidasPresentes = 0;
+        int naoRelidasPresentes = 0;
+        for (int chave = 1; chave <= 800; chave++) {
+            if (cache.get(chave) != null) {
+                if (chave % 2 == 1) {
+                    relidasPresentes++;
+                } else {
+                    naoRelidasPresentes++;
+                }
+            }
+        }
+        assertTrue(relidasPresentes > naoRelidasPresentes,
+                "relidas: " + relidasPresentes + ", não relidas: " + naoRelidasPresentes);
+    }
+
+    @Test
+    void valorCarregadoAntesDaInvalidacaoNaoEGuardado() {
+        CacheProximoInt<String> cache = new CacheProximoInt<>(64);
+        long marca = cache.marca(42);
+        // Entre a leitura no banco e o colocar, uma alteração é confirmada e invalida a chave.
+        cache.invalidar(42);
+        cache.colocar(42, "antigo", marca);
+        assertNull(cache.get(42));
+
+        cache.colocar(42, "novo", cache.marca(42));
+        assertEquals("novo", cache.get(42));
+        cache.limpar();
+        assertNull(cache.get(42));
+    }
+}
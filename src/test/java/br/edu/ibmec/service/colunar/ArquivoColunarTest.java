@@ -0,0 +1,85 @@
+package br.edu.ibmec.service.colunar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.service.colunar.ArquivoColunar.Aluno;
+import br.edu.ibmec.service.colunar.ArquivoColunar.Inscricao;
+import br.edu.ibmec.service.colunar.ArquivoColunar.Linha;
+import br.edu.ibmec.service.colunar.ArquivoColunar.Turma;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Grava um período com vários blocos por coluna e confere as consultas contra uma busca linear. */
+class ArquivoColunarTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void consultasBatemComOsDadosGravados() throws IOException {
+        Random random = new Random(42);
+        List<Aluno> alunos = new ArrayList<>();
+        for (int matricula = 1; matricula <= 3_000; matricula++) {
+            alunos.add(new Aluno(matricula * 7, "Aluno " + (matricula % 500) + " São"));
+        }
+        List<Turma> turmas = new ArrayList<>();
+        for (int codigo = 1; codigo <= 60; codigo++) {
+            turmas.add(new Turma(codigo, "Disciplina " + (codigo % 20), "Professor " + (codigo % 9)));
+        }
+        List<Inscricao> inscricoes = new ArrayList<>();
+        long[] proximoId = {1};
+        for (Aluno aluno : alunos) {
+            random.ints(1, 61).distinct().limit(random.nextInt(6))
+                    .forEach(turma -> inscricoes.add(new Inscricao(proximoId[0]++, aluno.matricula(), turma)));
+        }
+        inscricoes.add(new Inscricao(1_000_000_000_000L, 7, 61));
+
+        Path arquivo = diretorio.resolve("inscricoes-2024-1.col");
+        long bytes = ArquivoColunar.escrever(arquivo, 2024, 1, inscricoes, alunos, turmas);
+        ArquivoColunar colunar = ArquivoColunar.abrir(arquivo);
+
+        assertEquals(2024, colunar.ano());
+        assertEquals(1, colunar.semestre());
+        assertEquals(inscricoes.size(), colunar.linhas());
+        assertEquals(bytes, colunar.bytes());
+        // Linha a linha seriam 24 bytes por inscrição (id int64 + quatro int32), fora os nomes.
+        assertTrue(bytes < inscricoes.size() * 12L, "esperado menos de 12 bytes por inscrição, foram " + bytes);
+
+        for (int codigo = 0; codigo <= 62; codigo++) {
+            int turma = codigo;
+            List<Inscricao> esperadas = inscricoes.stream().filter(inscricao -> inscricao.turma() == turma)
+                    .sorted(Comparator.comparingInt(Inscricao::matricula)).collect(Collectors.toList());
+            List<Linha> linhas = colunar.inscritosNaTurma(turma);
+            assertEquals(esperadas.size(), linhas.size());
+            for (int i = 0; i < esperadas.size(); i++) {
+                assertEquals(esperadas.get(i).id(), linhas.get(i).id());
+                assertEquals(esperadas.get(i).matricula(), linhas.get(i).matricula());
+                assertEquals("Aluno " + (esperadas.get(i).matricula() / 7 % 500) + " São", linhas.get(i).aluno());
+            }
+        }
+
+        for (int matricula = 0; matricula <= 21_010; matricula += 7) {
+            int aluno = matricula;
+            List<Inscricao> esperadas = inscricoes.stream().filter(inscricao -> inscricao.matricula() == aluno)
+                    .sorted(Comparator.comparingInt(Inscricao::turma)).collect(Collectors.toList());
+            List<Linha> linhas = colunar.turmasDoAluno(aluno);
+            assertEquals(esperadas.size(), linhas.size());
+            for (int i = 0; i < esperadas.size(); i++) {
+                assertEquals(esperadas.get(i).turma(), linhas.get(i).turma());
+                assertEquals(esperadas.get(i).id(), linhas.get(i).id());
+                if (esperadas.get(i).turma() <= 60) {
+                    assertEquals("Disciplina " + (esperadas.get(i).turma() % 20), linhas.get(i).disciplina());
+                    assertEquals("Professor " + (esperadas.get(i).turma() % 9), linhas.get(i).professor());
+                }
+            }
+        }
+    }
+}
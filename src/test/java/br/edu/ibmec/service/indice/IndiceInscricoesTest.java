@@ -0,0 +1,93 @@
+package br.edu.ibmec.service.indice;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.ibmec.entity.TurmaId;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/** Bitmaps conferidos contra um {@link TreeSet} e o índice montado com 1M de inscrições. */
+class IndiceInscricoesTest {
+
+    @Test
+    void bitmapBateComTreeSetAtravessandoAsConversoesDeConteiner() {
+        Random random = new Random(7);
+        BitmapCompactado bitmap = new BitmapCompactado();
+        TreeSet<Integer> esperado = new TreeSet<>();
+        // Valores concentrados em poucos contêineres para passar de 4096 e voltar.
+        for (int i = 0; i < 200_000; i++) {
+            int valor = random.nextInt(3) * 65_536 + random.nextInt(12_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.remove(valor), bitmap.remover(valor));
+            } else {
+                assertEquals(esperado.add(valor), bitmap.adicionar(valor));
+            }
+        }
+        assertEquals(esperado.size(), bitmap.cardinalidade());
+        assertArrayEquals(esperado.stream().mapToInt(Integer::intValue).toArray(), bitmap.paraArray());
+        for (int valor = 0; valor < 3 * 65_536; valor += 7) {
+            assertEquals(esperado.contains(valor), bitmap.contem(valor));
+        }
+
+        BitmapCompactado outro = new BitmapCompactado();
+        TreeSet<Integer> comuns = new TreeSet<>();
+        for (int i = 0; i < 30_000; i++) {
+            int valor = random.nextInt(4) * 65_536 + random.nextInt(20_000);
+            outro.adicionar(valor);
+            if (esperado.contains(valor)) {
+                comuns.add(valor);
+            }
+        }
+        assertArrayEquals(comuns.stream().mapToInt(Integer::intValue).toArray(),
+                BitmapCompactado.intersecao(bitmap, outro).paraArray());
+    }
+
+    @Test
+    void indiceComUmMilhaoDeInscricoes() {
+        int alunos = 100_000;
+        int turmas = 5_000;
+        IndiceInscricoes indice = new IndiceInscricoes();
+        for (int id = 1; id <= turmas; id++) {
+            indice.registrarTurma(id, new TurmaId(id, 2025, 1));
+        }
+        for (int matricula = 1; matricula <= alunos; matricula++) {
+            for (int k = 0; k < 10; k++) {
+                indice.adicionar(matricula, turma(matricula, k, turmas));
+            }
+        }
+
+        IndiceInscricoes.Estatisticas estatisticas = indice.estatisticas();
+        assertEquals(1_000_000, estatisticas.inscricoes());
+        assertEquals(alunos, estatisticas.alunos());
+        assertEquals(turmas, estatisticas.turmas());
+        assertTrue(estatisticas.bytesEstimados() < 24L * 1024 * 1024, "estimado: " + estatisticas.bytesEstimados());
+
+        int turma = turma(42, 3, turmas);
+        assertTrue(indice.inscrito(42, turma));
+        assertFalse(indice.inscrito(43, turma));
+        assertEquals(indice.alunosDaTurma(turma).length, indice.inscritos(turma));
+        assertEquals(10, indice.turmasDoAluno(42).length);
+        for (int matricula : indice.intersecao(turma, turma(42, 4, turmas))) {
+            assertTrue(indice.inscrito(matricula, turma) && indice.inscrito(matricula, turma(42, 4, turmas)));
+        }
+
+        indice.removerAluno(42);
+        assertFalse(indice.inscrito(42, turma));
+        assertEquals(0, indice.turmasDoAluno(42).length);
+        assertEquals(1_000_000 - 10, indice.estatisticas().inscricoes());
+        int naTurma = indice.inscritos(turma);
+        indice.removerTurma(turma);
+        assertEquals(0, indice.inscritos(turma));
+        assertEquals(-1, indice.idDaTurma(new TurmaId(turma, 2025, 1)));
+        assertEquals(1_000_000 - 10 - naTurma, indice.estatisticas().inscricoes());
+    }
+
+    /** Dez turmas distintas por aluno, espalhadas de forma determinística. */
+    private static int turma(int matricula, int k, int turmas) {
+        return (int) ((matricula * 31L + k * 499L) % turmas) + 1;
+    }
+}
@@ -0,0 +1,54 @@
+package br.edu.ibmec.service.relatorio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArquivoRelatorioTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void gravaCsvCompactadoEscapandoCampos() throws IOException {
+        Path arquivo = gravar("turma-101", new Object[] {10, "Ana \"Bia\"", "Eng, Civil"}, new Object[] {11, "João", null});
+
+        assertEquals("turma-101", ArquivoRelatorio.prefixo(arquivo));
+        try (InputStream entrada = new GZIPInputStream(Files.newInputStream(arquivo))) {
+            assertEquals("\uFEFFmatricula,nome,curso\r\n10,\"Ana \"\"Bia\"\"\",\"Eng, Civil\"\r\n11,João,\r\n",
+                    new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void mesmoConteudoMantemArquivoEEtag() throws IOException {
+        Path primeiro = gravar("curso-1", new Object[] {10, "Ana", "Eng"});
+        Path igual = gravar("curso-1", new Object[] {10, "Ana", "Eng"});
+        Path outro = gravar("curso-1", new Object[] {10, "Ana Maria", "Eng"});
+
+        assertEquals(primeiro, igual);
+        assertNotEquals(ArquivoRelatorio.etag(primeiro), ArquivoRelatorio.etag(outro));
+        // Sem temporários sobrando; a versão antiga só sai quando o serviço decide.
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(List.of(primeiro, outro).stream().sorted().toList(), arquivos.sorted().toList());
+        }
+    }
+
+    private Path gravar(String prefixo, Object[]... linhas) throws IOException {
+        try (ArquivoRelatorio arquivo = ArquivoRelatorio.criar(diretorio, prefixo, "matricula", "nome", "curso")) {
+            for (Object[] linha : linhas) {
+                arquivo.linha(linha);
+            }
+            return arquivo.concluir();
+        }
+    }
+}